@@ -0,0 +1,13 @@
+package com.BankingBuddy.ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "guide.retrieval")
+@Data
+public class GuideRetrievalProperties {
+    private boolean enabled = true; // false sends the whole role-filtered guide, as before
+    private int topK = 4; // Guide sections sent to the model per question
+}
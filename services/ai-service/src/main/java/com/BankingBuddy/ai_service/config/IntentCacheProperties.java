@@ -0,0 +1,23 @@
+package com.BankingBuddy.ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "intent-cache")
+@Data
+public class IntentCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 1000; // In-process LRU size
+    private Duration ttl = Duration.ofHours(6); // Bounds staleness after prompt changes
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+        private boolean enabled = false; // Share parsed intents across instances
+        private String keyPrefix = "ai:intent:";
+    }
+}
@@ -1,5 +1,6 @@
 package com.BankingBuddy.ai_service.controller;
 
+import com.BankingBuddy.ai_service.model.dto.AnswerStreamEvent;
 import com.BankingBuddy.ai_service.model.dto.ApiResponse;
 import com.BankingBuddy.ai_service.model.dto.GuideRequest;
 import com.BankingBuddy.ai_service.model.dto.GuideResponse;
@@ -7,8 +8,12 @@ import com.BankingBuddy.ai_service.service.AiGuideService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/v1/ai/guide")
@@ -44,4 +49,28 @@ public class AiGuideController {
         
         return ResponseEntity.ok(ApiResponse.success(response, "Answer generated successfully"));
     }
+    
+    /**
+     * Same as {@code /ask}, streamed as server-sent events: "delta" events with answer text as it is
+     * generated, then "done" with the complete {@link GuideResponse} (or "error").
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> askQuestionStream(
+            @Valid @RequestBody GuideRequest request,
+            HttpServletRequest httpRequest) {
+        log.info("AI Guide streaming question received: {}", request.getQuestion());
+        
+        com.BankingBuddy.ai_service.security.UserContext userContext = 
+            (com.BankingBuddy.ai_service.security.UserContext) httpRequest.getAttribute("userContext");
+        
+        if (userContext == null) {
+            log.error("UserContext is null - authorization interceptor may have failed");
+            return ResponseEntity.status(401)
+                .body(Flux.just(AnswerStreamEvent.error("Authentication required").toServerSentEvent()));
+        }
+        
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .body(aiGuideService.streamAnswer(request, userContext).map(AnswerStreamEvent::toServerSentEvent));
+    }
 }
@@ -1,5 +1,6 @@
 package com.BankingBuddy.ai_service.controller;
 
+import com.BankingBuddy.ai_service.model.dto.AnswerStreamEvent;
 import com.BankingBuddy.ai_service.model.dto.QueryRequest;
 import com.BankingBuddy.ai_service.model.dto.QueryResponse;
 import com.BankingBuddy.ai_service.service.NaturalLanguageQueryService;
@@ -7,8 +8,12 @@ import com.BankingBuddy.ai_service.security.UserContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/v1/ai/query")
@@ -40,21 +45,7 @@ public class NaturalLanguageQueryController {
             log.info("Processing natural language query from user {} (role: {}): {}", 
                     userContext.getUserId(), userContext.getRole(), request.getQuery());
             
-            // Extract auth token from request
-            String authToken = httpRequest.getHeader("Authorization");
-            if (authToken != null && authToken.startsWith("Bearer ")) {
-                authToken = authToken.substring(7);
-            } else {
-                // Also check x-amzn-oidc-data header (ALB token)
-                String albToken = httpRequest.getHeader("x-amzn-oidc-data");
-                if (albToken != null) {
-                    authToken = albToken;
-                }
-            }
-            
-            if (authToken == null || authToken.isEmpty()) {
-                log.warn("No auth token found in request headers");
-            }
+            String authToken = extractAuthToken(httpRequest);
             
             // Process query using non-streaming method
             QueryResponse response = queryService.processQuery(request, authToken, userContext);
@@ -70,5 +61,50 @@ public class NaturalLanguageQueryController {
                     .build());
         }
     }
+    
+    /**
+     * Same as {@code POST /api/v1/ai/query}, streamed as server-sent events: "results" with the query
+     * results as soon as they are fetched, "delta" events with the summary as it is generated, then
+     * "done" with the complete {@link QueryResponse} (or "error").
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> streamQuery(
+            @Valid @RequestBody QueryRequest request,
+            HttpServletRequest httpRequest) {
+        
+        UserContext userContext = (UserContext) httpRequest.getAttribute("userContext");
+        if (userContext == null) {
+            log.error("UserContext is null - authorization interceptor may have failed");
+            return ResponseEntity.status(401)
+                .body(Flux.just(AnswerStreamEvent.error("Authentication required").toServerSentEvent()));
+        }
+        
+        log.info("Streaming natural language query from user {} (role: {}): {}", 
+                userContext.getUserId(), userContext.getRole(), request.getQuery());
+        
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .body(queryService.streamQuery(request, extractAuthToken(httpRequest), userContext)
+                .map(AnswerStreamEvent::toServerSentEvent));
+    }
+    
+    // Bearer token for downstream calls, falling back to the ALB OIDC token
+    private String extractAuthToken(HttpServletRequest httpRequest) {
+        String authToken = httpRequest.getHeader("Authorization");
+        if (authToken != null && authToken.startsWith("Bearer ")) {
+            authToken = authToken.substring(7);
+        } else {
+            // Also check x-amzn-oidc-data header (ALB token)
+            String albToken = httpRequest.getHeader("x-amzn-oidc-data");
+            if (albToken != null) {
+                authToken = albToken;
+            }
+        }
+        
+        if (authToken == null || authToken.isEmpty()) {
+            log.warn("No auth token found in request headers");
+        }
+        return authToken;
+    }
 
 }
@@ -0,0 +1,40 @@
+package com.BankingBuddy.ai_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.util.Map;
+
+/**
+ * One server-sent event of a streamed answer.
+ * Streams are "results" (NL queries only, data before the summary), any number of "delta" events
+ * carrying the next piece of answer text, then "done" with the complete response, or "error".
+ */
+@Data
+@AllArgsConstructor
+public class AnswerStreamEvent {
+    private String event;
+    private Object data;
+
+    public static AnswerStreamEvent results(Object data) {
+        return new AnswerStreamEvent("results", data);
+    }
+
+    // Wrapped in an object: raw SSE data lines lose a leading space, which deltas often start with
+    public static AnswerStreamEvent delta(String content) {
+        return new AnswerStreamEvent("delta", Map.of("content", content));
+    }
+
+    public static AnswerStreamEvent done(Object data) {
+        return new AnswerStreamEvent("done", data);
+    }
+
+    public static AnswerStreamEvent error(String message) {
+        return new AnswerStreamEvent("error", Map.of("message", message));
+    }
+
+    public ServerSentEvent<Object> toServerSentEvent() {
+        return ServerSentEvent.builder(data).event(event).build();
+    }
+}
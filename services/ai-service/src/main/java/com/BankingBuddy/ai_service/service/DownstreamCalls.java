@@ -0,0 +1,65 @@
+package com.BankingBuddy.ai_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Downstream GET responses for a single natural language query.
+ * Each distinct request is sent at most once per query and shared by every handler that needs it.
+ * A request can be started early with {@link #prefetch} so it overlaps other work (e.g. the OpenAI
+ * intent call) and is joined later by {@link #fetch}.
+ */
+@Slf4j
+class DownstreamCalls {
+
+    // Only used to turn a URI function into a cache key; the WebClient applies its own base URL
+    private static final DefaultUriBuilderFactory KEY_URIS = new DefaultUriBuilderFactory();
+
+    private final String authToken;
+    private final Duration timeout;
+    private final Map<String, Mono<String>> responses = new ConcurrentHashMap<>();
+
+    DownstreamCalls(String authToken, Duration timeout) {
+        this.authToken = authToken;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Start a request without waiting for it. Failures are kept and surface on the later {@link #fetch}.
+     */
+    void prefetch(String service, WebClient client, Function<UriBuilder, URI> uri) {
+        response(service, client, uri).subscribe(
+                body -> { },
+                error -> log.debug("Prefetch from {} failed: {}", service, error.getMessage()));
+    }
+
+    /**
+     * Response body of a request, reusing an earlier or in-flight request for the same URI.
+     */
+    String fetch(String service, WebClient client, Function<UriBuilder, URI> uri) {
+        return response(service, client, uri).block();
+    }
+
+    private Mono<String> response(String service, WebClient client, Function<UriBuilder, URI> uri) {
+        String key = service + " " + uri.apply(KEY_URIS.builder());
+        return responses.computeIfAbsent(key, k -> {
+            log.info("Calling {}", k);
+            return client.get()
+                    .uri(uri)
+                    .header("Authorization", "Bearer " + authToken)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .timeout(timeout)
+                    .cache();
+        });
+    }
+}
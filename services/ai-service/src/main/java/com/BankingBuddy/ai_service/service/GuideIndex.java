@@ -0,0 +1,374 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.BankingBuddy.ai_service.config.GuideRetrievalProperties;
+import com.BankingBuddy.ai_service.security.UserRole;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Retrieval index over the user guide, built once at startup.
+ * Each role gets its own view of the guide (the role filter runs once here instead of per question),
+ * split into the blank-line separated sections under each heading. Questions are matched to sections
+ * with BM25, and only the top-ranked sections are sent to the model instead of the whole guide.
+ */
+@Component
+@Slf4j
+public class GuideIndex {
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int HEADING_WEIGHT = 2; // Heading words count as if repeated in the section
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "and", "or", "of", "to", "in", "on", "for", "with", "from", "by", "at", "as",
+            "how", "do", "does", "did", "i", "me", "my", "can", "could", "would", "should", "will", "what",
+            "is", "are", "be", "it", "this", "that", "you", "your", "we", "our", "there", "about", "please",
+            "if", "then", "all", "any", "some", "get", "only", "not");
+
+    private final GuideRetrievalProperties properties;
+    private final Map<UserRole, RoleView> views = new EnumMap<>(UserRole.class);
+    private final DistributionSummary retrievedTokens;
+    private final DistributionSummary fullTokens;
+
+    public GuideIndex(GuideRetrievalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        String documentation = loadDocumentation();
+        for (UserRole role : UserRole.values()) {
+            RoleView view = RoleView.of(filterDocumentationByRole(documentation, role));
+            views.put(role, view);
+            log.info("Guide index for {}: {} sections (~{} tokens)",
+                    role, view.sections().size(), estimateTokens(view.fullText()));
+        }
+
+        this.retrievedTokens = contextTokens(meterRegistry, "retrieved");
+        this.fullTokens = contextTokens(meterRegistry, "full");
+        log.info("Guide retrieval enabled: {}, top-k: {}", properties.isEnabled(), properties.getTopK());
+    }
+
+    /**
+     * Documentation to include in the prompt for this question: the best matching sections of the
+     * role's view, or the whole view when retrieval is disabled.
+     */
+    public String contextFor(String question, UserRole role) {
+        RoleView view = views.get(role);
+        String context = properties.isEnabled()
+                ? render(search(question, role, properties.getTopK()))
+                : view.fullText();
+
+        int contextTokens = estimateTokens(context);
+        int viewTokens = estimateTokens(view.fullText());
+        retrievedTokens.record(contextTokens);
+        fullTokens.record(viewTokens);
+        log.info("AI Help Guide - Context ~{} tokens of ~{} in the {} guide", contextTokens, viewTokens, role);
+        return context;
+    }
+
+    /**
+     * Top-k sections of the role's view for the question, best first. Falls back to the opening
+     * sections (overview, roles) when no section shares a term with the question.
+     */
+    List<Section> search(String question, UserRole role, int k) {
+        RoleView view = views.get(role);
+        Set<String> queryTerms = new LinkedHashSet<>(terms(question));
+
+        List<Scored> scored = new ArrayList<>();
+        for (Section section : view.sections()) {
+            double score = 0;
+            for (String term : queryTerms) {
+                int tf = section.termFrequencies().getOrDefault(term, 0);
+                if (tf == 0) {
+                    continue;
+                }
+                int df = view.documentFrequencies().get(term);
+                double idf = Math.log(1 + (view.sections().size() - df + 0.5) / (df + 0.5));
+                double norm = K1 * (1 - B + B * section.length() / view.averageLength());
+                score += idf * tf * (K1 + 1) / (tf + norm);
+            }
+            if (score > 0) {
+                scored.add(new Scored(section, score));
+            }
+        }
+
+        if (scored.isEmpty()) {
+            return view.sections().subList(0, Math.min(k, view.sections().size()));
+        }
+        return scored.stream()
+                .sorted(Comparator.comparingDouble(Scored::score).reversed())
+                .limit(k)
+                .map(Scored::section)
+                .toList();
+    }
+
+    // Selected sections in guide order, each run of sections under its heading
+    private static String render(List<Section> selected) {
+        StringBuilder context = new StringBuilder();
+        String heading = null;
+        for (Section section : selected.stream().sorted(Comparator.comparingInt(Section::position)).toList()) {
+            if (!section.heading().equals(heading)) {
+                heading = section.heading();
+                if (!heading.isEmpty()) {
+                    context.append(heading).append("\n");
+                }
+            }
+            context.append(section.text()).append("\n\n");
+        }
+        return context.toString().trim();
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String term = matcher.group();
+            if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                terms.add(stem(term));
+            }
+        }
+        return terms;
+    }
+
+    // Light suffix stripping so "create", "creating" and "created" (or "admin" and "admins") match
+    private static String stem(String term) {
+        if (term.length() > 4 && (term.endsWith("ies") || term.endsWith("ied"))) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.length() > 5 && term.endsWith("ing")) {
+            term = term.substring(0, term.length() - 3);
+        } else if (term.length() > 4 && term.endsWith("ed")) {
+            term = term.substring(0, term.length() - 2);
+        } else if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            term = term.substring(0, term.length() - 1);
+        }
+        if (term.length() > 4 && term.endsWith("e")) {
+            term = term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    private static int estimateTokens(String text) {
+        return (text.length() + 3) / 4; // ~4 characters per token for English text
+    }
+
+    private static DistributionSummary contextTokens(MeterRegistry meterRegistry, String context) {
+        return DistributionSummary.builder("ai.guide.context.tokens")
+                .description("Estimated guide tokens per question: sent (retrieved) vs the whole role view (full)")
+                .baseUnit("tokens")
+                .tag("context", context)
+                .register(meterRegistry);
+    }
+
+    private static String loadDocumentation() {
+        try {
+            // Load your documentation files
+            ClassPathResource resource = new ClassPathResource("docs/guide.txt");
+            if (resource.exists()) {
+                String content = StreamUtils.copyToString(
+                    resource.getInputStream(), Objects.requireNonNull(StandardCharsets.UTF_8));
+                log.info("Loaded guide.txt successfully ({} characters)", content.length());
+                return content;
+            }
+            // Fallback to hardcoded guide content
+            log.warn("guide.txt not found in classpath, using default content");
+        } catch (IOException e) {
+            log.error("Could not load documentation file: {}", e.getMessage());
+            log.warn("Using default guide content");
+        }
+        return createDefaultGuideContent();
+    }
+
+    private static String createDefaultGuideContent() {
+        return """
+            Banking Buddy CRM System Guide
+
+            RESET PASSWORD:
+            - Navigate to User Management page
+            - Click on your user profile
+            - Select 'Reset Password' option
+            - Check email for reset link
+
+            VIEW TRANSACTION HISTORY:
+            - Go to Transactions page
+            - Filter by client ID, date range, or type
+            - Click transaction for details
+
+            MANAGE CLIENTS:
+            - Navigate to Client Management
+            - Create new clients with 'Create Client' button
+            - Search by name, email, or status
+            - View full details by clicking client
+
+            CREATE ACCOUNT:
+            - Go to Client Detail page
+            - Click 'Create Account' button
+            - Fill in account details (type, initial deposit)
+            - Submit to create account
+
+            VIEW ACCOUNTS:
+            - Admins: Go to Account Management page
+            - Agents: View accounts on Client Detail page
+
+            SEARCH FUNCTIONALITY:
+            - Use search bars on any management page
+            - Filter by multiple criteria
+            - Export results if needed
+            """;
+    }
+
+    // Filter documentation content based on user role
+    private static String filterDocumentationByRole(String fullDoc, UserRole role) {
+        StringBuilder filtered = new StringBuilder();
+        String[] lines = fullDoc.split("\n");
+
+        boolean includeSection = true;
+        String currentSection = "";
+
+        for (String line : lines) {
+            // Detect section headers
+            if (line.trim().toUpperCase().equals(line.trim()) && line.trim().length() > 0 &&
+                !line.contains("=") && !line.contains("-")) {
+                currentSection = line.trim().toUpperCase();
+
+                // Determine if this section should be included for this role
+                includeSection = shouldIncludeSection(currentSection, role);
+            }
+
+            // Include line if we're in an included section
+            if (includeSection) {
+                filtered.append(line).append("\n");
+            }
+        }
+
+        return filtered.toString();
+    }
+
+    // Determine if a documentation section should be included for a specific role
+    private static boolean shouldIncludeSection(String sectionName, UserRole role) {
+        return switch (role) {
+            case AGENT -> {
+                // Agents should see: Client Management, Account Management (for their clients),
+                // Transaction Management, Authentication, Dashboard, Common Tasks
+                yield (!sectionName.contains("USER MANAGEMENT") && !sectionName.contains("ADMIN")) &&
+                      (sectionName.contains("CLIENT") ||
+                       sectionName.contains("ACCOUNT") ||
+                       sectionName.contains("TRANSACTION") ||
+                       sectionName.contains("AUTHENTICATION") ||
+                       sectionName.contains("DASHBOARD") ||
+                       sectionName.contains("COMMON") ||
+                       sectionName.contains("ERROR") ||
+                       sectionName.contains("BEST PRACTICES") ||
+                       sectionName.contains("OVERVIEW") ||
+                       sectionName.isEmpty());
+            }
+            case ADMIN -> {
+                // Admins should see: User Management (agents only), Account Management (all),
+                // Transaction Management, Agent queries, Dashboard, Common Tasks
+                yield !sectionName.contains("CLIENT MANAGEMENT") &&
+                      (sectionName.contains("USER MANAGEMENT") ||
+                       sectionName.contains("ACCOUNT") ||
+                       sectionName.contains("TRANSACTION") ||
+                       sectionName.contains("AGENT") ||
+                       sectionName.contains("AUTHENTICATION") ||
+                       sectionName.contains("DASHBOARD") ||
+                       sectionName.contains("COMMON") ||
+                       sectionName.contains("ERROR") ||
+                       sectionName.contains("BEST PRACTICES") ||
+                       sectionName.contains("OVERVIEW") ||
+                       sectionName.contains("AUTHORIZATION") ||
+                       sectionName.isEmpty());
+            }
+            case ROOT_ADMIN -> {
+                // Root admins can see everything
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * One retrievable piece of the guide: a block of text and the heading it sits under.
+     */
+    record Section(int position, String heading, String text, Map<String, Integer> termFrequencies, int length) {
+
+        static Section of(int position, String heading, String text) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            List<String> terms = new ArrayList<>(terms(text));
+            List<String> headingTerms = terms(heading);
+            for (int i = 0; i < HEADING_WEIGHT; i++) {
+                terms.addAll(headingTerms);
+            }
+            terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            return new Section(position, heading, text, Map.copyOf(frequencies), terms.size());
+        }
+    }
+
+    private record RoleView(String fullText, List<Section> sections,
+                            Map<String, Integer> documentFrequencies, double averageLength) {
+
+        static RoleView of(String fullText) {
+            List<Section> sections = split(fullText);
+            Map<String, Integer> documentFrequencies = new HashMap<>();
+            sections.forEach(section -> section.termFrequencies().keySet()
+                    .forEach(term -> documentFrequencies.merge(term, 1, Integer::sum)));
+            double averageLength = sections.stream().mapToInt(Section::length).average().orElse(1);
+            return new RoleView(fullText, List.copyOf(sections), Map.copyOf(documentFrequencies),
+                    Math.max(averageLength, 1));
+        }
+
+        // Headings are the lines underlined with dashes or equals signs; sections are the blocks between blank lines
+        private static List<Section> split(String text) {
+            List<Section> sections = new ArrayList<>();
+            String[] lines = text.split("\n");
+            String heading = "";
+            StringBuilder block = new StringBuilder();
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i].trim();
+                if (isUnderline(line)) {
+                    continue;
+                }
+                if (!line.isEmpty() && i + 1 < lines.length && isUnderline(lines[i + 1].trim())) {
+                    addSection(sections, heading, block);
+                    heading = line;
+                } else if (line.isEmpty()) {
+                    // A lead-in such as "Examples by Role:" stays with the block it introduces
+                    if (!isLeadIn(block)) {
+                        addSection(sections, heading, block);
+                    }
+                } else {
+                    block.append(lines[i].stripTrailing()).append("\n");
+                }
+            }
+            addSection(sections, heading, block);
+            return sections;
+        }
+
+        private static void addSection(List<Section> sections, String heading, StringBuilder block) {
+            String text = block.toString().strip();
+            block.setLength(0);
+            if (!text.isEmpty()) {
+                sections.add(Section.of(sections.size(), heading, text));
+            }
+        }
+
+        private static boolean isUnderline(String line) {
+            return !line.isEmpty() && line.chars().allMatch(c -> c == '-' || c == '=');
+        }
+
+        private static boolean isLeadIn(StringBuilder block) {
+            String text = block.toString().strip();
+            return !text.isEmpty() && !text.contains("\n") && text.endsWith(":");
+        }
+    }
+
+    private record Scored(Section section, double score) {
+    }
+}
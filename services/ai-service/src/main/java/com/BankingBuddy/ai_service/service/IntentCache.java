@@ -0,0 +1,223 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.BankingBuddy.ai_service.config.IntentCacheProperties;
+import com.BankingBuddy.ai_service.security.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of parsed query intents, so repeated phrasings skip the OpenAI intent call.
+ * Keyed by role and normalized query text: case, whitespace and punctuation are ignored and
+ * relative dates ("last month", "past 7 days") are resolved to absolute ones, so an entry
+ * never answers for a different date range. Entries live in an in-process LRU and are
+ * optionally shared through Redis.
+ */
+@Service
+@Slf4j
+public class IntentCache {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("[^\\p{L}\\p{N}\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern LAST_N_DAYS = Pattern.compile("\\b(?:last|past) (\\d{1,3}) days\\b");
+
+    private final IntentCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, CachedIntent> entries;
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final Timer savedLatency;
+
+    public IntentCache(IntentCacheProperties properties,
+                       ObjectMapper objectMapper,
+                       ObjectProvider<StringRedisTemplate> redisTemplate,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = properties.getRedis().isEnabled() ? redisTemplate.getIfAvailable() : null;
+
+        int maxEntries = properties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedIntent> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.localHits = lookups(meterRegistry, "local_hit");
+        this.redisHits = lookups(meterRegistry, "redis_hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.savedLatency = Timer.builder("ai.intent.cache.saved")
+                .description("OpenAI intent parse time avoided by cache hits")
+                .register(meterRegistry);
+        Gauge.builder("ai.intent.cache.size", this, IntentCache::size)
+                .register(meterRegistry);
+
+        log.info("Intent cache enabled: {}, max entries: {}, ttl: {}, redis: {}",
+                properties.isEnabled(), maxEntries, properties.getTtl(), this.redisTemplate != null);
+    }
+
+    /**
+     * Previously parsed intent JSON for this query and role, if any.
+     */
+    public Optional<String> get(String query, UserRole role) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        String key = key(query, role);
+
+        CachedIntent cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && cached.isExpired()) {
+                entries.remove(key);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            localHits.increment();
+            savedLatency.record(cached.parseMillis(), TimeUnit.MILLISECONDS);
+            return Optional.of(cached.intentJson());
+        }
+
+        Optional<CachedIntent> shared = readShared(key);
+        if (shared.isPresent()) {
+            redisHits.increment();
+            savedLatency.record(shared.get().parseMillis(), TimeUnit.MILLISECONDS);
+            storeLocal(key, shared.get());
+            return Optional.of(shared.get().intentJson());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Remember a successfully parsed intent together with how long the parse took.
+     */
+    public void put(String query, UserRole role, String intentJson, long parseMillis) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String key = key(query, role);
+        CachedIntent cached = new CachedIntent(intentJson, parseMillis,
+                System.currentTimeMillis() + properties.getTtl().toMillis());
+        storeLocal(key, cached);
+        writeShared(key, cached);
+    }
+
+    /**
+     * Normalized form of a query used in cache keys.
+     */
+    static String normalize(String query, LocalDate today) {
+        String text = query.toLowerCase(Locale.ROOT);
+        text = PUNCTUATION.matcher(text).replaceAll(" ");
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+
+        Matcher lastNDays = LAST_N_DAYS.matcher(text);
+        StringBuilder resolved = new StringBuilder();
+        while (lastNDays.find()) {
+            LocalDate since = today.minusDays(Long.parseLong(lastNDays.group(1)));
+            lastNDays.appendReplacement(resolved, "since " + since);
+        }
+        lastNDays.appendTail(resolved);
+        text = resolved.toString();
+
+        LocalDate thisMonday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        YearMonth thisMonth = YearMonth.from(today);
+        text = text
+                .replaceAll("\\b(?:last|past|previous) week\\b", "week of " + thisMonday.minusWeeks(1))
+                .replaceAll("\\bthis week\\b", "week of " + thisMonday)
+                .replaceAll("\\b(?:last|past|previous) month\\b", "month " + thisMonth.minusMonths(1))
+                .replaceAll("\\bthis month\\b", "month " + thisMonth)
+                .replaceAll("\\b(?:last|past|previous) year\\b", "year " + (today.getYear() - 1))
+                .replaceAll("\\bthis year\\b", "year " + today.getYear())
+                .replaceAll("\\byesterday\\b", today.minusDays(1).toString())
+                .replaceAll("\\btomorrow\\b", today.plusDays(1).toString())
+                .replaceAll("\\btoday\\b", today.toString());
+        return text;
+    }
+
+    private String key(String query, UserRole role) {
+        return role.name() + ":" + normalize(query, LocalDate.now());
+    }
+
+    private void storeLocal(String key, CachedIntent cached) {
+        synchronized (entries) {
+            entries.put(key, cached);
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Optional<CachedIntent> readShared(String key) {
+        if (redisTemplate == null) {
+            return Optional.empty();
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(properties.getRedis().getKeyPrefix() + key);
+            if (value == null) {
+                return Optional.empty();
+            }
+            SharedIntent shared = objectMapper.readValue(value, SharedIntent.class);
+            return Optional.of(new CachedIntent(shared.intentJson(), shared.parseMillis(),
+                    System.currentTimeMillis() + properties.getTtl().toMillis()));
+        } catch (Exception e) {
+            // A shared cache outage only costs the OpenAI call it would have saved
+            log.warn("Intent cache Redis read failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeShared(String key, CachedIntent cached) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            String value = objectMapper.writeValueAsString(new SharedIntent(cached.intentJson(), cached.parseMillis()));
+            redisTemplate.opsForValue().set(properties.getRedis().getKeyPrefix() + key, value, properties.getTtl());
+        } catch (Exception e) {
+            log.warn("Intent cache Redis write failed: {}", e.getMessage());
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.intent.cache.lookups")
+                .description("Intent cache lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedIntent(String intentJson, long parseMillis, long expiresAtMillis) {
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+
+    private record SharedIntent(String intentJson, long parseMillis) {
+    }
+}
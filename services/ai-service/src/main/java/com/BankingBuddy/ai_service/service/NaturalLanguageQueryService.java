@@ -1,5 +1,6 @@
 package com.BankingBuddy.ai_service.service;
 
+import com.BankingBuddy.ai_service.model.dto.AnswerStreamEvent;
 import com.BankingBuddy.ai_service.model.dto.QueryRequest;
 import com.BankingBuddy.ai_service.model.dto.QueryResponse;
 import com.BankingBuddy.ai_service.security.UserContext;
@@ -14,9 +15,15 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Function;
 import java.util.Objects;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,7 +33,18 @@ import java.time.format.DateTimeFormatter;
 @Slf4j
 public class NaturalLanguageQueryService {
     
+    // Largest page the user service search returns; filters run server-side
+    private static final int USER_SEARCH_LIMIT = 50;
+    
+    // An agent's client list, shared by client, transaction and account queries
+    private static final Function<UriBuilder, URI> AGENT_CLIENTS = uriBuilder -> uriBuilder.path("/api/v1/clients")
+            .queryParam("page", 0)
+            .queryParam("limit", 100)
+            .build();
+    
     private final OpenAIService openAIService;
+    private final RuleBasedIntentClassifier intentClassifier;
+    private final IntentCache intentCache;
     private final WebClient clientServiceClient;
     private final WebClient transactionServiceClient;
     private final WebClient userServiceClient;
@@ -35,6 +53,8 @@ public class NaturalLanguageQueryService {
     
     public NaturalLanguageQueryService(
             OpenAIService openAIService,
+            RuleBasedIntentClassifier intentClassifier,
+            IntentCache intentCache,
             WebClient.Builder webClientBuilder,
             ObjectMapper objectMapper,
             @Value("${services.client-service.url}") @NonNull String clientServiceUrl,
@@ -48,6 +68,8 @@ public class NaturalLanguageQueryService {
         log.info("  User Service URL: {}", userServiceUrl);
 
         this.openAIService = openAIService;
+        this.intentClassifier = intentClassifier;
+        this.intentCache = intentCache;
         this.objectMapper = objectMapper;
         this.serviceTimeoutSeconds = serviceTimeoutSeconds;
         
@@ -81,10 +103,62 @@ public class NaturalLanguageQueryService {
     }
     
     public QueryResponse processQuery(QueryRequest request, String authToken, UserContext userContext) {
+        return execute(request, authToken, userContext, openAIService::chatCompletion);
+    }
+    
+    /**
+     * Streaming variant of {@link #processQuery}: query results are sent as soon as they are fetched,
+     * then the natural language summary is relayed token by token from OpenAI.
+     */
+    public Flux<AnswerStreamEvent> streamQuery(QueryRequest request, String authToken, UserContext userContext) {
+        return Mono.fromCallable(() -> {
+                    DeferredAnswer answer = new DeferredAnswer();
+                    return new PreparedAnswer(execute(request, authToken, userContext, answer), answer);
+                })
+                // Intent parsing and downstream lookups block; keep them off the request thread
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(prepared -> {
+                    QueryResponse response = prepared.response();
+                    DeferredAnswer answer = prepared.answer();
+                    if (!answer.isPending()) {
+                        return Flux.just(AnswerStreamEvent.results(response), AnswerStreamEvent.done(response));
+                    }
+                    
+                    StringBuilder text = new StringBuilder();
+                    Flux<AnswerStreamEvent> deltas = openAIService
+                            .streamChatCompletion(answer.systemPrompt, answer.userMessage)
+                            .doOnNext(text::append)
+                            .map(AnswerStreamEvent::delta);
+                    Mono<AnswerStreamEvent> done = Mono.fromSupplier(() -> {
+                        String summary = text.toString();
+                        if (answer.normalizeMarkdown) {
+                            summary = normalizeMarkdownFormatting(summary);
+                        }
+                        response.setNaturalLanguageResponse(summary);
+                        return AnswerStreamEvent.done(response);
+                    });
+                    return Flux.concat(Mono.just(AnswerStreamEvent.results(response)), deltas, done);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error streaming query: {}", e.getMessage(), e);
+                    return Flux.just(AnswerStreamEvent.error(
+                        "An error occurred while processing your query: " + e.getMessage()));
+                });
+    }
+    
+    private QueryResponse execute(QueryRequest request, String authToken, UserContext userContext, AnswerGenerator answers) {
         String query = request.getQuery();
         log.info("Processing natural language query: '{}' for user {} (role: {})", 
                  query, userContext.getUserId(), userContext.getRole());
         
+        DownstreamCalls calls = new DownstreamCalls(authToken, Duration.ofSeconds(serviceTimeoutSeconds));
+        
+        // Agents' client, transaction and account queries all start from their client list:
+        // fetch it while OpenAI parses the intent instead of after
+        if (userContext.getRole() == UserRole.AGENT && mentionsClientData(query)) {
+            calls.prefetch("client-service", clientServiceClient, AGENT_CLIENTS);
+        }
+        
         try {
             // Use AI to determine query intent and extract parameters
             String intentPrompt = """
@@ -158,15 +232,33 @@ public class NaturalLanguageQueryService {
                 }
                 """;
             
-            log.info("Natural Language Query - Calling OpenAI to parse query intent...");
-            String intentJson = openAIService.chatCompletion(
-                "You are a query parser. Return ONLY valid JSON, no markdown code blocks, no explanations.", 
-                intentPrompt
-            );
-            
-            log.info("Natural Language Query - Received intent JSON from OpenAI (length: {} chars)", intentJson.length());
-            
-            intentJson = cleanJsonResponse(intentJson);
+            // Plainly worded queries are parsed by rules; only the rest need OpenAI
+            Optional<String> ruleIntent = intentClassifier.classify(query, userContext.getRole()).map(JsonNode::toString);
+            Optional<String> cachedIntent = ruleIntent.isPresent()
+                ? Optional.empty() : intentCache.get(query, userContext.getRole());
+            boolean parsedByOpenAI = false;
+            String intentJson;
+            long parseMillis = 0;
+            if (ruleIntent.isPresent()) {
+                log.info("Natural Language Query - Parsed intent with rules, skipping OpenAI");
+                intentJson = ruleIntent.get();
+            } else if (cachedIntent.isPresent()) {
+                log.info("Natural Language Query - Using cached intent for query");
+                intentJson = cachedIntent.get();
+            } else {
+                parsedByOpenAI = true;
+                log.info("Natural Language Query - Calling OpenAI to parse query intent...");
+                long startTime = System.currentTimeMillis();
+                intentJson = openAIService.chatCompletion(
+                    "You are a query parser. Return ONLY valid JSON, no markdown code blocks, no explanations.", 
+                    intentPrompt
+                );
+                parseMillis = System.currentTimeMillis() - startTime;
+                
+                log.info("Natural Language Query - Received intent JSON from OpenAI (length: {} chars)", intentJson.length());
+                
+                intentJson = cleanJsonResponse(intentJson);
+            }
             
             try {
                 JsonNode intent = objectMapper.readTree(intentJson);
@@ -174,22 +266,27 @@ public class NaturalLanguageQueryService {
                 log.info("Parsed query type: {} from query: {} (user role: {})", 
                          queryType, query, userContext.getRole());
                 
+                // Only cache complete intents of a known type; "unknown" may parse on a retry
+                if (parsedByOpenAI && !"unknown".equals(queryType) && intent.path("parameters").isObject()) {
+                    intentCache.put(query, userContext.getRole(), intentJson, parseMillis);
+                }
+                
                 return switch (queryType) {
-                    case "client" -> handleClientQuery(intent, authToken, userContext);
-                    case "transaction" -> handleTransactionQuery(intent, authToken, userContext);
-                    case "account" -> handleAccountQuery(intent, query, authToken, userContext);
-                    case "agent" -> handleAgentQuery(intent, authToken, userContext);
-                    case "admin" -> handleAdminQuery(intent, authToken, userContext);
-                    case "users" -> handleCombinedUsersQuery(intent, authToken, userContext);
-                    case "general" -> handleGeneralQuery(request.getQuery(), userContext);
+                    case "client" -> handleClientQuery(intent, calls, answers, userContext);
+                    case "transaction" -> handleTransactionQuery(intent, calls, answers, userContext);
+                    case "account" -> handleAccountQuery(intent, query, calls, answers, userContext);
+                    case "agent" -> handleAgentQuery(intent, calls, answers, userContext);
+                    case "admin" -> handleAdminQuery(intent, calls, answers, userContext);
+                    case "users" -> handleCombinedUsersQuery(intent, calls, answers, userContext);
+                    case "general" -> handleGeneralQuery(request.getQuery(), answers, userContext);
                     default -> {
                         log.warn("AI parsed query as 'unknown', attempting keyword-based fallback");
-                        yield tryFallbackParsing(request.getQuery(), authToken, userContext);
+                        yield tryFallbackParsing(request.getQuery(), calls, answers, userContext);
                     }
                 };
             } catch (Exception e) {
                 log.error("Error parsing query intent: {}. Raw response: {}", e.getMessage(), intentJson, e);
-                return tryFallbackParsing(request.getQuery(), authToken, userContext);
+                return tryFallbackParsing(request.getQuery(), calls, answers, userContext);
             }
         } catch (RuntimeException e) {
             log.error("Failed to process query due to OpenAI API error: {}", e.getMessage(), e);
@@ -200,7 +297,7 @@ public class NaturalLanguageQueryService {
         }
     }
     
-    private QueryResponse handleClientQuery(JsonNode intent, String authToken, UserContext userContext) {
+    private QueryResponse handleClientQuery(JsonNode intent, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         try {
             // AGENTS: Can only query their own clients (restricted by client-service API)
             // ADMINS: Cannot directly query clients (client-service blocks admin access to GET /api/v1/clients)
@@ -229,45 +326,34 @@ public class NaturalLanguageQueryService {
                 clientName = null;
             }
             
-            // Call client service API (automatically filters to agent's clients)
-            String response = clientServiceClient.get()
-                    .uri("/api/v1/clients?page=0&limit=100")
-                    .header("Authorization", "Bearer " + authToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                    .block();
-            
-            JsonNode clientsResponse = objectMapper.readTree(response);
+            // Client service automatically filters to the agent's clients
+            JsonNode clients = fetchAgentClients(calls);
             List<Map<String, Object>> results = new ArrayList<>();
             
-            if (clientsResponse.has("data") && clientsResponse.get("data").has("content")) {
-                JsonNode clients = clientsResponse.get("data").get("content");
-                if (clients.isArray()) {
-                    for (JsonNode client : clients) {
-                        String firstName = client.has("firstName") ? 
-                            client.get("firstName").asText("") : "";
-                        String lastName = client.has("lastName") ? 
-                            client.get("lastName").asText("") : "";
-                        String fullName = (firstName + " " + lastName).trim();
-                        
-                        if (clientName == null || clientName.isEmpty() || 
-                            fullName.toLowerCase().contains(clientName.toLowerCase()) ||
-                            firstName.toLowerCase().contains(clientName.toLowerCase()) ||
-                            lastName.toLowerCase().contains(clientName.toLowerCase())) {
-                            Map<String, Object> clientMap = new HashMap<>();
-                            clientMap.put("clientId", client.get("clientId").asText());
-                            clientMap.put("name", fullName);
-                            clientMap.put("email", client.has("email") ? client.get("email").asText() : "");
-                            clientMap.put("status", client.has("verified") && client.get("verified").asBoolean() ? "Verified" : "Unverified");
-                            results.add(clientMap);
-                        }
+            if (clients.isArray()) {
+                for (JsonNode client : clients) {
+                    String firstName = client.has("firstName") ? 
+                        client.get("firstName").asText("") : "";
+                    String lastName = client.has("lastName") ? 
+                        client.get("lastName").asText("") : "";
+                    String fullName = (firstName + " " + lastName).trim();
+                    
+                    if (clientName == null || clientName.isEmpty() || 
+                        fullName.toLowerCase().contains(clientName.toLowerCase()) ||
+                        firstName.toLowerCase().contains(clientName.toLowerCase()) ||
+                        lastName.toLowerCase().contains(clientName.toLowerCase())) {
+                        Map<String, Object> clientMap = new HashMap<>();
+                        clientMap.put("clientId", client.get("clientId").asText());
+                        clientMap.put("name", fullName);
+                        clientMap.put("email", client.has("email") ? client.get("email").asText() : "");
+                        clientMap.put("status", client.has("verified") && client.get("verified").asBoolean() ? "Verified" : "Unverified");
+                        results.add(clientMap);
                     }
                 }
             }
             
             log.info("Natural Language Query - Calling OpenAI to summarize client results...");
-            String nlResponse = openAIService.chatCompletion(
+            String nlResponse = answers.generate(
                 "You are a CRM assistant. Summarize client search results naturally.",
                 "Found " + results.size() + " clients matching the query. " + 
                 (clientName != null ? "Searching for clients named: " + clientName + ". " : "") +
@@ -293,7 +379,7 @@ public class NaturalLanguageQueryService {
         }
     }
     
-    private QueryResponse handleTransactionQuery(JsonNode intent, String authToken, UserContext userContext) {
+    private QueryResponse handleTransactionQuery(JsonNode intent, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         try {
             // Only AGENTS can query transactions
             if (userContext.getRole() != UserRole.AGENT) {
@@ -327,7 +413,7 @@ public class NaturalLanguageQueryService {
             
             // AGENTS: Can only query transactions for their own clients
             log.info("Agent {} querying transactions - will filter to own clients", userContext.getUserId());
-            List<String> allowedClientIds = getClientIdsForAgent(authToken, userContext);
+            List<String> allowedClientIds = getClientIdsForAgent(calls, userContext);
             
             // If no allowed clients, return empty
             if (allowedClientIds.isEmpty()) {
@@ -340,10 +426,10 @@ public class NaturalLanguageQueryService {
             
             // Filter by client name if provided
             if (clientName != null) {
-                List<String> matchingClientIds = findClientIdsByName(clientName, allowedClientIds, authToken, userContext);
+                List<String> matchingClientIds = findClientIdsByName(clientName, allowedClientIds, calls, userContext);
                 if (matchingClientIds.isEmpty()) {
                     log.info("No clients found matching '{}' for transaction query, generating helpful response via OpenAI", clientName);
-                    String nlResponse = openAIService.chatCompletion(
+                    String nlResponse = answers.generate(
                         "You are a CRM assistant. Help the user understand why their search returned no results.",
                         "The user searched for transactions from a client named '" + clientName + "', but no matching clients were found in their accessible clients. " +
                         "Provide a helpful response suggesting they check the client name spelling, or try 'show my clients' to see their complete client list."
@@ -376,94 +462,85 @@ public class NaturalLanguageQueryService {
             
             String response;
             try {
-                response = transactionServiceClient.get()
-                        .uri(uriBuilder -> {
-                            var builder = uriBuilder.path("/api/v1/transactions/search");
-                            
-                            // Add clientIds as repeated query parameters (Spring expects this format for List<String>)
-                            if (finalClientId != null) {
-                                builder.queryParam("clientIds", finalClientId);
-                                log.debug("Added single clientId: {}", finalClientId);
-                            } else if (!finalAllowedClientIds.isEmpty()) {
-                                // Add each clientId as a separate query parameter
-                                for (String id : finalAllowedClientIds) {
-                                    builder.queryParam("clientIds", id);
-                                }
-                                log.debug("Added {} clientIds as repeated query params: {}", 
-                                        finalAllowedClientIds.size(), finalAllowedClientIds);
-                            }
-                            
-                            // Add other filters from intent - only if they have valid non-empty values
-                            if (params.has("dateFrom") && !params.get("dateFrom").isNull()) {
-                                String dateFrom = params.get("dateFrom").asText();
-                                // Only add if not empty and not the string "null"
-                                if (!dateFrom.trim().isEmpty() && !"null".equalsIgnoreCase(dateFrom)) {
-                                    builder.queryParam("startDate", dateFrom);
-                                    log.debug("Added startDate filter: {}", dateFrom);
-                                }
-                            }
-                            if (params.has("dateTo") && !params.get("dateTo").isNull()) {
-                                String dateTo = params.get("dateTo").asText();
-                                // Only add if not empty and not the string "null"
-                                if (!dateTo.trim().isEmpty() && !"null".equalsIgnoreCase(dateTo)) {
-                                    builder.queryParam("endDate", dateTo);
-                                    log.debug("Added endDate filter: {}", dateTo);
-                                }
-                            }
-                            if (params.has("transactionType") && !params.get("transactionType").isNull()) {
-                                String transactionType = params.get("transactionType").asText();
-                                // Only add if not empty, not the string "null", and is a valid transaction type
-                                if (!transactionType.trim().isEmpty() && !"null".equalsIgnoreCase(transactionType)) {
-                                    // Validate transaction type - only accept "Deposit" or "Withdrawal"
-                                    String normalizedType = transactionType.trim();
-                                    if ("deposit".equalsIgnoreCase(normalizedType)) {
-                                        builder.queryParam("transaction", "Deposit");
-                                        log.debug("Added transaction type filter: Deposit");
-                                    } else if ("withdrawal".equalsIgnoreCase(normalizedType)) {
-                                        builder.queryParam("transaction", "Withdrawal");
-                                        log.debug("Added transaction type filter: Withdrawal");
-                                    } else {
-                                        // Invalid transaction type (e.g., "completed", "pending" - these are status, not type)
-                                        log.warn("Ignoring invalid transaction type '{}' - only 'Deposit' or 'Withdrawal' are valid", normalizedType);
-                                    }
-                                }
+                response = calls.fetch("transaction-service", transactionServiceClient, uriBuilder -> {
+                    var builder = uriBuilder.path("/api/v1/transactions/search");
+                    
+                    // Add clientIds as repeated query parameters (Spring expects this format for List<String>)
+                    if (finalClientId != null) {
+                        builder.queryParam("clientIds", finalClientId);
+                        log.debug("Added single clientId: {}", finalClientId);
+                    } else if (!finalAllowedClientIds.isEmpty()) {
+                        // Add each clientId as a separate query parameter
+                        for (String id : finalAllowedClientIds) {
+                            builder.queryParam("clientIds", id);
+                        }
+                        log.debug("Added {} clientIds as repeated query params: {}", 
+                                finalAllowedClientIds.size(), finalAllowedClientIds);
+                    }
+                    
+                    // Add other filters from intent - only if they have valid non-empty values
+                    if (params.has("dateFrom") && !params.get("dateFrom").isNull()) {
+                        String dateFrom = params.get("dateFrom").asText();
+                        // Only add if not empty and not the string "null"
+                        if (!dateFrom.trim().isEmpty() && !"null".equalsIgnoreCase(dateFrom)) {
+                            builder.queryParam("startDate", dateFrom);
+                            log.debug("Added startDate filter: {}", dateFrom);
+                        }
+                    }
+                    if (params.has("dateTo") && !params.get("dateTo").isNull()) {
+                        String dateTo = params.get("dateTo").asText();
+                        // Only add if not empty and not the string "null"
+                        if (!dateTo.trim().isEmpty() && !"null".equalsIgnoreCase(dateTo)) {
+                            builder.queryParam("endDate", dateTo);
+                            log.debug("Added endDate filter: {}", dateTo);
+                        }
+                    }
+                    if (params.has("transactionType") && !params.get("transactionType").isNull()) {
+                        String transactionType = params.get("transactionType").asText();
+                        // Only add if not empty, not the string "null", and is a valid transaction type
+                        if (!transactionType.trim().isEmpty() && !"null".equalsIgnoreCase(transactionType)) {
+                            // Validate transaction type - only accept "Deposit" or "Withdrawal"
+                            String normalizedType = transactionType.trim();
+                            if ("deposit".equalsIgnoreCase(normalizedType)) {
+                                builder.queryParam("transaction", "Deposit");
+                                log.debug("Added transaction type filter: Deposit");
+                            } else if ("withdrawal".equalsIgnoreCase(normalizedType)) {
+                                builder.queryParam("transaction", "Withdrawal");
+                                log.debug("Added transaction type filter: Withdrawal");
+                            } else {
+                                // Invalid transaction type (e.g., "completed", "pending" - these are status, not type)
+                                log.warn("Ignoring invalid transaction type '{}' - only 'Deposit' or 'Withdrawal' are valid", normalizedType);
                             }
-                            if (params.has("transactionStatus") && !params.get("transactionStatus").isNull()) {
-                                String transactionStatus = params.get("transactionStatus").asText();
-                                // Only add if not empty, not the string "null", and is a valid transaction status
-                                if (!transactionStatus.trim().isEmpty() && !"null".equalsIgnoreCase(transactionStatus)) {
-                                    // Validate transaction status - only accept "Completed", "Pending", or "Failed"
-                                    // Spring expects enum constant name (COMPLETED, PENDING, FAILED) for query parameter binding
-                                    String normalizedStatus = transactionStatus.trim();
-                                    if ("completed".equalsIgnoreCase(normalizedStatus)) {
-                                        builder.queryParam("status", "COMPLETED");
-                                        log.debug("Added transaction status filter: COMPLETED");
-                                    } else if ("pending".equalsIgnoreCase(normalizedStatus)) {
-                                        builder.queryParam("status", "PENDING");
-                                        log.debug("Added transaction status filter: PENDING");
-                                    } else if ("failed".equalsIgnoreCase(normalizedStatus)) {
-                                        builder.queryParam("status", "FAILED");
-                                        log.debug("Added transaction status filter: FAILED");
-                                    } else {
-                                        // Invalid transaction status
-                                        log.warn("Ignoring invalid transaction status '{}' - only 'Completed', 'Pending', or 'Failed' are valid", normalizedStatus);
-                                    }
-                                }
+                        }
+                    }
+                    if (params.has("transactionStatus") && !params.get("transactionStatus").isNull()) {
+                        String transactionStatus = params.get("transactionStatus").asText();
+                        // Only add if not empty, not the string "null", and is a valid transaction status
+                        if (!transactionStatus.trim().isEmpty() && !"null".equalsIgnoreCase(transactionStatus)) {
+                            // Validate transaction status - only accept "Completed", "Pending", or "Failed"
+                            // Spring expects enum constant name (COMPLETED, PENDING, FAILED) for query parameter binding
+                            String normalizedStatus = transactionStatus.trim();
+                            if ("completed".equalsIgnoreCase(normalizedStatus)) {
+                                builder.queryParam("status", "COMPLETED");
+                                log.debug("Added transaction status filter: COMPLETED");
+                            } else if ("pending".equalsIgnoreCase(normalizedStatus)) {
+                                builder.queryParam("status", "PENDING");
+                                log.debug("Added transaction status filter: PENDING");
+                            } else if ("failed".equalsIgnoreCase(normalizedStatus)) {
+                                builder.queryParam("status", "FAILED");
+                                log.debug("Added transaction status filter: FAILED");
+                            } else {
+                                // Invalid transaction status
+                                log.warn("Ignoring invalid transaction status '{}' - only 'Completed', 'Pending', or 'Failed' are valid", normalizedStatus);
                             }
-                            
-                            builder.queryParam("limit", 10);
-                            builder.queryParam("page", 0);
-                            
-                            var uri = builder.build();
-                            // Log the actual URI being sent for debugging
-                            log.info("Transaction search URI: {}", uri);
-                            return uri;
-                        })
-                        .header("Authorization", "Bearer " + authToken)
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                        .block();
+                        }
+                    }
+                    
+                    builder.queryParam("limit", 10);
+                    builder.queryParam("page", 0);
+                    
+                    return builder.build();
+                });
             } catch (WebClientResponseException e) {
                 // Log the actual error response from transaction service
                 log.error("Transaction service returned error: Status={}, Response Body={}", 
@@ -569,7 +646,7 @@ public class NaturalLanguageQueryService {
             }
             
             log.info("Natural Language Query - Calling OpenAI to summarize transaction results...");
-            String nlResponse = openAIService.chatCompletion(
+            String nlResponse = answers.generate(
                 "You are a CRM assistant. Summarize transaction search results naturally.",
                 "Found " + results.size() + " transactions. " +
                 (clientName != null ? "Filtered for client: " + clientName + ". " : "") +
@@ -595,7 +672,7 @@ public class NaturalLanguageQueryService {
         }
     }
     
-    private QueryResponse handleAccountQuery(JsonNode intent, String originalQuery, String authToken, UserContext userContext) {
+    private QueryResponse handleAccountQuery(JsonNode intent, String originalQuery, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         try {
             // "Accounts" is a general term that means different things for different roles:
             // - For AGENTS: "accounts" = clients they manage
@@ -641,22 +718,22 @@ public class NaturalLanguageQueryService {
                 
                 // ROOT_ADMIN with broad scope - show all users (agents and admins)
                 log.info("ROOT_ADMIN querying all accounts (system-wide) - routing to combined users query");
-                return handleCombinedUsersQuery(intent, authToken, userContext);
+                return handleCombinedUsersQuery(intent, calls, answers, userContext);
             }
             
             // Personal scope (e.g., "show my accounts", "accounts I manage") - route based on role
             return switch (userContext.getRole()) {
                 case AGENT -> {
                     log.info("AGENT with personal scope 'accounts' - routing to client query");
-                    yield handleClientQuery(intent, authToken, userContext);
+                    yield handleClientQuery(intent, calls, answers, userContext);
                 }
                 case ADMIN -> {
                     log.info("ADMIN with personal scope 'accounts' - routing to agent query");
-                    yield handleAgentQuery(intent, authToken, userContext);
+                    yield handleAgentQuery(intent, calls, answers, userContext);
                 }
                 case ROOT_ADMIN -> {
                     log.info("ROOT_ADMIN with personal scope 'accounts' - routing to combined users query");
-                    yield handleCombinedUsersQuery(intent, authToken, userContext);
+                    yield handleCombinedUsersQuery(intent, calls, answers, userContext);
                 }
             };
                     
@@ -670,7 +747,7 @@ public class NaturalLanguageQueryService {
         }
     }
     
-    private QueryResponse handleAgentQuery(JsonNode intent, String authToken, UserContext userContext) {
+    private QueryResponse handleAgentQuery(JsonNode intent, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         try {
             // Only ADMINS and ROOT_ADMINS can query agents
             if (userContext.getRole() != UserRole.ADMIN && userContext.getRole() != UserRole.ROOT_ADMIN) {
@@ -695,13 +772,13 @@ public class NaturalLanguageQueryService {
                 agentName = null;
             }
             
-            String response = userServiceClient.get()
-                    .uri("/api/v1/users")
-                    .header("Authorization", "Bearer " + authToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                    .block();
+            Optional<String> agentFilter = Optional.ofNullable(agentName).filter(name -> !name.isBlank());
+            String response = calls.fetch("user-service", userServiceClient,
+                    uriBuilder -> uriBuilder.path("/api/v1/users/search")
+                            .queryParam("roles", "agent")
+                            .queryParamIfPresent("q", agentFilter)
+                            .queryParam("limit", USER_SEARCH_LIMIT)
+                            .build());
             
             JsonNode usersResponse = objectMapper.readTree(response);
             List<Map<String, Object>> results = new ArrayList<>();
@@ -711,30 +788,19 @@ public class NaturalLanguageQueryService {
                 if (data != null && data.has("content")) {
                     JsonNode users = data.get("content");
                     if (users.isArray()) {
+                        // Role and name filters are applied by the user service search
                         for (JsonNode user : users) {
                             String role = user.has("role") ? user.get("role").asText("") : "";
+                            String firstName = user.has("firstName") ? user.get("firstName").asText("") : "";
+                            String lastName = user.has("lastName") ? user.get("lastName").asText("") : "";
                             
-                            // Only include agents (both ADMIN and ROOT_ADMIN can see agents)
-                            if ("agent".equalsIgnoreCase(role)) {
-                                String firstName = user.has("firstName") ? user.get("firstName").asText("") : "";
-                                String lastName = user.has("lastName") ? user.get("lastName").asText("") : "";
-                                String fullName = (firstName + " " + lastName).trim();
-                                
-                                // Filter by name if provided
-                                if (agentName == null || agentName.isEmpty() ||
-                                    fullName.toLowerCase().contains(agentName.toLowerCase()) ||
-                                    firstName.toLowerCase().contains(agentName.toLowerCase()) ||
-                                    lastName.toLowerCase().contains(agentName.toLowerCase())) {
-                                    
-                                    Map<String, Object> userMap = new HashMap<>();
-                                    userMap.put("userId", user.has("id") ? user.get("id").asText() : "");
-                                    userMap.put("name", fullName);
-                                    userMap.put("email", user.has("email") ? user.get("email").asText() : "");
-                                    userMap.put("role", role);
-                                    userMap.put("status", user.has("status") ? user.get("status").asText() : "");
-                                    results.add(userMap);
-                                }
-                            }
+                            Map<String, Object> userMap = new HashMap<>();
+                            userMap.put("userId", user.has("id") ? user.get("id").asText() : "");
+                            userMap.put("name", (firstName + " " + lastName).trim());
+                            userMap.put("email", user.has("email") ? user.get("email").asText() : "");
+                            userMap.put("role", role);
+                            userMap.put("status", user.has("status") ? user.get("status").asText() : "");
+                            results.add(userMap);
                         }
                     }
                 }
@@ -745,7 +811,7 @@ public class NaturalLanguageQueryService {
                 log.info("No agents found matching '{}', generating helpful response via OpenAI", agentName);
                 String roleContext = userContext.getRole() == UserRole.ROOT_ADMIN ? 
                     "in the system" : "that you manage";
-                String nlResponse = openAIService.chatCompletion(
+                String nlResponse = answers.generate(
                     "You are a CRM assistant. Help the user understand why their search returned no results.",
                     "The user searched for agents named '" + agentName + "' " + roleContext + ", but no matches were found. " +
                     "Provide a helpful response suggesting they try 'show all agents' to see their complete list, " +
@@ -755,14 +821,14 @@ public class NaturalLanguageQueryService {
                         .naturalLanguageResponse(nlResponse)
                         .queryType("agent")
                         .results(Collections.emptyList())
-                        .sqlQuery("GET /api/v1/users")
+                        .sqlQuery("GET /api/v1/users/search")
                         .build();
             }
             
             log.info("Natural Language Query - Calling OpenAI to summarize agent results...");
             String roleContext = userContext.getRole() == UserRole.ROOT_ADMIN ? 
                 "in the system" : "that you manage";
-            String nlResponse = openAIService.chatCompletion(
+            String nlResponse = answers.generate(
                 "You are a CRM assistant. Summarize agent search results naturally.",
                 "Found " + results.size() + " agent(s) " + roleContext + ". " +
                 (agentName != null ? "Searching for agents named: " + agentName + ". " : "") +
@@ -774,7 +840,7 @@ public class NaturalLanguageQueryService {
                     .naturalLanguageResponse(nlResponse)
                     .queryType("agent")
                     .results(results)
-                    .sqlQuery("GET /api/v1/users")
+                    .sqlQuery("GET /api/v1/users/search")
                     .build();
                     
         } catch (Exception e) {
@@ -787,7 +853,7 @@ public class NaturalLanguageQueryService {
         }
     }
     
-    private QueryResponse handleAdminQuery(JsonNode intent, String authToken, UserContext userContext) {
+    private QueryResponse handleAdminQuery(JsonNode intent, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         try {
             // Only ROOT_ADMINS can query admins
             if (userContext.getRole() != UserRole.ROOT_ADMIN) {
@@ -814,13 +880,13 @@ public class NaturalLanguageQueryService {
                 adminName = null;
             }
             
-            String response = userServiceClient.get()
-                    .uri("/api/v1/users")
-                    .header("Authorization", "Bearer " + authToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                    .block();
+            Optional<String> adminFilter = Optional.ofNullable(adminName).filter(name -> !name.isBlank());
+            String response = calls.fetch("user-service", userServiceClient,
+                    uriBuilder -> uriBuilder.path("/api/v1/users/search")
+                            .queryParam("roles", "admin")
+                            .queryParamIfPresent("q", adminFilter)
+                            .queryParam("limit", USER_SEARCH_LIMIT)
+                            .build());
             
             JsonNode usersResponse = objectMapper.readTree(response);
             List<Map<String, Object>> results = new ArrayList<>();
@@ -830,30 +896,19 @@ public class NaturalLanguageQueryService {
                 if (data != null && data.has("content")) {
                     JsonNode users = data.get("content");
                     if (users.isArray()) {
+                        // Role and name filters are applied by the user service search
                         for (JsonNode user : users) {
                             String role = user.has("role") ? user.get("role").asText("") : "";
+                            String firstName = user.has("firstName") ? user.get("firstName").asText("") : "";
+                            String lastName = user.has("lastName") ? user.get("lastName").asText("") : "";
                             
-                            // Only include admins (not root admins, not agents)
-                            if ("admin".equalsIgnoreCase(role)) {
-                                String firstName = user.has("firstName") ? user.get("firstName").asText("") : "";
-                                String lastName = user.has("lastName") ? user.get("lastName").asText("") : "";
-                                String fullName = (firstName + " " + lastName).trim();
-                                
-                                // Filter by name if provided
-                                if (adminName == null || adminName.isEmpty() ||
-                                    fullName.toLowerCase().contains(adminName.toLowerCase()) ||
-                                    firstName.toLowerCase().contains(adminName.toLowerCase()) ||
-                                    lastName.toLowerCase().contains(adminName.toLowerCase())) {
-                                    
-                                    Map<String, Object> userMap = new HashMap<>();
-                                    userMap.put("userId", user.has("id") ? user.get("id").asText() : "");
-                                    userMap.put("name", fullName);
-                                    userMap.put("email", user.has("email") ? user.get("email").asText() : "");
-                                    userMap.put("role", role);
-                                    userMap.put("status", user.has("status") ? user.get("status").asText() : "");
-                                    results.add(userMap);
-                                }
-                            }
+                            Map<String, Object> userMap = new HashMap<>();
+                            userMap.put("userId", user.has("id") ? user.get("id").asText() : "");
+                            userMap.put("name", (firstName + " " + lastName).trim());
+                            userMap.put("email", user.has("email") ? user.get("email").asText() : "");
+                            userMap.put("role", role);
+                            userMap.put("status", user.has("status") ? user.get("status").asText() : "");
+                            results.add(userMap);
                         }
                     }
                 }
@@ -862,7 +917,7 @@ public class NaturalLanguageQueryService {
             // Check if name filter returned no results
             if (adminName != null && !adminName.isEmpty() && results.isEmpty()) {
                 log.info("No administrators found matching '{}', generating helpful response via OpenAI", adminName);
-                String nlResponse = openAIService.chatCompletion(
+                String nlResponse = answers.generate(
                     "You are a CRM assistant. Help the user understand why their search returned no results.",
                     "The user searched for administrators named '" + adminName + "' in the system, but no matches were found. " +
                     "Provide a helpful response suggesting they try 'show all admins' to see the complete list, " +
@@ -872,12 +927,12 @@ public class NaturalLanguageQueryService {
                         .naturalLanguageResponse(nlResponse)
                         .queryType("admin")
                         .results(Collections.emptyList())
-                        .sqlQuery("GET /api/v1/users")
+                        .sqlQuery("GET /api/v1/users/search")
                         .build();
             }
             
             log.info("Natural Language Query - Calling OpenAI to summarize admin results...");
-            String nlResponse = openAIService.chatCompletion(
+            String nlResponse = answers.generate(
                 "You are a CRM assistant. Summarize administrator search results naturally.",
                 "Found " + results.size() + " administrator(s) in the system. " +
                 (adminName != null ? "Searching for administrators named: " + adminName + ". " : "") +
@@ -889,7 +944,7 @@ public class NaturalLanguageQueryService {
                     .naturalLanguageResponse(nlResponse)
                     .queryType("admin")
                     .results(results)
-                    .sqlQuery("GET /api/v1/users")
+                    .sqlQuery("GET /api/v1/users/search")
                     .build();
                     
         } catch (Exception e) {
@@ -902,7 +957,7 @@ public class NaturalLanguageQueryService {
         }
     }
     
-    private QueryResponse handleCombinedUsersQuery(JsonNode intent, String authToken, UserContext userContext) {
+    private QueryResponse handleCombinedUsersQuery(JsonNode intent, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         try {
             // Only ROOT_ADMIN can query both agents and admins
             if (userContext.getRole() != UserRole.ROOT_ADMIN) {
@@ -919,14 +974,13 @@ public class NaturalLanguageQueryService {
                         .build();
             }
             
-            // Fetch all users
-            String response = userServiceClient.get()
-                    .uri("/api/v1/users")
-                    .header("Authorization", "Bearer " + authToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                    .block();
+            // Fetch agents and admins
+            String response = calls.fetch("user-service", userServiceClient,
+                    uriBuilder -> uriBuilder.path("/api/v1/users/search")
+                            .queryParam("roles", "agent")
+                            .queryParam("roles", "admin")
+                            .queryParam("limit", USER_SEARCH_LIMIT)
+                            .build());
             
             JsonNode usersResponse = objectMapper.readTree(response);
             List<Map<String, Object>> results = new ArrayList<>();
@@ -965,7 +1019,7 @@ public class NaturalLanguageQueryService {
                     .naturalLanguageResponse(nlResponse)
                     .queryType("users")
                     .results(results)
-                    .sqlQuery("GET /api/v1/users")
+                    .sqlQuery("GET /api/v1/users/search")
                     .build();
                     
         } catch (Exception e) {
@@ -980,29 +1034,33 @@ public class NaturalLanguageQueryService {
     
     // Helper Methods
     
+    // Whether an agent's query is likely to need their client list (client, transaction or account queries)
+    private boolean mentionsClientData(String query) {
+        String lowerQuery = query.toLowerCase();
+        return lowerQuery.contains("client") || lowerQuery.contains("transaction") || lowerQuery.contains("account");
+    }
+    
+    // The agent's clients, fetched at most once per query (possibly already prefetched)
+    private JsonNode fetchAgentClients(DownstreamCalls calls) throws Exception {
+        JsonNode clientsResponse = objectMapper.readTree(calls.fetch("client-service", clientServiceClient, AGENT_CLIENTS));
+        if (clientsResponse.has("data") && clientsResponse.get("data").has("content")) {
+            return clientsResponse.get("data").get("content");
+        }
+        return objectMapper.createArrayNode();
+    }
+    
     // Fetch all client IDs for an agent used by transaction queries to filter by client
-    private List<String> getClientIdsForAgent(String authToken, UserContext userContext) {
+    private List<String> getClientIdsForAgent(DownstreamCalls calls, UserContext userContext) {
         try {
-            // Call client-service to get agent's clients filtered by agent ID
-            String response = clientServiceClient.get()
-                    .uri("/api/v1/clients?page=0&limit=100")
-                    .header("Authorization", "Bearer " + authToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                    .block();
-            
-            JsonNode clientsResponse = objectMapper.readTree(response);
+            // Client service filters the list to the calling agent's clients
+            JsonNode clients = fetchAgentClients(calls);
             List<String> clientIds = new ArrayList<>();
             
             // Extract client IDs from response
-            if (clientsResponse.has("data") && clientsResponse.get("data").has("content")) {
-                JsonNode clients = clientsResponse.get("data").get("content");
-                if (clients.isArray()) {
-                    for (JsonNode client : clients) {
-                        if (client.has("clientId")) {
-                            clientIds.add(client.get("clientId").asText());
-                        }
+            if (clients.isArray()) {
+                for (JsonNode client : clients) {
+                    if (client.has("clientId")) {
+                        clientIds.add(client.get("clientId").asText());
                     }
                 }
             }
@@ -1015,44 +1073,33 @@ public class NaturalLanguageQueryService {
     }
     
     private List<String> findClientIdsByName(String clientName, List<String> allowedClientIds, 
-                                             String authToken, UserContext userContext) {
+                                             DownstreamCalls calls, UserContext userContext) {
         try {
             log.info("Searching for clients matching name: '{}' among {} allowed clients", clientName, allowedClientIds.size());
             
-            // Fetch all clients for the agent
-            String response = clientServiceClient.get()
-                    .uri("/api/v1/clients?page=0&limit=100")
-                    .header("Authorization", "Bearer " + authToken)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(serviceTimeoutSeconds))
-                    .block();
-            
-            JsonNode clientsResponse = objectMapper.readTree(response);
+            // Same client list as getClientIdsForAgent, served from this query's memo
+            JsonNode clients = fetchAgentClients(calls);
             List<String> matchingClientIds = new ArrayList<>();
             String searchName = clientName.toLowerCase().trim();
             
-            if (clientsResponse.has("data") && clientsResponse.get("data").has("content")) {
-                JsonNode clients = clientsResponse.get("data").get("content");
-                if (clients.isArray()) {
-                    for (JsonNode client : clients) {
-                        String clientId = client.has("clientId") ? client.get("clientId").asText() : null;
+            if (clients.isArray()) {
+                for (JsonNode client : clients) {
+                    String clientId = client.has("clientId") ? client.get("clientId").asText() : null;
+                    
+                    // Only consider clients in the allowed list
+                    if (clientId != null && allowedClientIds.contains(clientId)) {
+                        String firstName = client.has("firstName") ? client.get("firstName").asText("").toLowerCase() : "";
+                        String lastName = client.has("lastName") ? client.get("lastName").asText("").toLowerCase() : "";
+                        String fullName = (firstName + " " + lastName).trim();
                         
-                        // Only consider clients in the allowed list
-                        if (clientId != null && allowedClientIds.contains(clientId)) {
-                            String firstName = client.has("firstName") ? client.get("firstName").asText("").toLowerCase() : "";
-                            String lastName = client.has("lastName") ? client.get("lastName").asText("").toLowerCase() : "";
-                            String fullName = (firstName + " " + lastName).trim();
-                            
-                            // Match against first name, last name, or full name
-                            if (firstName.contains(searchName) || 
-                                lastName.contains(searchName) || 
-                                fullName.contains(searchName) ||
-                                searchName.contains(firstName) ||
-                                searchName.contains(lastName)) {
-                                matchingClientIds.add(clientId);
-                                log.info("Found matching client: {} {} (ID: {})", firstName, lastName, clientId);
-                            }
+                        // Match against first name, last name, or full name
+                        if (firstName.contains(searchName) || 
+                            lastName.contains(searchName) || 
+                            fullName.contains(searchName) ||
+                            searchName.contains(firstName) ||
+                            searchName.contains(lastName)) {
+                            matchingClientIds.add(clientId);
+                            log.info("Found matching client: {} {} (ID: {})", firstName, lastName, clientId);
                         }
                     }
                 }
@@ -1083,7 +1130,7 @@ public class NaturalLanguageQueryService {
         return json.trim();
     }
     
-    private QueryResponse handleGeneralQuery(String query, UserContext userContext) {
+    private QueryResponse handleGeneralQuery(String query, AnswerGenerator answers, UserContext userContext) {
         log.info("Handling general/conversational query: '{}'", query);
         
         try {
@@ -1120,7 +1167,7 @@ public class NaturalLanguageQueryService {
                 %s
                 """.formatted(userContext.getRole(), availableFeatures);
             
-            String response = openAIService.chatCompletion(systemPrompt, query);
+            String response = answers.generateMarkdown(systemPrompt, query);
             response = normalizeMarkdownFormatting(response);
             
             return QueryResponse.builder()
@@ -1132,11 +1179,11 @@ public class NaturalLanguageQueryService {
         } catch (Exception e) {
             log.error("Error handling general query: {}", e.getMessage());
             // Fallback to AI-based unknown handler instead of hardcoded message
-            return handleUnknownQuery(query, userContext);
+            return handleUnknownQuery(query, answers, userContext);
         }
     }
     
-    private QueryResponse tryFallbackParsing(String query, String authToken, UserContext userContext) {
+    private QueryResponse tryFallbackParsing(String query, DownstreamCalls calls, AnswerGenerator answers, UserContext userContext) {
         // Enhanced keyword-based fallback
         String lowerQuery = query.toLowerCase();
         
@@ -1145,7 +1192,7 @@ public class NaturalLanguageQueryService {
             lowerQuery.contains("how can") || lowerQuery.contains("help") ||
             lowerQuery.contains("show me what") || lowerQuery.contains("what options")) {
             log.info("Fallback: Detected general question, handling as conversational query");
-            return handleGeneralQuery(query, userContext);
+            return handleGeneralQuery(query, answers, userContext);
         }
         
         // Check if query asks for BOTH agents and admins
@@ -1155,7 +1202,7 @@ public class NaturalLanguageQueryService {
             return handleCombinedUsersQuery(
                 objectMapper.createObjectNode().put("type", "users")
                     .set("parameters", objectMapper.createObjectNode()),
-                authToken, userContext);
+                calls, answers, userContext);
         }
         
         // Check for account queries
@@ -1165,7 +1212,7 @@ public class NaturalLanguageQueryService {
                 objectMapper.createObjectNode().put("type", "account")
                     .set("parameters", objectMapper.createObjectNode()),
                 query,
-                authToken, userContext);
+                calls, answers, userContext);
         }
         
         // Check for transaction queries (multiple variations)
@@ -1174,7 +1221,7 @@ public class NaturalLanguageQueryService {
             return handleTransactionQuery(
                 objectMapper.createObjectNode().put("type", "transaction")
                     .set("parameters", objectMapper.createObjectNode()),
-                authToken, userContext);
+                calls, answers, userContext);
         } 
         
         // Check for agent queries
@@ -1183,7 +1230,7 @@ public class NaturalLanguageQueryService {
             return handleAgentQuery(
                 objectMapper.createObjectNode().put("type", "agent")
                     .set("parameters", objectMapper.createObjectNode()),
-                authToken, userContext);
+                calls, answers, userContext);
         }
         
         // Check for admin queries
@@ -1192,7 +1239,7 @@ public class NaturalLanguageQueryService {
             return handleAdminQuery(
                 objectMapper.createObjectNode().put("type", "admin")
                     .set("parameters", objectMapper.createObjectNode()),
-                authToken, userContext);
+                calls, answers, userContext);
         }
         
         // Check for client queries
@@ -1202,16 +1249,16 @@ public class NaturalLanguageQueryService {
                 return handleClientQuery(
                     objectMapper.createObjectNode().put("type", "client")
                         .set("parameters", objectMapper.createObjectNode()),
-                    authToken, userContext);
+                    calls, answers, userContext);
             }
         }
         
         // If no keywords match, try using AI for conversational response
         log.info("Fallback: No keywords matched, attempting conversational AI response");
-        return handleGeneralQuery(query, userContext);
+        return handleGeneralQuery(query, answers, userContext);
     }
     
-    private QueryResponse handleUnknownQuery(String query, UserContext userContext) {
+    private QueryResponse handleUnknownQuery(String query, AnswerGenerator answers, UserContext userContext) {
         log.info("Handling unknown query with AI: '{}'", query);
         
         try {
@@ -1243,7 +1290,7 @@ public class NaturalLanguageQueryService {
                 Be conversational and helpful, not robotic.
                 """.formatted(userContext.getRole(), availableFeatures);
             
-            String response = openAIService.chatCompletion(systemPrompt, 
+            String response = answers.generateMarkdown(systemPrompt, 
                 "The user asked: \"" + query + "\". " +
                 "This doesn't match a specific CRM query. Provide a helpful response.");
             response = normalizeMarkdownFormatting(response);
@@ -1352,4 +1399,47 @@ public class NaturalLanguageQueryService {
                 """;
         };
     }
+    
+    /**
+     * Produces the natural language part of an answer: generated in full before responding, or
+     * deferred so {@link #streamQuery} can stream it.
+     */
+    @FunctionalInterface
+    private interface AnswerGenerator {
+        String generate(String systemPrompt, String userMessage);
+        
+        // Answers whose markdown is normalized once complete
+        default String generateMarkdown(String systemPrompt, String userMessage) {
+            return generate(systemPrompt, userMessage);
+        }
+    }
+    
+    // Records the summary prompt instead of calling OpenAI; the text is streamed afterwards
+    private static final class DeferredAnswer implements AnswerGenerator {
+        private String systemPrompt;
+        private String userMessage;
+        private boolean normalizeMarkdown;
+        
+        @Override
+        public String generate(String systemPrompt, String userMessage) {
+            this.systemPrompt = systemPrompt;
+            this.userMessage = userMessage;
+            this.normalizeMarkdown = false;
+            return "";
+        }
+        
+        @Override
+        public String generateMarkdown(String systemPrompt, String userMessage) {
+            generate(systemPrompt, userMessage);
+            this.normalizeMarkdown = true;
+            return "";
+        }
+        
+        boolean isPending() {
+            return systemPrompt != null;
+        }
+    }
+    
+    private record PreparedAnswer(QueryResponse response, DeferredAnswer answer) {
+    }
 }
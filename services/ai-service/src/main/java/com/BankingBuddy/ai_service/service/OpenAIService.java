@@ -2,21 +2,31 @@ package com.BankingBuddy.ai_service.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.springframework.lang.NonNull;
 
 @Service
 @Slf4j
 public class OpenAIService {
     
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_CHUNK =
+            new ParameterizedTypeReference<>() { };
+    
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final String apiKey;
@@ -25,6 +35,8 @@ public class OpenAIService {
     private final double temperature;
     private final int maxTokens;
     private final int timeoutSeconds;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary completionTokens;
     
     /**
      * Constructor for OpenAIService.
@@ -32,6 +44,7 @@ public class OpenAIService {
      * 
      * @param webClientBuilder WebClient builder  
      * @param objectMapper ObjectMapper for JSON parsing
+     * @param meterRegistry Registry for token usage metrics
      * @param apiKey OpenAI API key bean (from Secrets Manager in AWS, from properties in local)
      * @param apiUrl OpenAI API URL
      * @param model OpenAI model to use
@@ -42,6 +55,7 @@ public class OpenAIService {
     public OpenAIService(
             WebClient.Builder webClientBuilder,
             ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
             @Qualifier("openaiApiKey") String apiKey,
             @Value("${openai.api.url}") @NonNull String apiUrl,
             @Value("${openai.model}") @NonNull String model,
@@ -53,6 +67,8 @@ public class OpenAIService {
         this.temperature = temperature;
         this.maxTokens = maxTokens;
         this.timeoutSeconds = timeoutSeconds;
+        this.promptTokens = tokens(meterRegistry, "prompt");
+        this.completionTokens = tokens(meterRegistry, "completion");
         
         // Clean and validate API key
         this.apiKey = (apiKey != null) ? apiKey.trim() : "";
@@ -81,15 +97,7 @@ public class OpenAIService {
         }
         
         try {
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("temperature", temperature);
-            requestBody.put("max_tokens", maxTokens);
-            
-            List<Map<String, String>> messages = new ArrayList<>();
-            messages.add(Map.of("role", "system", "content", systemPrompt));
-            messages.add(Map.of("role", "user", "content", userMessage));
-            requestBody.put("messages", messages);
+            Map<String, Object> requestBody = buildRequestBody(systemPrompt, userMessage, false);
             
             log.info("Calling OpenAI API - Model: {}, User message length: {} chars, System prompt length: {} chars", 
                      model, userMessage.length(), systemPrompt.length());
@@ -126,6 +134,7 @@ public class OpenAIService {
                     int promptTokens = usage.has("prompt_tokens") ? usage.get("prompt_tokens").asInt() : 0;
                     int completionTokens = usage.has("completion_tokens") ? usage.get("completion_tokens").asInt() : 0;
                     int totalTokens = usage.has("total_tokens") ? usage.get("total_tokens").asInt() : 0;
+                    recordUsage(usage);
                     log.info("OpenAI API response received - Length: {} chars, Tokens: {} (prompt: {}, completion: {}), Duration: {}ms", 
                             content.length(), totalTokens, promptTokens, completionTokens, duration);
                 } else {
@@ -142,5 +151,96 @@ public class OpenAIService {
             throw new RuntimeException("Failed to get response from OpenAI API: " + e.getMessage(), e);
         }
     }
+    
+    /**
+     * Stream a chat completion: emits each content delta as OpenAI generates it, so callers can
+     * forward the first tokens instead of waiting for the full completion.
+     * The timeout applies to the wait for each chunk rather than to the whole response.
+     */
+    public Flux<String> streamChatCompletion(String systemPrompt, String userMessage) {
+        if (!hasApiKey) {
+            log.error("OpenAI API key not configured - cannot stream response");
+            return Flux.error(new IllegalStateException(
+                "OpenAI API key is not configured. Please set OPENAI_API_KEY environment variable."));
+        }
+        
+        log.info("Streaming OpenAI API - Model: {}, User message length: {} chars, System prompt length: {} chars", 
+                 model, userMessage.length(), systemPrompt.length());
+        
+        long startTime = System.currentTimeMillis();
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+        return webClient.post()
+                .uri("/chat/completions")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(buildRequestBody(systemPrompt, userMessage, true))
+                .retrieve()
+                .bodyToFlux(SSE_CHUNK)
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .map(this::extractDelta)
+                .filter(delta -> !delta.isEmpty())
+                .doOnNext(delta -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        log.info("OpenAI API first token after {}ms", System.currentTimeMillis() - startTime);
+                    }
+                })
+                .doOnComplete(() -> log.info("OpenAI API stream completed - Duration: {}ms", 
+                        System.currentTimeMillis() - startTime))
+                .doOnError(e -> log.error("Error streaming from OpenAI API: {}", e.getMessage(), e));
+    }
+    
+    private Map<String, Object> buildRequestBody(String systemPrompt, String userMessage, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("temperature", temperature);
+        requestBody.put("max_tokens", maxTokens);
+        if (stream) {
+            requestBody.put("stream", true);
+            // Final chunk reports token usage, as the non-streaming response does
+            requestBody.put("stream_options", Map.of("include_usage", true));
+        }
+        
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", systemPrompt));
+        messages.add(Map.of("role", "user", "content", userMessage));
+        requestBody.put("messages", messages);
+        return requestBody;
+    }
+    
+    // Content of one streamed chunk: {"choices":[{"delta":{"content":"..."}}]}
+    private String extractDelta(String chunk) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(chunk);
+            if (jsonNode.has("error")) {
+                JsonNode error = jsonNode.get("error");
+                throw new RuntimeException("OpenAI API error: " + 
+                    (error.has("message") ? error.get("message").asText() : "Unknown error"));
+            }
+            if (jsonNode.hasNonNull("usage")) {
+                JsonNode usage = jsonNode.get("usage");
+                log.info("OpenAI API stream usage - Tokens: {} (prompt: {}, completion: {})",
+                        usage.path("total_tokens").asInt(), usage.path("prompt_tokens").asInt(),
+                        usage.path("completion_tokens").asInt());
+                recordUsage(usage);
+            }
+            return jsonNode.path("choices").path(0).path("delta").path("content").asText("");
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new RuntimeException("Unexpected streaming chunk from OpenAI API: " + chunk, e);
+        }
+    }
+    
+    private void recordUsage(JsonNode usage) {
+        promptTokens.record(usage.path("prompt_tokens").asInt());
+        completionTokens.record(usage.path("completion_tokens").asInt());
+    }
+    
+    private static DistributionSummary tokens(MeterRegistry meterRegistry, String type) {
+        return DistributionSummary.builder("ai.openai.tokens")
+                .description("Tokens per OpenAI request, as reported by the API")
+                .baseUnit("tokens")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
 
 }
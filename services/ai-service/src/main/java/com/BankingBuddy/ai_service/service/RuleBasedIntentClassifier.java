@@ -0,0 +1,305 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.BankingBuddy.ai_service.security.UserRole;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic intent parser for plainly worded queries, tried before the OpenAI intent call.
+ * Applies the same rules as the intent prompt (query type, deposit/withdrawal, completed/pending/failed,
+ * agents vs admins, "accounts I manage", client names, relative date ranges) and produces the same JSON
+ * shape. It only answers when every word of the query is accounted for and the rules point to a single
+ * query type; anything else returns empty and goes to OpenAI.
+ */
+@Component
+public class RuleBasedIntentClassifier {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    // Words that carry no meaning beyond the entity, status and scope words below
+    private static final Set<String> FILLER = Set.of(
+            "show", "me", "all", "list", "get", "find", "display", "view", "see", "search", "look", "up",
+            "fetch", "pull", "give", "tell", "the", "a", "an", "of", "for", "from", "with", "in", "on", "at",
+            "by", "to", "and", "or", "i", "my", "mine", "our", "you", "can", "could", "please", "what", "which",
+            "who", "are", "is", "were", "was", "do", "did", "have", "has", "that", "under", "manage", "managed",
+            "there", "how", "many", "any", "every", "named", "called", "only", "current", "currently", "recent",
+            "latest", "about", "options", "features");
+
+    private static final Map<String, String> ENTITIES = Map.ofEntries(
+            Map.entry("client", "client"), Map.entry("clients", "client"),
+            Map.entry("customer", "client"), Map.entry("customers", "client"),
+            Map.entry("transaction", "transaction"), Map.entry("transactions", "transaction"),
+            Map.entry("deposit", "transaction"), Map.entry("deposits", "transaction"),
+            Map.entry("withdrawal", "transaction"), Map.entry("withdrawals", "transaction"),
+            Map.entry("account", "account"), Map.entry("accounts", "account"),
+            Map.entry("agent", "agent"), Map.entry("agents", "agent"),
+            Map.entry("user", "agent"), Map.entry("users", "agent"), Map.entry("staff", "agent"),
+            Map.entry("admin", "admin"), Map.entry("admins", "admin"),
+            Map.entry("administrator", "admin"), Map.entry("administrators", "admin"));
+
+    private static final Map<String, String> TRANSACTION_TYPES = Map.of(
+            "deposit", "Deposit", "deposits", "Deposit",
+            "withdrawal", "Withdrawal", "withdrawals", "Withdrawal");
+
+    private static final Map<String, String> TRANSACTION_STATUSES = Map.of(
+            "completed", "Completed", "complete", "Completed",
+            "pending", "Pending",
+            "failed", "Failed");
+
+    private static final Set<String> GENERAL_PHRASES = Set.of(
+            "what can", "what do", "how can", "help", "what options", "show me what");
+
+    private static final Set<String> NAME_MARKERS = Set.of("named", "called");
+    private static final Set<String> NAME_PREPOSITIONS = Set.of("for", "from", "of");
+    private static final Set<String> PAST_MARKERS = Set.of("last", "past", "previous");
+
+    // Dates the rules cannot resolve; never a name ("transactions from March" is a date range for OpenAI)
+    private static final Set<String> CALENDAR_WORDS = Set.of(
+            "january", "february", "march", "april", "may", "june", "july", "august", "september", "october",
+            "november", "december", "monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday",
+            "weekday", "weekdays", "weekend", "weekends", "morning", "afternoon", "evening", "night", "tonight",
+            "tomorrow", "day", "days", "week", "weeks", "month", "months", "year", "years", "quarter", "quarters",
+            "q1", "q2", "q3", "q4", "ytd", "next", "ago", "since", "before", "after", "between", "until", "during");
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RuleBasedIntentClassifier(MeterRegistry meterRegistry) {
+        this.hits = fastPath(meterRegistry, "hit");
+        this.misses = fastPath(meterRegistry, "miss");
+    }
+
+    /**
+     * Intent JSON for the query, or empty when the rules are not confident and OpenAI should decide.
+     */
+    public Optional<ObjectNode> classify(String query, UserRole role) {
+        Optional<ObjectNode> intent = classify(query, role, LocalDate.now());
+        (intent.isPresent() ? hits : misses).increment();
+        return intent;
+    }
+
+    Optional<ObjectNode> classify(String query, UserRole role, LocalDate today) {
+        String text = WHITESPACE.matcher(NON_WORD.matcher(query.toLowerCase(Locale.ROOT)).replaceAll(" "))
+                .replaceAll(" ").trim();
+        if (text.isEmpty()) {
+            return Optional.empty();
+        }
+        List<String> tokens = new ArrayList<>(List.of(text.split(" ")));
+        boolean[] consumed = new boolean[tokens.size()];
+
+        String[] dateRange = extractDateRange(tokens, consumed, today);
+        String name = extractName(tokens, consumed);
+
+        String type = null;
+        boolean staff = false;
+        boolean agents = false;
+        boolean admins = false;
+        String transactionType = null;
+        String transactionStatus = null;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (consumed[i]) {
+                continue;
+            }
+            String token = tokens.get(i);
+            String entity = ENTITIES.get(token);
+            if (entity != null) {
+                switch (entity) {
+                    case "agent" -> { agents = true; staff = true; }
+                    case "admin" -> { admins = true; staff = true; }
+                    default -> type = strongerCustomerType(type, entity);
+                }
+                String txType = TRANSACTION_TYPES.get(token);
+                if (txType != null) {
+                    // "deposits and withdrawals" means no type filter
+                    transactionType = transactionType == null || transactionType.equals(txType) ? txType : "";
+                }
+            } else if (TRANSACTION_STATUSES.containsKey(token)) {
+                String status = TRANSACTION_STATUSES.get(token);
+                if (transactionStatus != null && !transactionStatus.equals(status)) {
+                    return Optional.empty();
+                }
+                transactionStatus = status;
+            } else if (!FILLER.contains(token) && !"help".equals(token)) {
+                return Optional.empty(); // Unrecognized word: leave it to OpenAI
+            }
+        }
+
+        String padded = " " + text + " ";
+        boolean personal = padded.contains(" my ") || padded.contains(" mine ") || padded.contains(" i manage ")
+                || padded.contains(" i have ") || padded.contains(" under me ");
+        boolean broad = padded.contains(" all ") || padded.contains(" every ");
+        boolean general = GENERAL_PHRASES.stream().anyMatch(phrase -> padded.contains(" " + phrase + " "));
+
+        if (staff && type != null) {
+            return Optional.empty(); // e.g. "clients of agent john": mixes staff and customer data
+        }
+        if (staff) {
+            type = agents && admins ? "users" : admins ? "admin" : "agent";
+        }
+        if (type == null) {
+            if (!general || name != null) {
+                return Optional.empty();
+            }
+            type = "general";
+        } else if (general) {
+            return Optional.empty(); // "how can I see my clients" is a question, not a lookup
+        }
+
+        // An admin's "accounts I manage" are the agents they created
+        if ("account".equals(type) && personal && role == UserRole.ADMIN) {
+            type = "agent";
+        }
+
+        boolean transaction = "transaction".equals(type);
+        if (!transaction && (transactionType != null || transactionStatus != null || dateRange != null)) {
+            return Optional.empty();
+        }
+        if ("users".equals(type) && name != null) {
+            return Optional.empty();
+        }
+
+        String scope = personal ? "personal" : broad || "account".equals(type) ? "broad" : "none";
+        return Optional.of(intent(type, scope, name, dateRange,
+                transactionType == null || transactionType.isEmpty() ? null : transactionType, transactionStatus));
+    }
+
+    // Transactions outrank accounts, which outrank clients: "transactions for client X", "accounts for my clients"
+    private static String strongerCustomerType(String current, String candidate) {
+        List<String> order = List.of("client", "account", "transaction");
+        if (current == null) {
+            return candidate;
+        }
+        return order.indexOf(candidate) > order.indexOf(current) ? candidate : current;
+    }
+
+    /**
+     * Resolve a relative date phrase to {from, to}; "to" is null for ranges that run up to now.
+     */
+    private static String[] extractDateRange(List<String> tokens, boolean[] consumed, LocalDate today) {
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String next = i + 1 < tokens.size() ? tokens.get(i + 1) : "";
+            String afterNext = i + 2 < tokens.size() ? tokens.get(i + 2) : "";
+
+            LocalDate from = null;
+            LocalDate to = null;
+            int length = 0;
+            if (token.equals("today")) {
+                from = today;
+                length = 1;
+            } else if (token.equals("yesterday")) {
+                from = today.minusDays(1);
+                to = from;
+                length = 1;
+            } else if (token.equals("this") && Set.of("week", "month", "year").contains(next)) {
+                from = periodStart(today, next);
+                length = 2;
+            } else if (PAST_MARKERS.contains(token) && Set.of("week", "month", "year").contains(next)) {
+                from = periodStart(periodStart(today, next).minusDays(1), next);
+                to = periodStart(today, next).minusDays(1);
+                length = 2;
+            } else if (PAST_MARKERS.contains(token) && next.matches("\\d{1,3}") && afterNext.equals("days")) {
+                from = today.minusDays(Long.parseLong(next));
+                length = 3;
+            }
+
+            if (length > 0) {
+                for (int j = i; j < i + length; j++) {
+                    consumed[j] = true;
+                }
+                return new String[] {
+                    from.atStartOfDay().format(DATE_TIME),
+                    to == null ? null : to.atTime(LocalTime.of(23, 59, 59)).format(DATE_TIME)
+                };
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate periodStart(LocalDate date, String period) {
+        return switch (period) {
+            case "week" -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> date.withDayOfMonth(1);
+            default -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * Person name after "named"/"called", or after "for"/"from"/"of" (optionally followed by an entity word):
+     * up to two words that are not part of the query vocabulary or calendar words.
+     */
+    private static String extractName(List<String> tokens, boolean[] consumed) {
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (consumed[i] || !(NAME_MARKERS.contains(token) || NAME_PREPOSITIONS.contains(token))) {
+                continue;
+            }
+            int start = i + 1;
+            if (NAME_PREPOSITIONS.contains(token) && start < tokens.size() && ENTITIES.containsKey(tokens.get(start))) {
+                start++; // "for client john"
+            }
+            int end = start;
+            while (end < tokens.size() && end < start + 2 && !consumed[end] && isNameWord(tokens.get(end))) {
+                end++;
+            }
+            if (end > start) {
+                for (int j = start; j < end; j++) {
+                    consumed[j] = true;
+                }
+                return String.join(" ", tokens.subList(start, end));
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNameWord(String token) {
+        return !FILLER.contains(token) && !ENTITIES.containsKey(token) && !TRANSACTION_STATUSES.containsKey(token)
+                && !PAST_MARKERS.contains(token) && !CALENDAR_WORDS.contains(token) && !"this".equals(token)
+                && !token.chars().allMatch(Character::isDigit);
+    }
+
+    private static ObjectNode intent(String type, String scope, String name, String[] dateRange,
+                                     String transactionType, String transactionStatus) {
+        JsonNodeFactory json = JsonNodeFactory.instance;
+        ObjectNode parameters = json.objectNode();
+        parameters.put("clientName", Set.of("client", "transaction", "account").contains(type) ? name : null);
+        parameters.put("agentName", "agent".equals(type) ? name : null);
+        parameters.put("adminName", "admin".equals(type) ? name : null);
+        parameters.put("dateFrom", dateRange != null ? dateRange[0] : null);
+        parameters.put("dateTo", dateRange != null ? dateRange[1] : null);
+        parameters.put("transactionType", transactionType);
+        parameters.put("transactionStatus", transactionStatus);
+
+        ObjectNode intent = json.objectNode();
+        intent.put("type", type);
+        intent.put("scope", scope);
+        intent.set("parameters", parameters);
+        return intent;
+    }
+
+    private static Counter fastPath(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.intent.fast_path")
+                .description("Queries parsed by rules without calling OpenAI")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
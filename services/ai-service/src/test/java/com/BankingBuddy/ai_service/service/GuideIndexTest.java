@@ -0,0 +1,85 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.BankingBuddy.ai_service.config.GuideRetrievalProperties;
+import com.BankingBuddy.ai_service.security.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Section ranking and prompt size of the guide retrieval index, over the bundled guide.txt
+ */
+class GuideIndexTest {
+
+    private static final List<String> QUESTIONS = List.of(
+            "How do I create a client?",
+            "How do I verify a client?",
+            "Why can't I delete this client?",
+            "How do I set up MFA?",
+            "How do I reset my password?",
+            "How do I create a new agent?",
+            "How do I disable a user?",
+            "How do I view all accounts?",
+            "What does the dashboard show?");
+
+    // Retrieved / full guide size per role, measured at 19% (ADMIN), 15% (AGENT) and 9% (ROOT_ADMIN)
+    private static final Map<UserRole, Double> MAX_CONTEXT_SHARE = Map.of(
+            UserRole.ADMIN, 0.22,
+            UserRole.AGENT, 0.18,
+            UserRole.ROOT_ADMIN, 0.12);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GuideRetrievalProperties properties = new GuideRetrievalProperties();
+    private final GuideIndex index = new GuideIndex(properties, meterRegistry);
+
+    @Test
+    void search_ranksMatchingSectionFirst() {
+        assertTrue(topSection("How do I create a new admin?", UserRole.ROOT_ADMIN)
+                .startsWith("How to Create a New Admin"));
+        assertTrue(topSection("how to verify a client", UserRole.AGENT)
+                .startsWith("How to Verify a Client"));
+        assertTrue(topSection("Set up multi-factor authentication", UserRole.ADMIN)
+                .startsWith("How to Set Up Multi-Factor Authentication"));
+    }
+
+    @Test
+    void search_onlyReturnsSectionsVisibleToRole() {
+        List<GuideIndex.Section> sections = index.search("How do I create a new agent?", UserRole.AGENT, 4);
+
+        assertFalse(sections.isEmpty());
+        assertTrue(sections.stream().noneMatch(section -> section.heading().contains("USER MANAGEMENT")));
+    }
+
+    @Test
+    void search_fallsBackToOpeningSectionsWhenNothingMatches() {
+        List<GuideIndex.Section> sections = index.search("zzz qqq", UserRole.AGENT, 2);
+
+        assertEquals(2, sections.size());
+        assertEquals("OVERVIEW", sections.get(0).heading());
+    }
+
+    @Test
+    void contextFor_sendsFarLessThanTheWholeGuide() {
+        for (UserRole role : UserRole.values()) {
+            properties.setEnabled(false);
+            int full = index.contextFor("anything", role).length();
+            properties.setEnabled(true);
+            long retrieved = 0;
+            for (String question : QUESTIONS) {
+                retrieved += index.contextFor(question, role).length();
+            }
+            double share = (double) retrieved / (full * QUESTIONS.size());
+
+            assertTrue(share < MAX_CONTEXT_SHARE.get(role), role + " context was " + share + " of the full guide");
+        }
+        assertTrue(meterRegistry.summary("ai.guide.context.tokens", "context", "retrieved").count() > 0);
+    }
+
+    private String topSection(String question, UserRole role) {
+        return index.search(question, role, 1).get(0).text();
+    }
+}
@@ -0,0 +1,89 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.BankingBuddy.ai_service.config.IntentCacheProperties;
+import com.BankingBuddy.ai_service.security.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntentCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 11); // a Wednesday
+
+    private IntentCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private IntentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IntentCacheProperties();
+        properties.setMaxEntries(2);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new IntentCache(properties, new ObjectMapper(),
+                new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class), meterRegistry);
+    }
+
+    @Test
+    void normalize_ignoresCaseWhitespaceAndPunctuation() {
+        assertEquals("show my clients", IntentCache.normalize("  Show   my clients?! ", TODAY));
+        assertEquals(IntentCache.normalize("show my clients", TODAY),
+                IntentCache.normalize("SHOW MY CLIENTS.", TODAY));
+    }
+
+    @Test
+    void normalize_resolvesRelativeDates() {
+        assertEquals("transactions 2026-03-10", IntentCache.normalize("Transactions yesterday", TODAY));
+        assertEquals("deposits since 2026-03-04", IntentCache.normalize("deposits past 7 days", TODAY));
+        assertEquals("transactions month 2026-02", IntentCache.normalize("transactions last month", TODAY));
+        assertEquals("transactions week of 2026-03-09", IntentCache.normalize("transactions this week", TODAY));
+        assertEquals("transactions week of 2026-03-02", IntentCache.normalize("transactions previous week", TODAY));
+        assertEquals("transactions year 2025", IntentCache.normalize("transactions last year", TODAY));
+    }
+
+    @Test
+    void normalize_sameRelativePhraseDiffersAcrossDays() {
+        assertNotEquals(IntentCache.normalize("transactions today", TODAY),
+                IntentCache.normalize("transactions today", TODAY.plusDays(1)));
+    }
+
+    @Test
+    void get_hitsForEquivalentPhrasingWithinRoleOnly() {
+        cache.put("Show my clients", UserRole.AGENT, "{\"type\":\"client\"}", 1200);
+
+        assertEquals(Optional.of("{\"type\":\"client\"}"), cache.get("show my clients.", UserRole.AGENT));
+        assertTrue(cache.get("show my clients", UserRole.ADMIN).isEmpty());
+
+        assertEquals(1.0, meterRegistry.get("ai.intent.cache.lookups").tag("result", "local_hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("ai.intent.cache.lookups").tag("result", "miss").counter().count());
+        assertEquals(1200.0, meterRegistry.get("ai.intent.cache.saved").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedEntry() {
+        cache.put("show my clients", UserRole.AGENT, "clients", 100);
+        cache.put("show my transactions", UserRole.AGENT, "transactions", 100);
+        cache.get("show my clients", UserRole.AGENT);
+        cache.put("show my accounts", UserRole.AGENT, "accounts", 100);
+
+        assertTrue(cache.get("show my clients", UserRole.AGENT).isPresent());
+        assertTrue(cache.get("show my transactions", UserRole.AGENT).isEmpty());
+        assertEquals(2.0, meterRegistry.get("ai.intent.cache.size").gauge().value());
+    }
+
+    @Test
+    void disabledCache_neverHits() {
+        properties.setEnabled(false);
+        cache.put("show my clients", UserRole.AGENT, "clients", 100);
+
+        assertTrue(cache.get("show my clients", UserRole.AGENT).isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streams completions from a local stub of the OpenAI chat API that sends server-sent events
+ */
+class OpenAIServiceStreamingTest {
+
+    private HttpServer server;
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final AtomicReference<List<String>> chunks = new AtomicReference<>();
+    private final CountDownLatch releaseRest = new CountDownLatch(1);
+    private final AtomicBoolean stubGaveUpWaiting = new AtomicBoolean();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/chat/completions", this::streamChunks);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        releaseRest.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void streamChatCompletion_relaysFirstTokenBeforeGenerationFinishes() {
+        chunks.set(List.of(
+                "{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}",
+                "{\"choices\":[{\"delta\":{\"content\":\"Hello\"}}]}",
+                "{\"choices\":[{\"delta\":{\"content\":\" world\"}}]}",
+                "[DONE]"));
+
+        Iterator<String> deltas = service().streamChatCompletion("system", "hi").toIterable().iterator();
+
+        // The stub holds back everything after the first content chunk until released
+        assertEquals("Hello", deltas.next());
+        assertFalse(stubGaveUpWaiting.get());
+        releaseRest.countDown();
+        assertEquals(" world", deltas.next());
+        assertFalse(deltas.hasNext());
+        assertTrue(requestBody.get().contains("\"stream\":true"));
+    }
+
+    @Test
+    void streamChatCompletion_surfacesApiErrors() {
+        releaseRest.countDown();
+        chunks.set(List.of(
+                "{\"choices\":[{\"delta\":{\"content\":\"Partial\"}}]}",
+                "{\"error\":{\"message\":\"Rate limit reached\"}}"));
+
+        Iterator<String> deltas = service().streamChatCompletion("system", "hi").toIterable().iterator();
+
+        assertEquals("Partial", deltas.next());
+        RuntimeException e = assertThrows(RuntimeException.class, deltas::next);
+        assertTrue(e.getMessage().contains("Rate limit reached"));
+    }
+
+    @Test
+    void streamChatCompletion_failsWithoutApiKey() {
+        OpenAIService unconfigured = new OpenAIService(WebClient.builder(), new ObjectMapper(), new SimpleMeterRegistry(), "",
+                "http://localhost:" + server.getAddress().getPort(), "gpt-4o-mini", 0.3, 100, 5);
+
+        assertThrows(IllegalStateException.class,
+                () -> unconfigured.streamChatCompletion("system", "hi").blockFirst());
+    }
+
+    private OpenAIService service() {
+        return new OpenAIService(WebClient.builder(), new ObjectMapper(), new SimpleMeterRegistry(), "test-key",
+                "http://localhost:" + server.getAddress().getPort(), "gpt-4o-mini", 0.3, 100, 5);
+    }
+
+    private void streamChunks(HttpExchange exchange) throws IOException {
+        requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            boolean sentContent = false;
+            for (String chunk : chunks.get()) {
+                if (sentContent && releaseRest.getCount() > 0) {
+                    try {
+                        stubGaveUpWaiting.set(!releaseRest.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sentContent |= chunk.contains("content");
+            }
+        }
+    }
+}
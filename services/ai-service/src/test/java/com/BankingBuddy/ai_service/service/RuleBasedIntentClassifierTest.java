@@ -0,0 +1,119 @@
+package com.BankingBuddy.ai_service.service;
+
+import com.BankingBuddy.ai_service.security.UserRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Corpus-driven checks of the rule-based intent parser, plus its LLM bypass rate
+ */
+class RuleBasedIntentClassifierTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 11);
+
+    // 44 of the 62 corpus queries are answered without OpenAI (71%)
+    private static final double MIN_BYPASS_RATE = 0.70;
+
+    private final RuleBasedIntentClassifier classifier = new RuleBasedIntentClassifier(new SimpleMeterRegistry());
+
+    @Test
+    void corpus_matchesExpectedIntents() throws IOException {
+        List<String> failures = new ArrayList<>();
+        for (CorpusEntry entry : loadCorpus()) {
+            Optional<ObjectNode> intent = classifier.classify(entry.query(), entry.role(), TODAY);
+            String actual = intent.map(CorpusEntry::describe).orElse("openai");
+            if (!entry.expected().equals(actual)) {
+                failures.add(entry.role() + " '" + entry.query() + "': expected [" + entry.expected()
+                        + "] but was [" + actual + "]");
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    @Test
+    void corpus_bypassRateStaysAtMeasuredLevel() throws IOException {
+        List<CorpusEntry> corpus = loadCorpus();
+        long bypassed = corpus.stream()
+                .filter(entry -> classifier.classify(entry.query(), entry.role(), TODAY).isPresent())
+                .count();
+        double bypassRate = (double) bypassed / corpus.size();
+
+        assertTrue(bypassRate >= MIN_BYPASS_RATE,
+                "bypass rate dropped to " + bypassed + "/" + corpus.size() + " (" + bypassRate + ")");
+    }
+
+    @Test
+    void classify_recordsFastPathMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RuleBasedIntentClassifier instrumented = new RuleBasedIntentClassifier(meterRegistry);
+
+        instrumented.classify("show my clients", UserRole.AGENT);
+        instrumented.classify("clients in Singapore", UserRole.AGENT);
+
+        assertEquals(1.0, meterRegistry.get("ai.intent.fast_path").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("ai.intent.fast_path").tag("result", "miss").counter().count());
+    }
+
+    private List<CorpusEntry> loadCorpus() throws IOException {
+        List<CorpusEntry> corpus = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/intent-corpus.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\\|");
+                List<String> expected = new ArrayList<>();
+                for (int i = 2; i < columns.length; i++) {
+                    expected.add(columns[i].trim());
+                }
+                corpus.add(new CorpusEntry(UserRole.valueOf(columns[0].trim()), columns[1].trim(),
+                        String.join(" | ", expected)));
+            }
+        }
+        return corpus;
+    }
+
+    private record CorpusEntry(UserRole role, String query, String expected) {
+
+        static String describe(ObjectNode intent) {
+            JsonNode parameters = intent.get("parameters");
+            String name = firstPresent(parameters, "clientName", "agentName", "adminName");
+            return String.join(" | ",
+                    intent.get("type").asText(),
+                    intent.get("scope").asText(),
+                    name,
+                    text(parameters, "transactionType"),
+                    text(parameters, "transactionStatus"),
+                    text(parameters, "dateFrom"),
+                    text(parameters, "dateTo"));
+        }
+
+        private static String firstPresent(JsonNode parameters, String... fields) {
+            for (String field : fields) {
+                if (!parameters.get(field).isNull()) {
+                    return parameters.get(field).asText();
+                }
+            }
+            return "-";
+        }
+
+        private static String text(JsonNode parameters, String field) {
+            return parameters.get(field).isNull() ? "-" : parameters.get(field).asText();
+        }
+    }
+}
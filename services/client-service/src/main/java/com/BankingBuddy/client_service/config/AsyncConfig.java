@@ -1,32 +1,111 @@
 package com.BankingBuddy.client_service.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 /**
  * Configuration for async execution
- * Used for non-blocking email sending via SES
+ *
+ * Work is split into named lanes so a burst in one (e.g. thousands of queued emails)
+ * cannot starve another. Each lane has its own bounded queue, thread priority and
+ * rejection policy (see AsyncLaneProperties):
+ * - emailExecutor: SES sends; rejected sends go back to the email outbox
+ * - auditExecutor: audit outbox pollers; the scheduler thread runs a poller when saturated
+ * - cacheExecutor: cross-node cache invalidation messages; caller runs when saturated
+ * - warmupExecutor: startup warmups (Bloom filters); dropped when saturated, the periodic
+ *   sync retries them. Also the default for @Async without a qualifier.
+ * - postingsExecutor: balance posting and reconciliation lanes; the scheduler thread drains a
+ *   lane itself when saturated
+ * - rollupExecutor: per-branch rollup rebuilds; the caller reconciles a branch itself when
+ *   saturated
+ *
+ * Lanes run on platform thread pools by default, or on virtual threads bounded by
+ * semaphores with async.lanes.virtual-threads=true.
  */
 @Configuration
 @EnableAsync
-public class AsyncConfig {
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final AsyncLaneProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AsyncConfig(AsyncLaneProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Used by EmailOutboxDispatcher to send claimed outbox emails in parallel
+     * (retries are rescheduled in the outbox, so workers never sleep)
+     */
+    @Bean(name = "emailExecutor", destroyMethod = "shutdown")
+    public TaskLaneExecutor emailExecutor() {
+        return lane("email", properties.getEmail());
+    }
+
+    /**
+     * Used by AuditOutboxRelay to run its pollers
+     */
+    @Bean(name = "auditExecutor", destroyMethod = "shutdown")
+    public TaskLaneExecutor auditExecutor() {
+        return lane("audit", properties.getAudit());
+    }
+
+    /**
+     * Used by EntityCacheInvalidator to publish invalidations off the committing thread
+     */
+    @Bean(name = "cacheExecutor", destroyMethod = "shutdown")
+    public TaskLaneExecutor cacheExecutor() {
+        return lane("cache", properties.getCache());
+    }
 
     /**
-     * Configure thread pool for async operations
-     * Used by @Async annotated methods (e.g., EmailService.sendVerificationEmail)
+     * Used for startup warmups (@Async("warmupExecutor"))
      */
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("async-email-");
-        executor.initialize();
-        return executor;
+    @Bean(name = "warmupExecutor", destroyMethod = "shutdown")
+    public TaskLaneExecutor warmupExecutor() {
+        return lane("warmup", properties.getWarmup());
+    }
+
+    /**
+     * Used by BalancePostingService to drain and reconcile posting lanes in parallel
+     */
+    @Bean(name = "postingsExecutor", destroyMethod = "shutdown")
+    public TaskLaneExecutor postingsExecutor() {
+        return lane("postings", properties.getPostings());
+    }
+
+    /**
+     * Used by AccountRollupService to reconcile branches in parallel during a rebuild
+     */
+    @Bean(name = "rollupExecutor", destroyMethod = "shutdown")
+    public TaskLaneExecutor rollupExecutor() {
+        return lane("rollup", properties.getRollup());
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return warmupExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) ->
+                log.error("Async task {} failed: {}", method.getName(), e.getMessage(), e);
+    }
+
+    private TaskLaneExecutor lane(String name, AsyncLaneProperties.Lane lane) {
+        log.info("Async lane '{}': core={}, max={}, queue={}, priority={}, rejection={}, virtual threads={}",
+                name, lane.getCoreSize(), lane.getMaxSize(), lane.getQueueCapacity(), lane.getPriority(),
+                lane.getRejectionPolicy(), properties.isVirtualThreads());
+        return new TaskLaneExecutor(name, lane, properties.isVirtualThreads(), meterRegistry);
     }
 }
@@ -0,0 +1,50 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizing of the async executor lanes (prefix: async.lanes)
+ * Each lane has its own workers, bounded queue, thread priority and rejection policy.
+ */
+@Component
+@ConfigurationProperties(prefix = "async.lanes")
+@Data
+public class AsyncLaneProperties {
+    private boolean virtualThreads = false; // true = virtual thread per task, concurrency/queue bounded by semaphores
+
+    private Lane email = new Lane(2, 5, 100, Thread.NORM_PRIORITY + 1, RejectionPolicy.ABORT);
+    private Lane audit = new Lane(2, 2, 4, Thread.NORM_PRIORITY, RejectionPolicy.CALLER_RUNS);
+    private Lane cache = new Lane(1, 2, 1000, Thread.NORM_PRIORITY, RejectionPolicy.CALLER_RUNS);
+    private Lane warmup = new Lane(1, 1, 10, Thread.MIN_PRIORITY + 2, RejectionPolicy.DISCARD);
+    // maxSize = posting lanes drained concurrently per node; the queue holds the rest of a tick's lanes
+    private Lane postings = new Lane(4, 4, 64, Thread.NORM_PRIORITY, RejectionPolicy.CALLER_RUNS);
+    // maxSize = branches reconciled concurrently by a rollup rebuild
+    private Lane rollup = new Lane(4, 4, 100, Thread.NORM_PRIORITY - 1, RejectionPolicy.CALLER_RUNS);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Lane {
+        private int coreSize;
+        private int maxSize;                // Also the concurrency limit in virtual thread mode
+        private int queueCapacity;          // Tasks waiting beyond maxSize before the rejection policy applies
+        private int priority;               // Platform thread priority (ignored for virtual threads)
+        private RejectionPolicy rejectionPolicy;
+    }
+
+    /**
+     * What happens to a task when its lane is saturated
+     * ABORT: throw RejectedExecutionException (caller spills the work back to its outbox)
+     * CALLER_RUNS: run on the submitting thread (back-pressure)
+     * DISCARD: drop the task (only for work that is retried elsewhere)
+     */
+    public enum RejectionPolicy {
+        ABORT,
+        CALLER_RUNS,
+        DISCARD
+    }
+}
@@ -0,0 +1,22 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the audit outbox relay (prefix: audit.outbox)
+ */
+@Component
+@ConfigurationProperties(prefix = "audit.outbox")
+@Data
+public class AuditOutboxProperties {
+    private boolean relayEnabled = true;
+    private int pollers = 2;                 // Concurrent relay workers per node (run on the audit executor lane)
+    private int claimBatches = 5;            // SendMessageBatch calls (10 rows each) per claim
+    private int maxAttempts = 10;            // Give up (FAILED, replayable) after this many sends
+    private long leaseSeconds = 60;          // SENDING rows become claimable again after this
+    private long initialBackoffSeconds = 1;  // Retry delay doubles per attempt from here
+    private long maxBackoffSeconds = 300;
+    private int sentRetentionDays = 7;       // SENT rows older than this are purged (replay window)
+}
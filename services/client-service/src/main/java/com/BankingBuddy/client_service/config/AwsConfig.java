@@ -1,5 +1,7 @@
 package com.BankingBuddy.client_service.config;
 
+import com.bankingbuddy.resilience.AwsCallLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
@@ -9,6 +11,8 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
+import java.time.Duration;
+
 @Configuration
 public class AwsConfig {
     
@@ -32,17 +36,42 @@ public class AwsConfig {
                 .build();
     }
     
+    /**
+     * Adaptive concurrency limit for audit publishing; SQS has no per-operation quota to pace
+     */
+    @Bean
+    public AwsCallLimiter sqsCallLimiter(MeterRegistry meterRegistry) {
+        return AwsCallLimiter.builder("sqs")
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+    
+    /**
+     * SendEmail paced to the SES sending quota; a wait of up to a second covers the email lane's
+     * senders queueing for permits, anything longer is rejected and rescheduled by the outbox
+     */
+    @Bean
+    public AwsCallLimiter sesCallLimiter(AwsProperties awsProperties, MeterRegistry meterRegistry) {
+        return AwsCallLimiter.builder("ses")
+                .operationRate("SendEmail", awsProperties.getSes().getMaxSendRate())
+                .maxRateWait(Duration.ofSeconds(1))
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+    
     @Bean
-    public SqsClient sqsClient(AwsProperties awsProperties) {
+    public SqsClient sqsClient(AwsProperties awsProperties, AwsCallLimiter sqsCallLimiter) {
         if (awsProperties.getAccessKeyId() == null || awsProperties.getAccessKeyId().isEmpty()) {
             // Use default credentials provider (for local development with LocalStack or IAM roles)
             return SqsClient.builder()
                     .region(Region.of(awsProperties.getRegion()))
+                    .overrideConfiguration(c -> c.addExecutionInterceptor(sqsCallLimiter.interceptor()))
                     .build();
         }
         
         return SqsClient.builder()
                 .region(Region.of(awsProperties.getRegion()))
+                .overrideConfiguration(c -> c.addExecutionInterceptor(sqsCallLimiter.interceptor()))
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(
                                 awsProperties.getAccessKeyId(),
@@ -53,15 +82,17 @@ public class AwsConfig {
     }
     
     @Bean
-    public SesClient sesClient(AwsProperties awsProperties) {
+    public SesClient sesClient(AwsProperties awsProperties, AwsCallLimiter sesCallLimiter) {
         if (awsProperties.getAccessKeyId() == null || awsProperties.getAccessKeyId().isEmpty()) {
             return SesClient.builder()
                     .region(Region.of(awsProperties.getRegion()))
+                    .overrideConfiguration(c -> c.addExecutionInterceptor(sesCallLimiter.interceptor()))
                     .build();
         }
         
         return SesClient.builder()
                 .region(Region.of(awsProperties.getRegion()))
+                .overrideConfiguration(c -> c.addExecutionInterceptor(sesCallLimiter.interceptor()))
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(
                                 awsProperties.getAccessKeyId(),
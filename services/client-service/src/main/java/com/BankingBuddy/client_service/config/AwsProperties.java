@@ -28,5 +28,6 @@ public class AwsProperties {
     @Data
     public static class Ses {
         private String sourceEmail;
+        private double maxSendRate = 14; // SendEmail per second, at or below the account's SES sending quota
     }
 }
\ No newline at end of file
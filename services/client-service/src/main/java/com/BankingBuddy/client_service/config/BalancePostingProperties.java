@@ -0,0 +1,21 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the balance posting engine (prefix: accounts.postings)
+ * Lanes processed concurrently per node are set by the postings executor lane
+ * (async.lanes.postings.max-size).
+ */
+@Component
+@ConfigurationProperties(prefix = "accounts.postings")
+@Data
+public class BalancePostingProperties {
+    private boolean enabled = true;
+    private String sourceSchema = "crm_transactions"; // Database holding transaction-service's transactions table
+    private int lanes = 8;                  // Partitions by client_id; one writer per lane cluster-wide
+    private int batchSize = 500;            // Transactions per lane batch (one DB transaction)
+    private int lookbackDays = 7;           // Regular polls only scan transactions dated within this window
+}
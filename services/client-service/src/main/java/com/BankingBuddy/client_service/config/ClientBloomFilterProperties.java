@@ -0,0 +1,20 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the email / phone number uniqueness Bloom filters (prefix: clients.bloom)
+ */
+@Component
+@ConfigurationProperties(prefix = "clients.bloom")
+@Data
+public class ClientBloomFilterProperties {
+    private boolean enabled = true;
+    private long minCapacity = 100_000;        // Smallest filter built, regardless of table size
+    private double capacityHeadroom = 2.0;     // Rebuilt filters are sized for active clients * headroom
+    private double falsePositiveRate = 0.01;   // Target rate at full capacity
+    private double staleRebuildRatio = 0.25;   // Rebuild once retired values exceed this share of capacity
+    private long rebuildLockSeconds = 600;     // Cluster-wide rebuild lock TTL
+}
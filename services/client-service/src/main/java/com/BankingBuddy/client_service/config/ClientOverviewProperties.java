@@ -0,0 +1,19 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the composite client overview endpoint (prefix: clients.overview)
+ */
+@Component
+@ConfigurationProperties(prefix = "clients.overview")
+@Data
+public class ClientOverviewProperties {
+    private String transactionServiceUrl = "http://localhost:8082";
+    private int transactionsPageSize = 10;       // First page shown on the client detail page (max 10)
+    private long accountsTimeoutMs = 1000;       // Section deadlines, measured from the start of the fan-out
+    private long transactionsTimeoutMs = 1500;
+    private long connectTimeoutMs = 500;         // transaction-service connect timeout
+}
@@ -0,0 +1,21 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the email outbox dispatcher (prefix: email.outbox)
+ */
+@Component
+@ConfigurationProperties(prefix = "email.outbox")
+@Data
+public class EmailOutboxProperties {
+    private boolean dispatcherEnabled = true;
+    private int batchSize = 20;              // Rows claimed per poll (keep <= sender pool queue capacity)
+    private int maxAttempts = 5;             // Give up (FAILED) after this many sends
+    private long leaseSeconds = 60;          // SENDING rows become claimable again after this
+    private long initialBackoffSeconds = 2;  // Retry delay doubles per attempt from here
+    private long maxBackoffSeconds = 300;
+    private int sentRetentionDays = 7;       // SENT rows older than this are purged
+}
@@ -0,0 +1,31 @@
+package com.BankingBuddy.client_service.config;
+
+import com.BankingBuddy.client_service.service.IdGenerator;
+import com.BankingBuddy.client_service.service.TimeOrderedIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Selects the primary key generator (ids.strategy)
+ * - time-ordered (default): UUIDv7, inserts append to the clustered index
+ * - random: UUIDv4, the original behaviour (rollback switch)
+ */
+@Configuration
+@Slf4j
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${ids.strategy:time-ordered}") String strategy) {
+        log.info("Using {} ID generation for clients, accounts and audit records", strategy);
+        return switch (strategy) {
+            case "time-ordered" -> new TimeOrderedIdGenerator();
+            case "random" -> UUID::randomUUID;
+            default -> throw new IllegalArgumentException(
+                    "Unknown ids.strategy '" + strategy + "' (expected time-ordered or random)");
+        };
+    }
+}
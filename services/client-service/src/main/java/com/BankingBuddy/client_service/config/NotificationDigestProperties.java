@@ -0,0 +1,17 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for coalesced client notification digests (prefix: email.digest)
+ */
+@Component
+@ConfigurationProperties(prefix = "email.digest")
+@Data
+public class NotificationDigestProperties {
+    private boolean enabled = true;          // false = one email per update / account event (previous behavior)
+    private long windowSeconds = 120;        // Events within this window of the first one share a digest
+    private int batchSize = 50;              // Digests claimed per flusher poll
+}
@@ -16,6 +16,7 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -39,13 +40,18 @@ import java.util.Map;
  * Cache Regions:
  * - clients-list: Agent's paginated client list (5 min TTL)
  * - clients-single: Individual client details (10 min TTL)
- * - accounts-by-client: Client's accounts (10 min TTL)
+ * - accounts-by-client: Client's accounts (10 min TTL, write-through via AccountsByClientCache)
  */
 @Configuration
 @EnableCaching
 @Slf4j
 public class RedisConfig implements CachingConfigurer {
 
+    /**
+     * TTL of accounts-by-client entries (also used by the write-through AccountsByClientCache)
+     */
+    public static final Duration ACCOUNTS_BY_CLIENT_TTL = Duration.ofMinutes(10);
+
     @Value("${spring.data.redis.host}")
     private String redisHost;
 
@@ -84,6 +90,16 @@ public class RedisConfig implements CachingConfigurer {
         return new LettuceConnectionFactory(config);
     }
 
+    /**
+     * Pub/sub listener container (second-level cache invalidation between nodes)
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     /**
      * Configures Spring Cache Manager with differentiated TTLs per cache region.
      * 
@@ -109,7 +125,7 @@ public class RedisConfig implements CachingConfigurer {
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
         cacheConfigurations.put("clients-list", defaultConfig.entryTtl(Duration.ofMinutes(5)));
         cacheConfigurations.put("clients-single", defaultConfig.entryTtl(Duration.ofMinutes(10)));
-        cacheConfigurations.put("accounts-by-client", defaultConfig.entryTtl(Duration.ofMinutes(10)));
+        cacheConfigurations.put("accounts-by-client", defaultConfig.entryTtl(ACCOUNTS_BY_CLIENT_TTL));
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
@@ -0,0 +1,32 @@
+package com.BankingBuddy.client_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables @Scheduled background jobs (e.g. account balance rollup reconciliation)
+ *
+ * The jobs run on a pooled scheduler with one thread per job by default (outbox pollers,
+ * posting, digests, Bloom sync and the nightly rebuilds), so a slow run of one job never
+ * delays the others. Spring's default scheduler has a single thread.
+ */
+@Configuration
+@EnableScheduling
+@Slf4j
+public class SchedulingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:14}") int poolSize) {
+        int threads = Math.max(1, poolSize);
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setErrorHandler(e -> log.error("Scheduled job failed: {}", e.getMessage(), e));
+        log.info("Scheduled jobs run on a pool of {} thread(s)", threads);
+        return scheduler;
+    }
+}
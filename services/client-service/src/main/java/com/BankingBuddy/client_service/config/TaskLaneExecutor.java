@@ -0,0 +1,173 @@
+package com.BankingBuddy.client_service.config;
+
+import com.BankingBuddy.client_service.config.AsyncLaneProperties.Lane;
+import com.BankingBuddy.client_service.config.AsyncLaneProperties.RejectionPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One named async executor lane
+ *
+ * Platform mode: a ThreadPoolExecutor with a bounded queue and prioritized daemon threads.
+ * Virtual mode: a virtual thread per task; an admission semaphore (maxSize + queueCapacity)
+ * bounds accepted work and a concurrency semaphore (maxSize) bounds running tasks, so
+ * queued tasks are parked virtual threads.
+ *
+ * Saturation is handled by the lane's rejection policy in both modes.
+ *
+ * Metrics (tag lane): executor.lane.active, executor.lane.queued, executor.lane.rejected,
+ * executor.lane.wait (queue time), executor.lane.execution (run time)
+ */
+@Slf4j
+public class TaskLaneExecutor implements Executor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String name;
+    private final RejectionPolicy rejectionPolicy;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService virtualThreads;
+    private final Semaphore admission;
+    private final Semaphore concurrency;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+
+    public TaskLaneExecutor(String name, Lane lane, boolean virtual, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.rejectionPolicy = lane.getRejectionPolicy();
+        int maxSize = Math.max(1, lane.getMaxSize());
+        int queueCapacity = Math.max(0, lane.getQueueCapacity());
+
+        if (virtual) {
+            this.threadPool = null;
+            this.virtualThreads = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("lane-" + name + "-v", 1).factory());
+            this.admission = new Semaphore(maxSize + queueCapacity);
+            this.concurrency = new Semaphore(maxSize);
+        } else {
+            AtomicInteger threadCounter = new AtomicInteger();
+            BlockingQueue<Runnable> queue = queueCapacity > 0
+                    ? new ArrayBlockingQueue<>(queueCapacity)
+                    : new SynchronousQueue<>();
+            this.threadPool = new ThreadPoolExecutor(
+                    Math.min(Math.max(1, lane.getCoreSize()), maxSize), maxSize,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue,
+                    runnable -> {
+                        Thread thread = new Thread(runnable);
+                        thread.setName("lane-" + name + "-" + threadCounter.incrementAndGet());
+                        thread.setPriority(lane.getPriority());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.virtualThreads = null;
+            this.admission = null;
+            this.concurrency = null;
+        }
+
+        Gauge.builder("executor.lane.active", active, AtomicInteger::get)
+                .tag("lane", name)
+                .description("Tasks currently running on the lane")
+                .register(meterRegistry);
+        Gauge.builder("executor.lane.queued", queued, AtomicInteger::get)
+                .tag("lane", name)
+                .description("Tasks accepted by the lane and waiting for a worker")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("executor.lane.rejected")
+                .tag("lane", name)
+                .tag("policy", rejectionPolicy.name())
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("executor.lane.wait").tag("lane", name).register(meterRegistry);
+        this.executionTimer = Timer.builder("executor.lane.execution").tag("lane", name).register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            if (virtualThreads != null) {
+                if (!admission.tryAcquire()) {
+                    throw new RejectedExecutionException("Lane " + name + " is saturated");
+                }
+                try {
+                    virtualThreads.execute(() -> runAdmitted(task, submittedAt));
+                } catch (RejectedExecutionException e) {
+                    admission.release();
+                    throw e;
+                }
+            } else {
+                threadPool.execute(() -> run(task, submittedAt));
+            }
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            reject(task, e);
+        }
+    }
+
+    private void runAdmitted(Runnable task, long submittedAt) {
+        try {
+            concurrency.acquireUninterruptibly();
+            try {
+                run(task, submittedAt);
+            } finally {
+                concurrency.release();
+            }
+        } finally {
+            admission.release();
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        queued.decrementAndGet();
+        waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        active.incrementAndGet();
+        try {
+            executionTimer.record(task);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private void reject(Runnable task, RejectedExecutionException e) {
+        rejectedCounter.increment();
+        switch (rejectionPolicy) {
+            case CALLER_RUNS -> {
+                log.debug("Lane {} saturated - running task on the calling thread", name);
+                executionTimer.record(task);
+            }
+            case DISCARD -> log.warn("Lane {} saturated - discarding task", name);
+            default -> throw e;
+        }
+    }
+
+    /**
+     * Stop accepting tasks; running tasks finish, queued platform tasks are still executed
+     */
+    public void shutdown() {
+        if (threadPool != null) {
+            threadPool.shutdown();
+        } else {
+            virtualThreads.shutdown();
+        }
+    }
+}
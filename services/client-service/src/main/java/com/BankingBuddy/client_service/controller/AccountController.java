@@ -1,18 +1,33 @@
 package com.BankingBuddy.client_service.controller;
 
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.exception.InvalidOperationException;
+import com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO;
 import com.BankingBuddy.client_service.model.dto.AccountDTO;
 import com.BankingBuddy.client_service.model.dto.AccountWithClientDTO;
 import com.BankingBuddy.client_service.model.dto.ApiResponse;
 import com.BankingBuddy.client_service.model.dto.CreateAccountRequest;
+import com.BankingBuddy.client_service.model.dto.CursorPageDTO;
+import com.BankingBuddy.client_service.model.dto.PostingReconciliationResultDTO;
+import com.BankingBuddy.client_service.model.dto.RollupRebuildResultDTO;
 import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import com.BankingBuddy.client_service.service.AccountRollupService;
 import com.BankingBuddy.client_service.service.AccountService;
+import com.BankingBuddy.client_service.service.BalancePostingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -26,23 +41,42 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountRollupService accountRollupService;
+    private final BalancePostingService balancePostingService;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_ACCOUNTS_PAGE_LIMIT = 100;
 
     /**
      * Get all accounts with client information
      * Admin and Root Admin only - agents cannot access this endpoint
      * Returns accounts with client full name and agent ID via JOIN
      * 
+     * Two modes:
+     * - No limit param: legacy unpaged list (whole table in one response)
+     * - limit (and optional cursor): keyset page, follow nextCursor for subsequent pages
+     * 
+     * @param limit page size for keyset mode (1-100); omit for the legacy unpaged list
+     * @param cursor opaque cursor from the previous page's nextCursor
      * @param userContext the authenticated user context (ADMIN or ROOT_ADMIN only)
-     * @return ResponseEntity with list of accounts including client information
+     * @return ResponseEntity with accounts including client information
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AccountWithClientDTO>>> getAllAccounts(
+    public ResponseEntity<? extends ApiResponse<?>> getAllAccounts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
             @RequestAttribute("userContext") UserContext userContext) {
 
-        log.info("GET /api/accounts called by user: {} (role: {})", 
-                userContext.getUserId(), userContext.getRole());
+        log.info("GET /api/accounts called by user: {} (role: {}) with limit: {}", 
+                userContext.getUserId(), userContext.getRole(), limit);
 
         // Service layer handles authorization (defense in depth)
+        if (limit != null || cursor != null) {
+            int pageLimit = validateLimit(limit, userContext.getUserId());
+            CursorPageDTO<AccountWithClientDTO> page = accountService.getAccountsPage(cursor, pageLimit, userContext);
+            return ResponseEntity.ok(ApiResponse.success(page, "Accounts retrieved successfully"));
+        }
+
         List<AccountWithClientDTO> accounts = accountService.getAllAccounts(userContext);
 
         ApiResponse<List<AccountWithClientDTO>> response = 
@@ -51,6 +85,120 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Export all accounts with client information as newline-delimited JSON
+     * Admin and Root Admin only
+     * Rows are streamed from the database straight to the response, so full dumps
+     * do not need to fit in memory on either side.
+     * 
+     * @param userContext the authenticated user context (ADMIN or ROOT_ADMIN only)
+     * @return streaming NDJSON response, one AccountWithClientDTO per line
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAllAccounts(
+            @RequestAttribute("userContext") UserContext userContext) {
+
+        log.info("GET /api/accounts/export called by user: {} (role: {})", 
+                userContext.getUserId(), userContext.getRole());
+
+        // Check before the response is committed so a 403 can still be returned
+        if (userContext.getRole() != UserRole.ADMIN && userContext.getRole() != UserRole.ROOT_ADMIN) {
+            log.error("Unauthorized role attempting to export accounts: {}", userContext.getRole());
+            throw new ForbiddenException("Only ADMIN or ROOT_ADMIN roles can access all accounts");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream);
+            accountService.exportAllAccounts(userContext, account -> {
+                try {
+                    writer.write(account);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            outputStream.write('\n');
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Get account counts and total balances from the pre-aggregated rollups
+     * Admin and Root Admin only
+     * Totals are split by currency; balances are never summed across currencies
+     * 
+     * @param groupBy dimension to group by: branch (default), agent, accountType or currency
+     * @param userContext the authenticated user context (ADMIN or ROOT_ADMIN only)
+     * @return ResponseEntity with one summary row per (group, currency)
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<List<AccountBalanceSummaryDTO>>> getAccountSummary(
+            @RequestParam(defaultValue = "branch") String groupBy,
+            @RequestAttribute("userContext") UserContext userContext) {
+
+        log.info("GET /api/accounts/summary called by user: {} (role: {}) with groupBy: {}", 
+                userContext.getUserId(), userContext.getRole(), groupBy);
+
+        List<AccountBalanceSummaryDTO> summary = accountRollupService.getSummary(groupBy, userContext);
+
+        return ResponseEntity.ok(ApiResponse.success(summary, "Account summary retrieved successfully"));
+    }
+
+    /**
+     * Reconcile the account balance rollups against the accounts table
+     * Admin and Root Admin only - also runs nightly on a schedule
+     * 
+     * @param userContext the authenticated user context (ADMIN or ROOT_ADMIN only)
+     * @return ResponseEntity with the reconciliation result
+     */
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<ApiResponse<RollupRebuildResultDTO>> rebuildAccountSummary(
+            @RequestAttribute("userContext") UserContext userContext) {
+
+        log.info("POST /api/accounts/summary/rebuild called by user: {} (role: {})", 
+                userContext.getUserId(), userContext.getRole());
+
+        RollupRebuildResultDTO result = accountRollupService.rebuild(userContext);
+
+        return ResponseEntity.ok(ApiResponse.success(result, "Account summary rebuilt successfully"));
+    }
+
+    /**
+     * Reconcile posted balances against transaction-service totals and account balances
+     * Admin and Root Admin only - also runs nightly on a schedule
+     * 
+     * @param userContext the authenticated user context (ADMIN or ROOT_ADMIN only)
+     * @return ResponseEntity with the reconciliation result
+     */
+    @PostMapping("/postings/reconcile")
+    public ResponseEntity<ApiResponse<PostingReconciliationResultDTO>> reconcileBalancePostings(
+            @RequestAttribute("userContext") UserContext userContext) {
+
+        log.info("POST /api/accounts/postings/reconcile called by user: {} (role: {})", 
+                userContext.getUserId(), userContext.getRole());
+
+        PostingReconciliationResultDTO result = balancePostingService.reconcile(userContext);
+
+        return ResponseEntity.ok(ApiResponse.success(result, "Balance postings reconciled successfully"));
+    }
+
+    // Helper function to validate keyset page limit
+    private int validateLimit(Integer limit, String userId) {
+        if (limit == null) {
+            return MAX_ACCOUNTS_PAGE_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_ACCOUNTS_PAGE_LIMIT) {
+            log.warn("User {} provided invalid limit: {}", userId, limit);
+            throw new InvalidOperationException("Limit must be between 1 and " + MAX_ACCOUNTS_PAGE_LIMIT);
+        }
+        return limit;
+    }
+
     /**
      * Create a new account for a client
      * Agent only - creates account for their own clients
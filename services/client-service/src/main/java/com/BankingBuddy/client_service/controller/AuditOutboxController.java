@@ -0,0 +1,51 @@
+package com.BankingBuddy.client_service.controller;
+
+import com.BankingBuddy.client_service.model.dto.ApiResponse;
+import com.BankingBuddy.client_service.model.dto.AuditReplayResultDTO;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.service.AuditOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controller for audit outbox operations
+ * Handles replay of audit events to SQS (Admin/Root Admin only)
+ */
+@RestController
+@RequestMapping("/api/v1/audit-outbox")
+@RequiredArgsConstructor
+@Slf4j
+public class AuditOutboxController {
+
+    private final AuditOutboxService auditOutboxService;
+
+    /**
+     * Re-queue audit events created in [from, to) for publishing to SQS
+     * FAILED events are always re-queued; delivered events only with includeSent=true
+     * 
+     * @param from inclusive start of the window (ISO date-time)
+     * @param to exclusive end of the window (ISO date-time)
+     * @param includeSent also re-publish events that were already delivered
+     * @param userContext the authenticated user context (ADMIN or ROOT_ADMIN only)
+     * @return ResponseEntity with the number of re-queued events
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<ApiResponse<AuditReplayResultDTO>> replay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeSent,
+            @RequestAttribute("userContext") UserContext userContext) {
+
+        log.info("POST /api/audit-outbox/replay called by user: {} (role: {}) for [{}, {})", 
+                userContext.getUserId(), userContext.getRole(), from, to);
+
+        AuditReplayResultDTO result = auditOutboxService.replay(from, to, includeSent, userContext);
+
+        return ResponseEntity.ok(ApiResponse.success(result, "Audit events re-queued successfully"));
+    }
+}
@@ -2,10 +2,12 @@ package com.BankingBuddy.client_service.controller;
 
 import com.BankingBuddy.client_service.model.dto.ApiResponse;
 import com.BankingBuddy.client_service.model.dto.ClientDTO;
+import com.BankingBuddy.client_service.model.dto.ClientOverviewDTO;
 import com.BankingBuddy.client_service.model.dto.CreateClientRequest;
 import com.BankingBuddy.client_service.model.dto.PageDTO;
 import com.BankingBuddy.client_service.model.dto.UpdateClientRequest;
 import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.service.ClientOverviewService;
 import com.BankingBuddy.client_service.service.ClientService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +18,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/clients")
 @RequiredArgsConstructor
@@ -23,6 +29,10 @@ import org.springframework.web.bind.annotation.*;
 public class ClientController {
 
     private final ClientService clientService;
+    private final ClientOverviewService clientOverviewService;
+
+    // Authentication headers forwarded to downstream services (ALB OIDC or API Gateway JWT)
+    private static final List<String> FORWARDED_AUTH_HEADERS = List.of("Authorization", "x-amzn-oidc-data");
 
     // Helper function to validate limit
     private int validateLimit(int limit, String userId) {
@@ -133,6 +143,43 @@ public class ClientController {
         return ResponseEntity.ok(ApiResponse.success(clientDTO, "Client profile retrieved successfully"));
     }
 
+    /**
+     * Get the client detail page in one call
+     * Client profile, accounts and the first page of transactions, authorized once and
+     * loaded concurrently. Sections that miss their deadline are returned as partial.
+     * Transactions are opt-in (?include=transactions) so pages that do not show them
+     * never wait on transaction-service.
+     * 
+     * @param clientId the client ID
+     * @param include optional sections to add; only "transactions" is recognised
+     * @param httpRequest the HTTP request containing the user context and auth headers
+     * @return ResponseEntity with the client overview
+     */
+    @GetMapping("/{clientId}/overview")
+    public ResponseEntity<ApiResponse<ClientOverviewDTO>> getClientOverview(
+        @PathVariable String clientId,
+        @RequestParam(required = false) List<String> include,
+        HttpServletRequest httpRequest
+    ) {
+        UserContext userContext = (UserContext) httpRequest.getAttribute("userContext");
+        log.info("GET /api/clients/{}/overview called by user: {}", clientId, userContext.getUserId());
+        boolean includeTransactions = include != null && include.contains("transactions");
+
+        Map<String, String> authHeaders = new HashMap<>();
+        for (String header : FORWARDED_AUTH_HEADERS) {
+            String value = httpRequest.getHeader(header);
+            if (value != null) {
+                authHeaders.put(header, value);
+            }
+        }
+
+        ClientOverviewDTO overview = clientOverviewService.getOverview(clientId, userContext, includeTransactions, authHeaders);
+
+        return ResponseEntity.ok(ApiResponse.success(overview, overview.isPartial()
+                ? "Client overview retrieved with partial results"
+                : "Client overview retrieved successfully"));
+    }
+
     /**
      * Update client information
      * PUT with PATCH semantics - accepts partial updates
@@ -175,4 +222,24 @@ public class ClientController {
 
         return ResponseEntity.ok(ApiResponse.success(null, "Client profile soft deleted successfully"));
     }
+
+    /**
+     * Restore a soft-deleted client profile
+     * Also restores the accounts that were deleted together with the client
+     * 
+     * @param clientId the client ID to restore
+     * @param userContext the authenticated user context (AGENT only, own clients)
+     * @return ResponseEntity with restored client data
+     */
+    @PostMapping("/{clientId}/restore")
+    public ResponseEntity<ApiResponse<ClientDTO>> restoreClientById(
+        @PathVariable String clientId,
+        @RequestAttribute("userContext") UserContext userContext
+    ) {
+        log.info("POST /api/clients/{}/restore called by agent: {}", clientId, userContext.getUserId());
+
+        ClientDTO restoredClient = clientService.restoreClientById(clientId, userContext);
+
+        return ResponseEntity.ok(ApiResponse.success(restoredClient, "Client profile restored successfully"));
+    }
 }
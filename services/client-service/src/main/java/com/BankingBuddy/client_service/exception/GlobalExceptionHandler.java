@@ -2,6 +2,7 @@ package com.BankingBuddy.client_service.exception;
 
 import com.BankingBuddy.client_service.model.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -88,6 +89,35 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    /**
+     * Handle unique key violations on active client email / phone number
+     * The uniqueness pre-checks can race (or be skipped by the Bloom filter on a stale
+     * negative); the uk_email_active / uk_phone_active keys reject the write at flush or
+     * commit, and the client gets the same 409 the pre-check would have returned.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex) {
+        String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+        String message;
+        if (cause.contains("uk_email_active")) {
+            message = "A client with this email already exists";
+        } else if (cause.contains("uk_phone_active")) {
+            message = "A client with this phone number already exists";
+        } else {
+            return handleGenericException(ex);
+        }
+
+        log.error("Client already exists (unique key violation): {}", message);
+
+        ApiResponse<Void> response = ApiResponse.error(
+                message,
+                "CLIENT_ALREADY_EXISTS"
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     /**
      * Handle ForbiddenException
      */
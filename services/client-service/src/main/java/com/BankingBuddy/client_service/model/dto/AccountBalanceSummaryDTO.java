@@ -0,0 +1,33 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import com.BankingBuddy.client_service.model.enums.AccountType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for GET /api/accounts/summary response
+ * One row per (group key, currency) read from the account balance rollups
+ * Used by Admins/Root Admins for branch, agent and account type dashboards
+ */
+@Data
+@NoArgsConstructor
+public class AccountBalanceSummaryDTO {
+    private String groupBy;      // branch | agent | accountType | currency
+    private String groupKey;     // e.g. branch ID, agent ID or account type value
+    private String currency;
+    private Long accountCount;
+    private BigDecimal totalBalance;
+
+    /**
+     * JPQL constructor projection target.
+     * groupKey is typed as Object so the same constructor accepts String and AccountType keys.
+     */
+    public AccountBalanceSummaryDTO(Object groupKey, String currency, Long accountCount, BigDecimal totalBalance) {
+        this.groupKey = groupKey instanceof AccountType type ? type.getValue() : String.valueOf(groupKey);
+        this.currency = currency;
+        this.accountCount = accountCount;
+        this.totalBalance = totalBalance;
+    }
+}
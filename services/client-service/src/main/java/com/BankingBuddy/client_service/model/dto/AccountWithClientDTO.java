@@ -9,11 +9,15 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * DTO for GET /api/accounts response
  * Includes account information with client details (from JOIN)
  * Used by Admins/Root Admins to view all accounts with associated client info
+ *
+ * The all-args constructor doubles as a JPQL constructor projection target
+ * (see AccountRepository), so field order here must match the SELECT NEW clause.
  */
 @Data
 @NoArgsConstructor
@@ -30,6 +34,7 @@ public class AccountWithClientDTO {
     private String currency;
     private String branchId;
     private Boolean deleted;
+    private LocalDateTime createdAt;  // Keyset pagination sort key
     
     // Client fields (from JOIN)
     private String clientId;
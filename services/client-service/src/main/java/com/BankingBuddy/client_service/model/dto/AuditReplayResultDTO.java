@@ -0,0 +1,22 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of re-queuing audit outbox rows for replay
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditReplayResultDTO {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean includeSent;
+    private int requeued;         // Rows moved back to PENDING
+}
@@ -0,0 +1,18 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Email and phone number of an active client
+ * JPQL constructor projection target used to build the uniqueness Bloom filters
+ * (see ClientRepository#streamActiveContacts), so field order must match the SELECT NEW clause.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientContactDTO {
+    private String email;
+    private String phoneNumber;
+}
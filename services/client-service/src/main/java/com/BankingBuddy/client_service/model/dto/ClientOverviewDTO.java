@@ -0,0 +1,27 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for GET /api/v1/clients/{clientId}/overview
+ * Client profile, accounts and (with ?include=transactions) the first page of transactions
+ * in one response. Accounts and transactions are loaded concurrently with their own deadlines;
+ * partial is true when a loaded section is missing. transactions is omitted when not requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClientOverviewDTO {
+    private ClientDTO client;
+    private OverviewSectionDTO<List<AccountDTO>> accounts;
+    private OverviewSectionDTO<PageDTO<TransactionDTO>> transactions;
+    private boolean partial;
+}
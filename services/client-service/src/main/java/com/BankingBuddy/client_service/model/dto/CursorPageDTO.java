@@ -0,0 +1,26 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) page wrapper for large, append-mostly listings.
+ * 
+ * Unlike PageDTO, no total count is computed: the client passes nextCursor
+ * back to fetch the following page, so each page costs a single index range scan
+ * regardless of how deep into the result set it is.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;  // Opaque; null when there are no more rows
+    private boolean hasNext;
+}
@@ -0,0 +1,46 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merged notification events of one client, stored as JSON in notification_digests
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDigestPayload {
+    private Map<String, Map<String, String>> changes = new LinkedHashMap<>(); // field -> {old, new}
+    private List<AccountNotice> openedAccounts = new ArrayList<>();
+    private List<AccountNotice> closedAccounts = new ArrayList<>();
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changes.isEmpty() && openedAccounts.isEmpty() && closedAccounts.isEmpty();
+    }
+
+    /**
+     * Account snapshot taken when the event was recorded
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountNotice {
+        private String accountId;
+        private String accountType;
+        private String accountStatus;
+        private BigDecimal amount;      // Initial deposit when opened, final balance when closed
+        private String currency;
+        private String branchId;
+        private LocalDate date;         // Opening date when opened, closure date when closed
+    }
+}
@@ -0,0 +1,47 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One independently loaded section of the client overview
+ * status: OK (data present), TIMEOUT (deadline passed), UNAVAILABLE (load failed)
+ * or FORBIDDEN (the caller's role may not read this section)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OverviewSectionDTO<T> {
+
+    public static final String OK = "OK";
+    public static final String TIMEOUT = "TIMEOUT";
+    public static final String UNAVAILABLE = "UNAVAILABLE";
+    public static final String FORBIDDEN = "FORBIDDEN";
+
+    private String status;
+    private T data;
+    private String error;
+    private long latencyMs;
+
+    public static <T> OverviewSectionDTO<T> ok(T data, long latencyMs) {
+        return OverviewSectionDTO.<T>builder().status(OK).data(data).latencyMs(latencyMs).build();
+    }
+
+    /**
+     * Whether the section could not be loaded (TIMEOUT / UNAVAILABLE); FORBIDDEN is a complete answer
+     */
+    @JsonIgnore
+    public boolean isIncomplete() {
+        return TIMEOUT.equals(status) || UNAVAILABLE.equals(status);
+    }
+
+    public static <T> OverviewSectionDTO<T> failed(String status, String error, long latencyMs) {
+        return OverviewSectionDTO.<T>builder().status(status).error(error).latencyMs(latencyMs).build();
+    }
+}
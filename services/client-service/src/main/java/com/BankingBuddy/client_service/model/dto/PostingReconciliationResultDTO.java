@@ -0,0 +1,25 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a balance posting reconciliation run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostingReconciliationResultDTO {
+    private int lanesScanned;
+    private int lanesFailed;
+    private int clientsChecked;
+    private int clientsMismatched;      // Completed transaction total differs from the ledger total
+    private long unpostedTransactions;  // Completed transactions without a ledger row (posting lag)
+    private long heldTransactions;      // Ledger rows waiting for an eligible account or funds
+    private int accountsChecked;
+    private int accountsDrifted;        // balance != initial deposit + posted amounts
+    private long durationMs;
+}
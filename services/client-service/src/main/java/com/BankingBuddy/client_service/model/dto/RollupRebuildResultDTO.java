@@ -0,0 +1,20 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a full account balance rollup reconciliation run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupRebuildResultDTO {
+    private int branchesScanned;
+    private int rowsCorrected;    // Inserted, updated or removed rollup rows (i.e. drift found)
+    private int branchesFailed;
+    private long durationMs;
+}
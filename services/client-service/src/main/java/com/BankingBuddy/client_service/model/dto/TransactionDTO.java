@@ -0,0 +1,27 @@
+package com.BankingBuddy.client_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction as returned by transaction-service (GET /api/v1/transactions?clientId=)
+ * Type and status are kept as strings so new values on the transaction-service side
+ * do not break the client overview.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDTO {
+    private String id;
+    private String clientId;
+    private String transaction;
+    private BigDecimal amount;
+    private LocalDateTime date;
+    private String status;
+}
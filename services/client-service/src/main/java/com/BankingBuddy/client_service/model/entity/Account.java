@@ -5,6 +5,8 @@ import com.BankingBuddy.client_service.model.enums.AccountType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -21,9 +23,12 @@ import java.time.LocalDateTime;
                 @Index(name = "idx_account_status", columnList = "account_status"),
                 @Index(name = "idx_deleted", columnList = "deleted"),
                 @Index(name = "idx_opening_date", columnList = "opening_date"),
-                @Index(name = "idx_client_deleted", columnList = "client_id, deleted")
+                @Index(name = "idx_client_deleted", columnList = "client_id, deleted"),
+                @Index(name = "idx_deleted_created_account", columnList = "deleted, created_at, account_id")
         })
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -83,6 +88,9 @@ public class Account {
     @Builder.Default
     private Boolean deleted = false;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
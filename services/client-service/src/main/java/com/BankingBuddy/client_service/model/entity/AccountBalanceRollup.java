@@ -0,0 +1,65 @@
+package com.BankingBuddy.client_service.model.entity;
+
+import com.BankingBuddy.client_service.model.enums.AccountType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated account count and total balance per (agent, branch, account type, currency).
+ * Only non-deleted accounts are counted. Balances are never summed across currencies.
+ */
+@Entity
+@Table(name = "account_balance_rollups",
+        indexes = {
+                @Index(name = "idx_rollup_branch", columnList = "branch_id"),
+                @Index(name = "idx_rollup_account_type", columnList = "account_type")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceRollup {
+
+    @EmbeddedId
+    private AccountBalanceRollupId id;
+
+    @Column(name = "account_count", nullable = false)
+    private Long accountCount = 0L;
+
+    @Column(name = "total_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalBalance = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Constructor used as a JPQL projection target when aggregating the accounts table
+     * (see AccountRepository.aggregateBalancesForBranch)
+     */
+    public AccountBalanceRollup(String agentId, String branchId, AccountType accountType, String currency,
+                                Long accountCount, BigDecimal totalBalance) {
+        this.id = new AccountBalanceRollupId(agentId, branchId, accountType, currency);
+        this.accountCount = accountCount;
+        this.totalBalance = totalBalance != null ? totalBalance : BigDecimal.ZERO;
+    }
+
+    /**
+     * Whether this row carries the same aggregates as another row for the same key
+     */
+    public boolean hasSameTotals(AccountBalanceRollup other) {
+        return accountCount.equals(other.getAccountCount())
+                && totalBalance.compareTo(other.getTotalBalance()) == 0;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,35 @@
+package com.BankingBuddy.client_service.model.entity;
+
+import com.BankingBuddy.client_service.model.enums.AccountType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of an account balance rollup row: (agent, branch, account type, currency)
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceRollupId implements Serializable {
+
+    @Column(name = "agent_id", length = 255, nullable = false)
+    private String agentId;
+
+    @Column(name = "branch_id", length = 50, nullable = false)
+    private String branchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", length = 20, nullable = false)
+    private AccountType accountType;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+}
@@ -0,0 +1,85 @@
+package com.BankingBuddy.client_service.model.entity;
+
+import com.BankingBuddy.client_service.model.enums.AuditOutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "audit_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_outbox_log_id", columnNames = "log_id"),
+        indexes = {
+                @Index(name = "idx_audit_outbox_status_next", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_audit_outbox_status_created", columnList = "status, created_at"),
+                @Index(name = "idx_audit_outbox_created", columnList = "created_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "log_id", length = 36, nullable = false, updatable = false)
+    private String logId;
+
+    @Column(name = "client_id", length = 255, nullable = false)
+    private String clientId;
+
+    @Column(name = "crud_operation", length = 10, nullable = false)
+    private String crudOperation;
+
+    /**
+     * SQS message body, serialized once at write time so replays publish identical events
+     */
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private AuditOutboxStatus status = AuditOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * When PENDING: earliest time the next send may be attempted.
+     * When SENDING: lease expiry - if the claiming poller dies, the row becomes claimable again.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Lease token of the current claim; finalizing updates must present it
+     */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (this.createdAt == null) {
+            this.createdAt = now;
+        }
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = now;
+        }
+    }
+}
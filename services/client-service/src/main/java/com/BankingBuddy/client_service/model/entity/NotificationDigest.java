@@ -0,0 +1,39 @@
+package com.BankingBuddy.client_service.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_digests",
+        indexes = @Index(name = "idx_notification_digests_flush", columnList = "flush_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationDigest {
+
+    @Id
+    @Column(name = "client_id", length = 255)
+    private String clientId;
+
+    /**
+     * Serialized NotificationDigestPayload
+     */
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+
+    @Column(name = "first_event_at", nullable = false, updatable = false)
+    private LocalDateTime firstEventAt;
+
+    /**
+     * End of the coalescing window (fixed from the first event, so busy clients still get their digest)
+     */
+    @Column(name = "flush_at", nullable = false, updatable = false)
+    private LocalDateTime flushAt;
+}
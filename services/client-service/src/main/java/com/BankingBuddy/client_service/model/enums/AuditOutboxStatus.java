@@ -0,0 +1,13 @@
+package com.BankingBuddy.client_service.model.enums;
+
+/**
+ * Delivery state of an audit outbox row
+ * PENDING -> SENDING (claimed, leased) -> SENT | PENDING (retry scheduled) | FAILED (gave up)
+ * SENT and FAILED rows can be moved back to PENDING by a replay.
+ */
+public enum AuditOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
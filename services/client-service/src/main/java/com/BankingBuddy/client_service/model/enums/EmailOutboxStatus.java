@@ -0,0 +1,12 @@
+package com.BankingBuddy.client_service.model.enums;
+
+/**
+ * Delivery state of an email outbox row
+ * PENDING -> SENDING (claimed, leased) -> SENT | PENDING (retry scheduled) | FAILED (gave up)
+ */
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.BankingBuddy.client_service.model.enums;
+
+/**
+ * State of a transaction_postings row
+ * POSTED (applied to an account balance) | HELD (not applicable yet, retried by the full sweep)
+ */
+public enum PostingStatus {
+    POSTED,
+    HELD
+}
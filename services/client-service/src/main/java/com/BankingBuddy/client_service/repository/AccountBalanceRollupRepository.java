@@ -0,0 +1,82 @@
+package com.BankingBuddy.client_service.repository;
+
+import com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO;
+import com.BankingBuddy.client_service.model.entity.AccountBalanceRollup;
+import com.BankingBuddy.client_service.model.entity.AccountBalanceRollupId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceRollupRepository extends JpaRepository<AccountBalanceRollup, AccountBalanceRollupId> {
+
+    /**
+     * Atomically apply a delta to a rollup row, creating it if missing.
+     * Runs as a single statement so concurrent writers on any node serialize on the row lock.
+     * The declared query space limits Hibernate's post-statement cache invalidation to this
+     * table; without it every native DML statement clears all second-level cache regions.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "account_balance_rollups"))
+    @Query(value = "INSERT INTO account_balance_rollups " +
+                   "(agent_id, branch_id, account_type, currency, account_count, total_balance, updated_at) " +
+                   "VALUES (:agentId, :branchId, :accountType, :currency, :countDelta, :balanceDelta, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "account_count = account_count + :countDelta, " +
+                   "total_balance = total_balance + :balanceDelta, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int applyDelta(@Param("agentId") String agentId,
+                   @Param("branchId") String branchId,
+                   @Param("accountType") String accountType,
+                   @Param("currency") String currency,
+                   @Param("countDelta") long countDelta,
+                   @Param("balanceDelta") BigDecimal balanceDelta);
+
+    /**
+     * Lock all rollup rows of a branch for reconciliation
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM AccountBalanceRollup r WHERE r.id.branchId = :branchId")
+    List<AccountBalanceRollup> findByBranchIdForUpdate(@Param("branchId") String branchId);
+
+    /**
+     * Distinct branch IDs currently present in the rollups
+     */
+    @Query("SELECT DISTINCT r.id.branchId FROM AccountBalanceRollup r")
+    List<String> findDistinctBranchIds();
+
+    @Query("SELECT new com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO(" +
+           "r.id.branchId, r.id.currency, SUM(r.accountCount), SUM(r.totalBalance)) " +
+           "FROM AccountBalanceRollup r WHERE r.accountCount > 0 " +
+           "GROUP BY r.id.branchId, r.id.currency ORDER BY r.id.branchId, r.id.currency")
+    List<AccountBalanceSummaryDTO> summarizeByBranch();
+
+    @Query("SELECT new com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO(" +
+           "r.id.agentId, r.id.currency, SUM(r.accountCount), SUM(r.totalBalance)) " +
+           "FROM AccountBalanceRollup r WHERE r.accountCount > 0 " +
+           "GROUP BY r.id.agentId, r.id.currency ORDER BY r.id.agentId, r.id.currency")
+    List<AccountBalanceSummaryDTO> summarizeByAgent();
+
+    @Query("SELECT new com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO(" +
+           "r.id.accountType, r.id.currency, SUM(r.accountCount), SUM(r.totalBalance)) " +
+           "FROM AccountBalanceRollup r WHERE r.accountCount > 0 " +
+           "GROUP BY r.id.accountType, r.id.currency ORDER BY r.id.accountType, r.id.currency")
+    List<AccountBalanceSummaryDTO> summarizeByAccountType();
+
+    @Query("SELECT new com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO(" +
+           "r.id.currency, r.id.currency, SUM(r.accountCount), SUM(r.totalBalance)) " +
+           "FROM AccountBalanceRollup r WHERE r.accountCount > 0 " +
+           "GROUP BY r.id.currency ORDER BY r.id.currency")
+    List<AccountBalanceSummaryDTO> summarizeByCurrency();
+}
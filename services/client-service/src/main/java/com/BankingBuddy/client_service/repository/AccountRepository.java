@@ -1,12 +1,25 @@
 package com.BankingBuddy.client_service.repository;
 
+import com.BankingBuddy.client_service.model.dto.AccountWithClientDTO;
 import com.BankingBuddy.client_service.model.entity.Account;
+import com.BankingBuddy.client_service.model.entity.AccountBalanceRollup;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
@@ -26,18 +39,126 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      */
     Optional<Account> findByAccountIdAndDeletedFalse(String accountId);
 
+    /**
+     * Find an account by ID and lock its row
+     * Balances change concurrently (balance posting), so checks on the balance must hold the lock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findByIdForUpdate(@Param("accountId") String accountId);
+
+    /**
+     * Lock the non-deleted accounts of a set of clients (balance posting batch)
+     * Ordered by account ID so concurrent lockers acquire rows in the same order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.clientId IN :clientIds AND a.deleted = false ORDER BY a.accountId")
+    List<Account> findActiveByClientIdsForUpdate(@Param("clientIds") Collection<String> clientIds);
+
     /**
      * Find all accounts by client ID
      * @return List of accounts owned by the client
      */
     List<Account> findByClientId(String clientId);
+
+    /**
+     * Find the accounts that were soft deleted together with their client
+     * (same deleted_at stamp as the client row)
+     */
+    List<Account> findByClientIdAndDeletedTrueAndDeletedAt(String clientId, LocalDateTime deletedAt);
+
+    /**
+     * Cascade a client soft delete to all of its active accounts in one statement
+     * Guarded on balance = 0: the caller compares the row count with the accounts it
+     * validated and rolls back if an account changed or appeared in between.
+     * Flushes pending entity changes first and clears the persistence context after,
+     * so no stale Account instances survive the bulk update.
+     *
+     * @return number of accounts soft deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.deleted = true, a.deletedAt = :deletedAt, a.updatedAt = :deletedAt " +
+           "WHERE a.clientId = :clientId AND a.deleted = false AND a.balance = 0")
+    int softDeleteZeroBalanceAccounts(@Param("clientId") String clientId,
+                                      @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Restore, in one statement, the accounts soft deleted together with their client
+     *
+     * @return number of accounts restored
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.deleted = false, a.deletedAt = null, a.updatedAt = :restoredAt " +
+           "WHERE a.clientId = :clientId AND a.deleted = true AND a.deletedAt = :deletedAt")
+    int restoreAccountsDeletedWith(@Param("clientId") String clientId,
+                                   @Param("deletedAt") LocalDateTime deletedAt,
+                                   @Param("restoredAt") LocalDateTime restoredAt);
+
+    /**
+     * Shared SELECT NEW projection for admin account listings.
+     * Only the columns needed by AccountWithClientDTO are read; no Client entity is materialized.
+     */
+    String ACCOUNT_WITH_CLIENT_PROJECTION =
+            "SELECT new com.BankingBuddy.client_service.model.dto.AccountWithClientDTO(" +
+            "a.accountId, a.accountType, a.accountStatus, a.openingDate, a.initialDeposit, " +
+            "a.balance, a.currency, a.branchId, a.deleted, a.createdAt, " +
+            "a.clientId, CONCAT(c.firstName, ' ', c.lastName), c.agentId) " +
+            "FROM Account a JOIN a.client c " +
+            "WHERE a.deleted = false AND c.deleted = false ";
+
+    /**
+     * All non-deleted accounts as DTO projections (legacy unpaged GET /api/accounts)
+     */
+    @Query(ACCOUNT_WITH_CLIENT_PROJECTION +
+           "ORDER BY a.createdAt DESC, a.accountId DESC")
+    List<AccountWithClientDTO> findAllAccountsWithClientProjection();
+
+    /**
+     * First keyset page of account projections, newest first.
+     * Pageable is only used as a LIMIT (no count query is issued for List results).
+     */
+    @Query(ACCOUNT_WITH_CLIENT_PROJECTION +
+           "ORDER BY a.createdAt DESC, a.accountId DESC")
+    List<AccountWithClientDTO> findAccountsWithClientFirstPage(Pageable pageable);
+
+    /**
+     * Subsequent keyset page: rows strictly after the (createdAt, accountId) cursor
+     * in (createdAt DESC, accountId DESC) order
+     */
+    @Query(ACCOUNT_WITH_CLIENT_PROJECTION +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.accountId < :accountId)) " +
+           "ORDER BY a.createdAt DESC, a.accountId DESC")
+    List<AccountWithClientDTO> findAccountsWithClientAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                           @Param("accountId") String accountId,
+                                                           Pageable pageable);
+
+    /**
+     * Streams every account projection for full exports.
+     * Fetch size Integer.MIN_VALUE switches MySQL Connector/J to row-by-row streaming,
+     * so memory stays flat regardless of table size. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ACCOUNT_WITH_CLIENT_PROJECTION +
+           "ORDER BY a.createdAt DESC, a.accountId DESC")
+    Stream<AccountWithClientDTO> streamAllAccountsWithClientInfo();
+
+    /**
+     * Distinct branch IDs of non-deleted accounts (partitions for the parallel rollup rebuild)
+     */
+    @Query("SELECT DISTINCT a.branchId FROM Account a WHERE a.deleted = false")
+    List<String> findDistinctActiveBranchIds();
+
     /**
-     * Find all accounts with client information (for GET /api/accounts)
-     * This query joins accounts with clients to get client details
+     * Recompute balance rollups for one branch directly from the accounts table
+     * Results are unmanaged AccountBalanceRollup instances used for reconciliation
      */
-    @Query("SELECT a FROM Account a " +
-           "JOIN FETCH a.client c " +
-           "WHERE a.deleted = false AND c.deleted = false " +
-           "ORDER BY a.createdAt DESC")
-    List<Account> findAllAccountsWithClientInfo();
+    @Query("SELECT new com.BankingBuddy.client_service.model.entity.AccountBalanceRollup(" +
+           "c.agentId, a.branchId, a.accountType, a.currency, COUNT(a), SUM(a.balance)) " +
+           "FROM Account a JOIN a.client c " +
+           "WHERE a.deleted = false AND a.branchId = :branchId " +
+           "GROUP BY c.agentId, a.branchId, a.accountType, a.currency")
+    List<AccountBalanceRollup> aggregateBalancesForBranch(@Param("branchId") String branchId);
 }
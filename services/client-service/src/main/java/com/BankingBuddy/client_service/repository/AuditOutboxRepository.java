@@ -0,0 +1,100 @@
+package com.BankingBuddy.client_service.repository;
+
+import com.BankingBuddy.client_service.model.entity.AuditOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.AuditOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AuditOutboxRepository extends JpaRepository<AuditOutboxMessage, Long> {
+
+    /**
+     * Lock a batch of due rows for relaying, oldest first
+     * Picks PENDING rows whose retry time has come and SENDING rows whose lease expired.
+     * SKIP LOCKED lets concurrent pollers (on this node and others) claim disjoint batches.
+     * Must be called inside a transaction; the caller flips the rows to SENDING before commit.
+     */
+    @Query(value = "SELECT * FROM audit_outbox " +
+                   "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+                   "ORDER BY id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<AuditOutboxMessage> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Mark a set of claimed rows as delivered (one statement per SendMessageBatch)
+     * Every finalizing update is fenced by the claim's lease token: rows whose lease expired and
+     * were re-claimed by another poller are left alone. Returns the number of rows updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.SENT, " +
+           "m.sentAt = :sentAt, m.lastError = null " +
+           "WHERE m.id IN :ids AND m.claimToken = :claimToken AND m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.SENDING")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Return a claimed row to PENDING with a future retry time
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.PENDING, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error " +
+           "WHERE m.id = :id AND m.claimToken = :claimToken AND m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.SENDING")
+    int reschedule(@Param("id") Long id, @Param("claimToken") String claimToken,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Park a claimed row (rejected by SQS or attempts exhausted) - it stays replayable
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.FAILED, " +
+           "m.lastError = :error " +
+           "WHERE m.id = :id AND m.claimToken = :claimToken AND m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.SENDING")
+    int markFailed(@Param("id") Long id, @Param("claimToken") String claimToken, @Param("error") String error);
+
+    /**
+     * Re-queue rows created in [from, to) that are in the given states
+     * Attempts are reset so replayed rows get the full retry budget
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuditOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.PENDING, " +
+           "m.attempts = 0, m.nextAttemptAt = :now, m.lastError = null " +
+           "WHERE m.status IN :statuses AND m.createdAt >= :from AND m.createdAt < :to")
+    int requeue(@Param("statuses") Collection<AuditOutboxStatus> statuses,
+                @Param("from") LocalDateTime from,
+                @Param("to") LocalDateTime to,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Number of rows in the given states (backlog metric)
+     */
+    long countByStatusIn(Collection<AuditOutboxStatus> statuses);
+
+    /**
+     * Creation time of the oldest row in the given states (relay lag metric)
+     */
+    @Query("SELECT MIN(m.createdAt) FROM AuditOutboxMessage m WHERE m.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<AuditOutboxStatus> statuses);
+
+    /**
+     * Purge delivered rows older than the retention cutoff
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuditOutboxMessage m " +
+           "WHERE m.status = com.BankingBuddy.client_service.model.enums.AuditOutboxStatus.SENT AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,13 +1,19 @@
 package com.BankingBuddy.client_service.repository;
 
+import com.BankingBuddy.client_service.model.dto.ClientContactDTO;
 import com.BankingBuddy.client_service.model.entity.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.lang.NonNull;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, String> {
@@ -33,6 +39,24 @@ public interface ClientRepository extends JpaRepository<Client, String> {
      */
     Optional<Client> findByClientIdAndDeletedFalse(String clientId);
 
+    /**
+     * Find a client by primary key where deleted is false
+     * Unlike the derived query above, a lookup by ID is served from the second-level
+     * entity cache, so repeated ownership checks do not each query MySQL.
+     * @param clientId the client ID to search for
+     * @return Optional containing the client if found and not deleted
+     */
+    default Optional<Client> findActiveById(String clientId) {
+        return findById(clientId).filter(client -> !Boolean.TRUE.equals(client.getDeleted()));
+    }
+
+    /**
+     * Find a soft-deleted client by client ID
+     * @param clientId the client ID to search for
+     * @return Optional containing the client if found and deleted
+     */
+    Optional<Client> findByClientIdAndDeletedTrue(String clientId);
+
     /**
      * Find all clients assigned to a specific agent where deleted is false
      * @param agentId the agent ID to search for
@@ -47,4 +71,24 @@ public interface ClientRepository extends JpaRepository<Client, String> {
      * @return Optional containing the client if found
      */
     Optional<Client> findByClientId(String clientId);
+
+    /**
+     * Count clients that are not deleted (sizes the uniqueness Bloom filters)
+     * @return number of active clients
+     */
+    long countByDeletedFalse();
+
+    /**
+     * Streams the email and phone number of every active client.
+     * Fetch size Integer.MIN_VALUE switches MySQL Connector/J to row-by-row streaming,
+     * so memory stays flat regardless of table size. Must be consumed inside a transaction.
+     * @return stream of active client contacts
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT NEW com.BankingBuddy.client_service.model.dto.ClientContactDTO(c.email, c.phoneNumber) " +
+           "FROM Client c WHERE c.deleted = false")
+    Stream<ClientContactDTO> streamActiveContacts();
 }
@@ -0,0 +1,88 @@
+package com.BankingBuddy.client_service.repository;
+
+import com.BankingBuddy.client_service.model.entity.EmailOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Lock a batch of due rows for delivery
+     * Picks PENDING rows whose retry time has come and SENDING rows whose lease expired
+     * (claiming node died). SKIP LOCKED lets every node claim disjoint batches without waiting.
+     * Must be called inside a transaction; the caller flips the rows to SENDING before commit.
+     */
+    @Query(value = "SELECT * FROM email_outbox " +
+                   "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EmailOutboxMessage> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Mark a claimed row as delivered
+     * Every finalizing update is fenced by the attempt number set at claim time: once a lease expires
+     * and another node re-claims the row (incrementing attempts), the slow first worker updates
+     * nothing (returns 0) instead of overwriting the new claim.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.SENT, " +
+           "m.sesMessageId = :messageId, m.sentAt = :sentAt, m.lastError = null " +
+           "WHERE m.id = :id AND m.attempts = :attempt " +
+           "AND m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.SENDING")
+    int markSent(@Param("id") Long id, @Param("attempt") int attempt, @Param("messageId") String messageId, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Return a claimed row to PENDING with a future retry time (non-blocking backoff)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.PENDING, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error " +
+           "WHERE m.id = :id AND m.attempts = :attempt " +
+           "AND m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.SENDING")
+    int reschedule(@Param("id") Long id, @Param("attempt") int attempt, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Give up on a claimed row (permanent SES rejection or attempts exhausted)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.FAILED, " +
+           "m.lastError = :error " +
+           "WHERE m.id = :id AND m.attempts = :attempt " +
+           "AND m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.SENDING")
+    int markFailed(@Param("id") Long id, @Param("attempt") int attempt, @Param("error") String error);
+
+    /**
+     * Number of rows in the given states (queue depth metric)
+     */
+    long countByStatusIn(Collection<EmailOutboxStatus> statuses);
+
+    /**
+     * Creation time of the oldest undelivered row (queue age metric)
+     */
+    @Query("SELECT MIN(m.createdAt) FROM EmailOutboxMessage m WHERE m.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<EmailOutboxStatus> statuses);
+
+    /**
+     * Purge delivered rows older than the retention cutoff
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m " +
+           "WHERE m.status = com.BankingBuddy.client_service.model.enums.EmailOutboxStatus.SENT AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
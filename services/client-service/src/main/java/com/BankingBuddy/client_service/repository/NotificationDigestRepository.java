@@ -0,0 +1,57 @@
+package com.BankingBuddy.client_service.repository;
+
+import com.BankingBuddy.client_service.model.entity.NotificationDigest;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationDigestRepository extends JpaRepository<NotificationDigest, String> {
+
+    /**
+     * Open an empty digest for a client unless one is already open, and lock it
+     * ON DUPLICATE KEY UPDATE takes an exclusive lock on an existing row straight away (INSERT IGNORE
+     * only takes a shared one, and two mergers upgrading shared locks deadlock). A concurrent opener
+     * on another node waits on the primary key, so both end up merging into the same digest in turn.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_digests"))
+    @Query(value = "INSERT INTO notification_digests (client_id, payload, event_count, first_event_at, flush_at) " +
+                   "VALUES (:clientId, '{}', 0, :now, :flushAt) " +
+                   "ON DUPLICATE KEY UPDATE client_id = client_id",
+           nativeQuery = true)
+    int openIfAbsent(@Param("clientId") String clientId,
+                     @Param("now") LocalDateTime now,
+                     @Param("flushAt") LocalDateTime flushAt);
+
+    /**
+     * Lock a client's open digest for merging or taking it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM NotificationDigest d WHERE d.clientId = :clientId")
+    Optional<NotificationDigest> findByIdForUpdate(@Param("clientId") String clientId);
+
+    /**
+     * Lock a batch of digests whose window has elapsed
+     * SKIP LOCKED lets every node claim disjoint batches; digests being merged right now are skipped
+     * until the next poll. Must be called inside a transaction that deletes the claimed rows.
+     */
+    @Query(value = "SELECT * FROM notification_digests " +
+                   "WHERE flush_at <= :now " +
+                   "ORDER BY flush_at " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificationDigest> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
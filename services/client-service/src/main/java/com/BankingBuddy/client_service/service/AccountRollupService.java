@@ -0,0 +1,294 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.exception.InvalidOperationException;
+import com.BankingBuddy.client_service.model.dto.AccountBalanceSummaryDTO;
+import com.BankingBuddy.client_service.model.dto.RollupRebuildResultDTO;
+import com.BankingBuddy.client_service.model.entity.Account;
+import com.BankingBuddy.client_service.model.entity.AccountBalanceRollup;
+import com.BankingBuddy.client_service.model.entity.AccountBalanceRollupId;
+import com.BankingBuddy.client_service.repository.AccountBalanceRollupRepository;
+import com.BankingBuddy.client_service.repository.AccountRepository;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining pre-aggregated account balance rollups
+ *
+ * Rollup rows are keyed by (agent, branch, account type, currency) and updated with a
+ * single atomic upsert inside the caller's transaction, so they commit or roll back
+ * together with the account change that caused them.
+ *
+ * A full rebuild reconciles the rollups against the accounts table, one branch per
+ * transaction, with branches processed in parallel on the rollup executor lane.
+ */
+@Service
+@Slf4j
+public class AccountRollupService {
+
+    private final AccountBalanceRollupRepository rollupRepository;
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Executor rollupExecutor;
+
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean(false);
+
+    public AccountRollupService(
+            AccountBalanceRollupRepository rollupRepository,
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("rollupExecutor") Executor rollupExecutor) {
+        this.rollupRepository = rollupRepository;
+        this.accountRepository = accountRepository;
+        this.transactionManager = transactionManager;
+        this.rollupExecutor = rollupExecutor;
+    }
+
+    /**
+     * Record a newly opened account (count +1, balance +opening balance)
+     * Must run inside the transaction that persisted the account
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountOpened(Account account, String agentId) {
+        applyDelta(account, agentId, 1, account.getBalance());
+    }
+
+    /**
+     * Record a soft-deleted account (count -1, balance -current balance)
+     * Must run inside the transaction that marked the account deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountClosed(Account account, String agentId) {
+        applyDelta(account, agentId, -1, account.getBalance().negate());
+    }
+
+    /**
+     * Record a balance change on an existing account (count unchanged)
+     * Must run inside the transaction that updated the balance
+     *
+     * @param delta signed change applied to the account balance
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBalanceChange(Account account, String agentId, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        applyDelta(account, agentId, 0, delta);
+    }
+
+    /**
+     * Record a set of accounts closed together (e.g. client delete cascade)
+     * One upsert per (branch, account type, currency) group instead of one per account
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountsClosed(List<Account> accounts, String agentId) {
+        applyGroupedDeltas(accounts, agentId, -1);
+    }
+
+    /**
+     * Record a set of accounts reopened together (e.g. client restore)
+     * One upsert per (branch, account type, currency) group instead of one per account
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccountsOpened(List<Account> accounts, String agentId) {
+        applyGroupedDeltas(accounts, agentId, 1);
+    }
+
+    private void applyGroupedDeltas(List<Account> accounts, String agentId, int sign) {
+        Map<AccountBalanceRollupId, List<Account>> groups = accounts.stream()
+                .collect(Collectors.groupingBy(account -> new AccountBalanceRollupId(
+                        agentId, account.getBranchId(), account.getAccountType(), account.getCurrency())));
+
+        groups.forEach((key, members) -> {
+            BigDecimal total = members.stream()
+                    .map(Account::getBalance)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            rollupRepository.applyDelta(agentId, key.getBranchId(), key.getAccountType().name(),
+                    key.getCurrency(), (long) sign * members.size(), sign < 0 ? total.negate() : total);
+        });
+        log.debug("Applied {} grouped rollup delta(s) for {} account(s) [agent {}]",
+                groups.size(), accounts.size(), agentId);
+    }
+
+    private void applyDelta(Account account, String agentId, long countDelta, BigDecimal balanceDelta) {
+        rollupRepository.applyDelta(agentId, account.getBranchId(), account.getAccountType().name(),
+                account.getCurrency(), countDelta, balanceDelta);
+        log.debug("Applied rollup delta (count {}, balance {}) for account {} [agent {}, branch {}]",
+                countDelta, balanceDelta, account.getAccountId(), agentId, account.getBranchId());
+    }
+
+    /**
+     * Get account counts and total balances grouped by the requested dimension (Admin/Root Admin only)
+     * Totals are always split by currency
+     *
+     * @param groupBy one of branch, agent, accountType, currency
+     * @param userContext the authenticated user context
+     * @return summary rows ordered by group key then currency
+     */
+    @Transactional(readOnly = true)
+    public List<AccountBalanceSummaryDTO> getSummary(String groupBy, UserContext userContext) {
+        log.info("Retrieving account balance summary grouped by {}. User: {}, Role: {}",
+                groupBy, userContext.getUserId(), userContext.getRole());
+
+        requireAdminRole(userContext);
+
+        List<AccountBalanceSummaryDTO> rows = switch (groupBy) {
+            case "branch" -> rollupRepository.summarizeByBranch();
+            case "agent" -> rollupRepository.summarizeByAgent();
+            case "accountType" -> rollupRepository.summarizeByAccountType();
+            case "currency" -> rollupRepository.summarizeByCurrency();
+            default -> throw new InvalidOperationException(
+                    "Invalid groupBy value. Supported: branch, agent, accountType, currency");
+        };
+        rows.forEach(row -> row.setGroupBy(groupBy));
+        return rows;
+    }
+
+    /**
+     * Trigger a full rollup rebuild on demand (Admin/Root Admin only)
+     */
+    public RollupRebuildResultDTO rebuild(UserContext userContext) {
+        log.info("Manual account rollup rebuild requested. User: {}, Role: {}",
+                userContext.getUserId(), userContext.getRole());
+        requireAdminRole(userContext);
+        return rebuild();
+    }
+
+    /**
+     * Scheduled reconciliation of rollups against the accounts table
+     */
+    @Scheduled(cron = "${accounts.rollup.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reconcile every rollup row against the accounts table
+     * Each branch is recomputed in its own transaction on the rollup executor lane.
+     * Rollup rows of the branch are locked first, so live writers on that branch
+     * wait for the branch to be reconciled and then apply their delta on top.
+     *
+     * @return summary of the reconciliation run
+     */
+    public RollupRebuildResultDTO rebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            log.warn("Account rollup rebuild already running on this node - skipping");
+            throw new InvalidOperationException("An account rollup rebuild is already running");
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            // Union of branches in accounts and in rollups, so stale rollup-only branches are cleared too
+            TreeSet<String> branchIds = new TreeSet<>(accountRepository.findDistinctActiveBranchIds());
+            branchIds.addAll(rollupRepository.findDistinctBranchIds());
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (String branchId : branchIds) {
+                futures.add(CompletableFuture.supplyAsync(() -> reconcileBranch(branchId), rollupExecutor)
+                        .exceptionally(e -> {
+                            log.error("Rollup reconciliation failed for branch {}: {}", branchId, e.getMessage(), e);
+                            return -1;
+                        }));
+            }
+
+            int corrected = 0;
+            int failed = 0;
+            for (CompletableFuture<Integer> future : futures) {
+                int result = future.join();
+                if (result < 0) {
+                    failed++;
+                } else {
+                    corrected += result;
+                }
+            }
+
+            RollupRebuildResultDTO result = RollupRebuildResultDTO.builder()
+                    .branchesScanned(branchIds.size())
+                    .rowsCorrected(corrected)
+                    .branchesFailed(failed)
+                    .durationMs(System.currentTimeMillis() - start)
+                    .build();
+
+            if (corrected > 0) {
+                log.warn("Account rollup rebuild corrected {} drifted row(s): {}", corrected, result);
+            } else {
+                log.info("Account rollup rebuild completed with no drift: {}", result);
+            }
+            return result;
+        } finally {
+            rebuildRunning.set(false);
+        }
+    }
+
+    /**
+     * Recompute one branch and correct any drifted rollup rows
+     *
+     * @return number of rollup rows inserted, updated or removed
+     */
+    private int reconcileBranch(String branchId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer corrected = transactionTemplate.execute(status -> {
+            Map<AccountBalanceRollupId, AccountBalanceRollup> stored = rollupRepository
+                    .findByBranchIdForUpdate(branchId).stream()
+                    .collect(Collectors.toMap(AccountBalanceRollup::getId, Function.identity()));
+
+            List<AccountBalanceRollup> actual = accountRepository.aggregateBalancesForBranch(branchId);
+
+            int changes = 0;
+            for (AccountBalanceRollup expected : actual) {
+                AccountBalanceRollup current = stored.remove(expected.getId());
+                if (current == null) {
+                    rollupRepository.save(expected);
+                    changes++;
+                } else if (!current.hasSameTotals(expected)) {
+                    log.warn("Rollup drift for {}: stored ({}, {}), actual ({}, {})", expected.getId(),
+                            current.getAccountCount(), current.getTotalBalance(),
+                            expected.getAccountCount(), expected.getTotalBalance());
+                    current.setAccountCount(expected.getAccountCount());
+                    current.setTotalBalance(expected.getTotalBalance());
+                    changes++;
+                }
+            }
+
+            // Remaining rows have no matching accounts any more (zeroed rows are just housekeeping)
+            if (!stored.isEmpty()) {
+                changes += (int) stored.values().stream()
+                        .filter(row -> row.getAccountCount() != 0 || row.getTotalBalance().signum() != 0)
+                        .count();
+                rollupRepository.deleteAll(stored.values());
+            }
+            return changes;
+        });
+        return corrected != null ? corrected : 0;
+    }
+
+    /**
+     * Authorization check - only ADMIN and ROOT_ADMIN can view account rollups
+     */
+    private void requireAdminRole(UserContext userContext) {
+        if (userContext.getRole() != UserRole.ADMIN &&
+            userContext.getRole() != UserRole.ROOT_ADMIN) {
+            log.error("Unauthorized role attempting to access account rollups: {}", userContext.getRole());
+            throw new ForbiddenException("Only ADMIN or ROOT_ADMIN roles can access account summaries");
+        }
+    }
+}
@@ -6,34 +6,35 @@ import com.BankingBuddy.client_service.exception.ForbiddenException;
 import com.BankingBuddy.client_service.exception.InvalidOperationException;
 import com.BankingBuddy.client_service.model.dto.AccountDTO;
 import com.BankingBuddy.client_service.model.dto.AccountWithClientDTO;
+import com.BankingBuddy.client_service.model.dto.ClientDTO;
 import com.BankingBuddy.client_service.model.dto.CreateAccountRequest;
+import com.BankingBuddy.client_service.model.dto.CursorPageDTO;
 import com.BankingBuddy.client_service.model.entity.Account;
 import com.BankingBuddy.client_service.model.entity.Client;
 import com.BankingBuddy.client_service.repository.AccountRepository;
 import com.BankingBuddy.client_service.repository.ClientRepository;
 import com.BankingBuddy.client_service.security.UserContext;
 import com.BankingBuddy.client_service.security.UserRole;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for account operations
@@ -47,67 +48,139 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final ClientRepository clientRepository;
-    private final SqsClient sqsClient;
+    private final AuditOutboxService auditOutboxService;
     private final EmailService emailService;
-    private final CacheManager cacheManager;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    
-    @Value("${audit.sqs.queue-url}")
-    private String auditQueueUrl;
-    
-    @Value("${audit.source-service}")
-    private String sourceService;
-    
-    @Value("${audit.log-retention-days:30}")
-    private long logRetentionDays;
+    private final AccountRollupService accountRollupService;
+    private final AccountsByClientCache accountsByClientCache;
+    private final IdGenerator idGenerator;
 
     /**
      * Get all accounts with client information (Admin/Root Admin only)
-     * Uses JPA JOIN FETCH to get client data in single query
+     * Uses a JPQL constructor projection so only DTO columns are selected
+     * (no Client entities are loaded into the persistence context)
      * Returns AccountWithClientDTO with client fullName and agentId
      * No audit logs per specification (bulk reads not logged)
      * 
+     * Prefer getAccountsPage or exportAllAccounts for large datasets - this
+     * method still materializes the full result set.
+     * 
      * @param userContext the authenticated user context
      * @return list of accounts with client information
      */
+    @Transactional(readOnly = true)
     public List<AccountWithClientDTO> getAllAccounts(UserContext userContext) {
         log.info("Retrieving all accounts with client information. User: {}, Role: {}", 
                 userContext.getUserId(), userContext.getRole());
         
-        // Authorization check - only ADMIN and ROOT_ADMIN can access (per spec)
+        requireAdminRole(userContext);
+        
+        return accountRepository.findAllAccountsWithClientProjection();
+    }
+
+    /**
+     * Get one keyset page of accounts with client information (Admin/Root Admin only)
+     * Ordered by (createdAt DESC, accountId DESC); no COUNT query is issued.
+     * One extra row is fetched to determine whether another page exists.
+     * 
+     * @param cursor opaque cursor from a previous page's nextCursor, or null for the first page
+     * @param limit maximum number of rows to return
+     * @param userContext the authenticated user context
+     * @return cursor page of accounts with client information
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AccountWithClientDTO> getAccountsPage(String cursor, int limit, UserContext userContext) {
+        log.info("Retrieving accounts page (limit: {}, cursor: {}). User: {}, Role: {}",
+                limit, cursor != null, userContext.getUserId(), userContext.getRole());
+
+        requireAdminRole(userContext);
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<AccountWithClientDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = accountRepository.findAccountsWithClientFirstPage(pageable);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = accountRepository.findAccountsWithClientAfter(
+                    LocalDateTime.parse(position[0]), position[1], pageable);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<AccountWithClientDTO> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1)) : null;
+
+        return CursorPageDTO.<AccountWithClientDTO>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Stream every account with client information to the given sink (Admin/Root Admin only)
+     * Rows are read with a MySQL streaming cursor and handed off one at a time,
+     * so heap usage is constant regardless of table size.
+     * 
+     * @param userContext the authenticated user context
+     * @param sink consumer receiving each row in (createdAt DESC, accountId DESC) order
+     * @return number of rows exported
+     */
+    @Transactional(readOnly = true)
+    public long exportAllAccounts(UserContext userContext, Consumer<AccountWithClientDTO> sink) {
+        log.info("Exporting all accounts with client information. User: {}, Role: {}",
+                userContext.getUserId(), userContext.getRole());
+
+        requireAdminRole(userContext);
+
+        long count = 0;
+        try (Stream<AccountWithClientDTO> rows = accountRepository.streamAllAccountsWithClientInfo()) {
+            Iterator<AccountWithClientDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+
+        log.info("Exported {} accounts for user {}", count, userContext.getUserId());
+        return count;
+    }
+
+    /**
+     * Authorization check - only ADMIN and ROOT_ADMIN can access all accounts (per spec)
+     */
+    private void requireAdminRole(UserContext userContext) {
         if (userContext.getRole() != UserRole.ADMIN && 
             userContext.getRole() != UserRole.ROOT_ADMIN) {
             log.error("Unauthorized role attempting to get all accounts: {}", userContext.getRole());
             throw new ForbiddenException("Only ADMIN or ROOT_ADMIN roles can access all accounts");
         }
-        
-        // Use custom query that fetches accounts with client info via JOIN
-        List<Account> accounts = accountRepository.findAllAccountsWithClientInfo();
-        
-        return accounts.stream()
-                .map(this::convertToAccountWithClientDTO)
-                .collect(Collectors.toList());
     }
 
     /**
-     * Convert Account entity (with client) to AccountWithClientDTO
-     * Computes clientFullName from firstName + lastName
+     * Encode the keyset position of the last row on a page as an opaque cursor
+     * Format (before Base64): "{createdAt}|{accountId}"
      */
-    private AccountWithClientDTO convertToAccountWithClientDTO(Account account) {
-        return AccountWithClientDTO.builder()
-                .accountId(account.getAccountId())
-                .accountType(account.getAccountType())
-                .accountStatus(account.getAccountStatus())
-                .openingDate(account.getOpeningDate())
-                .initialDeposit(account.getInitialDeposit())
-                .balance(account.getBalance())
-                .currency(account.getCurrency())
-                .branchId(account.getBranchId())
-                .deleted(account.getDeleted())
-                .clientId(account.getClientId())
-                .clientFullName(account.getClient().getFirstName() + " " + account.getClient().getLastName())
-                .agentId(account.getClient().getAgentId())
-                .build();
+    private String encodeCursor(AccountWithClientDTO last) {
+        String raw = last.getCreatedAt() + "|" + last.getAccountId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor into [createdAt, accountId]
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|", 2);
+            if (position.length != 2 || position[1].isBlank()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.error("Invalid accounts cursor supplied: {}", cursor);
+            throw new InvalidOperationException("Invalid pagination cursor");
+        }
     }
 
     /**
@@ -130,54 +203,6 @@ public class AccountService {
                 .build();
     }
 
-    /**
-     * Send audit log message directly to SQS (decoupled, no shared library)
-     */
-    private void sendAuditLogToSqs(String operation, String clientId, String agentId,
-                                   String attributeName, String beforeValue, String afterValue) {
-        try {
-            // Build audit message as JSON
-            Map<String, Object> auditMessage = new HashMap<>();
-            auditMessage.put("log_id", UUID.randomUUID().toString());
-            auditMessage.put("timestamp", Instant.now().toString());
-            auditMessage.put("client_id", clientId);
-            auditMessage.put("agent_id", agentId);
-            auditMessage.put("crud_operation", operation);
-            auditMessage.put("source_service", sourceService);
-            
-            // Calculate TTL (retention days from now)
-            long ttl = Instant.now().plus(logRetentionDays, ChronoUnit.DAYS).getEpochSecond();
-            auditMessage.put("ttl", ttl);
-            
-            // Add operation-specific fields
-            if (attributeName != null) {
-                auditMessage.put("attribute_name", attributeName);
-            }
-            if (beforeValue != null) {
-                auditMessage.put("before_value", beforeValue);
-            }
-            if (afterValue != null) {
-                auditMessage.put("after_value", afterValue);
-            }
-            
-            // Convert to JSON string
-            String messageBody = objectMapper.writeValueAsString(auditMessage);
-            
-            // Send to SQS
-            SendMessageRequest request = SendMessageRequest.builder()
-                    .queueUrl(auditQueueUrl)
-                    .messageBody(messageBody)
-                    .build();
-            
-            sqsClient.sendMessage(request);
-            log.debug("Sent {} audit log to SQS for client {}", operation, clientId);
-            
-        } catch (Exception e) {
-            // Non-blocking: log error but don't throw
-            log.error("Failed to send audit log to SQS: {}", e.getMessage(), e);
-        }
-    }
-
     /**
      * Create a new account for a client (AGENT only, own clients)
      * Per specification:
@@ -185,16 +210,16 @@ public class AccountService {
      * - Client must not be deleted
      * - Balance is set to initialDeposit
      * - Opening date is set to current date
-     * - Sends CREATE audit log to SQS
+     * - Records CREATE audit log (audit outbox -> SQS)
      * 
-     * Caching Strategy: Evicts the cached accounts list for this specific client
-     * since a new account was added.
+     * Caching Strategy: Write-through - after commit the new account is appended to the
+     * client's cached accounts list (version CAS, evicts on conflict), so the next read
+     * of the client's accounts is still a cache hit.
      * 
      * @param request the account creation request
      * @param userContext the authenticated user context (AGENT only)
      * @return the created account DTO
      */
-    @CacheEvict(value = "accounts-by-client", key = "#request.clientId")
     public AccountDTO createAccount(CreateAccountRequest request, UserContext userContext) {
         log.info("Creating account for client {}. Agent: {}", request.getClientId(), userContext.getUserId());
 
@@ -205,7 +230,7 @@ public class AccountService {
         }
 
         // 2. Fetch client and verify it belongs to agent
-        Client client = clientRepository.findByClientIdAndDeletedFalse(request.getClientId())
+        Client client = clientRepository.findActiveById(request.getClientId())
                 .orElseThrow(() -> {
                     log.error("Client not found or deleted: {}", request.getClientId());
                     return new ClientNotFoundException("Client not found or has been deleted");
@@ -219,7 +244,7 @@ public class AccountService {
         }
 
         // 4. Generate account ID
-        String accountId = "ACC-" + UUID.randomUUID().toString();
+        String accountId = idGenerator.nextId(IdGenerator.ACCOUNT_PREFIX);
 
         // 5. Build and save account entity
         Account account = Account.builder()
@@ -237,26 +262,25 @@ public class AccountService {
 
         Account savedAccount = accountRepository.save(account);
         log.info("Account created successfully with ID: {}", accountId);
+        accountsByClientCache.upsertAfterCommit(savedAccount.getClientId(), () -> convertToAccountDTO(savedAccount));
 
-        // 6. Publish CREATE audit log to SQS (non-blocking)
-        try {
-            String afterValue = String.format("Account|%s|%s|%.2f|%s",
-                    accountId,
-                    request.getAccountType(),
-                    request.getInitialDeposit(),
-                    request.getCurrency());
-            
-            sendAuditLogToSqs("CREATE", request.getClientId(), userContext.getUserId(), 
-                            null, null, afterValue);
-            log.debug("Published CREATE audit log for account {}", accountId);
-        } catch (Exception e) {
-            log.error("Failed to publish CREATE audit log for account {}: {}", accountId, e.getMessage());
-            // Non-blocking: audit failure should not affect account creation
-        }
+        // Keep balance rollups in step (same transaction as the insert)
+        accountRollupService.recordAccountOpened(savedAccount, client.getAgentId());
+
+        // 6. Record CREATE audit log in the outbox (same transaction, relayed to SQS)
+        String afterValue = String.format("Account|%s|%s|%.2f|%s",
+                accountId,
+                request.getAccountType(),
+                request.getInitialDeposit(),
+                request.getCurrency());
+        
+        auditOutboxService.record("CREATE", request.getClientId(), userContext.getUserId(), 
+                        null, null, afterValue);
+        log.debug("Recorded CREATE audit log for account {}", accountId);
 
-        // 7. Send account creation email (async, non-blocking)
+        // 7. Queue account creation email in the outbox (same transaction)
         emailService.sendAccountCreationEmail(client, savedAccount);
-        log.info("Triggered async account creation email send for account {} to client {}", 
+        log.info("Enqueued account creation email for account {} to client {}", 
                 accountId, client.getClientId());
 
         // 8. Convert to DTO and return
@@ -269,10 +293,10 @@ public class AccountService {
      * - Can only delete if balance = 0
      * - Agent can delete accounts of their own clients
      * - Admin/Root Admin can delete any account
-     * - Sends DELETE audit log to SQS
+     * - Records DELETE audit log (audit outbox -> SQS)
      * 
-     * Caching Strategy: We need to evict after fetching the account to know the clientId.
-     * This is handled below with manual eviction after fetching the account entity.
+     * Caching Strategy: Write-through - after commit the account is replaced in the
+     * client's cached accounts list with its deleted state (version CAS, evicts on conflict).
      * 
      * @param accountId the account ID to delete
      * @param userContext the authenticated user context
@@ -280,8 +304,8 @@ public class AccountService {
     public void deleteAccount(String accountId, UserContext userContext) {
         log.info("Deleting account {}. User: {}, Role: {}", accountId, userContext.getUserId(), userContext.getRole());
 
-        // 1. Fetch account
-        Account account = accountRepository.findById(accountId)
+        // 1. Fetch and lock account (balance postings may change the balance concurrently)
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> {
                     log.error("Account not found: {}", accountId);
                     return new AccountNotFoundException("Account not found");
@@ -304,7 +328,7 @@ public class AccountService {
         // 4. Authorization check based on role
         if (userContext.getRole() == UserRole.AGENT) {
             // Agent can only delete accounts of their own clients
-            Client client = clientRepository.findByClientIdAndDeletedFalse(account.getClientId())
+            Client client = clientRepository.findActiveById(account.getClientId())
                     .orElseThrow(() -> {
                         log.error("Client not found for account: {}", accountId);
                         return new ClientNotFoundException("Client not found or has been deleted");
@@ -327,41 +351,27 @@ public class AccountService {
                 account.getAccountType(),
                 account.getBalance());
         
-        // Cache eviction: Manually evict the client's accounts cache
-        // (Cannot use @CacheEvict since we need clientId from the fetched account)
-        String clientIdForEviction = account.getClientId();
-        
         account.setDeleted(true);
+        account.setDeletedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
         accountRepository.save(account);
         log.info("Account {} soft deleted successfully", accountId);
+
+        // Keep balance rollups in step (same transaction as the soft delete)
+        accountRollupService.recordAccountClosed(account, account.getClient().getAgentId());
         
-        // Manually evict the cache for this client's accounts
-        try {
-            org.springframework.cache.Cache cache = cacheManager.getCache("accounts-by-client");
-            if (cache != null) {
-                cache.evict(clientIdForEviction);
-                log.debug("Evicted cache for client {} accounts after account deletion", clientIdForEviction);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to evict cache for client {} accounts: {}", clientIdForEviction, e.getMessage());
-            // Non-blocking: cache eviction failure should not affect deletion
-        }
+        // Write the deleted state through to the client's cached accounts list after commit
+        accountsByClientCache.upsertAfterCommit(account.getClientId(), () -> convertToAccountDTO(account));
 
-        // 6. Publish DELETE audit log to SQS (non-blocking)
-        try {
-            sendAuditLogToSqs("DELETE", account.getClientId(), userContext.getUserId(), 
-                            null, beforeValue, null);
-            log.debug("Published DELETE audit log for account {}", accountId);
-        } catch (Exception e) {
-            log.error("Failed to publish DELETE audit log for account {}: {}", accountId, e.getMessage());
-            // Non-blocking: audit failure should not affect deletion
-        }
+        // 6. Record DELETE audit log in the outbox (same transaction, relayed to SQS)
+        auditOutboxService.record("DELETE", account.getClientId(), userContext.getUserId(), 
+                        null, beforeValue, null);
+        log.debug("Recorded DELETE audit log for account {}", accountId);
         
-        // 7. Send account deletion email to client (async, non-blocking)
-        Client client = clientRepository.findByClientIdAndDeletedFalse(account.getClientId()).orElse(null);
+        // 7. Queue account deletion email to client in the outbox (same transaction)
+        Client client = clientRepository.findActiveById(account.getClientId()).orElse(null);
         if (client != null) {
             emailService.sendAccountDeletionEmail(client, account);
-            log.info("Triggered async account deletion email send for account {} to client {}", 
+            log.info("Enqueued account deletion email for account {} to client {}", 
                     accountId, client.getClientId());
         }
     }
@@ -370,35 +380,68 @@ public class AccountService {
      * Get all accounts for a specific client (AGENT only, own clients)
      * 
      * Caching Strategy: Cache accounts by client ID for repeated views
-     * Cache Key: "{clientId}"
+     * Cache Key: "{clientId}" (AccountsByClientCache, kept current by write-through)
      * TTL: 10 minutes (rarely changes)
+     * Authorization runs before the cache is consulted.
      * 
      * @param clientId    the client ID
      * @param userContext the authenticated user context
      * @return list of account DTOs
      */
-    @Cacheable(value = "accounts-by-client", key = "#clientId", unless = "#result.empty")
     public List<AccountDTO> getAccountsByClientId(String clientId, UserContext userContext) {
-        log.info("Cache MISS - Getting accounts by client ID from database: {}", clientId);
-
-        // Authorization check - only Agents can find accounts by client ID
-        if (userContext.getRole() != UserRole.AGENT) {
-            log.error("Unauthorized role attempting to get accounts by client ID: {}", userContext.getRole());
-            throw new ForbiddenException("Only Agents can get accounts by client ID");
-        }
-
         // Fetch client and verify that it belongs to the agent
-        Client client = clientRepository.findByClientId(clientId)
+        Client client = clientRepository.findById(clientId)
             .orElseThrow(() -> {
                 log.warn("Client not found {}", clientId);
                 return new ClientNotFoundException("Client not found");
             });
+        requireOwningAgent(client.getAgentId(), userContext);
 
-        // Authorization check - only the agent who created the client can get the accounts
-        if (!client.getAgentId().equals(userContext.getUserId())) {
+        return getCachedOrLoadAccounts(clientId);
+    }
+
+    /**
+     * Get all accounts for the client shown in an overview
+     * The overview has already loaded the client row; the same authorization as
+     * getAccountsByClientId is applied to it, and the same cache is used.
+     * 
+     * @param client      the client loaded by the overview
+     * @param userContext the authenticated user context
+     * @return list of account DTOs
+     */
+    @Transactional(readOnly = true)
+    public List<AccountDTO> getAccountsForOverview(ClientDTO client, UserContext userContext) {
+        requireOwningAgent(client.getAgentId(), userContext);
+
+        return getCachedOrLoadAccounts(client.getClientId());
+    }
+
+    /**
+     * Authorization check - only the agent who created the client can get its accounts (per spec)
+     */
+    private void requireOwningAgent(String clientAgentId, UserContext userContext) {
+        if (userContext.getRole() != UserRole.AGENT) {
+            log.error("Unauthorized role attempting to get accounts by client ID: {}", userContext.getRole());
+            throw new ForbiddenException("Only Agents can get accounts by client ID");
+        }
+        if (!userContext.getUserId().equals(clientAgentId)) {
             throw new ForbiddenException("You are not authorized to get accounts for this client");
         }
+    }
+
+    private List<AccountDTO> getCachedOrLoadAccounts(String clientId) {
+        AccountsByClientCache.Entry cached = accountsByClientCache.get(clientId);
+        if (cached.accounts().isPresent()) {
+            return cached.accounts().get();
+        }
+        log.info("Cache MISS - Getting accounts by client ID from database: {}", clientId);
+        return loadAccounts(clientId, cached.version());
+    }
 
+    /**
+     * Load a client's accounts from the database and cache non-empty results
+     */
+    private List<AccountDTO> loadAccounts(String clientId, String cachedVersion) {
         List<Account> accounts = accountRepository.findByClientId(clientId);
         List<AccountDTO> accountDTOs = accounts.stream()
             .map(this::convertToAccountDTO)
@@ -406,6 +449,9 @@ public class AccountService {
         
         log.info("Found {} accounts for client {}. Result will {}be cached.", 
                 accountDTOs.size(), clientId, accountDTOs.isEmpty() ? "NOT " : "");
+        if (!accountDTOs.isEmpty()) {
+            accountsByClientCache.populate(clientId, cachedVersion, accountDTOs);
+        }
         
         return accountDTOs;
     }
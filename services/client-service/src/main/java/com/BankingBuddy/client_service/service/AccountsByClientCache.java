@@ -0,0 +1,220 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.RedisConfig;
+import com.BankingBuddy.client_service.model.dto.AccountDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Write-through cache for a client's account list (cache region: accounts-by-client)
+ *
+ * Each entry is a Redis hash under the key the cache manager would use
+ * (client-service:accounts-by-client::{clientId}) with two fields:
+ * - version: incremented on every change, whether or not the list is cached
+ * - data: the JSON List<AccountDTO>, absent after an invalidation
+ *
+ * Writers update the cached list in place after commit (append a new account, replace a
+ * deleted one) instead of evicting it, so the next read is still a hit. Every write is a
+ * compare-and-set on the version (Lua script): if another node changed the entry since it
+ * was read, the writer invalidates instead of overwriting. Readers populating a miss use
+ * the same CAS with the version they saw before querying MySQL, so a list loaded before a
+ * concurrent write cannot overwrite that write.
+ *
+ * Keeps the cache-abstraction contract: @CacheEvict("accounts-by-client") still deletes
+ * the whole hash, and Redis failures degrade to database reads.
+ */
+@Component
+@Slf4j
+public class AccountsByClientCache {
+
+    private static final String KEY_PREFIX = "client-service:accounts-by-client::";
+    private static final String VERSION = "version";
+    private static final String DATA = "data";
+
+    /**
+     * Set data and bump the version only if the version is still ARGV[1] ('' = never written)
+     */
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>(
+            "local v = redis.call('HGET', KEYS[1], 'version') " +
+            "if (v or '') ~= ARGV[1] then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'version', tonumber(v or '0') + 1, 'data', ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1", Long.class);
+
+    /**
+     * Drop data and bump the version so in-flight populates and writers lose their CAS
+     */
+    private static final RedisScript<Long> INVALIDATE = new DefaultRedisScript<>(
+            "redis.call('HDEL', KEYS[1], 'data') " +
+            "redis.call('HINCRBY', KEYS[1], 'version', 1) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1", Long.class);
+
+    private static final TypeReference<List<AccountDTO>> ACCOUNT_LIST = new TypeReference<>() {};
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final String ttlMillis = String.valueOf(RedisConfig.ACCOUNTS_BY_CLIENT_TTL.toMillis());
+
+    public AccountsByClientCache(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Snapshot of a cache entry: the list (if cached) and the version it was read at
+     */
+    public record Entry(Optional<List<AccountDTO>> accounts, String version) {}
+
+    /**
+     * Read the cached list for a client
+     * @param clientId the client ID
+     * @return the entry; accounts is empty on a miss or Redis failure
+     */
+    public Entry get(String clientId) {
+        try {
+            List<Object> fields = redisTemplate.opsForHash().multiGet(key(clientId), List.of(VERSION, DATA));
+            String version = fields.get(0) != null ? fields.get(0).toString() : "";
+            Object data = fields.get(1);
+            if (data == null) {
+                return new Entry(Optional.empty(), version);
+            }
+            return new Entry(Optional.of(objectMapper.readValue(data.toString(), ACCOUNT_LIST)), version);
+        } catch (Exception e) {
+            log.warn("Cache GET failed for accounts-by-client key='{}': {}. Falling back to database.",
+                    clientId, e.getMessage());
+            return new Entry(Optional.empty(), null);
+        }
+    }
+
+    /**
+     * Cache a list loaded from the database after a miss
+     * Skipped if the entry changed since {@code readVersion} (the load may be stale).
+     * @param clientId    the client ID
+     * @param readVersion version returned by {@link #get} before the load
+     * @param accounts    the accounts loaded from the database
+     */
+    public void populate(String clientId, String readVersion, List<AccountDTO> accounts) {
+        if (readVersion == null) {
+            return;
+        }
+        try {
+            if (!compareAndSet(clientId, readVersion, accounts)) {
+                log.debug("Skipped caching accounts for client {}: entry changed during load", clientId);
+            }
+        } catch (Exception e) {
+            log.warn("Cache PUT failed for accounts-by-client key='{}': {}. Data not cached.",
+                    clientId, e.getMessage());
+        }
+    }
+
+    /**
+     * Insert or replace an account in the client's cached list once the transaction commits
+     * The DTO is built after commit so flush-time fields (createdAt / updatedAt) are set.
+     * @param clientId the client ID
+     * @param account  supplies the committed state of the account
+     */
+    public void upsertAfterCommit(String clientId, Supplier<AccountDTO> account) {
+        afterCommit(() -> upsert(clientId, account.get()));
+    }
+
+    /**
+     * Invalidate the client's cached list once the transaction commits
+     * @param clientId the client ID
+     */
+    public void invalidateAfterCommit(String clientId) {
+        afterCommit(() -> invalidate(clientId));
+    }
+
+    void upsert(String clientId, AccountDTO account) {
+        try {
+            Entry entry = get(clientId);
+            if (entry.version() == null) {
+                invalidate(clientId);
+                return;
+            }
+            if (entry.accounts().isEmpty()) {
+                // Nothing cached - bump the version so an in-flight populate cannot miss this write
+                invalidate(clientId);
+                record("absent");
+                return;
+            }
+
+            List<AccountDTO> accounts = new ArrayList<>(entry.accounts().get());
+            accounts.removeIf(cached -> cached.getAccountId().equals(account.getAccountId()));
+            accounts.add(account);
+
+            if (compareAndSet(clientId, entry.version(), accounts)) {
+                record("updated");
+                log.debug("Wrote account {} through to cached accounts of client {}",
+                        account.getAccountId(), clientId);
+            } else {
+                // Another node changed the list since we read it - do not guess, evict
+                invalidate(clientId);
+                record("conflict");
+                log.debug("Version conflict on cached accounts of client {}; invalidated", clientId);
+            }
+        } catch (Exception e) {
+            log.warn("Write-through failed for accounts-by-client key='{}': {}", clientId, e.getMessage());
+            invalidate(clientId);
+        }
+    }
+
+    void invalidate(String clientId) {
+        try {
+            redisTemplate.execute(INVALIDATE, List.of(key(clientId)), ttlMillis);
+        } catch (Exception e) {
+            log.warn("Cache EVICT failed for accounts-by-client key='{}': {}", clientId, e.getMessage());
+        }
+    }
+
+    private boolean compareAndSet(String clientId, String expectedVersion, List<AccountDTO> accounts)
+            throws JsonProcessingException {
+        Long updated = redisTemplate.execute(COMPARE_AND_SET, List.of(key(clientId)),
+                expectedVersion, objectMapper.writeValueAsString(accounts), ttlMillis);
+        return updated != null && updated == 1L;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("cache.accounts.by.client.writes", "outcome", outcome).increment();
+    }
+
+    private static String key(String clientId) {
+        return KEY_PREFIX + clientId;
+    }
+}
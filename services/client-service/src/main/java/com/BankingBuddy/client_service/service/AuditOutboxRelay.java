@@ -0,0 +1,310 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.AuditOutboxProperties;
+import com.BankingBuddy.client_service.model.entity.AuditOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.AuditOutboxStatus;
+import com.BankingBuddy.client_service.repository.AuditOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relays audit events from the audit_outbox table to the audit SQS queue
+ *
+ * Each relay tick runs several pollers in parallel. A poller claims up to
+ * claimBatches * 10 due rows with SELECT ... FOR UPDATE SKIP LOCKED in a short
+ * transaction, leases them (SENDING), then publishes them with SendMessageBatch in
+ * chunks of 10 outside any transaction. Pollers keep claiming until the backlog is
+ * drained, so events written while SQS (or this service) was down are replayed
+ * automatically once it is back.
+ *
+ * Each claim stamps its rows with a fresh lease token, and outcomes are written only while the
+ * token still matches, so a poller that outlived its lease cannot overwrite a newer claim.
+ *
+ * Per-entry batch failures are retried with capped exponential backoff; entries SQS
+ * rejects as sender faults, or that run out of attempts, are parked as FAILED and can
+ * be re-queued through AuditOutboxService.replay.
+ *
+ * Metrics (Actuator /actuator/metrics):
+ * - audit.outbox.backlog: PENDING + SENDING rows
+ * - audit.outbox.lag: age in seconds of the oldest unpublished row
+ * - audit.outbox.published / retried / failed: per-event outcome counters (throughput)
+ * - audit.outbox.batch: SendMessageBatch latency
+ * - audit.outbox.delivery.delay: time from event write to successful publish
+ */
+@Service
+@Slf4j
+public class AuditOutboxRelay {
+
+    private static final int SQS_MAX_BATCH_SIZE = 10;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Set<AuditOutboxStatus> UNPUBLISHED =
+            EnumSet.of(AuditOutboxStatus.PENDING, AuditOutboxStatus.SENDING);
+
+    private final AuditOutboxRepository auditOutboxRepository;
+    private final SqsClient sqsClient;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditOutboxProperties properties;
+    private final String auditQueueUrl;
+    private final Executor pollerExecutor;
+
+    private final AtomicBoolean relayRunning = new AtomicBoolean(false);
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryDelayTimer;
+
+    public AuditOutboxRelay(
+            AuditOutboxRepository auditOutboxRepository,
+            SqsClient sqsClient,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            AuditOutboxProperties properties,
+            @Qualifier("auditExecutor") Executor pollerExecutor,
+            @Value("${audit.sqs.queue-url}") String auditQueueUrl) {
+        this.auditOutboxRepository = auditOutboxRepository;
+        this.sqsClient = sqsClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.auditQueueUrl = auditQueueUrl;
+
+        this.pollerExecutor = pollerExecutor;
+
+        Gauge.builder("audit.outbox.backlog", backlog, AtomicLong::get)
+                .description("Audit events waiting to be published to SQS")
+                .register(meterRegistry);
+        Gauge.builder("audit.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished audit event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("audit.outbox.published").register(meterRegistry);
+        this.retriedCounter = Counter.builder("audit.outbox.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.outbox.failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.outbox.batch").register(meterRegistry);
+        this.deliveryDelayTimer = Timer.builder("audit.outbox.delivery.delay").register(meterRegistry);
+    }
+
+    /**
+     * Relay tick: run the configured number of pollers until the backlog is drained
+     */
+    @Scheduled(fixedDelayString = "${audit.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!properties.isRelayEnabled() || !relayRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<CompletableFuture<Integer>> pollers = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, properties.getPollers()); i++) {
+                pollers.add(CompletableFuture.supplyAsync(this::drain, pollerExecutor)
+                        .exceptionally(e -> {
+                            log.error("Audit outbox poller failed: {}", e.getMessage(), e);
+                            return 0;
+                        }));
+            }
+
+            int relayed = pollers.stream().mapToInt(CompletableFuture::join).sum();
+            if (relayed > 0) {
+                log.debug("Relayed {} audit event(s) to SQS", relayed);
+            }
+        } finally {
+            relayRunning.set(false);
+        }
+    }
+
+    /**
+     * One poller: claim and publish until a claim comes back short
+     *
+     * @return number of rows claimed
+     */
+    int drain() {
+        int claimLimit = SQS_MAX_BATCH_SIZE * Math.max(1, properties.getClaimBatches());
+        int total = 0;
+        List<AuditOutboxMessage> claimed;
+        do {
+            claimed = claimBatch(claimLimit);
+            for (int start = 0; start < claimed.size(); start += SQS_MAX_BATCH_SIZE) {
+                publish(claimed.subList(start, Math.min(start + SQS_MAX_BATCH_SIZE, claimed.size())));
+            }
+            total += claimed.size();
+        } while (claimed.size() == claimLimit);
+        return total;
+    }
+
+    /**
+     * Lock a batch of due rows and lease them to this poller (short transaction, no I/O to SQS)
+     */
+    List<AuditOutboxMessage> claimBatch(int limit) {
+        List<AuditOutboxMessage> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<AuditOutboxMessage> rows = auditOutboxRepository.claimDue(now, limit);
+            String claimToken = UUID.randomUUID().toString();
+            for (AuditOutboxMessage row : rows) {
+                row.setStatus(AuditOutboxStatus.SENDING);
+                row.setClaimToken(claimToken);
+                row.setAttempts(row.getAttempts() + 1);
+                row.setNextAttemptAt(now.plusSeconds(properties.getLeaseSeconds()));
+            }
+            return rows;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /**
+     * Publish up to 10 claimed rows with one SendMessageBatch call and record each outcome
+     */
+    void publish(List<AuditOutboxMessage> chunk) {
+        Map<String, AuditOutboxMessage> byEntryId = chunk.stream()
+                .collect(Collectors.toMap(row -> String.valueOf(row.getId()), Function.identity()));
+
+        List<SendMessageBatchRequestEntry> entries = chunk.stream()
+                .map(row -> SendMessageBatchRequestEntry.builder()
+                        .id(String.valueOf(row.getId()))
+                        .messageBody(row.getPayload())
+                        .build())
+                .collect(Collectors.toList());
+
+        SendMessageBatchResponse response;
+        try {
+            response = batchTimer.recordCallable(() -> sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(auditQueueUrl)
+                    .entries(entries)
+                    .build()));
+        } catch (Exception e) {
+            // Whole call failed (throttling, network, queue unavailable) - retry every entry
+            log.warn("SendMessageBatch of {} audit event(s) failed: {}", chunk.size(), e.getMessage());
+            String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            chunk.forEach(row -> handleFailure(row, error, false));
+            return;
+        }
+
+        List<AuditOutboxMessage> sent = new ArrayList<>();
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (SendMessageBatchResultEntry entry : response.successful()) {
+            AuditOutboxMessage row = byEntryId.get(entry.id());
+            if (row != null) {
+                sent.add(row);
+                deliveryDelayTimer.record(Duration.between(row.getCreatedAt(), sentAt));
+            }
+        }
+        if (!sent.isEmpty()) {
+            // All rows of a chunk come from one claim and share its token
+            List<Long> sentIds = sent.stream().map(AuditOutboxMessage::getId).toList();
+            int marked = auditOutboxRepository.markSent(sentIds, sent.get(0).getClaimToken(), sentAt);
+            publishedCounter.increment(marked);
+            if (marked < sentIds.size()) {
+                log.warn("{} of {} published audit event(s) were re-claimed after their lease expired; " +
+                        "left to the newer claim", sentIds.size() - marked, sentIds.size());
+            }
+        }
+
+        for (BatchResultErrorEntry entry : response.failed()) {
+            AuditOutboxMessage row = byEntryId.get(entry.id());
+            if (row != null) {
+                handleFailure(row, truncate(entry.code() + ": " + entry.message()),
+                        Boolean.TRUE.equals(entry.senderFault()));
+            }
+        }
+    }
+
+    private void handleFailure(AuditOutboxMessage row, String error, boolean permanent) {
+        if (permanent || row.getAttempts() >= properties.getMaxAttempts()) {
+            if (auditOutboxRepository.markFailed(row.getId(), row.getClaimToken(), error) == 0) {
+                logLeaseLost(row);
+                return;
+            }
+            failedCounter.increment();
+            log.error("Parked audit event {} (outbox id {}) as FAILED after {} attempt(s): {}",
+                    row.getLogId(), row.getId(), row.getAttempts(), error);
+            return;
+        }
+
+        Duration backoff = backoffFor(row.getAttempts());
+        if (auditOutboxRepository.reschedule(row.getId(), row.getClaimToken(),
+                LocalDateTime.now().plus(backoff), error) == 0) {
+            logLeaseLost(row);
+            return;
+        }
+        retriedCounter.increment();
+        log.debug("Audit event {} (outbox id {}) failed on attempt {}: {}. Retrying in {}s",
+                row.getLogId(), row.getId(), row.getAttempts(), error, backoff.toSeconds());
+    }
+
+    private void logLeaseLost(AuditOutboxMessage row) {
+        log.warn("Lease on audit event {} (outbox id {}) expired before its outcome was recorded; " +
+                "left to the newer claim", row.getLogId(), row.getId());
+    }
+
+    /**
+     * Exponential backoff (initial * 2^(attempt-1)), capped, with up to 20% jitter
+     */
+    Duration backoffFor(int attempt) {
+        long base = properties.getInitialBackoffSeconds() * (1L << Math.min(attempt - 1, 20));
+        long capped = Math.min(base, properties.getMaxBackoffSeconds());
+        long jitterMillis = ThreadLocalRandom.current().nextLong(capped * 200 + 1);
+        return Duration.ofSeconds(capped).plusMillis(jitterMillis);
+    }
+
+    private String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    /**
+     * Refresh backlog and lag gauges
+     */
+    @Scheduled(fixedDelayString = "${audit.outbox.metrics-interval-ms:15000}")
+    public void refreshQueueMetrics() {
+        try {
+            backlog.set(auditOutboxRepository.countByStatusIn(UNPUBLISHED));
+            LocalDateTime oldest = auditOutboxRepository.findOldestCreatedAt(UNPUBLISHED);
+            lagSeconds.set(oldest != null
+                    ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds())
+                    : 0);
+        } catch (Exception e) {
+            log.warn("Failed to refresh audit outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Purge published rows past the replay window
+     */
+    @Scheduled(cron = "${audit.outbox.purge-cron:0 15 4 * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getSentRetentionDays());
+        int purged = auditOutboxRepository.deleteSentBefore(cutoff);
+        log.info("Purged {} published audit outbox row(s) sent before {}", purged, cutoff);
+    }
+}
@@ -0,0 +1,199 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.exception.InvalidOperationException;
+import com.BankingBuddy.client_service.model.dto.AuditReplayResultDTO;
+import com.BankingBuddy.client_service.model.entity.AuditOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.AuditOutboxStatus;
+import com.BankingBuddy.client_service.repository.AuditOutboxRepository;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service writing client/account audit events to the audit outbox
+ *
+ * Events are serialized to the audit SQS message format and stored in the caller's
+ * transaction, so an event exists if and only if the audited change commits.
+ * AuditOutboxRelay publishes them to SQS in batches.
+ *
+ * Bulk operations (e.g. a client delete cascading to hundreds of accounts) use
+ * recordAll, which writes all events with multi-row INSERT statements.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditOutboxService {
+
+    /**
+     * Rows per multi-row INSERT issued by recordAll
+     */
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private final AuditOutboxRepository auditOutboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${audit.source-service}")
+    private String sourceService;
+
+    @Value("${audit.log-retention-days:30}")
+    private long logRetentionDays;
+
+    /**
+     * Record an audit event in the outbox
+     * Must run inside the transaction that performs the audited change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String operation, String clientId, String agentId,
+                       String attributeName, String beforeValue, String afterValue) {
+        String logId = idGenerator.nextUuid().toString();
+        String payload = buildPayload(logId, operation, clientId, agentId, attributeName, beforeValue, afterValue);
+
+        auditOutboxRepository.save(AuditOutboxMessage.builder()
+                .logId(logId)
+                .clientId(clientId)
+                .crudOperation(operation)
+                .payload(payload)
+                .build());
+        log.debug("Recorded {} audit log {} in outbox for client {}", operation, logId, clientId);
+    }
+
+    /**
+     * Record many audit events for one client and operation with set-based inserts
+     * (one statement per INSERT_CHUNK_SIZE events instead of one per event)
+     * Must run inside the transaction that performs the audited change
+     *
+     * @param entries attribute name / before / after per event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String operation, String clientId, String agentId, List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int start = 0; start < entries.size(); start += INSERT_CHUNK_SIZE) {
+            List<AuditEntry> chunk = entries.subList(start, Math.min(start + INSERT_CHUNK_SIZE, entries.size()));
+
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO audit_outbox (log_id, client_id, crud_operation, payload, status, " +
+                    "attempts, next_attempt_at, created_at) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (int i = 0; i < chunk.size(); i++) {
+                AuditEntry entry = chunk.get(i);
+                String logId = idGenerator.nextUuid().toString();
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, 'PENDING', 0, ?, ?)");
+                args.add(logId);
+                args.add(clientId);
+                args.add(operation);
+                args.add(buildPayload(logId, operation, clientId, agentId,
+                        entry.attributeName(), entry.beforeValue(), entry.afterValue()));
+                args.add(now);
+                args.add(now);
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        log.debug("Recorded {} {} audit log(s) in outbox for client {}", entries.size(), operation, clientId);
+    }
+
+    /**
+     * Serialize an audit event to the audit SQS message format
+     */
+    private String buildPayload(String logId, String operation, String clientId, String agentId,
+                                String attributeName, String beforeValue, String afterValue) {
+        // Build audit message as JSON
+        Map<String, Object> auditMessage = new HashMap<>();
+        auditMessage.put("log_id", logId);
+        auditMessage.put("timestamp", Instant.now().toString());
+        auditMessage.put("client_id", clientId);
+        auditMessage.put("agent_id", agentId);
+        auditMessage.put("crud_operation", operation);
+        auditMessage.put("source_service", sourceService);
+
+        // Calculate TTL (retention days from now)
+        long ttl = Instant.now().plus(logRetentionDays, ChronoUnit.DAYS).getEpochSecond();
+        auditMessage.put("ttl", ttl);
+
+        // Add operation-specific fields
+        if (attributeName != null) {
+            auditMessage.put("attribute_name", attributeName);
+        }
+        if (beforeValue != null) {
+            auditMessage.put("before_value", beforeValue);
+        }
+        if (afterValue != null) {
+            auditMessage.put("after_value", afterValue);
+        }
+
+        try {
+            return objectMapper.writeValueAsString(auditMessage);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize audit log " + logId, e);
+        }
+    }
+
+    /**
+     * One audit event in a recordAll call
+     */
+    public record AuditEntry(String attributeName, String beforeValue, String afterValue) {
+    }
+
+    /**
+     * Re-queue audit events for publishing (Admin/Root Admin only)
+     * FAILED rows in the window are always re-queued; SENT rows only when includeSent is set
+     * (e.g. the audit queue or its consumer lost messages). Consumers deduplicate on log_id.
+     *
+     * @param from inclusive lower bound on event creation time
+     * @param to exclusive upper bound on event creation time
+     * @param includeSent also re-publish rows that were already delivered
+     * @param userContext the authenticated user context
+     * @return number of rows re-queued
+     */
+    @Transactional
+    public AuditReplayResultDTO replay(LocalDateTime from, LocalDateTime to, boolean includeSent,
+                                       UserContext userContext) {
+        log.info("Audit outbox replay requested for [{}, {}) includeSent={}. User: {}, Role: {}",
+                from, to, includeSent, userContext.getUserId(), userContext.getRole());
+
+        if (userContext.getRole() != UserRole.ADMIN &&
+            userContext.getRole() != UserRole.ROOT_ADMIN) {
+            log.error("Unauthorized role attempting to replay audit events: {}", userContext.getRole());
+            throw new ForbiddenException("Only ADMIN or ROOT_ADMIN roles can replay audit events");
+        }
+        if (!from.isBefore(to)) {
+            throw new InvalidOperationException("Replay window start must be before its end");
+        }
+
+        EnumSet<AuditOutboxStatus> statuses = includeSent
+                ? EnumSet.of(AuditOutboxStatus.FAILED, AuditOutboxStatus.SENT)
+                : EnumSet.of(AuditOutboxStatus.FAILED);
+        int requeued = auditOutboxRepository.requeue(statuses, from, to, LocalDateTime.now());
+
+        log.info("Re-queued {} audit outbox row(s) created in [{}, {})", requeued, from, to);
+        return AuditReplayResultDTO.builder()
+                .from(from)
+                .to(to)
+                .includeSent(includeSent)
+                .requeued(requeued)
+                .build();
+    }
+}
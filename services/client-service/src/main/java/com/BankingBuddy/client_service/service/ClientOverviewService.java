@@ -0,0 +1,156 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.ClientOverviewProperties;
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.model.dto.AccountDTO;
+import com.BankingBuddy.client_service.model.dto.ClientDTO;
+import com.BankingBuddy.client_service.model.dto.ClientOverviewDTO;
+import com.BankingBuddy.client_service.model.dto.OverviewSectionDTO;
+import com.BankingBuddy.client_service.model.dto.PageDTO;
+import com.BankingBuddy.client_service.model.dto.TransactionDTO;
+import com.BankingBuddy.client_service.security.UserContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composite read model for the client detail page
+ *
+ * Replaces three sequential calls from the UI (client, accounts, transactions), each of
+ * which re-parsed the JWT and re-checked authorization:
+ * 1. One authorization check, which loads the client row (client section)
+ * 2. Accounts (same authorization as the accounts endpoint, then cache first) and, when
+ *    requested, the first page of transactions from transaction-service, fetched concurrently
+ *    on virtual threads. Callers that do not show transactions leave them out and never wait
+ *    on transaction-service.
+ * 3. Each section waits up to its own deadline, measured from the start of the fan-out.
+ *    A late or failing section is reported as TIMEOUT / UNAVAILABLE and the rest of the
+ *    overview is still returned (partial = true). A section the caller may not read (accounts
+ *    for an ADMIN) is reported as FORBIDDEN.
+ *
+ * Metrics: clients.overview.section{section,status} - section latency and outcome
+ */
+@Service
+@Slf4j
+public class ClientOverviewService {
+
+    private final ClientService clientService;
+    private final AccountService accountService;
+    private final TransactionServiceClient transactionServiceClient;
+    private final ClientOverviewProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ClientOverviewService(
+            ClientService clientService,
+            AccountService accountService,
+            TransactionServiceClient transactionServiceClient,
+            ClientOverviewProperties properties,
+            MeterRegistry meterRegistry) {
+        this.clientService = clientService;
+        this.accountService = accountService;
+        this.transactionServiceClient = transactionServiceClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Build the overview of a client
+     * @param clientId    the client ID
+     * @param userContext the authenticated user context
+     * @param includeTransactions whether to fetch the first transaction page (null section otherwise)
+     * @param authHeaders authentication headers to forward to transaction-service
+     * @return client, accounts and first transaction page (sections may be partial)
+     */
+    public ClientOverviewDTO getOverview(String clientId, UserContext userContext, boolean includeTransactions,
+                                         Map<String, String> authHeaders) {
+        // Throws 404 / 403 before any fan-out work starts
+        ClientDTO client = clientService.getClientForOverview(clientId, userContext);
+
+        long start = System.nanoTime();
+        Future<List<AccountDTO>> accounts = executor.submit(
+                () -> accountService.getAccountsForOverview(client, userContext));
+        Future<PageDTO<TransactionDTO>> transactions = includeTransactions
+                ? executor.submit(() -> transactionServiceClient.getTransactionsForClient(
+                        clientId, 0, properties.getTransactionsPageSize(), authHeaders))
+                : null;
+
+        OverviewSectionDTO<List<AccountDTO>> accountsSection =
+                await("accounts", clientId, accounts, start, properties.getAccountsTimeoutMs());
+        OverviewSectionDTO<PageDTO<TransactionDTO>> transactionsSection = transactions == null ? null
+                : await("transactions", clientId, transactions, start, properties.getTransactionsTimeoutMs());
+
+        boolean partial = accountsSection.isIncomplete()
+                || (transactionsSection != null && transactionsSection.isIncomplete());
+        log.info("Client {} overview built for {} in {} ms (accounts: {}, transactions: {})",
+                clientId, userContext.getUserId(), elapsedMs(start), accountsSection.getStatus(),
+                transactionsSection != null ? transactionsSection.getStatus() : "not requested");
+
+        return ClientOverviewDTO.builder()
+                .client(client)
+                .accounts(accountsSection)
+                .transactions(transactionsSection)
+                .partial(partial)
+                .build();
+    }
+
+    /**
+     * Wait for a section until its deadline; never throws
+     */
+    private <T> OverviewSectionDTO<T> await(String section, String clientId, Future<T> future,
+                                            long startNanos, long timeoutMs) {
+        OverviewSectionDTO<T> result;
+        try {
+            long remaining = Math.max(0, timeoutMs - elapsedMs(startNanos));
+            result = OverviewSectionDTO.ok(future.get(remaining, TimeUnit.MILLISECONDS), elapsedMs(startNanos));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Overview of client {}: {} did not complete within {} ms", clientId, section, timeoutMs);
+            result = OverviewSectionDTO.failed(OverviewSectionDTO.TIMEOUT,
+                    "Timed out after " + timeoutMs + " ms", elapsedMs(startNanos));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ForbiddenException) {
+                // The caller may read the client but not this section (e.g. accounts for an ADMIN)
+                log.info("Overview of client {}: {} not visible to caller: {}", clientId, section, e.getCause().getMessage());
+                result = OverviewSectionDTO.failed(OverviewSectionDTO.FORBIDDEN,
+                        e.getCause().getMessage(), elapsedMs(startNanos));
+            } else {
+                log.warn("Overview of client {}: failed to load {}: {}", clientId, section, e.getCause().getMessage());
+                result = OverviewSectionDTO.failed(OverviewSectionDTO.UNAVAILABLE,
+                        "Failed to load " + section, elapsedMs(startNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            result = OverviewSectionDTO.failed(OverviewSectionDTO.UNAVAILABLE,
+                    "Interrupted while loading " + section, elapsedMs(startNanos));
+        }
+
+        Timer.builder("clients.overview.section")
+                .tag("section", section)
+                .tag("status", result.getStatus())
+                .register(meterRegistry)
+                .record(result.getLatencyMs(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -18,7 +18,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -28,16 +27,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
-import java.math.BigDecimal;
-import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,41 +44,55 @@ public class ClientService {
 
     private final ClientRepository clientRepository;
     private final AccountRepository accountRepository;
-    private final SqsClient sqsClient;
+    private final AuditOutboxService auditOutboxService;
     private final EmailService emailService;
+    private final AccountRollupService accountRollupService;
+    private final ClientUniquenessFilter clientUniquenessFilter;
+    private final AccountsByClientCache accountsByClientCache;
+    private final IdGenerator idGenerator;
+    private final EntityCacheInvalidator entityCacheInvalidator;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    
-    @Value("${audit.sqs.queue.url}")
-    private String auditQueueUrl;
-    
-    @Value("${audit.source.service}")
-    private String sourceService;
-    
-    @Value("${audit.log.retention.days:30}")
-    private long logRetentionDays;
 
     /**
-     * Publish audit log for client updates (decoupled - direct SQS)
+     * Record audit logs for client updates (audit outbox -> SQS)
      * Only logs fields that actually changed
-     * Non-blocking: audit failures don't affect the response
+     * Written in the same transaction as the update, so the events commit with it
      */
     private void publishUpdateAuditLog(String clientId, UserContext userContext, Map<String, Object> changes) {
-        try {
-            for (Map.Entry<String, Object> entry : changes.entrySet()) {
-                String fieldName = entry.getKey();
-                @SuppressWarnings("unchecked")
-                Map<String, String> fieldChange = (Map<String, String>) entry.getValue();
-
-                // Send UPDATE audit log directly to SQS (decoupled)
-                sendAuditLogToSqs("UPDATE", clientId, userContext.getUserId(), 
-                                fieldName, fieldChange.get("old"), fieldChange.get("new"));
-            }
+        for (Map.Entry<String, Object> entry : changes.entrySet()) {
+            String fieldName = entry.getKey();
+            @SuppressWarnings("unchecked")
+            Map<String, String> fieldChange = (Map<String, String>) entry.getValue();
 
-            log.info("Published {} audit logs for client {} update", changes.size(), clientId);
-        } catch (Exception e) {
-            // Don't fail the request if audit logging fails
-            log.error("Failed to publish update audit logs for client {}: {}", clientId, e.getMessage(), e);
+            // Record UPDATE audit log in the outbox
+            auditOutboxService.record("UPDATE", clientId, userContext.getUserId(), 
+                            fieldName, fieldChange.get("old"), fieldChange.get("new"));
         }
+
+        log.info("Recorded {} audit logs for client {} update", changes.size(), clientId);
+    }
+
+    /**
+     * Keep the uniqueness Bloom filter in step with an email / phone number change
+     */
+    @SuppressWarnings("unchecked")
+    private void recordContactChanges(Map<String, Object> changes) {
+        Map<String, String> email = (Map<String, String>) changes.get("email");
+        Map<String, String> phone = (Map<String, String>) changes.get("phoneNumber");
+        if (email == null && phone == null) {
+            return;
+        }
+        clientUniquenessFilter.recordActive(
+                email != null ? email.get("new") : null,
+                phone != null ? phone.get("new") : null);
+        clientUniquenessFilter.recordRetired((email != null ? 1 : 0) + (phone != null ? 1 : 0));
+    }
+
+    /**
+     * IDs of accounts changed by a bulk statement (second-level cache eviction on other nodes)
+     */
+    private List<String> accountIds(List<Account> accounts) {
+        return accounts.stream().map(Account::getAccountId).collect(Collectors.toList());
     }
 
     /**
@@ -130,20 +140,20 @@ public class ClientService {
             throw new ForbiddenException("Only AGENT role can create client profiles");
         }
 
-        // 2. Check email uniqueness
-        if (clientRepository.existsByEmailAndDeletedFalse(request.getEmail())) {
+        // 2. Check email uniqueness (Bloom filter answers definite negatives without a query)
+        if (clientUniquenessFilter.emailInUse(request.getEmail())) {
             log.error("Email already exists: {}", request.getEmail());
             throw new ClientAlreadyExistsException("A client with this email already exists");
         }
 
         // 4. Check phone number uniqueness
-        if (clientRepository.existsByPhoneNumberAndDeletedFalse(request.getPhoneNumber())) {
+        if (clientUniquenessFilter.phoneNumberInUse(request.getPhoneNumber())) {
             log.error("Phone number already exists: {}", request.getPhoneNumber());
             throw new ClientAlreadyExistsException("A client with this phone number already exists");
         }
 
-        // 5. Generate client ID
-        String clientId = "CLT-" + UUID.randomUUID().toString();
+        // 5. Generate client ID (time-ordered, see IdGenerator)
+        String clientId = idGenerator.nextId(IdGenerator.CLIENT_PREFIX);
 
         // 6. Build and save client entity
         Client client = Client.builder()
@@ -164,26 +174,22 @@ public class ClientService {
                 .build();
 
         Client savedClient = clientRepository.save(client);
+        clientUniquenessFilter.recordActive(savedClient.getEmail(), savedClient.getPhoneNumber());
         log.info("Client created successfully with ID: {}", clientId);
 
-        // 7. Publish audit log (non-blocking, fire-and-forget)
+        // 7. Record audit log in the outbox (relayed to SQS after commit)
         publishAuditLog(savedClient, userContext);
 
-        // 8. Send creation email (async, non-blocking)
-        try {
-            emailService.sendClientCreationEmail(savedClient);
-            log.info("Triggered async client creation email send for client {}", clientId);
-        } catch (Exception e) {
-            log.error("Failed to trigger creation email for client {}: {}", clientId, e.getMessage(), e);
-            // Continue - email failure should not stop creation
-        }
+        // 8. Queue creation email in the outbox (same transaction, sent by EmailOutboxDispatcher)
+        emailService.sendClientCreationEmail(savedClient);
+        log.info("Enqueued client creation email for client {}", clientId);
 
         // 9. Convert to DTO and return
         return convertToDTO(savedClient);
     }
 
     /**
-     * Publish audit log for client creation
+     * Record audit log for client creation
      */
     private void publishAuditLog(Client client, UserContext userContext) {
         try {
@@ -199,67 +205,16 @@ public class ClientService {
             // Convert client data to JSON string
             String afterValue = objectMapper.writeValueAsString(clientData);
 
-            // Send CREATE audit log directly to SQS
-            sendAuditLogToSqs("CREATE", client.getClientId(), userContext.getUserId(), 
+            // Record CREATE audit log in the outbox (same transaction as the insert)
+            auditOutboxService.record("CREATE", client.getClientId(), userContext.getUserId(), 
                             null, null, afterValue);
 
-            log.info("Audit log published for client creation: {}", client.getClientId());
+            log.info("Audit log recorded for client creation: {}", client.getClientId());
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize client data to JSON: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            // Don't fail the request if audit logging fails
-            log.error("Failed to publish audit log for client {}: {}", client.getClientId(), e.getMessage(), e);
         }
     }
     
-    /**
-     * Send audit log message directly to SQS (decoupled, no shared library)
-     */
-    private void sendAuditLogToSqs(String operation, String clientId, String agentId,
-                                   String attributeName, String beforeValue, String afterValue) {
-        try {
-            // Build audit message as JSON
-            Map<String, Object> auditMessage = new HashMap<>();
-            auditMessage.put("log_id", UUID.randomUUID().toString());
-            auditMessage.put("timestamp", Instant.now().toString());
-            auditMessage.put("client_id", clientId);
-            auditMessage.put("agent_id", agentId);
-            auditMessage.put("crud_operation", operation);
-            auditMessage.put("source_service", sourceService);
-            
-            // Calculate TTL (retention days from now)
-            long ttl = Instant.now().plus(logRetentionDays, ChronoUnit.DAYS).getEpochSecond();
-            auditMessage.put("ttl", ttl);
-            
-            // Add operation-specific fields
-            if (attributeName != null) {
-                auditMessage.put("attribute_name", attributeName);
-            }
-            if (beforeValue != null) {
-                auditMessage.put("before_value", beforeValue);
-            }
-            if (afterValue != null) {
-                auditMessage.put("after_value", afterValue);
-            }
-            
-            // Convert to JSON string
-            String messageBody = objectMapper.writeValueAsString(auditMessage);
-            
-            // Send to SQS
-            SendMessageRequest request = SendMessageRequest.builder()
-                    .queueUrl(auditQueueUrl)
-                    .messageBody(messageBody)
-                    .build();
-            
-            sqsClient.sendMessage(request);
-            log.debug("Sent {} audit log to SQS for client {}", operation, clientId);
-            
-        } catch (Exception e) {
-            // Non-blocking: log error but don't throw
-            log.error("Failed to send audit log to SQS: {}", e.getMessage(), e);
-        }
-    }
-
     /**
      * Get all clients for the authenticated agent
      * Returns PageDTO<ClientDTO> for "Manage Profiles" page
@@ -301,8 +256,8 @@ public class ClientService {
     /**
      * Verify client identity
      * Marks client as verified and sends verification email via SES
-     * Email sending is async and non-blocking - email failure does not affect
-     * response
+     * The email is queued in the outbox in the same transaction, so it is sent
+     * if and only if the verification commits
      * 
      * Caching Strategy: Evicts both paginated lists (verified status changes)
      * and the specific client's cached details.
@@ -324,7 +279,7 @@ public class ClientService {
         }
 
         // 1. Fetch client from database
-        Client client = clientRepository.findByClientIdAndDeletedFalse(clientId)
+        Client client = clientRepository.findActiveById(clientId)
                 .orElseThrow(() -> {
                     log.error("Client not found or deleted: {}", clientId);
                     return new ClientNotFoundException("Client not found or has been deleted");
@@ -348,27 +303,14 @@ public class ClientService {
         clientRepository.save(client);
         log.info("Client {} marked as verified in database", clientId);
 
-        // 5. Publish audit log to SQS (non-blocking)
-        try {
-            sendAuditLogToSqs("UPDATE", clientId, userContext.getUserId(), 
-                            "Verification Status", "Pending", "Verified");
-            log.info("Published verification audit log to SQS for client {}", clientId);
-        } catch (Exception e) {
-            log.error("Failed to publish verification audit log for client {}: {}",
-                    clientId, e.getMessage(), e);
-            // Continue - audit failure should not stop verification
-        }
+        // 5. Record audit log in the outbox (committed with the verification, relayed to SQS)
+        auditOutboxService.record("UPDATE", clientId, userContext.getUserId(), 
+                        "Verification Status", "Pending", "Verified");
+        log.info("Recorded verification audit log for client {}", clientId);
 
-        // 6. Send verification email via SES (async, non-blocking)
-        // Email failure does not affect the response (handled in EmailService)
-        try {
-            emailService.sendVerificationEmail(client);
-            log.info("Triggered async verification email send for client {}", clientId);
-        } catch (Exception e) {
-            log.error("Failed to trigger verification email for client {}: {}",
-                    clientId, e.getMessage(), e);
-            // Continue - email failure should not stop verification
-        }
+        // 6. Queue verification email in the outbox (same transaction, sent via SES by EmailOutboxDispatcher)
+        emailService.sendVerificationEmail(client);
+        log.info("Enqueued verification email for client {}", clientId);
     }
 
     /**
@@ -387,7 +329,7 @@ public class ClientService {
         log.info("Getting client by client id: {}", clientId);
         // Agents can only get the client that they created
         try {
-            Client client = clientRepository.findByClientId(clientId)
+            Client client = clientRepository.findById(clientId)
                     .orElseThrow(() -> new ClientNotFoundException("Client with id" + clientId + "not found"));
 
             if (userContext.getRole() == UserRole.AGENT && !client.getAgentId().equals(userContext.getUserId())) {
@@ -398,14 +340,9 @@ public class ClientService {
 
             log.info("Client {} retrieved successfully by {}", clientId, userContext.getUserId());
             
-            // Publish READ audit log to SQS (per specification)
-            try {
-                sendAuditLogToSqs("READ", clientId, userContext.getUserId(), null, null, null);
-                log.debug("Published READ audit log for client {}", clientId);
-            } catch (Exception e) {
-                log.error("Failed to publish READ audit log for client {}: {}", clientId, e.getMessage());
-                // Non-blocking: continue with response
-            }
+            // Record READ audit log in the outbox (per specification)
+            auditOutboxService.record("READ", clientId, userContext.getUserId(), null, null, null);
+            log.debug("Recorded READ audit log for client {}", clientId);
             
             return convertToDTO(client);
         } catch (ClientNotFoundException e) {
@@ -422,6 +359,30 @@ public class ClientService {
         }
     }
 
+    /**
+     * Load a client for the overview and check the caller may read it
+     * Single authorization point of the client overview (same rules as getClientById,
+     * not cached so the ownership check always runs). Records the READ audit log.
+     * 
+     * @param clientId    the client ID to retrieve
+     * @param userContext the authenticated user context
+     * @return the client DTO
+     */
+    @Transactional
+    public ClientDTO getClientForOverview(String clientId, UserContext userContext) {
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new ClientNotFoundException("Client with id " + clientId + " not found"));
+
+        if (userContext.getRole() == UserRole.AGENT && !client.getAgentId().equals(userContext.getUserId())) {
+            log.warn("Agent {} attempted to get overview of client {} that is not created by them",
+                    userContext.getUserId(), clientId);
+            throw new ForbiddenException("You are not authorized to read this client profile");
+        }
+
+        auditOutboxService.record("READ", clientId, userContext.getUserId(), null, null, null);
+        return convertToDTO(client);
+    }
+
     /**
      * Update client profile by ID
      * 
@@ -445,7 +406,7 @@ public class ClientService {
             throw new ForbiddenException("Only agents can update their own client profile");
         }
 
-        Client client = clientRepository.findByClientIdAndDeletedFalse(clientId)
+        Client client = clientRepository.findActiveById(clientId)
                 .orElseThrow(() -> new ClientNotFoundException("Client with id" + clientId + "not found"));
 
         if (!client.getAgentId().equals(userContext.getUserId())) {
@@ -487,7 +448,7 @@ public class ClientService {
 
         if (clientData.getEmail() != null && !clientData.getEmail().equals(client.getEmail())) {
             // Check email uniqueness if changing email
-            if (clientRepository.existsByEmailAndDeletedFalse(clientData.getEmail())) {
+            if (clientUniquenessFilter.emailInUse(clientData.getEmail())) {
                 log.error("Email already exists: {}", clientData.getEmail());
                 throw new ClientAlreadyExistsException("A client with this email already exists");
             }
@@ -498,7 +459,7 @@ public class ClientService {
 
         if (clientData.getPhoneNumber() != null && !clientData.getPhoneNumber().equals(client.getPhoneNumber())) {
             // Check phone uniqueness if changing phone
-            if (clientRepository.existsByPhoneNumberAndDeletedFalse(clientData.getPhoneNumber())) {
+            if (clientUniquenessFilter.phoneNumberInUse(clientData.getPhoneNumber())) {
                 log.error("Phone number already exists: {}", clientData.getPhoneNumber());
                 throw new ClientAlreadyExistsException("A client with this phone number already exists");
             }
@@ -540,20 +501,16 @@ public class ClientService {
         // Save the changes if there are any
         if (hasChanges) {
             Client savedClient = clientRepository.save(client);
+            recordContactChanges(changes);
             log.info("Client {} updated successfully with {} field changes", clientId, changes.size());
 
-            // Publish audit logs for each changed field (non-blocking)
+            // Record audit logs for each changed field
             publishUpdateAuditLog(clientId, userContext, changes);
 
-            // Send update email (async, non-blocking)
-            try {
-                emailService.sendClientUpdateEmail(savedClient, changes);
-                log.info("Triggered async client update email send for client {} with {} changes", 
-                        clientId, changes.size());
-            } catch (Exception e) {
-                log.error("Failed to trigger update email for client {}: {}", clientId, e.getMessage(), e);
-                // Continue - email failure should not stop update
-            }
+            // Queue update email in the outbox (same transaction)
+            emailService.sendClientUpdateEmail(savedClient, changes);
+            log.info("Enqueued client update email for client {} with {} changes", 
+                    clientId, changes.size());
 
             return convertToDTO(savedClient);
         } else {
@@ -565,16 +522,22 @@ public class ClientService {
     /**
      * Soft delete client by ID
      * 
-     * Caching Strategy: Evicts paginated lists (client removed from list),
-     * specific client details, and all associated accounts.
+     * The cascade is set-based: the client's accounts are validated from one SELECT,
+     * then soft deleted with a single guarded UPDATE (balance = 0) whose row count must
+     * match the validated accounts. Rollups, audit events and the email are written in
+     * bulk. Client and accounts share one deleted_at stamp so the delete can be undone
+     * with restoreClientById.
+     * 
+     * Caching Strategy: Evicts paginated lists (client removed from list)
+     * and specific client details; the accounts list is invalidated after commit
+     * through AccountsByClientCache so concurrent write-throughs lose their CAS.
      * 
      * @param clientId    the client ID to delete
      * @param userContext the authenticated user context
      */
     @Caching(evict = {
         @CacheEvict(value = "clients-list", allEntries = true),
-        @CacheEvict(value = "clients-single", key = "#clientId"),
-        @CacheEvict(value = "accounts-by-client", key = "#clientId")
+        @CacheEvict(value = "clients-single", key = "#clientId")
     })
     public void softDeleteClientById(String clientId, UserContext userContext) {
         log.info("Soft deleting client {} by agent {}", clientId, userContext.getUserId());
@@ -584,7 +547,7 @@ public class ClientService {
             throw new ForbiddenException("Only agents can soft delete their own client profiles");
         }
 
-        Client client = clientRepository.findByClientIdAndDeletedFalse(clientId)
+        Client client = clientRepository.findActiveById(clientId)
             .orElseThrow(() -> new ClientNotFoundException("Client with id" + clientId + "not found"));
         
         if (!client.getAgentId().equals(userContext.getUserId())) {
@@ -595,29 +558,26 @@ public class ClientService {
         // Per specification: Fetch ALL client's accounts and check if ALL have balance = 0
         List<Account> clientAccounts = accountRepository.findByClientIdAndDeletedFalse(clientId);
         
-        if (!clientAccounts.isEmpty()) {
-            // Check if ANY account has non-zero balance
-            List<Account> accountsWithBalance = clientAccounts.stream()
-                .filter(account -> account.getBalance().compareTo(BigDecimal.ZERO) > 0)
-                .collect(Collectors.toList());
+        List<Account> accountsWithBalance = clientAccounts.stream()
+            .filter(account -> account.getBalance().signum() != 0)
+            .collect(Collectors.toList());
+        
+        if (!accountsWithBalance.isEmpty()) {
+            // Build error message with list of accounts
+            String accountList = accountsWithBalance.stream()
+                .map(account -> String.format("Account %s (balance: %.2f %s)", 
+                    account.getAccountId(), 
+                    account.getBalance(), 
+                    account.getCurrency()))
+                .collect(Collectors.joining(", "));
             
-            if (!accountsWithBalance.isEmpty()) {
-                // Build error message with list of accounts
-                String accountList = accountsWithBalance.stream()
-                    .map(account -> String.format("Account %s (balance: %.2f %s)", 
-                        account.getAccountId(), 
-                        account.getBalance(), 
-                        account.getCurrency()))
-                    .collect(Collectors.joining(", "));
-                
-                log.error("Cannot delete client {}: {} account(s) have non-zero balance: {}", 
-                    clientId, accountsWithBalance.size(), accountList);
-                
-                throw new InvalidOperationException(
-                    String.format("Cannot delete client: %d account(s) have non-zero balance. " +
-                        "Accounts with balance: %s", 
-                        accountsWithBalance.size(), accountList));
-            }
+            log.error("Cannot delete client {}: {} account(s) have non-zero balance: {}", 
+                clientId, accountsWithBalance.size(), accountList);
+            
+            throw new InvalidOperationException(
+                String.format("Cannot delete client: %d account(s) have non-zero balance. " +
+                    "Accounts with balance: %s", 
+                    accountsWithBalance.size(), accountList));
         }
 
         // Prepare before_value for audit log (per specification)
@@ -628,57 +588,142 @@ public class ClientService {
                 client.getPhoneNumber());
 
         // Perform soft delete on client
+        LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
         client.setDeleted(true);
+        client.setDeletedAt(deletedAt);
         clientRepository.save(client);
+        clientUniquenessFilter.recordRetired(2);
         log.info("Client {} soft deleted successfully by agent {}", clientId, userContext.getUserId());
 
-        // Cascade soft delete to ALL accounts (per specification)
-        for (Account account : clientAccounts) {
-            // Prepare before_value for account audit log
-            String accountBeforeValue = String.format("%s|%s|%s|%.2f %s",
-                account.getAccountId(),
-                account.getAccountType().getValue(),
-                account.getAccountStatus().getValue(),
-                account.getBalance(),
-                account.getCurrency());
-            
-            // Soft delete the account
-            account.setDeleted(true);
-            accountRepository.save(account);
-            log.info("Account {} cascaded soft deleted with client {}", account.getAccountId(), clientId);
-            
-            // Publish DELETE audit log for each account to SQS (non-blocking)
-            try {
-                sendAuditLogToSqs("DELETE", clientId, userContext.getUserId(), 
-                    "Account: " + account.getAccountId(), accountBeforeValue, null);
-                log.debug("Published DELETE audit log for account {}", account.getAccountId());
-            } catch (Exception e) {
-                log.error("Failed to publish DELETE audit log for account {}: {}", 
-                    account.getAccountId(), e.getMessage());
-                // Non-blocking: audit failure should not affect deletion
-            }
-        }
-
-        // Publish DELETE audit log for client to SQS (non-blocking)
-        try {
-            sendAuditLogToSqs("DELETE", clientId, userContext.getUserId(), null, beforeValue, null);
-            log.debug("Published DELETE audit log for client {}", clientId);
-        } catch (Exception e) {
-            log.error("Failed to publish DELETE audit log for client {}: {}", clientId, e.getMessage());
-            // Non-blocking: audit failure should not affect deletion
-        }
+        // Cascade soft delete to ALL accounts in one statement (per specification)
+        int deletedAccounts = accountRepository.softDeleteZeroBalanceAccounts(clientId, deletedAt);
+        if (deletedAccounts != clientAccounts.size()) {
+            // An account was funded or opened after validation - roll the whole delete back
+            log.error("Cascade delete for client {} affected {} account(s), expected {}", 
+                clientId, deletedAccounts, clientAccounts.size());
+            throw new InvalidOperationException(
+                "Client accounts changed while deleting the client. Please retry");
+        }
+        accountRollupService.recordAccountsClosed(clientAccounts, client.getAgentId());
+        accountsByClientCache.invalidateAfterCommit(clientId);
+        entityCacheInvalidator.evictAfterCommit(Account.class, accountIds(clientAccounts));
+
+        // Record DELETE audit logs for all accounts and the client in the outbox
+        auditOutboxService.recordAll("DELETE", clientId, userContext.getUserId(), clientAccounts.stream()
+            .map(account -> new AuditOutboxService.AuditEntry(
+                "Account: " + account.getAccountId(),
+                String.format("%s|%s|%s|%.2f %s",
+                    account.getAccountId(),
+                    account.getAccountType().getValue(),
+                    account.getAccountStatus().getValue(),
+                    account.getBalance(),
+                    account.getCurrency()),
+                null))
+            .collect(Collectors.toList()));
+        auditOutboxService.record("DELETE", clientId, userContext.getUserId(), null, beforeValue, null);
+        log.debug("Recorded {} DELETE audit log(s) for client {}", clientAccounts.size() + 1, clientId);
         
         log.info("Client {} and {} associated account(s) soft deleted successfully", 
             clientId, clientAccounts.size());
         
-        // Send deletion email (async, non-blocking)
-        try {
-            emailService.sendClientDeletionEmail(client, clientAccounts);
-            log.info("Triggered async client deletion email send for client {} with {} accounts", 
-                    clientId, clientAccounts.size());
-        } catch (Exception e) {
-            log.error("Failed to trigger deletion email for client {}: {}", clientId, e.getMessage(), e);
-            // Continue - email failure should not stop deletion
+        // Queue deletion email in the outbox (same transaction)
+        emailService.sendClientDeletionEmail(client, clientAccounts);
+        log.info("Enqueued client deletion email for client {} with {} accounts", 
+                clientId, clientAccounts.size());
+    }
+
+    /**
+     * Restore a soft-deleted client together with the accounts deleted with it
+     * 
+     * Uses the same set-based engine as the delete cascade: accounts carrying the
+     * client's deleted_at stamp are restored with a single UPDATE whose row count is
+     * verified, and rollups, audit events and the email are written in bulk.
+     * Accounts closed individually before the client was deleted stay closed.
+     * 
+     * Caching Strategy: Evicts paginated lists (client reappears in list)
+     * and specific client details; the accounts list is invalidated after commit
+     * through AccountsByClientCache so concurrent write-throughs lose their CAS.
+     * 
+     * @param clientId    the client ID to restore
+     * @param userContext the authenticated user context
+     * @return the restored client DTO
+     */
+    @Caching(evict = {
+        @CacheEvict(value = "clients-list", allEntries = true),
+        @CacheEvict(value = "clients-single", key = "#clientId")
+    })
+    public ClientDTO restoreClientById(String clientId, UserContext userContext) {
+        log.info("Restoring client {} by agent {}", clientId, userContext.getUserId());
+        // Agents only can restore their own client profile
+        if (userContext.getRole() != UserRole.AGENT) {
+            log.warn("Unauthorized attempt to restore client {} by {}", clientId, userContext.getUserId());
+            throw new ForbiddenException("Only agents can restore their own client profiles");
+        }
+
+        Client client = clientRepository.findByClientIdAndDeletedTrue(clientId)
+            .orElseThrow(() -> new ClientNotFoundException("Deleted client with id " + clientId + " not found"));
+
+        if (!client.getAgentId().equals(userContext.getUserId())) {
+            log.warn("Agent {} attempted to restore client {} that is not created by them", userContext.getUserId(), clientId);
+            throw new ForbiddenException("Only agents can restore their own client profiles");
+        }
+
+        // Email and phone number may have been reused by another client since the delete
+        if (clientUniquenessFilter.emailInUse(client.getEmail())) {
+            log.warn("Cannot restore client {}: email already in use by an active client", clientId);
+            throw new ClientAlreadyExistsException("A client with this email already exists");
+        }
+        if (clientUniquenessFilter.phoneNumberInUse(client.getPhoneNumber())) {
+            log.warn("Cannot restore client {}: phone number already in use by an active client", clientId);
+            throw new ClientAlreadyExistsException("A client with this phone number already exists");
+        }
+
+        LocalDateTime deletedAt = client.getDeletedAt();
+        List<Account> clientAccounts = deletedAt != null
+            ? accountRepository.findByClientIdAndDeletedTrueAndDeletedAt(clientId, deletedAt)
+            : List.of();
+        if (deletedAt == null) {
+            // Deleted before deletion timestamps existed - cascaded accounts cannot be identified
+            log.warn("Client {} has no deletion timestamp; restoring profile without accounts", clientId);
         }
+
+        // Restore the client
+        client.setDeleted(false);
+        client.setDeletedAt(null);
+        Client savedClient = clientRepository.save(client);
+        clientUniquenessFilter.recordActive(savedClient.getEmail(), savedClient.getPhoneNumber());
+        log.info("Client {} restored by agent {}", clientId, userContext.getUserId());
+
+        // Restore the cascaded accounts in one statement
+        if (!clientAccounts.isEmpty()) {
+            int restoredAccounts = accountRepository.restoreAccountsDeletedWith(
+                clientId, deletedAt, LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+            if (restoredAccounts != clientAccounts.size()) {
+                log.error("Restore for client {} affected {} account(s), expected {}", 
+                    clientId, restoredAccounts, clientAccounts.size());
+                throw new InvalidOperationException(
+                    "Client accounts changed while restoring the client. Please retry");
+            }
+            accountRollupService.recordAccountsOpened(clientAccounts, savedClient.getAgentId());
+            accountsByClientCache.invalidateAfterCommit(clientId);
+            entityCacheInvalidator.evictAfterCommit(Account.class, accountIds(clientAccounts));
+        }
+
+        // Record UPDATE audit logs for the client and all restored accounts in the outbox
+        List<AuditOutboxService.AuditEntry> auditEntries = new ArrayList<>();
+        auditEntries.add(new AuditOutboxService.AuditEntry("Deletion Status", "Deleted", "Active"));
+        clientAccounts.forEach(account -> auditEntries.add(new AuditOutboxService.AuditEntry(
+            "Account: " + account.getAccountId(), "Deleted", "Active")));
+        auditOutboxService.recordAll("UPDATE", clientId, userContext.getUserId(), auditEntries);
+
+        log.info("Client {} and {} associated account(s) restored successfully", 
+            clientId, clientAccounts.size());
+
+        // Queue restoration email in the outbox (same transaction)
+        emailService.sendClientRestorationEmail(savedClient, clientAccounts);
+        log.info("Enqueued client restoration email for client {} with {} accounts", 
+                clientId, clientAccounts.size());
+
+        return convertToDTO(savedClient);
     }
 }
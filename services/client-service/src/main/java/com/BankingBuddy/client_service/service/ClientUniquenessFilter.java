@@ -0,0 +1,441 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.ClientBloomFilterProperties;
+import com.BankingBuddy.client_service.model.dto.ClientContactDTO;
+import com.BankingBuddy.client_service.repository.ClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter front for the email / phone number uniqueness checks
+ *
+ * Answers "definitely not in use" from memory, so creating or updating a client with a
+ * fresh email or phone number costs no database round trip. A possible hit falls through
+ * to the existsBy...AndDeletedFalse query. The uk_email_active / uk_phone_active unique
+ * keys stay the source of truth: anything the filter misses (a rebuild race, a Redis
+ * outage) is still rejected by the insert and translated to the same 409.
+ *
+ * Lifecycle:
+ * - Startup: load the current generation from Redis, or build one by streaming active
+ *   contacts from the clients table and publish it.
+ * - Writes: every new active email / phone number is set locally and SETBIT into the
+ *   shared Redis bitmaps so other nodes see it on their next sync.
+ * - Deletes: Bloom filters cannot remove values, so retired values are only counted.
+ *   Once they exceed clients.bloom.stale-rebuild-ratio of capacity (or the filter is
+ *   full) a fresh generation is built, sized from the live row count. A nightly rebuild
+ *   keeps the false positive rate down regardless.
+ *
+ * Redis layout (plain bitmaps, readable with GETBIT):
+ * - client-service:bloom:generation        -> "{id}:{bits}:{hashes}"
+ * - client-service:bloom:{id}:email|phone  -> bitmap
+ * - client-service:bloom:rebuild-lock      -> held by the node rebuilding
+ *
+ * Metrics (Actuator /actuator/metrics):
+ * - clients.bloom.checks{field,result}: negative (DB skipped) / positive lookups
+ * - clients.bloom.false.positives{field}: positives the database did not confirm
+ * - clients.bloom.fill: share of email filter bits set
+ */
+@Service
+@Slf4j
+public class ClientUniquenessFilter {
+
+    private static final String KEY_PREFIX = "client-service:bloom:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+    private static final String REBUILD_LOCK_KEY = KEY_PREFIX + "rebuild-lock";
+
+    private final ClientRepository clientRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ClientBloomFilterProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Generation current;
+    private final AtomicLong retired = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Queue<String[]> pendingDuringRebuild = new ConcurrentLinkedQueue<>();
+
+    private final Counter emailNegatives;
+    private final Counter emailPositives;
+    private final Counter emailFalsePositives;
+    private final Counter phoneNegatives;
+    private final Counter phonePositives;
+    private final Counter phoneFalsePositives;
+
+    /**
+     * One filter pair plus its capacity; replaced wholesale on rebuild
+     */
+    private record Generation(String id, ContactBloomFilter emails, ContactBloomFilter phones,
+                              long capacity, AtomicLong insertions) {
+
+        String key(String field) {
+            return KEY_PREFIX + id + ":" + field;
+        }
+
+        String descriptor() {
+            return id + ":" + emails.bitCount() + ":" + emails.hashCount();
+        }
+    }
+
+    public ClientUniquenessFilter(
+            ClientRepository clientRepository,
+            StringRedisTemplate redisTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            ClientBloomFilterProperties properties) {
+        this.clientRepository = clientRepository;
+        this.redisTemplate = redisTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+
+        this.emailNegatives = checkCounter(meterRegistry, "email", "negative");
+        this.emailPositives = checkCounter(meterRegistry, "email", "positive");
+        this.phoneNegatives = checkCounter(meterRegistry, "phone", "negative");
+        this.phonePositives = checkCounter(meterRegistry, "phone", "positive");
+        this.emailFalsePositives = Counter.builder("clients.bloom.false.positives")
+                .tag("field", "email").register(meterRegistry);
+        this.phoneFalsePositives = Counter.builder("clients.bloom.false.positives")
+                .tag("field", "phone").register(meterRegistry);
+        Gauge.builder("clients.bloom.fill", this, filter -> {
+                    Generation generation = filter.current;
+                    return generation != null ? generation.emails().fillRatio() : 0;
+                })
+                .description("Share of email Bloom filter bits set")
+                .register(meterRegistry);
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String field, String result) {
+        return Counter.builder("clients.bloom.checks")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check whether an active client already uses this email
+     * @param email the email to check
+     * @return true if an active client has it (confirmed by the database)
+     */
+    public boolean emailInUse(String email) {
+        Generation generation = activeGeneration();
+        if (generation != null && !generation.emails().mightContain(email)) {
+            emailNegatives.increment();
+            return false;
+        }
+        boolean exists = clientRepository.existsByEmailAndDeletedFalse(email);
+        if (generation != null) {
+            emailPositives.increment();
+            if (!exists) {
+                emailFalsePositives.increment();
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * Check whether an active client already uses this phone number
+     * @param phoneNumber the phone number to check
+     * @return true if an active client has it (confirmed by the database)
+     */
+    public boolean phoneNumberInUse(String phoneNumber) {
+        Generation generation = activeGeneration();
+        if (generation != null && !generation.phones().mightContain(phoneNumber)) {
+            phoneNegatives.increment();
+            return false;
+        }
+        boolean exists = clientRepository.existsByPhoneNumberAndDeletedFalse(phoneNumber);
+        if (generation != null) {
+            phonePositives.increment();
+            if (!exists) {
+                phoneFalsePositives.increment();
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * Add contact values that just became active (create, update, restore)
+     * Call before commit: a value recorded for a transaction that rolls back only
+     * costs a false positive, whereas a late record could produce a false negative.
+     * @param email       the new active email, or null if unchanged
+     * @param phoneNumber the new active phone number, or null if unchanged
+     */
+    public void recordActive(String email, String phoneNumber) {
+        if (rebuilding.get()) {
+            pendingDuringRebuild.add(new String[]{email, phoneNumber});
+        }
+        Generation generation = current;
+        if (generation == null) {
+            return;
+        }
+        if (email != null) {
+            generation.emails().put(email);
+            generation.insertions().incrementAndGet();
+        }
+        if (phoneNumber != null) {
+            generation.phones().put(phoneNumber);
+            generation.insertions().incrementAndGet();
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                if (email != null) {
+                    setBits(connection, generation.key("email"), generation.emails().positions(email));
+                }
+                if (phoneNumber != null) {
+                    setBits(connection, generation.key("phone"), generation.phones().positions(phoneNumber));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // Other nodes pick the value up on the next rebuild; the unique keys cover the gap
+            log.warn("Failed to publish Bloom filter bits to Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Note contact values that stopped being active (delete, email / phone change)
+     * They stay set in the filter until the next rebuild.
+     * @param values number of emails and phone numbers retired
+     */
+    public void recordRetired(int values) {
+        retired.addAndGet(values);
+    }
+
+    private Generation activeGeneration() {
+        return properties.isEnabled() ? current : null;
+    }
+
+    private static void setBits(RedisConnection connection, String key, long[] positions) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        for (long position : positions) {
+            connection.stringCommands().setBit(rawKey, position, true);
+        }
+    }
+
+    /**
+     * Load or build the filters once the application is up (checks use the database until then)
+     */
+    @Async("warmupExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!properties.isEnabled()) {
+            log.info("Client uniqueness Bloom filter disabled");
+            return;
+        }
+        try {
+            if (!loadFromRedis()) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to initialize client uniqueness Bloom filter; using database checks: {}",
+                    e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Pull bits set by other nodes, switch to a newer generation if one was published,
+     * and rebuild when the filter is full or carries too many retired values
+     */
+    @Scheduled(fixedDelayString = "${clients.bloom.sync-interval-ms:30000}",
+               initialDelayString = "${clients.bloom.sync-interval-ms:30000}")
+    public void sync() {
+        if (!properties.isEnabled() || rebuilding.get()) {
+            return;
+        }
+        try {
+            Generation generation = current;
+            String published = redisTemplate.opsForValue().get(GENERATION_KEY);
+            if (generation == null || published == null || !published.equals(generation.descriptor())) {
+                if (!loadFromRedis()) {
+                    rebuild();
+                }
+                return;
+            }
+
+            generation.emails().merge(getBitmap(generation.key("email")));
+            generation.phones().merge(getBitmap(generation.key("phone")));
+
+            long staleLimit = (long) (generation.capacity() * properties.getStaleRebuildRatio());
+            if (generation.insertions().get() > generation.capacity() || retired.get() > staleLimit) {
+                log.info("Rebuilding client uniqueness Bloom filter (insertions: {}, retired: {}, capacity: {})",
+                        generation.insertions().get(), retired.get(), generation.capacity());
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sync client uniqueness Bloom filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nightly rebuild drops retired values and resizes for the current table
+     */
+    @Scheduled(cron = "${clients.bloom.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Scheduled Bloom filter rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adopt the generation published in Redis
+     * @return false if none is published or its bitmaps are missing
+     */
+    private boolean loadFromRedis() {
+        String published = redisTemplate.opsForValue().get(GENERATION_KEY);
+        if (published == null) {
+            return false;
+        }
+        String[] parts = published.split(":");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed Bloom filter generation descriptor: {}", published);
+            return false;
+        }
+
+        long bitCount = Long.parseLong(parts[1]);
+        int hashCount = Integer.parseInt(parts[2]);
+        Generation generation = new Generation(parts[0],
+                new ContactBloomFilter(bitCount, hashCount),
+                new ContactBloomFilter(bitCount, hashCount),
+                capacityFor(bitCount, hashCount), new AtomicLong());
+
+        byte[] emails = getBitmap(generation.key("email"));
+        byte[] phones = getBitmap(generation.key("phone"));
+        if (emails == null || phones == null) {
+            log.warn("Bloom filter generation {} is missing its bitmaps", generation.id());
+            return false;
+        }
+        generation.emails().merge(emails);
+        generation.phones().merge(phones);
+
+        swap(generation);
+        log.info("Loaded client uniqueness Bloom filter generation {} from Redis ({} bits, {} hashes)",
+                generation.id(), bitCount, hashCount);
+        return true;
+    }
+
+    /**
+     * Build a new generation from the clients table and publish it
+     * Only one node rebuilds at a time; the others adopt the result on their next sync.
+     */
+    void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(
+                REBUILD_LOCK_KEY, nodeId, Duration.ofSeconds(properties.getRebuildLockSeconds()));
+        if (!Boolean.TRUE.equals(locked)) {
+            rebuilding.set(false);
+            log.debug("Another node is rebuilding the client uniqueness Bloom filter");
+            return;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            long activeClients = clientRepository.countByDeletedFalse();
+            long capacity = Math.max(properties.getMinCapacity(),
+                    (long) (activeClients * properties.getCapacityHeadroom()));
+            ContactBloomFilter emails = ContactBloomFilter.forCapacity(capacity, properties.getFalsePositiveRate());
+            ContactBloomFilter phones = ContactBloomFilter.forCapacity(capacity, properties.getFalsePositiveRate());
+            Generation generation = new Generation(UUID.randomUUID().toString(), emails, phones,
+                    capacity, new AtomicLong());
+
+            retired.set(0);
+            pendingDuringRebuild.clear();
+            Long loaded = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<ClientContactDTO> contacts = clientRepository.streamActiveContacts()) {
+                    for (ClientContactDTO contact : (Iterable<ClientContactDTO>) contacts::iterator) {
+                        emails.put(contact.getEmail());
+                        phones.put(contact.getPhoneNumber());
+                        count++;
+                    }
+                }
+                return count;
+            });
+            generation.insertions().set(loaded != null ? loaded * 2 : 0);
+
+            // Values this node activated after the stream passed them
+            String[] pending;
+            while ((pending = pendingDuringRebuild.poll()) != null) {
+                if (pending[0] != null) {
+                    emails.put(pending[0]);
+                }
+                if (pending[1] != null) {
+                    phones.put(pending[1]);
+                }
+            }
+
+            Generation previous = current;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(bytes(generation.key("email")), emails.toBitmap());
+                connection.stringCommands().set(bytes(generation.key("phone")), phones.toBitmap());
+                connection.stringCommands().set(bytes(GENERATION_KEY), bytes(generation.descriptor()));
+                if (previous != null) {
+                    connection.keyCommands().del(bytes(previous.key("email")), bytes(previous.key("phone")));
+                }
+                return null;
+            });
+
+            swap(generation);
+            log.info("Built client uniqueness Bloom filter generation {} from {} active client(s) " +
+                            "(capacity {}, {} bits, {} hashes) in {} ms",
+                    generation.id(), loaded, capacity, emails.bitCount(), emails.hashCount(),
+                    System.currentTimeMillis() - start);
+        } finally {
+            if (nodeId.equals(redisTemplate.opsForValue().get(REBUILD_LOCK_KEY))) {
+                redisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+            rebuilding.set(false);
+            pendingDuringRebuild.clear();
+        }
+    }
+
+    private void swap(Generation generation) {
+        current = generation;
+        retired.set(0);
+    }
+
+    private byte[] getBitmap(String key) {
+        return redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(bytes(key)));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Values a filter of this shape holds at the configured false positive rate
+     * n = m (ln 2)^2 / -ln p
+     */
+    private long capacityFor(long bitCount, int hashCount) {
+        return (long) (bitCount * Math.log(2) * Math.log(2) / -Math.log(properties.getFalsePositiveRate()));
+    }
+}
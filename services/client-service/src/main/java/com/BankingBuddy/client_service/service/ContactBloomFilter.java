@@ -0,0 +1,178 @@
+package com.BankingBuddy.client_service.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe Bloom filter over normalized contact values (emails, phone numbers)
+ *
+ * Bits are laid out exactly like a Redis bitmap (bit n = byte n/8, most significant bit
+ * first), so the filter can be shipped to Redis with one SET, extended with SETBIT at
+ * the same offsets, and read back with GET.
+ *
+ * Positions use double hashing (h1 + i * h2) over two independent 64-bit hashes.
+ */
+public class ContactBloomFilter {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray words;
+
+    public ContactBloomFilter(long bitCount, int hashCount) {
+        if (bitCount <= 0 || hashCount <= 0) {
+            throw new IllegalArgumentException("Bloom filter needs a positive size and hash count");
+        }
+        // Round up to whole 64-bit words so the Redis byte image is word aligned
+        this.bitCount = ((bitCount + 63) / 64) * 64;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((int) (this.bitCount / 64));
+    }
+
+    /**
+     * Size a filter for the expected number of values at the target false positive rate
+     * m = -n ln p / (ln 2)^2, k = (m / n) ln 2
+     */
+    public static ContactBloomFilter forCapacity(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new ContactBloomFilter(m, k);
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Bit offsets for a value (identical on every node, usable as Redis SETBIT offsets)
+     */
+    public long[] positions(String value) {
+        byte[] bytes = normalize(value).getBytes(StandardCharsets.UTF_8);
+        long h1 = mix(fnv1a(bytes, 0xcbf29ce484222325L));
+        long h2 = mix(fnv1a(bytes, 0x84222325cbf29ce4L)) | 1L;
+
+        long[] positions = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            positions[i] = Math.floorMod(h1 + i * h2, bitCount);
+        }
+        return positions;
+    }
+
+    public boolean mightContain(String value) {
+        for (long position : positions(value)) {
+            if ((words.get(wordIndex(position)) & mask(position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String value) {
+        for (long position : positions(value)) {
+            setBit(position);
+        }
+    }
+
+    private void setBit(long position) {
+        int index = wordIndex(position);
+        long mask = mask(position);
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    /**
+     * Fraction of bits set (false positive rate is roughly fill ^ hashCount)
+     */
+    public double fillRatio() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return (double) set / bitCount;
+    }
+
+    /**
+     * Byte image in Redis bitmap layout
+     */
+    public byte[] toBitmap() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length() * Long.BYTES);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * OR a Redis bitmap image into this filter (picks up values added by other nodes)
+     * Shorter images are treated as zero-padded, as Redis does.
+     */
+    public void merge(byte[] bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+        byte[] padded = bitmap;
+        if (bitmap.length % Long.BYTES != 0) {
+            padded = new byte[(bitmap.length / Long.BYTES + 1) * Long.BYTES];
+            System.arraycopy(bitmap, 0, padded, 0, bitmap.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(padded);
+        for (int i = 0; i < Math.min(words.length(), padded.length / Long.BYTES); i++) {
+            long incoming = buffer.getLong();
+            if (incoming != 0) {
+                words.getAndAccumulate(i, incoming, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /**
+     * Match the clients table collation (utf8mb4_unicode_ci): case and accent insensitive,
+     * trailing spaces ignored. Values the database treats as equal must hash equally,
+     * otherwise the filter could report a definite negative for a taken value.
+     */
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .stripTrailing();
+    }
+
+    private static int wordIndex(long position) {
+        return (int) (position >>> 6);
+    }
+
+    // Big-endian within the word so byte order matches the Redis bitmap
+    private static long mask(long position) {
+        return 1L << (63 - (position & 63));
+    }
+
+    private static long fnv1a(byte[] bytes, long seed) {
+        long hash = seed;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer - spreads FNV output across all 64 bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
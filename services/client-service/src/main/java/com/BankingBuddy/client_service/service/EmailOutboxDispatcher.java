@@ -0,0 +1,312 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.EmailOutboxProperties;
+import com.BankingBuddy.client_service.model.entity.EmailOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.EmailOutboxStatus;
+import com.BankingBuddy.client_service.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued emails from the email_outbox table via AWS SES
+ *
+ * Each poll hands a drain to the email executor lane: it claims a batch of due rows with
+ * SELECT ... FOR UPDATE SKIP LOCKED in a short transaction, flips them to SENDING with a
+ * lease, then sends them concurrently on the lane outside any transaction, claiming the next
+ * batch once the sends finish. At most one drain runs per node; the scheduler thread is
+ * never held by it. Failures are rescheduled by setting a future next_attempt_at
+ * (exponential backoff with jitter) - no worker thread ever sleeps.
+ *
+ * Safe to run on every node: SKIP LOCKED gives each node a disjoint batch, and rows
+ * leased by a node that dies become claimable again once the lease expires.
+ *
+ * Metrics (Actuator /actuator/metrics):
+ * - email.outbox.depth: PENDING + SENDING rows
+ * - email.outbox.oldest.age: age in seconds of the oldest undelivered row
+ * - email.outbox.sent / retried / failed: delivery outcome counters
+ * - email.outbox.send: SES send latency
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final Set<EmailOutboxStatus> UNDELIVERED =
+            EnumSet.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SesClient sesClient;
+    private final Executor emailExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailOutboxProperties properties;
+    private final String sourceEmail;
+
+    private final AtomicBoolean dispatchRunning = new AtomicBoolean(false);
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer sendTimer;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxRepository emailOutboxRepository,
+            SesClient sesClient,
+            @Qualifier("emailExecutor") Executor emailExecutor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            EmailOutboxProperties properties,
+            @Value("${aws.ses.source-email}") String sourceEmail) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.sesClient = sesClient;
+        this.emailExecutor = emailExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.sourceEmail = sourceEmail;
+
+        Gauge.builder("email.outbox.depth", queueDepth, AtomicLong::get)
+                .description("Undelivered rows in the email outbox")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered email outbox row")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("email.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("email.outbox.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed").register(meterRegistry);
+        this.sendTimer = Timer.builder("email.outbox.send").register(meterRegistry);
+    }
+
+    /**
+     * Poll tick: start draining the outbox on the email lane unless a drain is still running
+     * The scheduler thread only hands the drain off; it never waits for sends.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!properties.isDispatcherEnabled() || !dispatchRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            emailExecutor.execute(this::drainNextBatch);
+        } catch (RejectedExecutionException e) {
+            dispatchRunning.set(false);
+            logger.warn("Email sender pool saturated; outbox drain deferred to the next poll");
+        }
+    }
+
+    /**
+     * Claim one batch and send it on the email lane; once every send has finished, claim the
+     * next batch if this one was full. No thread blocks waiting for the sends.
+     */
+    void drainNextBatch() {
+        List<CompletableFuture<Void>> sends;
+        boolean drainMore;
+        try {
+            List<EmailOutboxMessage> batch = claimBatch();
+            if (batch.isEmpty()) {
+                dispatchRunning.set(false);
+                return;
+            }
+
+            logger.debug("Claimed {} outbox email(s) for delivery", batch.size());
+            sends = new ArrayList<>(batch.size());
+            boolean saturated = false;
+            for (EmailOutboxMessage message : batch) {
+                try {
+                    sends.add(CompletableFuture.runAsync(() -> deliver(message), emailExecutor));
+                } catch (RejectedExecutionException e) {
+                    // Sender pool saturated - hand the row back without counting an attempt
+                    logger.warn("Email sender pool saturated; releasing outbox email {}", message.getId());
+                    emailOutboxRepository.reschedule(message.getId(), message.getAttempts(), LocalDateTime.now(),
+                            "Sender pool saturated");
+                    saturated = true;
+                }
+            }
+            // A saturated lane would hand the released rows straight back; leave them to the next poll
+            drainMore = batch.size() == properties.getBatchSize() && !saturated;
+        } catch (RuntimeException e) {
+            dispatchRunning.set(false);
+            logger.error("Email outbox drain failed: {}", e.getMessage(), e);
+            return;
+        }
+
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            if (drainMore) {
+                drainNextBatch();
+            } else {
+                dispatchRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * Lock a batch of due rows and lease them to this node (short transaction, no I/O to SES)
+     */
+    List<EmailOutboxMessage> claimBatch() {
+        List<EmailOutboxMessage> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutboxMessage> rows = emailOutboxRepository.claimDue(now, properties.getBatchSize());
+            for (EmailOutboxMessage row : rows) {
+                row.setStatus(EmailOutboxStatus.SENDING);
+                row.setAttempts(row.getAttempts() + 1);
+                row.setNextAttemptAt(now.plusSeconds(properties.getLeaseSeconds()));
+            }
+            return rows;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /**
+     * Send one claimed row and record the outcome
+     */
+    void deliver(EmailOutboxMessage message) {
+        try {
+            SendEmailResponse response = sendTimer.recordCallable(() -> sesClient.sendEmail(buildRequest(message)));
+            if (emailOutboxRepository.markSent(message.getId(), message.getAttempts(), response.messageId(),
+                    LocalDateTime.now()) == 0) {
+                logLeaseLost(message, "sent");
+                return;
+            }
+            sentCounter.increment();
+            logger.info("Sent {} email to {} (outbox id {}, attempt {}). Message ID: {}",
+                    message.getEmailType(), message.getRecipient(), message.getId(),
+                    message.getAttempts(), response.messageId());
+        } catch (Exception e) {
+            handleFailure(message, e);
+        }
+    }
+
+    private void handleFailure(EmailOutboxMessage message, Exception e) {
+        String error = describe(e);
+
+        if (isPermanent(e) || message.getAttempts() >= properties.getMaxAttempts()) {
+            if (emailOutboxRepository.markFailed(message.getId(), message.getAttempts(), error) == 0) {
+                logLeaseLost(message, "failed");
+                return;
+            }
+            failedCounter.increment();
+            logger.error("Giving up on {} email to {} (outbox id {}) after {} attempt(s): {}",
+                    message.getEmailType(), message.getRecipient(), message.getId(), message.getAttempts(), error);
+            return;
+        }
+
+        Duration backoff = backoffFor(message.getAttempts());
+        if (emailOutboxRepository.reschedule(message.getId(), message.getAttempts(),
+                LocalDateTime.now().plus(backoff), error) == 0) {
+            logLeaseLost(message, "rescheduled");
+            return;
+        }
+        retriedCounter.increment();
+        logger.warn("Failed to send {} email to {} (outbox id {}, attempt {}/{}): {}. Retrying in {}s",
+                message.getEmailType(), message.getRecipient(), message.getId(), message.getAttempts(),
+                properties.getMaxAttempts(), error, backoff.toSeconds());
+    }
+
+    /**
+     * The row's lease expired and another node re-claimed it while this send was in flight;
+     * the newer claim owns the outcome
+     */
+    private void logLeaseLost(EmailOutboxMessage message, String outcome) {
+        logger.warn("Lease on outbox email {} (attempt {}) expired before it could be marked {}; " +
+                "left to the node that re-claimed it", message.getId(), message.getAttempts(), outcome);
+    }
+
+    /**
+     * Exponential backoff (initial * 2^(attempt-1)), capped, with up to 20% jitter
+     * so retries from a burst of failures do not hit SES in lockstep
+     */
+    Duration backoffFor(int attempt) {
+        long base = properties.getInitialBackoffSeconds() * (1L << Math.min(attempt - 1, 20));
+        long capped = Math.min(base, properties.getMaxBackoffSeconds());
+        long jitterMillis = ThreadLocalRandom.current().nextLong(capped * 200 + 1);
+        return Duration.ofSeconds(capped).plusMillis(jitterMillis);
+    }
+
+    /**
+     * SES rejected the message itself (bad address, unverified sender) - retrying cannot help
+     */
+    private boolean isPermanent(Exception e) {
+        return e instanceof MessageRejectedException;
+    }
+
+    private String describe(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (e instanceof SesException sesException && sesException.awsErrorDetails() != null) {
+            message = message + " (Code: " + sesException.awsErrorDetails().errorCode() + ")";
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private SendEmailRequest buildRequest(EmailOutboxMessage message) {
+        return SendEmailRequest.builder()
+                .source(sourceEmail)
+                .destination(Destination.builder()
+                        .toAddresses(message.getRecipient())
+                        .build())
+                .message(Message.builder()
+                        .subject(Content.builder()
+                                .data(message.getSubject())
+                                .charset("UTF-8")
+                                .build())
+                        .body(Body.builder()
+                                .text(Content.builder()
+                                        .data(message.getBody())
+                                        .charset("UTF-8")
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Refresh queue depth and age gauges
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.metrics-interval-ms:15000}")
+    public void refreshQueueMetrics() {
+        try {
+            queueDepth.set(emailOutboxRepository.countByStatusIn(UNDELIVERED));
+            LocalDateTime oldest = emailOutboxRepository.findOldestCreatedAt(UNDELIVERED);
+            oldestAgeSeconds.set(oldest != null
+                    ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds())
+                    : 0);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh email outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Purge delivered rows past the retention window
+     */
+    @Scheduled(cron = "${email.outbox.purge-cron:0 0 4 * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getSentRetentionDays());
+        int purged = emailOutboxRepository.deleteSentBefore(cutoff);
+        logger.info("Purged {} delivered email outbox row(s) sent before {}", purged, cutoff);
+    }
+}
@@ -1,134 +1,198 @@
 package com.BankingBuddy.client_service.service;
 
+import com.BankingBuddy.client_service.model.dto.NotificationDigestPayload;
+import com.BankingBuddy.client_service.model.dto.NotificationDigestPayload.AccountNotice;
 import com.BankingBuddy.client_service.model.entity.Account;
 import com.BankingBuddy.client_service.model.entity.Client;
+import com.BankingBuddy.client_service.model.entity.EmailOutboxMessage;
+import com.BankingBuddy.client_service.repository.EmailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.ses.SesClient;
-import software.amazon.awssdk.services.ses.model.*;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Service for sending emails via AWS SES
- * Implements async, non-blocking email sending with retry logic
+ * Service for client notification emails
+ * 
+ * Emails are rendered immediately and written to the email_outbox table in the
+ * caller's transaction, so an email is queued if and only if the client/account
+ * change that triggered it commits. Delivery via AWS SES, including retries with
+ * scheduled (non-blocking) backoff, is handled by EmailOutboxDispatcher.
+ * 
+ * Profile updates and account openings/closures are coalesced: with digests enabled they
+ * are merged into the client's notification digest (NotificationDigestService) and sent as
+ * one email when its window elapses. Any other email for the client first sends the pending
+ * digest, so the client never reads about events out of order.
  */
 @Service
+@Transactional(propagation = Propagation.MANDATORY)
 public class EmailService {
     
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-    private static final int MAX_RETRIES = 3;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
     
-    private final SesClient sesClient;
-    private final String sourceEmail;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final NotificationDigestService notificationDigestService;
     
-    public EmailService(
-            SesClient sesClient,
-            @Value("${aws.ses.source-email}") String sourceEmail) {
-        this.sesClient = sesClient;
-        this.sourceEmail = sourceEmail;
+    public EmailService(EmailOutboxRepository emailOutboxRepository,
+                        NotificationDigestService notificationDigestService) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.notificationDigestService = notificationDigestService;
     }
     
     /**
-     * Send verification email to client (async, non-blocking)
-     * Implements 3-retry logic with exponential backoff (1s, 2s, 4s)
-     * Email failure does NOT affect endpoint response
+     * Queue verification email to client
+     * Email failure does NOT affect endpoint response (delivery happens after commit)
      * 
      * @param client The client to send verification email to
      */
-    @Async
     public void sendVerificationEmail(Client client) {
-        int attempt = 0;
-        Exception lastException = null;
-        
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
-                logger.info("Attempting to send verification email to {} (attempt {}/{})", 
-                           client.getEmail(), attempt, MAX_RETRIES);
-                
-                SendEmailRequest emailRequest = buildVerificationEmailRequest(client);
-                SendEmailResponse response = sesClient.sendEmail(emailRequest);
-                
-                logger.info("Successfully sent verification email to {}. Message ID: {}", 
-                           client.getEmail(), response.messageId());
-                return; // Success - exit method
-                
-            } catch (SesException e) {
-                lastException = e;
-                logger.warn("Failed to send verification email to {} (attempt {}/{}): {} (Code: {})",
-                           client.getEmail(), attempt, MAX_RETRIES, 
-                           e.getMessage(), e.awsErrorDetails().errorCode());
-                
-                if (attempt < MAX_RETRIES) {
-                    // Exponential backoff: 1s, 2s, 4s
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        logger.info("Retrying in {} seconds...", delaySeconds);
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.error("Interrupted while waiting to retry email send", ie);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error sending verification email to {} (attempt {}/{}): {}",
-                            client.getEmail(), attempt, MAX_RETRIES, e.getMessage(), e);
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
+        enqueue("VERIFICATION", client,
+                "Your Banking Buddy Profile is Verified! ✓",
+                buildVerificationEmailBody(client));
+    }
+    
+    /**
+     * Queue client profile creation email
+     * 
+     * @param client The client who was created
+     */
+    public void sendClientCreationEmail(Client client) {
+        enqueue("CLIENT_CREATED", client,
+                "Welcome to Banking Buddy - Profile Created Successfully",
+                buildClientCreationEmailBody(client));
+    }
+    
+    /**
+     * Queue client profile update email
+     * Includes summary of changed fields
+     * 
+     * @param client The updated client
+     * @param changes Map of field changes (field -> {old, new})
+     */
+    public void sendClientUpdateEmail(Client client, Map<String, Object> changes) {
+        if (notificationDigestService.isEnabled()) {
+            notificationDigestService.recordClientChanges(client, changes);
+            return;
         }
-        
-        // All retries failed - log error but don't throw exception (non-blocking)
-        logger.error("Failed to send verification email to {} after {} attempts. Last error: {}",
-                    client.getEmail(), MAX_RETRIES, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
-        logger.error("Email failure is logged but does not affect the verification operation");
+        enqueue("CLIENT_UPDATED", client,
+                "Banking Buddy Profile Updated",
+                buildClientUpdateEmailBody(client, changes));
     }
     
     /**
-     * Build SES SendEmailRequest for client verification
-     * Uses email template from specification
+     * Queue client profile deletion email
+     * Includes warning about cascaded account deletions
+     * 
+     * @param client The deleted client
+     * @param deletedAccounts List of accounts that were deleted with the client
      */
-    private SendEmailRequest buildVerificationEmailRequest(Client client) {
-        String subject = "Your Banking Buddy Profile is Verified! ✓";
-        String bodyText = buildVerificationEmailBody(client);
-        
-        return SendEmailRequest.builder()
-                .source(sourceEmail)
-                .destination(Destination.builder()
-                        .toAddresses(client.getEmail())
-                        .build())
-                .message(Message.builder()
-                        .subject(Content.builder()
-                                .data(subject)
-                                .charset("UTF-8")
-                                .build())
-                        .body(Body.builder()
-                                .text(Content.builder()
-                                        .data(bodyText)
-                                        .charset("UTF-8")
-                                        .build())
-                                .build())
-                        .build())
+    public void sendClientDeletionEmail(Client client, List<Account> deletedAccounts) {
+        enqueue("CLIENT_DELETED", client,
+                "Banking Buddy Profile Deleted",
+                buildClientDeletionEmailBody(client, deletedAccounts));
+    }
+    
+    /**
+     * Queue client profile restoration email
+     * Lists the accounts that were reopened together with the profile
+     * 
+     * @param client The restored client
+     * @param restoredAccounts List of accounts restored with the client
+     */
+    public void sendClientRestorationEmail(Client client, List<Account> restoredAccounts) {
+        enqueue("CLIENT_RESTORED", client,
+                "Banking Buddy Profile Restored",
+                buildClientRestorationEmailBody(client, restoredAccounts));
+    }
+    
+    /**
+     * Queue account deletion email
+     * Notifies client of account closure
+     * 
+     * @param client The client who owns the account
+     * @param account The deleted account
+     */
+    public void sendAccountDeletionEmail(Client client, Account account) {
+        if (notificationDigestService.isEnabled()) {
+            notificationDigestService.recordAccountClosed(client, account);
+            return;
+        }
+        enqueue("ACCOUNT_DELETED", client,
+                "Banking Buddy Account Closed",
+                buildAccountDeletionEmailBody(client, account));
+    }
+    
+    /**
+     * Queue account creation email
+     * Notifies client of new account opening
+     * 
+     * @param client The client who owns the account
+     * @param account The newly created account
+     */
+    public void sendAccountCreationEmail(Client client, Account account) {
+        if (notificationDigestService.isEnabled()) {
+            notificationDigestService.recordAccountOpened(client, account);
+            return;
+        }
+        enqueue("ACCOUNT_CREATED", client,
+                "New Banking Buddy Account Opened",
+                buildAccountCreationEmailBody(client, account));
+    }
+    
+    /**
+     * Queue a client's coalesced notification digest
+     * A digest holding only profile changes reads like a regular update email.
+     * 
+     * @param client The client the digest belongs to
+     * @param digest Merged field changes and account openings/closures
+     */
+    public void sendClientDigestEmail(Client client, NotificationDigestPayload digest) {
+        if (digest.getOpenedAccounts().isEmpty() && digest.getClosedAccounts().isEmpty()) {
+            write("CLIENT_UPDATED", client,
+                    "Banking Buddy Profile Updated",
+                    buildClientUpdateEmailBody(client, new LinkedHashMap<>(digest.getChanges())));
+            return;
+        }
+        write("CLIENT_DIGEST", client,
+                "Banking Buddy Profile and Account Activity",
+                buildClientDigestEmailBody(client, digest));
+    }
+    
+    /**
+     * Queue an immediate email, preceded by the client's pending digest if there is one
+     */
+    private void enqueue(String emailType, Client client, String subject, String body) {
+        if (notificationDigestService.isEnabled()) {
+            notificationDigestService.takePending(client.getClientId())
+                    .filter(digest -> !digest.isEmpty())
+                    .ifPresent(digest -> sendClientDigestEmail(client, digest));
+        }
+        write(emailType, client, subject, body);
+    }
+    
+    /**
+     * Write a rendered email to the outbox (joins the caller's transaction)
+     */
+    private void write(String emailType, Client client, String subject, String body) {
+        EmailOutboxMessage message = EmailOutboxMessage.builder()
+                .emailType(emailType)
+                .clientId(client.getClientId())
+                .recipient(client.getEmail())
+                .subject(subject)
+                .body(body)
                 .build();
+        
+        emailOutboxRepository.save(message);
+        logger.info("Queued {} email to {} for client {} (outbox id {})",
+                emailType, client.getEmail(), client.getClientId(), message.getId());
     }
     
     /**
@@ -153,98 +217,6 @@ public class EmailService {
         );
     }
     
-    /**
-     * Send client profile creation email (async, non-blocking)
-     * Implements 3-retry logic with exponential backoff (1s, 2s, 4s)
-     * Email failure does NOT affect endpoint response
-     * 
-     * @param client The client who was created
-     */
-    @Async
-    public void sendClientCreationEmail(Client client) {
-        int attempt = 0;
-        Exception lastException = null;
-        
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
-                logger.info("Attempting to send creation email to {} (attempt {}/{})", 
-                           client.getEmail(), attempt, MAX_RETRIES);
-                
-                SendEmailRequest emailRequest = buildClientCreationEmailRequest(client);
-                SendEmailResponse response = sesClient.sendEmail(emailRequest);
-                
-                logger.info("Successfully sent creation email to {}. Message ID: {}", 
-                           client.getEmail(), response.messageId());
-                return; // Success - exit method
-                
-            } catch (SesException e) {
-                lastException = e;
-                logger.warn("Failed to send creation email to {} (attempt {}/{}): {} (Code: {})",
-                           client.getEmail(), attempt, MAX_RETRIES, 
-                           e.getMessage(), e.awsErrorDetails().errorCode());
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        logger.info("Retrying in {} seconds...", delaySeconds);
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.error("Interrupted while waiting to retry email send", ie);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error sending creation email to {} (attempt {}/{}): {}",
-                            client.getEmail(), attempt, MAX_RETRIES, e.getMessage(), e);
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-        }
-        
-        // All retries failed - log error but don't throw exception (non-blocking)
-        logger.error("Failed to send creation email to {} after {} attempts. Last error: {}",
-                    client.getEmail(), MAX_RETRIES, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
-    }
-    
-    /**
-     * Build SES SendEmailRequest for client creation
-     */
-    private SendEmailRequest buildClientCreationEmailRequest(Client client) {
-        String subject = "Welcome to Banking Buddy - Profile Created Successfully";
-        String bodyText = buildClientCreationEmailBody(client);
-        
-        return SendEmailRequest.builder()
-                .source(sourceEmail)
-                .destination(Destination.builder()
-                        .toAddresses(client.getEmail())
-                        .build())
-                .message(Message.builder()
-                        .subject(Content.builder()
-                                .data(subject)
-                                .charset("UTF-8")
-                                .build())
-                        .body(Body.builder()
-                                .text(Content.builder()
-                                        .data(bodyText)
-                                        .charset("UTF-8")
-                                        .build())
-                                .build())
-                        .build())
-                .build();
-    }
-    
     /**
      * Build email body for client creation
      */
@@ -274,99 +246,6 @@ public class EmailService {
         );
     }
     
-    /**
-     * Send client profile update email (async, non-blocking)
-     * Includes summary of changed fields
-     * Implements 3-retry logic with exponential backoff (1s, 2s, 4s)
-     * 
-     * @param client The updated client
-     * @param changes Map of field changes (field -> {old, new})
-     */
-    @Async
-    public void sendClientUpdateEmail(Client client, Map<String, Object> changes) {
-        int attempt = 0;
-        Exception lastException = null;
-        
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
-                logger.info("Attempting to send update email to {} (attempt {}/{})", 
-                           client.getEmail(), attempt, MAX_RETRIES);
-                
-                SendEmailRequest emailRequest = buildClientUpdateEmailRequest(client, changes);
-                SendEmailResponse response = sesClient.sendEmail(emailRequest);
-                
-                logger.info("Successfully sent update email to {}. Message ID: {}", 
-                           client.getEmail(), response.messageId());
-                return; // Success - exit method
-                
-            } catch (SesException e) {
-                lastException = e;
-                logger.warn("Failed to send update email to {} (attempt {}/{}): {} (Code: {})",
-                           client.getEmail(), attempt, MAX_RETRIES, 
-                           e.getMessage(), e.awsErrorDetails().errorCode());
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        logger.info("Retrying in {} seconds...", delaySeconds);
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.error("Interrupted while waiting to retry email send", ie);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error sending update email to {} (attempt {}/{}): {}",
-                            client.getEmail(), attempt, MAX_RETRIES, e.getMessage(), e);
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-        }
-        
-        // All retries failed - log error but don't throw exception (non-blocking)
-        logger.error("Failed to send update email to {} after {} attempts. Last error: {}",
-                    client.getEmail(), MAX_RETRIES, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
-    }
-    
-    /**
-     * Build SES SendEmailRequest for client update
-     */
-    private SendEmailRequest buildClientUpdateEmailRequest(Client client, Map<String, Object> changes) {
-        String subject = "Banking Buddy Profile Updated";
-        String bodyText = buildClientUpdateEmailBody(client, changes);
-        
-        return SendEmailRequest.builder()
-                .source(sourceEmail)
-                .destination(Destination.builder()
-                        .toAddresses(client.getEmail())
-                        .build())
-                .message(Message.builder()
-                        .subject(Content.builder()
-                                .data(subject)
-                                .charset("UTF-8")
-                                .build())
-                        .body(Body.builder()
-                                .text(Content.builder()
-                                        .data(bodyText)
-                                        .charset("UTF-8")
-                                        .build())
-                                .build())
-                        .build())
-                .build();
-    }
-    
     /**
      * Build email body for client update
      */
@@ -392,99 +271,6 @@ public class EmailService {
         );
     }
     
-    /**
-     * Send client profile deletion email (async, non-blocking)
-     * Includes warning about cascaded account deletions
-     * Implements 3-retry logic with exponential backoff (1s, 2s, 4s)
-     * 
-     * @param client The deleted client
-     * @param deletedAccounts List of accounts that were deleted with the client
-     */
-    @Async
-    public void sendClientDeletionEmail(Client client, List<Account> deletedAccounts) {
-        int attempt = 0;
-        Exception lastException = null;
-        
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
-                logger.info("Attempting to send deletion email to {} (attempt {}/{})", 
-                           client.getEmail(), attempt, MAX_RETRIES);
-                
-                SendEmailRequest emailRequest = buildClientDeletionEmailRequest(client, deletedAccounts);
-                SendEmailResponse response = sesClient.sendEmail(emailRequest);
-                
-                logger.info("Successfully sent deletion email to {}. Message ID: {}", 
-                           client.getEmail(), response.messageId());
-                return; // Success - exit method
-                
-            } catch (SesException e) {
-                lastException = e;
-                logger.warn("Failed to send deletion email to {} (attempt {}/{}): {} (Code: {})",
-                           client.getEmail(), attempt, MAX_RETRIES, 
-                           e.getMessage(), e.awsErrorDetails().errorCode());
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        logger.info("Retrying in {} seconds...", delaySeconds);
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.error("Interrupted while waiting to retry email send", ie);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error sending deletion email to {} (attempt {}/{}): {}",
-                            client.getEmail(), attempt, MAX_RETRIES, e.getMessage(), e);
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-        }
-        
-        // All retries failed - log error but don't throw exception (non-blocking)
-        logger.error("Failed to send deletion email to {} after {} attempts. Last error: {}",
-                    client.getEmail(), MAX_RETRIES, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
-    }
-    
-    /**
-     * Build SES SendEmailRequest for client deletion
-     */
-    private SendEmailRequest buildClientDeletionEmailRequest(Client client, List<Account> deletedAccounts) {
-        String subject = "Banking Buddy Profile Deleted";
-        String bodyText = buildClientDeletionEmailBody(client, deletedAccounts);
-        
-        return SendEmailRequest.builder()
-                .source(sourceEmail)
-                .destination(Destination.builder()
-                        .toAddresses(client.getEmail())
-                        .build())
-                .message(Message.builder()
-                        .subject(Content.builder()
-                                .data(subject)
-                                .charset("UTF-8")
-                                .build())
-                        .body(Body.builder()
-                                .text(Content.builder()
-                                        .data(bodyText)
-                                        .charset("UTF-8")
-                                        .build())
-                                .build())
-                        .build())
-                .build();
-    }
-    
     /**
      * Build email body for client deletion
      */
@@ -524,96 +310,40 @@ public class EmailService {
     }
     
     /**
-     * Send account deletion email (async, non-blocking)
-     * Notifies client of account closure
-     * Implements 3-retry logic with exponential backoff (1s, 2s, 4s)
-     * 
-     * @param client The client who owns the account
-     * @param account The deleted account
+     * Build email body for client restoration
      */
-    @Async
-    public void sendAccountDeletionEmail(Client client, Account account) {
-        int attempt = 0;
-        Exception lastException = null;
+    private String buildClientRestorationEmailBody(Client client, List<Account> restoredAccounts) {
+        String restorationDate = LocalDate.now().format(DATE_FORMATTER);
+        int accountCount = restoredAccounts.size();
+        
+        StringBuilder body = new StringBuilder();
+        body.append(String.format(
+            "Dear %s %s,\n\n" +
+            "Your Banking Buddy client profile has been restored by your agent.\n\n" +
+            "Profile Details:\n" +
+            "- Client ID: %s\n" +
+            "- Restoration Date: %s\n" +
+            "- Associated Accounts Restored: %d\n",
+            client.getFirstName(),
+            client.getLastName(),
+            client.getClientId(),
+            restorationDate,
+            accountCount
+        ));
         
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
-                logger.info("Attempting to send account deletion email to {} (attempt {}/{})", 
-                           client.getEmail(), attempt, MAX_RETRIES);
-                
-                SendEmailRequest emailRequest = buildAccountDeletionEmailRequest(client, account);
-                SendEmailResponse response = sesClient.sendEmail(emailRequest);
-                
-                logger.info("Successfully sent account deletion email to {}. Message ID: {}", 
-                           client.getEmail(), response.messageId());
-                return; // Success - exit method
-                
-            } catch (SesException e) {
-                lastException = e;
-                logger.warn("Failed to send account deletion email to {} (attempt {}/{}): {} (Code: {})",
-                           client.getEmail(), attempt, MAX_RETRIES, 
-                           e.getMessage(), e.awsErrorDetails().errorCode());
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        logger.info("Retrying in {} seconds...", delaySeconds);
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.error("Interrupted while waiting to retry email send", ie);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error sending account deletion email to {} (attempt {}/{}): {}",
-                            client.getEmail(), attempt, MAX_RETRIES, e.getMessage(), e);
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+        // Include account IDs if any accounts were restored
+        if (accountCount > 0) {
+            body.append("\nRestored Account IDs:\n");
+            for (Account account : restoredAccounts) {
+                body.append(String.format("- %s\n", account.getAccountId()));
             }
         }
         
-        // All retries failed - log error but don't throw exception (non-blocking)
-        logger.error("Failed to send account deletion email to {} after {} attempts. Last error: {}",
-                    client.getEmail(), MAX_RETRIES, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
-    }
-    
-    /**
-     * Build SES SendEmailRequest for account deletion
-     */
-    private SendEmailRequest buildAccountDeletionEmailRequest(Client client, Account account) {
-        String subject = "Banking Buddy Account Closed";
-        String bodyText = buildAccountDeletionEmailBody(client, account);
+        body.append("\nIf you did not request this restoration or have any questions, please contact your agent immediately.\n\n");
+        body.append("Best regards,\n");
+        body.append("Banking Buddy Team");
         
-        return SendEmailRequest.builder()
-                .source(sourceEmail)
-                .destination(Destination.builder()
-                        .toAddresses(client.getEmail())
-                        .build())
-                .message(Message.builder()
-                        .subject(Content.builder()
-                                .data(subject)
-                                .charset("UTF-8")
-                                .build())
-                        .body(Body.builder()
-                                .text(Content.builder()
-                                        .data(bodyText)
-                                        .charset("UTF-8")
-                                        .build())
-                                .build())
-                        .build())
-                .build();
+        return body.toString();
     }
     
     /**
@@ -646,99 +376,6 @@ public class EmailService {
         );
     }
     
-    /**
-     * Send account creation email (async, non-blocking)
-     * Notifies client of new account opening
-     * Implements 3-retry logic with exponential backoff (1s, 2s, 4s)
-     * 
-     * @param client The client who owns the account
-     * @param account The newly created account
-     */
-    @Async
-    public void sendAccountCreationEmail(Client client, Account account) {
-        int attempt = 0;
-        Exception lastException = null;
-        
-        while (attempt < MAX_RETRIES) {
-            try {
-                attempt++;
-                logger.info("Attempting to send account creation email to {} (attempt {}/{})", 
-                           client.getEmail(), attempt, MAX_RETRIES);
-                
-                SendEmailRequest emailRequest = buildAccountCreationEmailRequest(client, account);
-                SendEmailResponse response = sesClient.sendEmail(emailRequest);
-                
-                logger.info("Successfully sent account creation email to {}. Message ID: {}", 
-                           client.getEmail(), response.messageId());
-                return; // Success - exit method
-                
-            } catch (SesException e) {
-                lastException = e;
-                logger.warn("Failed to send account creation email to {} (attempt {}/{}): {} (Code: {})",
-                           client.getEmail(), attempt, MAX_RETRIES, 
-                           e.getMessage(), e.awsErrorDetails().errorCode());
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        logger.info("Retrying in {} seconds...", delaySeconds);
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.error("Interrupted while waiting to retry email send", ie);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error sending account creation email to {} (attempt {}/{}): {}",
-                            client.getEmail(), attempt, MAX_RETRIES, e.getMessage(), e);
-                
-                if (attempt < MAX_RETRIES) {
-                    long delaySeconds = (long) Math.pow(2, attempt - 1);
-                    try {
-                        Thread.sleep(delaySeconds * 1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-        }
-        
-        // All retries failed - log error but don't throw exception (non-blocking)
-        logger.error("Failed to send account creation email to {} after {} attempts. Last error: {}",
-                    client.getEmail(), MAX_RETRIES, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
-    }
-    
-    /**
-     * Build SES SendEmailRequest for account creation
-     */
-    private SendEmailRequest buildAccountCreationEmailRequest(Client client, Account account) {
-        String subject = "New Banking Buddy Account Opened";
-        String bodyText = buildAccountCreationEmailBody(client, account);
-        
-        return SendEmailRequest.builder()
-                .source(sourceEmail)
-                .destination(Destination.builder()
-                        .toAddresses(client.getEmail())
-                        .build())
-                .message(Message.builder()
-                        .subject(Content.builder()
-                                .data(subject)
-                                .charset("UTF-8")
-                                .build())
-                        .body(Body.builder()
-                                .text(Content.builder()
-                                        .data(bodyText)
-                                        .charset("UTF-8")
-                                        .build())
-                                .build())
-                        .build())
-                .build();
-    }
-    
     /**
      * Build email body for account creation
      */
@@ -773,6 +410,65 @@ public class EmailService {
         );
     }
     
+    /**
+     * Build email body for a coalesced digest
+     * Sections are only included when they have entries
+     */
+    private String buildClientDigestEmailBody(Client client, NotificationDigestPayload digest) {
+        String summaryDate = LocalDate.now().format(DATE_FORMATTER);
+        
+        StringBuilder body = new StringBuilder();
+        body.append(String.format(
+            "Dear %s %s,\n\n" +
+            "Your agent has made the following changes to your Banking Buddy profile and accounts.\n\n" +
+            "Profile Details:\n" +
+            "- Client ID: %s\n" +
+            "- Summary Date: %s\n",
+            client.getFirstName(),
+            client.getLastName(),
+            client.getClientId(),
+            summaryDate
+        ));
+        
+        if (!digest.getChanges().isEmpty()) {
+            body.append("\nFields Changed:\n");
+            body.append(formatChangesForEmail(new LinkedHashMap<>(digest.getChanges())));
+        }
+        
+        if (!digest.getOpenedAccounts().isEmpty()) {
+            body.append("\nAccounts Opened:\n");
+            for (AccountNotice account : digest.getOpenedAccounts()) {
+                body.append(String.format("- %s (%s, %s) - Initial Deposit: %.2f %s, Branch ID: %s, Opening Date: %s\n",
+                        account.getAccountId(),
+                        account.getAccountType(),
+                        account.getAccountStatus(),
+                        account.getAmount(),
+                        account.getCurrency(),
+                        account.getBranchId(),
+                        account.getDate().format(DATE_FORMATTER)));
+            }
+        }
+        
+        if (!digest.getClosedAccounts().isEmpty()) {
+            body.append("\nAccounts Closed:\n");
+            for (AccountNotice account : digest.getClosedAccounts()) {
+                body.append(String.format("- %s (%s) - Final Balance: %.2f %s, Closure Date: %s\n",
+                        account.getAccountId(),
+                        account.getAccountType(),
+                        account.getAmount(),
+                        account.getCurrency(),
+                        account.getDate().format(DATE_FORMATTER)));
+            }
+            body.append("\nAccount closures are permanent and cannot be undone.\n");
+        }
+        
+        body.append("\nIf you did not request these changes or have any questions, please contact your agent immediately.\n\n");
+        body.append("Best regards,\n");
+        body.append("Banking Buddy Team");
+        
+        return body.toString();
+    }
+    
     /**
      * Format changes map into human-readable list for email
      * 
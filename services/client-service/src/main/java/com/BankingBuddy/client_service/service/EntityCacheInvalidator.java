@@ -0,0 +1,178 @@
+package com.BankingBuddy.client_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Cluster invalidation for the Hibernate second-level cache (regions: clients, accounts)
+ *
+ * The L2 cache is a Caffeine cache local to each node; Hibernate keeps it consistent only
+ * for writes made through that node. After every committed update or delete of a cached
+ * entity this component publishes "{nodeId}|{entityName}|{id}" on a Redis channel, and
+ * every other node evicts that entry, so its next lookup reads the committed row.
+ *
+ * Bulk JPQL statements bypass entity events: Hibernate clears the whole region on the
+ * local node, and callers publish the affected IDs with {@link #evictAfterCommit}.
+ * A missed message (Redis down) is bounded by the region TTL in hibernate-l2-cache.conf.
+ * Messages are published on the cache executor lane, so committing threads never wait on
+ * Redis; evictions are idempotent, so their order does not matter.
+ *
+ * Metrics: hibernate.l2.invalidations{direction=published|received|failed}
+ */
+@Component
+@Slf4j
+public class EntityCacheInvalidator implements MessageListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    static final String CHANNEL = "client-service:l2-invalidation";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final Executor cacheExecutor;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public EntityCacheInvalidator(
+            EntityManagerFactory entityManagerFactory,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Qualifier("cacheExecutor") Executor cacheExecutor) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.cacheExecutor = cacheExecutor;
+    }
+
+    @PostConstruct
+    void register() {
+        if (!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            log.info("Hibernate second-level cache disabled; cluster invalidation not registered");
+            return;
+        }
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        log.info("Second-level cache invalidation registered on channel {} (node {})", CHANNEL, nodeId);
+    }
+
+    /**
+     * Evict entities changed by a bulk statement on all other nodes once the transaction commits
+     * @param entityClass the cached entity class
+     * @param ids         IDs of the rows the statement changed
+     */
+    public void evictAfterCommit(Class<?> entityClass, Collection<String> ids) {
+        if (ids.isEmpty() || !sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            return;
+        }
+        String entityName = entityClass.getName();
+        List<String> snapshot = List.copyOf(ids);
+        Runnable publish = () -> cacheExecutor.execute(() -> snapshot.forEach(id -> publish(entityName, id)));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publishAsync(event.getPersister().getEntityName(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publishAsync(event.getPersister().getEntityName(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back - nothing changed, nothing to invalidate
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back - nothing changed, nothing to invalidate
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    /**
+     * Evict an entity changed on another node
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            sessionFactory.getCache().evictEntityData(parts[1], parts[2]);
+            record("received");
+            log.debug("Evicted {} {} from the second-level cache (changed on node {})", parts[1], parts[2], parts[0]);
+        } catch (Exception e) {
+            log.warn("Failed to evict {} {} from the second-level cache: {}", parts[1], parts[2], e.getMessage());
+        }
+    }
+
+    private void publishAsync(String entityName, Object id) {
+        if (id != null) {
+            cacheExecutor.execute(() -> publish(entityName, id));
+        }
+    }
+
+    private void publish(String entityName, Object id) {
+        if (id == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "|" + entityName + "|" + id);
+            record("published");
+        } catch (Exception e) {
+            // Other nodes may serve the old state until the region TTL expires the entry
+            record("failed");
+            log.warn("Failed to publish second-level cache invalidation for {} {}: {}",
+                    entityName, id, e.getMessage());
+        }
+    }
+
+    private void record(String direction) {
+        meterRegistry.counter("hibernate.l2.invalidations", "direction", direction).increment();
+    }
+}
@@ -0,0 +1,29 @@
+package com.BankingBuddy.client_service.service;
+
+import java.util.UUID;
+
+/**
+ * Generates primary keys for clients, accounts and audit records
+ *
+ * IDs keep the canonical UUID text form (with the entity prefix, e.g. CLT-{uuid}), so
+ * time-ordered and legacy random IDs share one format and column type.
+ * The strategy is chosen with ids.strategy (see IdGeneratorConfig).
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    String CLIENT_PREFIX = "CLT-";
+    String ACCOUNT_PREFIX = "ACC-";
+
+    UUID nextUuid();
+
+    /**
+     * Next ID with an entity prefix
+     * @param prefix e.g. CLIENT_PREFIX
+     * @return prefix + canonical UUID string
+     */
+    default String nextId(String prefix) {
+        return prefix + nextUuid();
+    }
+}
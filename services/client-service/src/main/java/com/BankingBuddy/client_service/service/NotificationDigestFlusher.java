@@ -0,0 +1,105 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.NotificationDigestProperties;
+import com.BankingBuddy.client_service.model.dto.NotificationDigestPayload;
+import com.BankingBuddy.client_service.model.entity.Client;
+import com.BankingBuddy.client_service.model.entity.NotificationDigest;
+import com.BankingBuddy.client_service.repository.ClientRepository;
+import com.BankingBuddy.client_service.repository.NotificationDigestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns notification digests whose window has elapsed into outbox emails
+ *
+ * Each poll claims a batch of due digests with FOR UPDATE SKIP LOCKED, writes one email per
+ * digest to the email outbox and deletes the digests, all in one short transaction - a
+ * digest is either still buffered or queued for delivery, never both or neither. Safe to run
+ * on every node. Delivery itself stays with EmailOutboxDispatcher.
+ *
+ * Metrics: email.digest.flushed (digest emails queued), email.digest.dropped (nothing left to
+ * send: edits cancelled out or the client no longer exists)
+ */
+@Service
+@Slf4j
+public class NotificationDigestFlusher {
+
+    private final NotificationDigestRepository notificationDigestRepository;
+    private final NotificationDigestService notificationDigestService;
+    private final ClientRepository clientRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationDigestProperties properties;
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+
+    public NotificationDigestFlusher(
+            NotificationDigestRepository notificationDigestRepository,
+            NotificationDigestService notificationDigestService,
+            ClientRepository clientRepository,
+            EmailService emailService,
+            PlatformTransactionManager transactionManager,
+            NotificationDigestProperties properties,
+            MeterRegistry meterRegistry) {
+        this.notificationDigestRepository = notificationDigestRepository;
+        this.notificationDigestService = notificationDigestService;
+        this.clientRepository = clientRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.flushedCounter = Counter.builder("email.digest.flushed").register(meterRegistry);
+        this.droppedCounter = Counter.builder("email.digest.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Poll loop: flush batches until no full batch of due digests is left
+     * Runs even when digests are disabled so rows buffered before the switch are still sent.
+     */
+    @Scheduled(fixedDelayString = "${email.digest.poll-interval-ms:5000}")
+    public void flushDue() {
+        int claimed;
+        do {
+            Integer flushed = transactionTemplate.execute(status -> flushBatch());
+            claimed = flushed != null ? flushed : 0;
+        } while (claimed == properties.getBatchSize());
+    }
+
+    private int flushBatch() {
+        List<NotificationDigest> due = notificationDigestRepository.claimDue(LocalDateTime.now(), properties.getBatchSize());
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Client> clients = clientRepository.findAllById(
+                        due.stream().map(NotificationDigest::getClientId).toList()).stream()
+                .collect(Collectors.toMap(Client::getClientId, Function.identity()));
+
+        for (NotificationDigest digest : due) {
+            Client client = clients.get(digest.getClientId());
+            NotificationDigestPayload payload = notificationDigestService.read(digest);
+            if (client == null || Boolean.TRUE.equals(client.getDeleted()) || payload.isEmpty()) {
+                droppedCounter.increment();
+                log.info("Dropping notification digest of client {} ({} event(s)): nothing to send",
+                        digest.getClientId(), digest.getEventCount());
+            } else {
+                emailService.sendClientDigestEmail(client, payload);
+                flushedCounter.increment();
+                log.debug("Flushed notification digest of client {} ({} event(s) coalesced)",
+                        digest.getClientId(), digest.getEventCount());
+            }
+        }
+        notificationDigestRepository.deleteAllInBatch(due);
+        return due.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.NotificationDigestProperties;
+import com.BankingBuddy.client_service.model.dto.NotificationDigestPayload;
+import com.BankingBuddy.client_service.model.dto.NotificationDigestPayload.AccountNotice;
+import com.BankingBuddy.client_service.model.entity.Account;
+import com.BankingBuddy.client_service.model.entity.Client;
+import com.BankingBuddy.client_service.model.entity.NotificationDigest;
+import com.BankingBuddy.client_service.repository.NotificationDigestRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Buffer coalescing client notification events into one digest per client
+ *
+ * Field-by-field edits and bursts of account openings/closures used to queue one email each.
+ * Instead, each event is merged into the client's open notification_digests row in the
+ * caller's transaction (so, like the outbox, it exists if and only if the change commits).
+ * The row is shared by all nodes: every merge opens or exclusively locks it with a single
+ * INSERT ... ON DUPLICATE KEY UPDATE, so concurrent edits from different nodes land in the
+ * same digest one after the other.
+ * NotificationDigestFlusher turns due digests into a single outbox email.
+ *
+ * Merge rules: a field keeps its oldest "old" and newest "new" value and is dropped when
+ * the edits cancel out; opened and closed accounts are listed in event order.
+ *
+ * Metrics: email.digest.events (events buffered)
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+@Slf4j
+public class NotificationDigestService {
+
+    private final NotificationDigestRepository notificationDigestRepository;
+    private final NotificationDigestProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter eventCounter;
+
+    public NotificationDigestService(
+            NotificationDigestRepository notificationDigestRepository,
+            NotificationDigestProperties properties,
+            MeterRegistry meterRegistry) {
+        this.notificationDigestRepository = notificationDigestRepository;
+        this.properties = properties;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.eventCounter = Counter.builder("email.digest.events").register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Merge profile field changes into the client's digest
+     *
+     * @param changes Map of field changes (field -> {old, new})
+     */
+    public void recordClientChanges(Client client, Map<String, Object> changes) {
+        merge(client, payload -> mergeChanges(payload, changes));
+    }
+
+    /**
+     * Add an opened account to the client's digest
+     */
+    public void recordAccountOpened(Client client, Account account) {
+        merge(client, payload -> payload.getOpenedAccounts().add(new AccountNotice(
+                account.getAccountId(),
+                account.getAccountType().getValue(),
+                account.getAccountStatus().getValue(),
+                account.getInitialDeposit(),
+                account.getCurrency(),
+                account.getBranchId(),
+                account.getOpeningDate())));
+    }
+
+    /**
+     * Add a closed account to the client's digest
+     */
+    public void recordAccountClosed(Client client, Account account) {
+        merge(client, payload -> payload.getClosedAccounts().add(new AccountNotice(
+                account.getAccountId(),
+                account.getAccountType().getValue(),
+                account.getAccountStatus().getValue(),
+                account.getBalance(),
+                account.getCurrency(),
+                account.getBranchId(),
+                LocalDate.now())));
+    }
+
+    /**
+     * Remove and return the client's open digest, if any
+     * Used before an immediate email (verification, deletion, ...) so the buffered events
+     * are delivered ahead of it rather than after.
+     */
+    public Optional<NotificationDigestPayload> takePending(String clientId) {
+        Optional<NotificationDigest> digest = notificationDigestRepository.findByIdForUpdate(clientId);
+        digest.ifPresent(notificationDigestRepository::delete);
+        return digest.map(this::read);
+    }
+
+    /**
+     * Deserialize a digest's payload
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public NotificationDigestPayload read(NotificationDigest digest) {
+        try {
+            return objectMapper.readValue(digest.getPayload(), NotificationDigestPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read notification digest of client " + digest.getClientId(), e);
+        }
+    }
+
+    private void merge(Client client, Consumer<NotificationDigestPayload> event) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        notificationDigestRepository.openIfAbsent(client.getClientId(), now, now.plusSeconds(properties.getWindowSeconds()));
+        NotificationDigest digest = notificationDigestRepository.findByIdForUpdate(client.getClientId())
+                .orElseThrow(() -> new IllegalStateException("Notification digest of client " + client.getClientId() + " vanished"));
+
+        NotificationDigestPayload payload = read(digest);
+        event.accept(payload);
+        try {
+            digest.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write notification digest of client " + client.getClientId(), e);
+        }
+        digest.setEventCount(digest.getEventCount() + 1);
+        eventCounter.increment();
+        log.debug("Merged event {} into notification digest of client {} (due {})",
+                digest.getEventCount(), client.getClientId(), digest.getFlushAt());
+    }
+
+    /**
+     * Merge field changes: keep the first old value and the latest new value,
+     * drop fields edited back to their original value
+     */
+    static void mergeChanges(NotificationDigestPayload payload, Map<String, Object> changes) {
+        for (Map.Entry<String, Object> entry : changes.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> change = (Map<String, String>) entry.getValue();
+            Map<String, String> existing = payload.getChanges().get(entry.getKey());
+            String oldValue = existing != null ? existing.get("old") : change.get("old");
+            String newValue = change.get("new");
+
+            if (Objects.equals(oldValue, newValue)) {
+                payload.getChanges().remove(entry.getKey());
+            } else {
+                Map<String, String> merged = new LinkedHashMap<>();
+                merged.put("old", oldValue);
+                merged.put("new", newValue);
+                payload.getChanges().put(entry.getKey(), merged);
+            }
+        }
+    }
+}
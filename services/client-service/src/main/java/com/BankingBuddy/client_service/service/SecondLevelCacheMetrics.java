@@ -0,0 +1,77 @@
+package com.BankingBuddy.client_service.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes Hibernate statistics for the second-level cache as Micrometer meters
+ *
+ * Requires hibernate.generate_statistics=true. Per region (clients, accounts):
+ * - hibernate.l2.requests{region,result=hit|miss} - entity lookups answered by / missed in the region
+ * - hibernate.l2.puts{region} - entries loaded from MySQL into the region
+ * - hibernate.l2.hit.ratio{region} - hits / (hits + misses) since startup
+ * Plus hibernate.entity.fetches, the entity loads that still went to the database.
+ *
+ * Visible under /actuator/metrics.
+ */
+@Component
+@Slf4j
+public class SecondLevelCacheMetrics {
+
+    private final SessionFactory sessionFactory;
+    private final MeterRegistry meterRegistry;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void bind() {
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            log.info("Hibernate statistics disabled; second-level cache metrics not registered");
+            return;
+        }
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            FunctionCounter.builder("hibernate.l2.requests", regionStatistics, CacheRegionStatistics::getHitCount)
+                    .tag("region", region)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("hibernate.l2.requests", regionStatistics, CacheRegionStatistics::getMissCount)
+                    .tag("region", region)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            FunctionCounter.builder("hibernate.l2.puts", regionStatistics, CacheRegionStatistics::getPutCount)
+                    .tag("region", region)
+                    .register(meterRegistry);
+            Gauge.builder("hibernate.l2.hit.ratio", regionStatistics, SecondLevelCacheMetrics::hitRatio)
+                    .tag("region", region)
+                    .register(meterRegistry);
+            log.info("Registered second-level cache metrics for region {}", region);
+        }
+
+        FunctionCounter.builder("hibernate.entity.fetches", statistics, Statistics::getEntityFetchCount)
+                .description("Entity loads that missed the session and second-level caches")
+                .register(meterRegistry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        long hits = statistics.getHitCount();
+        long requests = hits + statistics.getMissCount();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,61 @@
+package com.BankingBuddy.client_service.service;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * UUIDv7 generator (RFC 9562), monotonic per node
+ *
+ * Layout: 48-bit Unix epoch milliseconds | version 7 | 12-bit counter | variant | 62 random bits.
+ * IDs generated later compare greater, both as UUIDs and as lower-case strings, so new
+ * rows append at the right edge of the InnoDB clustered index instead of splitting pages
+ * at random positions.
+ *
+ * The counter restarts from a random value below 0x800 each millisecond (RFC 9562 method 1),
+ * leaving room for at least 2048 IDs per millisecond. If it runs out, or the wall clock
+ * steps backwards, the generator keeps counting on the last timestamp it issued, which
+ * keeps IDs strictly increasing on this node.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final long MAX_COUNTER = 0xFFF;
+    private static final int COUNTER_SEED_BOUND = 0x800;
+
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+
+    private long lastMillis = -1;
+    private long counter;
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID nextUuid() {
+        long millis;
+        long sequence;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = random.nextInt(COUNTER_SEED_BOUND);
+            } else if (++counter > MAX_COUNTER) {
+                // Counter exhausted within this millisecond - borrow the next one
+                lastMillis++;
+                counter = random.nextInt(COUNTER_SEED_BOUND);
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long mostSignificant = (millis << 16) | (0x7L << 12) | sequence;
+        long leastSignificant = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
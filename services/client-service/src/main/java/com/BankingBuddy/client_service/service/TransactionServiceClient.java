@@ -0,0 +1,75 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.ClientOverviewProperties;
+import com.BankingBuddy.client_service.model.dto.ApiResponse;
+import com.BankingBuddy.client_service.model.dto.PageDTO;
+import com.BankingBuddy.client_service.model.dto.TransactionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Blocking HTTP client for transaction-service
+ *
+ * Calls are made on virtual threads by ClientOverviewService, so blocking here only parks
+ * the virtual thread. The caller's authentication headers are forwarded unchanged -
+ * transaction-service extracts the user context from them the same way client-service does.
+ */
+@Component
+@Slf4j
+public class TransactionServiceClient {
+
+    private static final ParameterizedTypeReference<ApiResponse<PageDTO<TransactionDTO>>> TRANSACTION_PAGE =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestClient restClient;
+
+    public TransactionServiceClient(RestClient.Builder restClientBuilder, ClientOverviewProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        // Section deadline is enforced by the caller; this only stops abandoned calls lingering
+        requestFactory.setReadTimeout(Duration.ofMillis(properties.getTransactionsTimeoutMs() * 2));
+
+        this.restClient = restClientBuilder
+                .baseUrl(properties.getTransactionServiceUrl())
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    /**
+     * Fetch one page of a client's transactions
+     * @param clientId    the client ID
+     * @param page        page number (0-based)
+     * @param limit       page size (transaction-service caps it at 10)
+     * @param authHeaders authentication headers of the original request
+     * @return the page of transactions
+     */
+    public PageDTO<TransactionDTO> getTransactionsForClient(String clientId, int page, int limit,
+                                                            Map<String, String> authHeaders) {
+        ApiResponse<PageDTO<TransactionDTO>> response = restClient.get()
+                .uri(uri -> uri.path("/api/v1/transactions")
+                        .queryParam("clientId", clientId)
+                        .queryParam("page", page)
+                        .queryParam("limit", limit)
+                        .build())
+                .headers(headers -> authHeaders.forEach(headers::set))
+                .retrieve()
+                .body(TRANSACTION_PAGE);
+
+        if (response == null || !response.isSuccess() || response.getData() == null) {
+            throw new IllegalStateException("transaction-service returned no transaction page"
+                    + (response != null && response.getMessage() != null ? ": " + response.getMessage() : ""));
+        }
+        log.debug("Fetched {} transaction(s) for client {} from transaction-service",
+                response.getData().getContent() != null ? response.getData().getContent().size() : 0, clientId);
+        return response.getData();
+    }
+}
@@ -0,0 +1,7 @@
+-- V10: Lease token for audit outbox claims
+-- AuditOutboxRelay stamps every row it claims with a fresh token and finalizes rows
+-- (SENT, rescheduled, FAILED) only while the token still matches. A poller whose lease
+-- expired and whose rows were re-claimed elsewhere then updates nothing. Attempts alone
+-- cannot fence: replay resets them, so a later claim can reuse an old attempt number.
+
+ALTER TABLE audit_outbox ADD COLUMN claim_token VARCHAR(36) NULL AFTER next_attempt_at;
@@ -0,0 +1,5 @@
+-- V3: Composite index backing keyset pagination of the admin accounts listing
+-- Supports: WHERE deleted = false ORDER BY created_at DESC, account_id DESC
+-- with the (created_at, account_id) cursor predicate, avoiding a filesort per page
+
+CREATE INDEX idx_deleted_created_account ON accounts (deleted, created_at, account_id);
@@ -0,0 +1,34 @@
+-- V4: Pre-aggregated account balance rollups for admin summary views
+-- One row per (agent, branch, account type, currency); maintained transactionally by
+-- AccountRollupService on account create/delete/balance change and reconciled by a rebuild job
+
+CREATE TABLE IF NOT EXISTS account_balance_rollups (
+    -- Rollup dimensions (composite primary key)
+    agent_id VARCHAR(255) NOT NULL COMMENT 'clients.agent_id of the owning client',
+    branch_id VARCHAR(50) NOT NULL,
+    account_type VARCHAR(20) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+
+    -- Aggregates over non-deleted accounts
+    account_count BIGINT NOT NULL DEFAULT 0,
+    total_balance DECIMAL(19, 2) NOT NULL DEFAULT 0.00,
+
+    -- Audit Fields
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (agent_id, branch_id, account_type, currency),
+
+    -- Indexes
+    INDEX idx_rollup_branch (branch_id),
+    INDEX idx_rollup_account_type (account_type)
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Backfill from existing accounts so rollups are correct from the first deployment
+INSERT INTO account_balance_rollups (agent_id, branch_id, account_type, currency, account_count, total_balance)
+SELECT c.agent_id, a.branch_id, a.account_type, a.currency, COUNT(*), SUM(a.balance)
+FROM accounts a
+JOIN clients c ON a.client_id = c.client_id
+WHERE a.deleted = false
+GROUP BY c.agent_id, a.branch_id, a.account_type, a.currency
+ON DUPLICATE KEY UPDATE account_count = VALUES(account_count), total_balance = VALUES(total_balance);
@@ -0,0 +1,32 @@
+-- V5: Durable outbox for client notification emails
+-- Rows are written in the same transaction as the client/account change that triggers them
+-- and delivered by EmailOutboxDispatcher, which claims batches with FOR UPDATE SKIP LOCKED
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    -- Primary Key
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+
+    -- Message
+    email_type VARCHAR(50) NOT NULL COMMENT 'VERIFICATION, CLIENT_CREATED, CLIENT_UPDATED, ...',
+    client_id VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+
+    -- Delivery State
+    status ENUM('PENDING', 'SENDING', 'SENT', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT 'Due time when PENDING, lease expiry when SENDING',
+    last_error VARCHAR(1000),
+    ses_message_id VARCHAR(255),
+    sent_at TIMESTAMP NULL,
+
+    -- Audit Fields
+    created_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+
+    -- Indexes
+    INDEX idx_email_outbox_status_next (status, next_attempt_at),
+    INDEX idx_email_outbox_status_created (status, created_at),
+    INDEX idx_email_outbox_client (client_id)
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
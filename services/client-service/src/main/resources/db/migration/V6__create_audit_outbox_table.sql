@@ -0,0 +1,32 @@
+-- V6: Transactional outbox for client/account audit events
+-- Rows are written in the same transaction as the change being audited and relayed to the
+-- audit SQS queue by AuditOutboxRelay (SendMessageBatch, FOR UPDATE SKIP LOCKED claims).
+-- SENT rows are kept for audit.outbox.sent-retention-days so a time window can be replayed.
+
+CREATE TABLE IF NOT EXISTS audit_outbox (
+    -- Primary Key
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+
+    -- Event
+    log_id VARCHAR(36) NOT NULL COMMENT 'log_id inside the payload - consumers deduplicate on it',
+    client_id VARCHAR(255) NOT NULL,
+    crud_operation VARCHAR(10) NOT NULL,
+    payload TEXT NOT NULL COMMENT 'SQS message body (audit log JSON)',
+
+    -- Delivery State
+    status ENUM('PENDING', 'SENDING', 'SENT', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT 'Due time when PENDING, lease expiry when SENDING',
+    last_error VARCHAR(1000),
+    sent_at TIMESTAMP(3) NULL,
+
+    -- Audit Fields
+    created_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+
+    -- Indexes
+    UNIQUE KEY uk_audit_outbox_log_id (log_id),
+    INDEX idx_audit_outbox_status_next (status, next_attempt_at),
+    INDEX idx_audit_outbox_status_created (status, created_at),
+    INDEX idx_audit_outbox_created (created_at)
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
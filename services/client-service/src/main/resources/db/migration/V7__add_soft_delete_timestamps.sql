@@ -0,0 +1,9 @@
+-- V7: Soft delete timestamps for clients and accounts
+-- A client delete cascades to its accounts with one set-based UPDATE that stamps the
+-- client and its accounts with the same deleted_at. Restoring the client brings back
+-- exactly the accounts carrying that stamp (accounts closed individually keep their own).
+-- Rows soft deleted before this migration have deleted_at = NULL.
+
+ALTER TABLE clients ADD COLUMN deleted_at TIMESTAMP(3) NULL AFTER deleted;
+
+ALTER TABLE accounts ADD COLUMN deleted_at TIMESTAMP(3) NULL AFTER deleted;
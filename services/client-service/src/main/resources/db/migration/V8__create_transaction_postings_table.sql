@@ -0,0 +1,38 @@
+-- V8: Balance posting ledger for transactions ingested by transaction-processor
+-- BalancePostingService applies COMPLETED transactions (crm_transactions.transactions) to
+-- account balances. Each transaction gets exactly one row here, written in the same
+-- transaction as the balance update - the row is the "posted" marker that makes posting
+-- idempotent. HELD rows could not be applied yet (no eligible account, insufficient funds)
+-- and are released for another attempt by the nightly full sweep.
+
+CREATE TABLE IF NOT EXISTS transaction_postings (
+    -- Primary Key (posted marker)
+    transaction_id VARCHAR(50) NOT NULL PRIMARY KEY COMMENT 'transactions.id in crm_transactions',
+
+    -- Posting
+    client_id VARCHAR(255) NOT NULL,
+    account_id VARCHAR(255) NULL COMMENT 'Account the amount was applied to; NULL when HELD',
+    amount DECIMAL(15, 2) NOT NULL COMMENT 'Signed: deposits positive, withdrawals negative',
+    transaction_date DATETIME(6) NOT NULL,
+    status ENUM('POSTED', 'HELD') NOT NULL,
+    hold_reason VARCHAR(50) NULL COMMENT 'NO_ELIGIBLE_ACCOUNT or INSUFFICIENT_FUNDS',
+
+    -- Audit Fields
+    posted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+
+    -- Indexes
+    INDEX idx_postings_account_status (account_id, status),
+    INDEX idx_postings_client (client_id),
+    INDEX idx_postings_status (status)
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Posting lanes: transactions are partitioned by CRC32(client_id) % lanes and each lane has
+-- a single writer cluster-wide (its row is locked FOR UPDATE SKIP LOCKED for every batch).
+-- Rows are created on demand when the lane count is raised.
+CREATE TABLE IF NOT EXISTS posting_lanes (
+    lane INT NOT NULL PRIMARY KEY,
+    posted_count BIGINT NOT NULL DEFAULT 0,
+    last_posted_at TIMESTAMP(3) NULL
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
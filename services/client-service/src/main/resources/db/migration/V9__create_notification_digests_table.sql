@@ -0,0 +1,22 @@
+-- V9: Per-client notification digest buffer
+-- Client updates and account openings/closures are merged into one open row per client
+-- (written in the same transaction as the change) instead of one email each.
+-- NotificationDigestFlusher claims rows whose window has elapsed with FOR UPDATE SKIP LOCKED,
+-- renders a single digest email into email_outbox and deletes the row.
+
+CREATE TABLE IF NOT EXISTS notification_digests (
+    -- Primary Key (one open digest per client)
+    client_id VARCHAR(255) NOT NULL PRIMARY KEY,
+
+    -- Digest
+    payload TEXT NOT NULL COMMENT 'JSON: merged field changes, opened and closed accounts',
+    event_count INT NOT NULL DEFAULT 0,
+
+    -- Window
+    first_event_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    flush_at TIMESTAMP(3) NOT NULL COMMENT 'first_event_at + window; the digest is sent once due',
+
+    -- Indexes
+    INDEX idx_notification_digests_flush (flush_at)
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,77 @@
+package com.BankingBuddy.client_service.config;
+
+import com.BankingBuddy.client_service.config.AsyncLaneProperties.Lane;
+import com.BankingBuddy.client_service.config.AsyncLaneProperties.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saturation behavior of executor lanes, on platform and virtual threads
+ */
+class TaskLaneExecutorTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void abort_rejectsOnceWorkersAndQueueAreFull(boolean virtual) throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskLaneExecutor lane = new TaskLaneExecutor("test",
+                new Lane(1, 1, 1, Thread.NORM_PRIORITY, RejectionPolicy.ABORT), virtual, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            lane.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            lane.execute(() -> await(release));
+
+            assertThrows(RejectedExecutionException.class, () -> lane.execute(() -> { }));
+            assertEquals(1.0, meterRegistry.get("executor.lane.rejected").tag("lane", "test").counter().count());
+            assertEquals(1.0, meterRegistry.get("executor.lane.active").tag("lane", "test").gauge().value());
+            assertEquals(1.0, meterRegistry.get("executor.lane.queued").tag("lane", "test").gauge().value());
+        } finally {
+            release.countDown();
+            lane.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void callerRuns_executesOnSubmittingThreadWhenSaturated(boolean virtual) throws InterruptedException {
+        TaskLaneExecutor lane = new TaskLaneExecutor("test",
+                new Lane(1, 1, 0, Thread.NORM_PRIORITY, RejectionPolicy.CALLER_RUNS), virtual, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            lane.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            lane.execute(() -> ranOn.set(Thread.currentThread()));
+            assertSame(Thread.currentThread(), ranOn.get());
+        } finally {
+            release.countDown();
+            lane.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.model.dto.AccountDTO;
+import com.BankingBuddy.client_service.model.dto.ClientDTO;
+import com.BankingBuddy.client_service.model.entity.Client;
+import com.BankingBuddy.client_service.repository.AccountRepository;
+import com.BankingBuddy.client_service.repository.ClientRepository;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Authorization of the accounts-by-client reads (endpoint and client overview share one check)
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountServiceTest {
+
+    private static final String CLIENT_ID = "CLT-1";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private AuditOutboxService auditOutboxService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private AccountRollupService accountRollupService;
+
+    @Mock
+    private AccountsByClientCache accountsByClientCache;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    private AccountService accountService;
+
+    private final UserContext owner = UserContext.builder().userId("agent-1").role(UserRole.AGENT).build();
+    private final UserContext otherAgent = UserContext.builder().userId("agent-2").role(UserRole.AGENT).build();
+    private final UserContext admin = UserContext.builder().userId("admin-1").role(UserRole.ADMIN).build();
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService(accountRepository, clientRepository, auditOutboxService,
+                emailService, accountRollupService, accountsByClientCache, idGenerator);
+    }
+
+    @Test
+    void testOverviewAccountsAreForbiddenForAdmin() {
+        assertThrows(ForbiddenException.class, () -> accountService.getAccountsForOverview(clientDTO(), admin));
+
+        verifyNoInteractions(accountsByClientCache, accountRepository);
+    }
+
+    @Test
+    void testOverviewAccountsAreForbiddenForAnotherAgent() {
+        assertThrows(ForbiddenException.class, () -> accountService.getAccountsForOverview(clientDTO(), otherAgent));
+
+        verifyNoInteractions(accountsByClientCache, accountRepository);
+    }
+
+    @Test
+    void testOverviewAccountsAreServedFromCacheForOwningAgent() {
+        List<AccountDTO> accounts = List.of(AccountDTO.builder().accountId("ACC-1").clientId(CLIENT_ID).build());
+        when(accountsByClientCache.get(CLIENT_ID))
+                .thenReturn(new AccountsByClientCache.Entry(Optional.of(accounts), "v1"));
+
+        assertEquals(accounts, accountService.getAccountsForOverview(clientDTO(), owner));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void testAccountsByClientIdAreForbiddenForAdminEvenWhenCached() {
+        when(clientRepository.findById(CLIENT_ID)).thenReturn(Optional.of(client()));
+
+        assertThrows(ForbiddenException.class, () -> accountService.getAccountsByClientId(CLIENT_ID, admin));
+
+        // Authorization runs before the cache, so a warm entry cannot leak the accounts
+        verifyNoInteractions(accountsByClientCache);
+    }
+
+    @Test
+    void testAccountsByClientIdAreForbiddenForAnotherAgent() {
+        when(clientRepository.findById(CLIENT_ID)).thenReturn(Optional.of(client()));
+
+        assertThrows(ForbiddenException.class, () -> accountService.getAccountsByClientId(CLIENT_ID, otherAgent));
+
+        verifyNoInteractions(accountsByClientCache);
+    }
+
+    private ClientDTO clientDTO() {
+        return ClientDTO.builder().clientId(CLIENT_ID).agentId("agent-1").build();
+    }
+
+    private Client client() {
+        Client client = new Client();
+        client.setClientId(CLIENT_ID);
+        client.setAgentId("agent-1");
+        return client;
+    }
+}
@@ -0,0 +1,209 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.model.dto.AccountDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Version compare-and-set of the accounts-by-client cache on a real Redis (Lua scripts)
+ *
+ * A populate carries the version read before the database load; any invalidation or
+ * write-through in between must make it a no-op so a stale list never lands in the cache.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AccountsByClientCacheTest {
+
+    private static final String CLIENT_ID = "CLT-1";
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private AccountsByClientCache cache;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("client-service:accounts-by-client::*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+        cache = new AccountsByClientCache(redisTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testPopulateAfterMissIsServedFromCache() {
+        AccountsByClientCache.Entry miss = cache.get(CLIENT_ID);
+        assertTrue(miss.accounts().isEmpty());
+        assertEquals("", miss.version());
+
+        cache.populate(CLIENT_ID, miss.version(), List.of(account("ACC-1", "100.00")));
+
+        assertEquals(List.of("ACC-1"), cachedIds());
+    }
+
+    @Test
+    void testPopulateLosesToInvalidationDuringLoad() {
+        AccountsByClientCache.Entry miss = cache.get(CLIENT_ID);
+        List<AccountDTO> loaded = List.of(account("ACC-1", "100.00")); // Read from MySQL before the write
+
+        cache.invalidate(CLIENT_ID); // Another request commits a change and invalidates
+        cache.populate(CLIENT_ID, miss.version(), loaded);
+
+        assertTrue(cache.get(CLIENT_ID).accounts().isEmpty(), "Stale list was cached over an invalidation");
+    }
+
+    @Test
+    void testPopulateLosesToWriteThroughDuringLoad() {
+        AccountsByClientCache.Entry miss = cache.get(CLIENT_ID);
+        List<AccountDTO> loaded = List.of(account("ACC-1", "100.00"));
+
+        // Nothing is cached yet, so the write-through only bumps the version
+        cache.upsert(CLIENT_ID, account("ACC-2", "50.00"));
+        cache.populate(CLIENT_ID, miss.version(), loaded);
+
+        assertTrue(cache.get(CLIENT_ID).accounts().isEmpty(), "List without ACC-2 was cached");
+    }
+
+    @Test
+    void testSecondPopulateWithSameVersionIsRejected() {
+        AccountsByClientCache.Entry first = cache.get(CLIENT_ID);
+        AccountsByClientCache.Entry second = cache.get(CLIENT_ID);
+
+        cache.populate(CLIENT_ID, first.version(), List.of(account("ACC-1", "100.00"), account("ACC-2", "50.00")));
+        cache.populate(CLIENT_ID, second.version(), List.of(account("ACC-1", "100.00")));
+
+        assertEquals(List.of("ACC-1", "ACC-2"), cachedIds());
+    }
+
+    @Test
+    void testUpsertUpdatesCachedListInPlace() {
+        cache.populate(CLIENT_ID, cache.get(CLIENT_ID).version(), List.of(account("ACC-1", "100.00")));
+
+        cache.upsert(CLIENT_ID, account("ACC-1", "75.00"));
+        cache.upsert(CLIENT_ID, account("ACC-2", "50.00"));
+
+        List<AccountDTO> cached = cache.get(CLIENT_ID).accounts().orElseThrow();
+        assertEquals(List.of("ACC-1", "ACC-2"), cached.stream().map(AccountDTO::getAccountId).toList());
+        assertEquals(0, new BigDecimal("75.00").compareTo(cached.get(0).getBalance()));
+    }
+
+    @Test
+    void testConcurrentPopulatesNeverOutliveTheLastWrite() throws Exception {
+        // "Database": the committed list; writers commit then invalidate, readers load on a miss
+        AtomicReference<List<AccountDTO>> database = new AtomicReference<>(List.of());
+        int writers = 4;
+        int readers = 8;
+        int rounds = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < rounds; i++) {
+                        String accountId = "ACC-" + writer + "-" + i;
+                        database.updateAndGet(accounts -> {
+                            List<AccountDTO> next = new ArrayList<>(accounts);
+                            next.add(account(accountId, "10.00"));
+                            return List.copyOf(next);
+                        });
+                        pause();
+                        cache.invalidate(CLIENT_ID);
+                    }
+                    return null;
+                }));
+            }
+            for (int r = 0; r < readers; r++) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < rounds; i++) {
+                        AccountsByClientCache.Entry entry = cache.get(CLIENT_ID);
+                        if (entry.accounts().isEmpty()) {
+                            List<AccountDTO> loaded = database.get();
+                            pause();
+                            cache.populate(CLIENT_ID, entry.version(), loaded);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Whatever survived must be the committed list, never a snapshot from before a write
+        Optional<List<AccountDTO>> cached = cache.get(CLIENT_ID).accounts();
+        if (cached.isPresent()) {
+            assertEquals(writers * rounds, cached.get().size(), "Stale account list survived in the cache");
+        }
+        AccountsByClientCache.Entry miss = cache.get(CLIENT_ID);
+        if (miss.accounts().isEmpty()) {
+            cache.populate(CLIENT_ID, miss.version(), database.get());
+        }
+        assertEquals(writers * rounds, cachedIds().size());
+    }
+
+    private List<String> cachedIds() {
+        return cache.get(CLIENT_ID).accounts().orElseThrow().stream().map(AccountDTO::getAccountId).toList();
+    }
+
+    private static void pause() throws InterruptedException {
+        Thread.sleep(0, ThreadLocalRandom.current().nextInt(200_000));
+    }
+
+    private static AccountDTO account(String accountId, String balance) {
+        return AccountDTO.builder()
+                .accountId(accountId)
+                .clientId(CLIENT_ID)
+                .balance(new BigDecimal(balance))
+                .currency("SGD")
+                .build();
+    }
+}
@@ -0,0 +1,265 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.AuditOutboxProperties;
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.model.dto.AuditReplayResultDTO;
+import com.BankingBuddy.client_service.model.entity.AuditOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.AuditOutboxStatus;
+import com.BankingBuddy.client_service.repository.AuditOutboxRepository;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Relay tests against a stubbed SqsClient (no AWS or database required)
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditOutboxRelayTest {
+
+    private static final String QUEUE_URL = "https://sqs.test/audit";
+
+    @Mock
+    private AuditOutboxRepository auditOutboxRepository;
+
+    @Mock
+    private SqsClient sqsClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditOutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuditOutboxProperties();
+        properties.setPollers(1);
+        properties.setClaimBatches(1);
+        properties.setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        // Run pollers on the calling thread so outcomes are visible when relay() returns
+        relay = new AuditOutboxRelay(auditOutboxRepository, sqsClient, transactionManager,
+                meterRegistry, properties, Runnable::run, QUEUE_URL);
+    }
+
+    @Test
+    void testRelayPublishesClaimedRowsInOneBatchAndMarksThemSent() {
+        when(auditOutboxRepository.claimDue(any(), eq(10)))
+                .thenReturn(List.of(pendingMessage(1L, 0), pendingMessage(2L, 0)));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(response(List.of("1", "2"), List.of()));
+        when(auditOutboxRepository.markSent(anyCollection(), anyString(), any())).thenReturn(2);
+
+        relay.relay();
+
+        ArgumentCaptor<SendMessageBatchRequest> request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(request.capture());
+        assertEquals(QUEUE_URL, request.getValue().queueUrl());
+        assertEquals(List.of("1", "2"),
+                request.getValue().entries().stream().map(SendMessageBatchRequestEntry::id).toList());
+        assertEquals(List.of("{\"log_id\":\"log-1\"}", "{\"log_id\":\"log-2\"}"),
+                request.getValue().entries().stream().map(SendMessageBatchRequestEntry::messageBody).toList());
+
+        verify(auditOutboxRepository).markSent(eq(List.of(1L, 2L)), anyString(), any());
+        assertEquals(2.0, meterRegistry.counter("audit.outbox.published").count());
+    }
+
+    @Test
+    void testPartialBatchFailureReschedulesOnlyTheFailedEntries() {
+        AuditOutboxMessage first = pendingMessage(1L, 0);
+        AuditOutboxMessage second = pendingMessage(2L, 0);
+        AuditOutboxMessage third = pendingMessage(3L, 0);
+        when(auditOutboxRepository.claimDue(any(), anyInt())).thenReturn(List.of(first, second, third));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(response(List.of("1", "3"), List.of(error("2", "InternalError", false))));
+        when(auditOutboxRepository.markSent(anyCollection(), anyString(), any())).thenReturn(2);
+        when(auditOutboxRepository.reschedule(eq(2L), anyString(), any(), anyString())).thenReturn(1);
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+
+        // All three rows were leased by the same claim
+        String claimToken = first.getClaimToken();
+        assertNotNull(claimToken);
+        assertEquals(claimToken, second.getClaimToken());
+        assertEquals(claimToken, third.getClaimToken());
+
+        verify(auditOutboxRepository).markSent(eq(List.of(1L, 3L)), eq(claimToken), any());
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(auditOutboxRepository).reschedule(eq(2L), eq(claimToken), nextAttempt.capture(),
+                contains("InternalError"));
+        assertTrue(nextAttempt.getValue().isAfter(before));
+        verify(auditOutboxRepository, never()).reschedule(eq(1L), any(), any(), any());
+        verify(auditOutboxRepository, never()).reschedule(eq(3L), any(), any(), any());
+        verify(auditOutboxRepository, never()).markFailed(any(), any(), any());
+
+        assertEquals(2.0, meterRegistry.counter("audit.outbox.published").count());
+        assertEquals(1.0, meterRegistry.counter("audit.outbox.retried").count());
+    }
+
+    @Test
+    void testSenderFaultEntryIsParkedAsFailed() {
+        when(auditOutboxRepository.claimDue(any(), anyInt()))
+                .thenReturn(List.of(pendingMessage(4L, 0), pendingMessage(5L, 0)));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(response(List.of("5"), List.of(error("4", "InvalidMessageContents", true))));
+        when(auditOutboxRepository.markSent(anyCollection(), anyString(), any())).thenReturn(1);
+        when(auditOutboxRepository.markFailed(eq(4L), anyString(), anyString())).thenReturn(1);
+
+        relay.relay();
+
+        // Rejected on the first attempt - not retried, left for replay
+        verify(auditOutboxRepository).markFailed(eq(4L), anyString(), contains("InvalidMessageContents"));
+        verify(auditOutboxRepository, never()).reschedule(any(), any(), any(), any());
+        verify(auditOutboxRepository).markSent(eq(List.of(5L)), anyString(), any());
+        assertEquals(1.0, meterRegistry.counter("audit.outbox.failed").count());
+    }
+
+    @Test
+    void testWholeBatchFailureRetriesEveryEntry() {
+        when(auditOutboxRepository.claimDue(any(), anyInt()))
+                .thenReturn(List.of(pendingMessage(6L, 0), pendingMessage(7L, 2)));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenThrow(SqsException.builder().message("Throttling").build());
+        when(auditOutboxRepository.reschedule(eq(6L), anyString(), any(), anyString())).thenReturn(1);
+        when(auditOutboxRepository.markFailed(eq(7L), anyString(), anyString())).thenReturn(1);
+
+        relay.relay();
+
+        verify(auditOutboxRepository).reschedule(eq(6L), anyString(), any(), contains("Throttling"));
+        // Row 7 used its last attempt on this claim
+        verify(auditOutboxRepository).markFailed(eq(7L), anyString(), contains("Throttling"));
+        verify(auditOutboxRepository, never()).markSent(anyCollection(), any(), any());
+    }
+
+    @Test
+    void testStalePollerDoesNotCountRowsReclaimedByANewerLease() {
+        when(auditOutboxRepository.claimDue(any(), anyInt()))
+                .thenReturn(List.of(pendingMessage(8L, 0), pendingMessage(9L, 0)));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(response(List.of("8"), List.of(error("9", "InternalError", false))));
+        // Lease expired mid-send; both rows now belong to another poller's claim
+        when(auditOutboxRepository.markSent(anyCollection(), anyString(), any())).thenReturn(0);
+        when(auditOutboxRepository.reschedule(eq(9L), anyString(), any(), anyString())).thenReturn(0);
+
+        relay.relay();
+
+        assertEquals(0.0, meterRegistry.counter("audit.outbox.published").count());
+        assertEquals(0.0, meterRegistry.counter("audit.outbox.retried").count());
+    }
+
+    @Test
+    void testRelayKeepsClaimingWhileClaimsAreFull() {
+        List<AuditOutboxMessage> full = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            full.add(pendingMessage(id, 0));
+        }
+        when(auditOutboxRepository.claimDue(any(), eq(10)))
+                .thenReturn(full)
+                .thenReturn(List.of(pendingMessage(11L, 0)));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(response(List.of(), List.of()));
+
+        relay.relay();
+
+        verify(auditOutboxRepository, times(2)).claimDue(any(), eq(10));
+        verify(sqsClient, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void testDisabledRelayDoesNothing() {
+        properties.setRelayEnabled(false);
+
+        relay.relay();
+
+        verifyNoInteractions(auditOutboxRepository, sqsClient);
+    }
+
+    @Test
+    void testReplayResetsParkedRowsInTheWindow() {
+        AuditOutboxService auditOutboxService = new AuditOutboxService(
+                auditOutboxRepository, mock(JdbcTemplate.class), mock(IdGenerator.class));
+        UserContext admin = UserContext.builder().userId("admin-1").role(UserRole.ADMIN).build();
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(auditOutboxRepository.requeue(any(), eq(from), eq(to), any())).thenReturn(3);
+
+        AuditReplayResultDTO result = auditOutboxService.replay(from, to, false, admin);
+
+        verify(auditOutboxRepository).requeue(eq(EnumSet.of(AuditOutboxStatus.FAILED)), eq(from), eq(to), any());
+        assertEquals(3, result.getRequeued());
+        assertFalse(result.isIncludeSent());
+
+        auditOutboxService.replay(from, to, true, admin);
+        verify(auditOutboxRepository).requeue(eq(EnumSet.of(AuditOutboxStatus.FAILED, AuditOutboxStatus.SENT)),
+                eq(from), eq(to), any());
+    }
+
+    @Test
+    void testReplayIsRestrictedToAdmins() {
+        AuditOutboxService auditOutboxService = new AuditOutboxService(
+                auditOutboxRepository, mock(JdbcTemplate.class), mock(IdGenerator.class));
+        UserContext agent = UserContext.builder().userId("agent-1").role(UserRole.AGENT).build();
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        assertThrows(ForbiddenException.class,
+                () -> auditOutboxService.replay(from, from.plusDays(1), false, agent));
+        verify(auditOutboxRepository, never()).requeue(any(), any(), any(), any());
+    }
+
+    private static SendMessageBatchResponse response(List<String> successfulIds, List<BatchResultErrorEntry> failed) {
+        return SendMessageBatchResponse.builder()
+                .successful(successfulIds.stream()
+                        .map(id -> SendMessageBatchResultEntry.builder().id(id).messageId("sqs-" + id).build())
+                        .toList())
+                .failed(failed)
+                .build();
+    }
+
+    private static BatchResultErrorEntry error(String id, String code, boolean senderFault) {
+        return BatchResultErrorEntry.builder()
+                .id(id)
+                .code(code)
+                .message(code + " for entry " + id)
+                .senderFault(senderFault)
+                .build();
+    }
+
+    private AuditOutboxMessage pendingMessage(Long id, int attempts) {
+        return AuditOutboxMessage.builder()
+                .id(id)
+                .logId("log-" + id)
+                .clientId("CLT-" + id)
+                .crudOperation("UPDATE")
+                .payload("{\"log_id\":\"log-" + id + "\"}")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,304 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.AsyncLaneProperties;
+import com.BankingBuddy.client_service.config.BalancePostingProperties;
+import com.BankingBuddy.client_service.config.TaskLaneExecutor;
+import com.BankingBuddy.client_service.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: single-writer posting vs lane-partitioned parallel posting
+ *
+ * Drives BalancePostingService itself (lane locks, unposted fetch, account locks, entity
+ * balance updates, rollup upserts, ledger INSERTs and the lane counter) against the real
+ * schema (Flyway migrations on a MySQL container), once per {lanes, threads} configuration.
+ * The transactions table is created in the test database, which the service reads as its
+ * source schema (the container user cannot create crm_transactions); the data is skewed so
+ * one hot client owns a third of the transactions. Every lane-partitioned configuration
+ * must out-post the single writer and hold the same transactions, and after every run the
+ * reconciliation aggregates must show no drift.
+ *
+ * Not part of the regular build. Run with Docker available:
+ *   mvn test -Dtest=BalancePostingBenchmarkTest -Dbenchmark=true
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.flyway.schemas=test",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AccountRollupService.class, BalancePostingBenchmarkTest.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BalancePostingBenchmarkTest {
+
+    private static final int CLIENT_COUNT = 500;
+    private static final int TRANSACTION_COUNT = 30_000;
+    private static final double HOT_CLIENT_SHARE = 0.33;
+    private static final int BATCH_SIZE = 500;
+    private static final int[][] CONFIGURATIONS = {{1, 1}, {8, 4}, {8, 8}}; // {lanes, threads}
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @TestConfiguration
+    static class Caches {
+        // Redis is out of scope; the service only schedules invalidations on it
+        @Bean
+        AccountsByClientCache accountsByClientCache() {
+            return Mockito.mock(AccountsByClientCache.class);
+        }
+
+        // AccountRollupService's rebuild lane; rebuilds are not exercised here
+        @Bean
+        Executor rollupExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountRollupService accountRollupService;
+
+    @Autowired
+    private AccountsByClientCache accountsByClientCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void benchmarkLanePartitionedPosting() throws Exception {
+        createTransactionsTable();
+        seed();
+
+        double singleWriter = 0;
+        long singleWriterHeld = 0;
+        for (int[] configuration : CONFIGURATIONS) {
+            int lanes = configuration[0];
+            int threads = configuration[1];
+            reset();
+
+            // The postings executor lane as configured in production, sized to this configuration
+            TaskLaneExecutor postingsExecutor = new TaskLaneExecutor("postings", new AsyncLaneProperties.Lane(
+                    threads, threads, lanes, Thread.NORM_PRIORITY, AsyncLaneProperties.RejectionPolicy.CALLER_RUNS),
+                    false, new SimpleMeterRegistry());
+            BalancePostingService postingService = postingService(lanes, postingsExecutor);
+            long start = System.nanoTime();
+            try {
+                // Full sweep path: no lower bound on the transaction date
+                int processed = postingService.postAllLanes(null);
+                assertEquals(completedCount(), processed);
+            } finally {
+                postingsExecutor.shutdown();
+            }
+            double wallMs = (System.nanoTime() - start) / 1_000_000.0;
+            double throughput = completedCount() / (wallMs / 1000.0);
+            if (lanes == 1) {
+                singleWriter = throughput;
+                singleWriterHeld = heldCount();
+            } else {
+                assertTrue(throughput > singleWriter, String.format(
+                        "%d lanes on %d threads posted %.0f/s, single writer %.0f/s", lanes, threads, throughput, singleWriter));
+                // Lanes keep each client's transactions in date order, so the same ones are held
+                assertEquals(singleWriterHeld, heldCount(), lanes + " lanes held a different set of transactions");
+            }
+
+            assertNoDrift();
+        }
+    }
+
+    private BalancePostingService postingService(int lanes, TaskLaneExecutor postingsExecutor) {
+        BalancePostingProperties properties = new BalancePostingProperties();
+        properties.setSourceSchema(MYSQL.getDatabaseName());
+        properties.setLanes(lanes);
+        properties.setBatchSize(BATCH_SIZE);
+        return new BalancePostingService(jdbcTemplate, accountRepository, accountRollupService,
+                accountsByClientCache, transactionManager, properties, postingsExecutor, new SimpleMeterRegistry());
+    }
+
+    private void createTransactionsTable() {
+        // Same definition as transaction-service V1, schema default collation
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS transactions (" +
+                "id VARCHAR(50) PRIMARY KEY, client_id VARCHAR(50) NOT NULL, " +
+                "`transaction` ENUM('DEPOSIT', 'WITHDRAWAL'), amount DECIMAL(15, 2) NOT NULL, " +
+                "date DATETIME(6) NOT NULL, status ENUM('COMPLETED', 'PENDING', 'FAILED') NOT NULL, " +
+                "INDEX idx_client_id (client_id), INDEX idx_date (date), INDEX idx_status (status)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci");
+    }
+
+    /**
+     * Reconciliation aggregates: ledger matches completed transactions, balances match postings
+     */
+    private void assertNoDrift() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT COUNT(*) FROM (SELECT client_id, " +
+                    "SUM(CASE WHEN `transaction` = 'WITHDRAWAL' THEN -amount ELSE amount END) AS total, COUNT(*) AS n " +
+                    "FROM transactions WHERE status = 'COMPLETED' GROUP BY client_id) s " +
+                    "LEFT JOIN (SELECT client_id, SUM(amount) AS total, COUNT(*) AS n " +
+                    "FROM transaction_postings GROUP BY client_id) l " +
+                    "ON l.client_id = s.client_id COLLATE utf8mb4_unicode_ci " +
+                    "WHERE l.client_id IS NULL OR l.total <> s.total OR l.n <> s.n")) {
+                resultSet.next();
+                assertEquals(0, resultSet.getInt(1), "Clients with ledger mismatches");
+            }
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT COUNT(*) FROM accounts a " +
+                    "LEFT JOIN (SELECT account_id, SUM(amount) AS posted FROM transaction_postings " +
+                    "WHERE status = 'POSTED' GROUP BY account_id) p ON p.account_id = a.account_id " +
+                    "WHERE a.deleted = false AND a.balance <> a.initial_deposit + COALESCE(p.posted, 0)")) {
+                resultSet.next();
+                assertEquals(0, resultSet.getInt(1), "Accounts with balance drift");
+            }
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT (SELECT SUM(total_balance) FROM account_balance_rollups) - " +
+                    "(SELECT SUM(balance) FROM accounts WHERE deleted = false)")) {
+                resultSet.next();
+                assertEquals(0, resultSet.getBigDecimal(1).signum(), "Rollup total out of step with balances");
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        Random random = new Random(42);
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            List<String> clientIds = new ArrayList<>();
+            try (PreparedStatement client = connection.prepareStatement(
+                    "INSERT INTO clients (client_id, agent_id, first_name, last_name, date_of_birth, gender, " +
+                    "email, phone_number, address, city, state, country, postal_code) " +
+                    "VALUES (?, 'agent-benchmark', 'Bench', 'Mark', '1990-01-01', 'Male', ?, ?, " +
+                    "'1 Benchmark Road', 'Singapore', 'Singapore', 'Singapore', '123456')");
+                 PreparedStatement account = connection.prepareStatement(
+                    "INSERT INTO accounts (account_id, client_id, account_type, account_status, initial_deposit, " +
+                    "balance, currency, branch_id) VALUES (?, ?, 'Savings', 'Active', 100.00, 100.00, 'SGD', ?)")) {
+                for (int i = 0; i < CLIENT_COUNT; i++) {
+                    String clientId = String.format("CLT-%08d", i);
+                    clientIds.add(clientId);
+                    client.setString(1, clientId);
+                    client.setString(2, "posting" + i + "@example.com");
+                    client.setString(3, String.format("+65%08d", i));
+                    client.addBatch();
+                    account.setString(1, String.format("ACC-%08d", i));
+                    account.setString(2, clientId);
+                    account.setString(3, "BR-00" + (i % 5));
+                    account.addBatch();
+                }
+                client.executeBatch();
+                account.executeBatch();
+            }
+
+            // Withdrawals are small relative to deposits, so a few end up HELD for insufficient funds
+            LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO transactions (id, client_id, `transaction`, amount, date, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < TRANSACTION_COUNT; i++) {
+                    String clientId = random.nextDouble() < HOT_CLIENT_SHARE
+                            ? clientIds.get(0)
+                            : clientIds.get(random.nextInt(CLIENT_COUNT));
+                    boolean withdrawal = random.nextInt(4) == 0;
+                    insert.setString(1, String.format("TXN-%08d", i));
+                    insert.setString(2, clientId);
+                    insert.setString(3, withdrawal ? "WITHDRAWAL" : "DEPOSIT");
+                    insert.setBigDecimal(4, BigDecimal.valueOf(withdrawal ? 1 + random.nextInt(150) : 1 + random.nextInt(100)));
+                    insert.setTimestamp(5, Timestamp.valueOf(base.plusSeconds(i)));
+                    insert.setString(6, random.nextInt(20) == 0 ? "PENDING" : "COMPLETED");
+                    insert.addBatch();
+                    if (i % 1000 == 999) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    /**
+     * Clear the ledger and lane rows (the service creates its own) and restore opening balances
+     */
+    private void reset() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM transaction_postings");
+            statement.executeUpdate("DELETE FROM posting_lanes");
+            statement.executeUpdate("DELETE FROM account_balance_rollups");
+            statement.executeUpdate("UPDATE accounts SET balance = initial_deposit");
+            statement.executeUpdate("INSERT INTO account_balance_rollups " +
+                    "(agent_id, branch_id, account_type, currency, account_count, total_balance) " +
+                    "SELECT 'agent-benchmark', branch_id, account_type, currency, COUNT(*), SUM(balance) " +
+                    "FROM accounts WHERE deleted = false GROUP BY branch_id, account_type, currency");
+        }
+    }
+
+    private long completedCount() throws SQLException {
+        return count("SELECT COUNT(*) FROM transactions WHERE status = 'COMPLETED'");
+    }
+
+    private long heldCount() throws SQLException {
+        return count("SELECT COUNT(*) FROM transaction_postings WHERE status = 'HELD'");
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    }
+}
@@ -0,0 +1,300 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.AsyncLaneProperties;
+import com.BankingBuddy.client_service.config.BalancePostingProperties;
+import com.BankingBuddy.client_service.config.TaskLaneExecutor;
+import com.BankingBuddy.client_service.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Posting outcomes of BalancePostingService on a real MySQL (Flyway schema, InnoDB locking)
+ *
+ * The transactions table is created in the test database, which the service reads as its
+ * source schema. Holds, idempotent re-posting of a ledger key and lane ownership are checked
+ * through the ledger, account balances and the posting_lanes counters.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.schemas=test",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AccountRollupService.class, BalancePostingServiceTest.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BalancePostingServiceTest {
+
+    private static final int LANES = 4;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @TestConfiguration
+    static class Caches {
+        // Redis is out of scope; the service only schedules invalidations on it
+        @Bean
+        AccountsByClientCache accountsByClientCache() {
+            return Mockito.mock(AccountsByClientCache.class);
+        }
+
+        // AccountRollupService's rebuild lane; rebuilds are not exercised here
+        @Bean
+        Executor rollupExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountRollupService accountRollupService;
+
+    @Autowired
+    private AccountsByClientCache accountsByClientCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TaskLaneExecutor postingsExecutor;
+    private BalancePostingService postingService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS transactions (" +
+                "id VARCHAR(50) PRIMARY KEY, client_id VARCHAR(50) NOT NULL, " +
+                "`transaction` ENUM('DEPOSIT', 'WITHDRAWAL'), amount DECIMAL(15, 2) NOT NULL, " +
+                "date DATETIME(6) NOT NULL, status ENUM('COMPLETED', 'PENDING', 'FAILED') NOT NULL" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM transaction_postings");
+        jdbcTemplate.update("DELETE FROM posting_lanes");
+        jdbcTemplate.update("DELETE FROM account_balance_rollups");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM clients");
+
+        BalancePostingProperties properties = new BalancePostingProperties();
+        properties.setSourceSchema(MYSQL.getDatabaseName());
+        properties.setLanes(LANES);
+        properties.setBatchSize(100);
+        postingsExecutor = new TaskLaneExecutor("postings", new AsyncLaneProperties.Lane(
+                2, 2, LANES, Thread.NORM_PRIORITY, AsyncLaneProperties.RejectionPolicy.CALLER_RUNS),
+                false, new SimpleMeterRegistry());
+        postingService = new BalancePostingService(jdbcTemplate, accountRepository, accountRollupService,
+                accountsByClientCache, transactionManager, properties, postingsExecutor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        postingsExecutor.shutdown();
+    }
+
+    @Test
+    void testWithdrawalBeyondBalanceIsHeldUntilFundsArrive() {
+        clientWithAccount("CLT-HOLD", "100.00");
+        transaction("TXN-1", "CLT-HOLD", "WITHDRAWAL", "150.00", T0);
+
+        assertEquals(1, postingService.postAllLanes(null));
+
+        assertEquals("HELD", postingStatus("TXN-1"));
+        assertEquals(BalancePostingService.INSUFFICIENT_FUNDS, holdReason("TXN-1"));
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT account_id FROM transaction_postings WHERE transaction_id = 'TXN-1'", String.class));
+        assertBalance("CLT-HOLD", "100.00");
+
+        // A later deposit posts, but the held withdrawal is not retried by regular polls
+        transaction("TXN-2", "CLT-HOLD", "DEPOSIT", "100.00", T0.plusMinutes(1));
+        assertEquals(1, postingService.postAllLanes(null));
+        assertEquals("POSTED", postingStatus("TXN-2"));
+        assertEquals("HELD", postingStatus("TXN-1"));
+        assertBalance("CLT-HOLD", "200.00");
+
+        // The full sweep releases the hold and the withdrawal now fits
+        postingService.fullSweep();
+        assertEquals("POSTED", postingStatus("TXN-1"));
+        assertBalance("CLT-HOLD", "50.00");
+        assertRollupMatchesBalances();
+    }
+
+    @Test
+    void testClientWithoutEligibleAccountIsHeld() {
+        jdbcTemplate.update(CLIENT_INSERT, "CLT-NONE", "none@example.com", "+6590000000");
+        transaction("TXN-3", "CLT-NONE", "DEPOSIT", "10.00", T0);
+
+        postingService.postAllLanes(null);
+
+        assertEquals("HELD", postingStatus("TXN-3"));
+        assertEquals(BalancePostingService.NO_ELIGIBLE_ACCOUNT, holdReason("TXN-3"));
+    }
+
+    @Test
+    void testSameLedgerKeyIsPostedOnlyOnce() {
+        clientWithAccount("CLT-IDEM", "100.00");
+        transaction("TXN-4", "CLT-IDEM", "DEPOSIT", "50.00", T0);
+
+        assertEquals(1, postingService.postAllLanes(null));
+        assertEquals(0, postingService.postAllLanes(null));
+
+        assertEquals(1, postingCount("TXN-4"));
+        assertBalance("CLT-IDEM", "150.00");
+
+        // A ledger row written elsewhere (another node, or a replay) marks the transaction as done
+        transaction("TXN-5", "CLT-IDEM", "DEPOSIT", "25.00", T0.plusMinutes(1));
+        jdbcTemplate.update("INSERT INTO transaction_postings " +
+                "(transaction_id, client_id, account_id, amount, transaction_date, status) " +
+                "VALUES ('TXN-5', 'CLT-IDEM', 'ACC-CLT-IDEM', 25.00, ?, 'POSTED')", Timestamp.valueOf(T0));
+
+        assertEquals(0, postingService.postAllLanes(null));
+        assertEquals(1, postingCount("TXN-5"));
+        assertBalance("CLT-IDEM", "150.00");
+    }
+
+    @Test
+    void testLanesOnlyPostTheirOwnClientsAndABusyLaneIsSkipped() throws Exception {
+        // One client per lane, by the same CRC32(client_id) % lanes the service uses
+        List<String> clientIds = new ArrayList<>();
+        for (int candidate = 0; clientIds.size() < LANES; candidate++) {
+            String clientId = "CLT-LANE-" + candidate;
+            if (lane(clientId) == clientIds.size()) {
+                clientIds.add(clientId);
+                clientWithAccount(clientId, "100.00");
+                for (int i = 0; i < 3; i++) {
+                    transaction("TXN-" + clientId + "-" + i, clientId, "DEPOSIT", "10.00", T0.plusMinutes(i));
+                }
+            }
+        }
+        assertEquals(0, postingService.postAllLanes(T0.plusDays(1))); // Creates the lane rows only
+
+        int busyLane = 2;
+        try (Connection other = DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())) {
+            // Another node owns lane 2 for the duration of this block
+            other.setAutoCommit(false);
+            try (PreparedStatement lock = other.prepareStatement("SELECT lane FROM posting_lanes WHERE lane = ? FOR UPDATE")) {
+                lock.setInt(1, busyLane);
+                try (ResultSet resultSet = lock.executeQuery()) {
+                    assertTrue(resultSet.next());
+                }
+            }
+
+            assertEquals(3 * (LANES - 1), postingService.postAllLanes(null));
+            other.rollback();
+        }
+
+        for (int lane = 0; lane < LANES; lane++) {
+            long postedCount = jdbcTemplate.queryForObject(
+                    "SELECT posted_count FROM posting_lanes WHERE lane = ?", Long.class, lane);
+            assertEquals(lane == busyLane ? 0 : 3, postedCount, "posted_count of lane " + lane);
+            assertBalance(clientIds.get(lane), lane == busyLane ? "100.00" : "130.00");
+        }
+
+        // Once released, the lane catches up on the next tick
+        assertEquals(3, postingService.postAllLanes(null));
+        assertBalance(clientIds.get(busyLane), "130.00");
+        assertRollupMatchesBalances();
+    }
+
+    private static final String CLIENT_INSERT =
+            "INSERT INTO clients (client_id, agent_id, first_name, last_name, date_of_birth, gender, " +
+            "email, phone_number, address, city, state, country, postal_code) " +
+            "VALUES (?, 'agent-1', 'Post', 'Ing', '1990-01-01', 'Male', ?, ?, " +
+            "'1 Posting Road', 'Singapore', 'Singapore', 'Singapore', '123456')";
+
+    private void clientWithAccount(String clientId, String balance) {
+        int suffix = Math.abs(clientId.hashCode() % 100_000_000);
+        jdbcTemplate.update(CLIENT_INSERT, clientId, clientId.toLowerCase() + "@example.com",
+                String.format("+65%08d", suffix));
+        jdbcTemplate.update("INSERT INTO accounts (account_id, client_id, account_type, account_status, " +
+                "initial_deposit, balance, currency, branch_id) VALUES (?, ?, 'Savings', 'Active', ?, ?, 'SGD', 'BR-001')",
+                "ACC-" + clientId, clientId, new BigDecimal(balance), new BigDecimal(balance));
+        jdbcTemplate.update("INSERT INTO account_balance_rollups " +
+                "(agent_id, branch_id, account_type, currency, account_count, total_balance) " +
+                "VALUES ('agent-1', 'BR-001', 'Savings', 'SGD', 1, ?) " +
+                "ON DUPLICATE KEY UPDATE account_count = account_count + 1, total_balance = total_balance + ?",
+                new BigDecimal(balance), new BigDecimal(balance));
+    }
+
+    private void transaction(String id, String clientId, String type, String amount, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO transactions (id, client_id, `transaction`, amount, date, status) " +
+                "VALUES (?, ?, ?, ?, ?, 'COMPLETED')", id, clientId, type, new BigDecimal(amount), Timestamp.valueOf(date));
+    }
+
+    private String postingStatus(String transactionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT status FROM transaction_postings WHERE transaction_id = ?", String.class, transactionId);
+    }
+
+    private String holdReason(String transactionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT hold_reason FROM transaction_postings WHERE transaction_id = ?", String.class, transactionId);
+    }
+
+    private int postingCount(String transactionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_postings WHERE transaction_id = ?", Integer.class, transactionId);
+    }
+
+    private void assertBalance(String clientId, String expected) {
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE client_id = ?", BigDecimal.class, clientId);
+        assertEquals(0, new BigDecimal(expected).compareTo(balance), clientId + " balance was " + balance);
+    }
+
+    private void assertRollupMatchesBalances() {
+        BigDecimal drift = jdbcTemplate.queryForObject(
+                "SELECT (SELECT SUM(total_balance) FROM account_balance_rollups) - " +
+                "(SELECT SUM(balance) FROM accounts WHERE deleted = false)", BigDecimal.class);
+        assertEquals(0, drift.signum(), "Rollup total out of step with balances");
+    }
+
+    private static int lane(String clientId) {
+        CRC32 crc = new CRC32();
+        crc.update(clientId.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % LANES);
+    }
+}
@@ -0,0 +1,323 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: per-account cascade vs set-based cascade for client soft delete / restore
+ *
+ * The set-based side is ClientService itself (guarded UPDATE with row count check, grouped
+ * rollups, multi-row audit INSERTs) against the real schema (Flyway migrations on a MySQL
+ * container); Redis / SES collaborators are mocks. The per-account baseline replays what the
+ * previous engine issued - one account UPDATE and one audit INSERT per account - and is
+ * rolled back after every run. The service must beat the baseline for every account count,
+ * and every run must have moved all of the client's accounts.
+ *
+ * Not part of the regular build. Run with Docker available:
+ *   mvn test -Dtest=ClientCascadeBenchmarkTest -Dbenchmark=true
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.flyway.schemas=test",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "audit.source-service=client-service"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClientService.class, AccountRollupService.class, AuditOutboxService.class,
+        ClientCascadeBenchmarkTest.Collaborators.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ClientCascadeBenchmarkTest {
+
+    private static final int[] ACCOUNT_COUNTS = {100, 300, 500};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+    private static final int AUDIT_CHUNK_SIZE = 500;
+    private static final String AGENT_ID = "agent-benchmark";
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @TestConfiguration
+    static class Collaborators {
+        // Redis, SES and the cross-node cache bus are out of scope for the cascade
+        @Bean
+        EmailService emailService() {
+            return Mockito.mock(EmailService.class);
+        }
+
+        @Bean
+        ClientUniquenessFilter clientUniquenessFilter() {
+            return Mockito.mock(ClientUniquenessFilter.class);
+        }
+
+        @Bean
+        AccountsByClientCache accountsByClientCache() {
+            return Mockito.mock(AccountsByClientCache.class);
+        }
+
+        @Bean
+        EntityCacheInvalidator entityCacheInvalidator() {
+            return Mockito.mock(EntityCacheInvalidator.class);
+        }
+
+        @Bean
+        IdGenerator idGenerator() {
+            return UUID::randomUUID;
+        }
+
+        // AccountRollupService's rebuild lane; rebuilds are not exercised here
+        @Bean
+        Executor rollupExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UserContext agent = UserContext.builder().userId(AGENT_ID).role(UserRole.AGENT).build();
+
+    @Test
+    void benchmarkCascadeSoftDeleteAndRestore() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())) {
+            connection.setAutoCommit(false);
+
+            for (int accountCount : ACCOUNT_COUNTS) {
+                String clientId = seedClient(connection, accountCount);
+                List<String> accountIds = accountIds(connection, clientId);
+                assertEquals(accountCount, accountIds.size());
+
+                double perRowDelete = measureRolledBack(connection,
+                        () -> perRowDelete(connection, clientId, accountIds, LocalDateTime.of(2025, 1, 1, 0, 0)));
+
+                // The restore baseline needs the client deleted the way the service leaves it
+                clientService.softDeleteClientById(clientId, agent);
+                assertCascaded(clientId, accountCount, true);
+                double perRowRestore = measureRolledBack(connection, () -> perRowRestore(connection, clientId, accountIds));
+                clientService.restoreClientById(clientId, agent);
+                assertCascaded(clientId, accountCount, false);
+
+                // Service runs commit, so each delete is followed by the restore that undoes it
+                double[] serviceDelete = new double[MEASURED_RUNS];
+                double[] serviceRestore = new double[MEASURED_RUNS];
+                for (int i = 0; i < WARMUP_RUNS + MEASURED_RUNS; i++) {
+                    long start = System.nanoTime();
+                    clientService.softDeleteClientById(clientId, agent);
+                    long deleted = System.nanoTime();
+                    assertCascaded(clientId, accountCount, true);
+
+                    long restoreStart = System.nanoTime();
+                    clientService.restoreClientById(clientId, agent);
+                    long restored = System.nanoTime();
+                    assertCascaded(clientId, accountCount, false);
+
+                    if (i >= WARMUP_RUNS) {
+                        serviceDelete[i - WARMUP_RUNS] = (deleted - start) / 1_000_000.0;
+                        serviceRestore[i - WARMUP_RUNS] = (restored - restoreStart) / 1_000_000.0;
+                    }
+                }
+
+                assertTrue(median(serviceDelete) < perRowDelete, String.format(
+                        "Set-based delete of %d accounts took %.2f ms, per-account baseline %.2f ms",
+                        accountCount, median(serviceDelete), perRowDelete));
+                assertTrue(median(serviceRestore) < perRowRestore, String.format(
+                        "Set-based restore of %d accounts took %.2f ms, per-account baseline %.2f ms",
+                        accountCount, median(serviceRestore), perRowRestore));
+            }
+        }
+    }
+
+    /**
+     * Every account of the client carries the client's state (and deleted_at stamp)
+     */
+    private void assertCascaded(String clientId, int accountCount, boolean deleted) {
+        assertEquals(accountCount, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts a JOIN clients c ON c.client_id = a.client_id " +
+                "WHERE c.client_id = ? AND c.deleted = ? AND a.deleted = c.deleted " +
+                "AND a.deleted_at <=> c.deleted_at", Integer.class, clientId, deleted));
+    }
+
+    /**
+     * Median wall time of a rolled-back run, after warmup
+     */
+    private double measureRolledBack(Connection connection, SqlRun run) throws SQLException {
+        double[] samples = new double[MEASURED_RUNS];
+        for (int i = 0; i < WARMUP_RUNS + MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            run.execute();
+            long elapsed = System.nanoTime() - start;
+            connection.rollback();
+            if (i >= WARMUP_RUNS) {
+                samples[i - WARMUP_RUNS] = elapsed / 1_000_000.0;
+            }
+        }
+        return median(samples);
+    }
+
+    private static double median(double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // Previous engine (baseline): one UPDATE per account (entity save) and one audit INSERT per account
+    private void perRowDelete(Connection connection, String clientId, List<String> accountIds,
+                              LocalDateTime deletedAt) throws SQLException {
+        markClient(connection, clientId, true, deletedAt);
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE accounts SET deleted = true, deleted_at = ?, updated_at = ? WHERE account_id = ?")) {
+            for (String accountId : accountIds) {
+                update.setTimestamp(1, Timestamp.valueOf(deletedAt));
+                update.setTimestamp(2, Timestamp.valueOf(deletedAt));
+                update.setString(3, accountId);
+                update.executeUpdate();
+                insertAuditRows(connection, clientId, 1);
+            }
+        }
+        insertAuditRows(connection, clientId, 1);
+    }
+
+    private void perRowRestore(Connection connection, String clientId, List<String> accountIds) throws SQLException {
+        markClient(connection, clientId, false, null);
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE accounts SET deleted = false, deleted_at = NULL, updated_at = ? WHERE account_id = ?")) {
+            for (String accountId : accountIds) {
+                update.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                update.setString(2, accountId);
+                update.executeUpdate();
+                insertAuditRows(connection, clientId, 1);
+            }
+        }
+        insertAuditRows(connection, clientId, 1);
+    }
+
+    private void markClient(Connection connection, String clientId, boolean deleted,
+                            LocalDateTime deletedAt) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE clients SET deleted = ?, deleted_at = ? WHERE client_id = ?")) {
+            update.setBoolean(1, deleted);
+            update.setTimestamp(2, deletedAt != null ? Timestamp.valueOf(deletedAt) : null);
+            update.setString(3, clientId);
+            update.executeUpdate();
+        }
+    }
+
+    /**
+     * Insert audit outbox rows using multi-row INSERTs (single-row when count is 1)
+     */
+    private void insertAuditRows(Connection connection, String clientId, int count) throws SQLException {
+        for (int start = 0; start < count; start += AUDIT_CHUNK_SIZE) {
+            int rows = Math.min(AUDIT_CHUNK_SIZE, count - start);
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO audit_outbox (log_id, client_id, crud_operation, payload) VALUES ");
+            for (int i = 0; i < rows; i++) {
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, 'DELETE', ?)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (int i = 0; i < rows; i++) {
+                    String logId = UUID.randomUUID().toString();
+                    insert.setString(index++, logId);
+                    insert.setString(index++, clientId);
+                    insert.setString(index++, "{\"log_id\":\"" + logId + "\",\"client_id\":\"" + clientId + "\"}");
+                }
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    private String seedClient(Connection connection, int accountCount) throws SQLException {
+        String clientId = "CLT-" + UUID.randomUUID();
+        String suffix = String.format("%010d", accountCount);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO clients (client_id, agent_id, first_name, last_name, date_of_birth, gender, " +
+                "email, phone_number, address, city, state, country, postal_code) " +
+                "VALUES (?, 'agent-benchmark', 'Bench', 'Mark', '1990-01-01', 'Male', ?, ?, " +
+                "'1 Benchmark Road', 'Singapore', 'Singapore', 'Singapore', '123456')")) {
+            insert.setString(1, clientId);
+            insert.setString(2, "bench" + accountCount + "@example.com");
+            insert.setString(3, "+65" + suffix);
+            insert.executeUpdate();
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO accounts (account_id, client_id, account_type, account_status, initial_deposit, " +
+                "balance, currency, branch_id) VALUES (?, ?, 'Savings', 'Active', 100.00, 0.00, 'SGD', 'BR-001')")) {
+            for (int i = 0; i < accountCount; i++) {
+                insert.setString(1, "ACC-" + UUID.randomUUID());
+                insert.setString(2, clientId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return clientId;
+    }
+
+    private List<String> accountIds(Connection connection, String clientId) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT account_id FROM accounts WHERE client_id = ? AND deleted = false")) {
+            select.setString(1, clientId);
+            try (var resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getString(1));
+                }
+            }
+        }
+        connection.commit();
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface SqlRun {
+        void execute() throws SQLException;
+    }
+}
@@ -0,0 +1,214 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.ClientOverviewProperties;
+import com.BankingBuddy.client_service.exception.ForbiddenException;
+import com.BankingBuddy.client_service.model.dto.AccountDTO;
+import com.BankingBuddy.client_service.model.dto.ClientDTO;
+import com.BankingBuddy.client_service.model.dto.ClientOverviewDTO;
+import com.BankingBuddy.client_service.model.dto.OverviewSectionDTO;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Overview fan-out against a stubbed transaction-service (local HTTP server, no Docker)
+ */
+@ExtendWith(MockitoExtension.class)
+class ClientOverviewServiceTest {
+
+    private static final String CLIENT_ID = "CLT-1";
+    private static final String TOKEN = "Bearer test-token";
+    private static final String TRANSACTION_PAGE = """
+            {"success":true,"message":"Transactions retrieved successfully","data":{
+              "content":[{"id":"TXN-1","clientId":"CLT-1","transaction":"D","amount":250.00,
+                          "date":"2025-01-15T10:30:00","status":"Completed"}],
+              "page":0,"size":10,"totalElements":1,"totalPages":1,"first":true,"last":true,"empty":false}}
+            """;
+
+    @Mock
+    private ClientService clientService;
+
+    @Mock
+    private AccountService accountService;
+
+    private HttpServer transactionService;
+    private final AtomicInteger stubStatus = new AtomicInteger(200);
+    private final AtomicInteger stubDelayMs = new AtomicInteger(0);
+    private final AtomicReference<String> receivedAuthorization = new AtomicReference<>();
+    private final AtomicInteger stubCalls = new AtomicInteger();
+
+    private ClientOverviewProperties properties;
+    private ClientOverviewService overviewService;
+    private final UserContext agent = UserContext.builder().userId("agent-1").role(UserRole.AGENT).build();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        transactionService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        transactionService.createContext("/api/v1/transactions", exchange -> {
+            stubCalls.incrementAndGet();
+            receivedAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            try {
+                Thread.sleep(stubDelayMs.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = (stubStatus.get() == 200 ? TRANSACTION_PAGE : "{\"success\":false}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(stubStatus.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // Client gave up (timeout test)
+            }
+        });
+        transactionService.start();
+
+        properties = new ClientOverviewProperties();
+        properties.setTransactionServiceUrl("http://localhost:" + transactionService.getAddress().getPort());
+        properties.setAccountsTimeoutMs(500);
+        properties.setTransactionsTimeoutMs(500);
+
+        overviewService = new ClientOverviewService(clientService, accountService,
+                new TransactionServiceClient(RestClient.builder(), properties), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        overviewService.shutdown();
+        transactionService.stop(0);
+    }
+
+    @Test
+    void testOverviewCombinesAllSectionsAndForwardsAuth() {
+        stubClientAndAccounts();
+
+        ClientOverviewDTO overview = overviewService.getOverview(CLIENT_ID, agent, true, Map.of("Authorization", TOKEN));
+
+        assertFalse(overview.isPartial());
+        assertEquals(CLIENT_ID, overview.getClient().getClientId());
+        assertEquals(OverviewSectionDTO.OK, overview.getAccounts().getStatus());
+        assertEquals(1, overview.getAccounts().getData().size());
+        assertEquals(OverviewSectionDTO.OK, overview.getTransactions().getStatus());
+        assertEquals("TXN-1", overview.getTransactions().getData().getContent().get(0).getId());
+        assertEquals(1, overview.getTransactions().getData().getTotalElements());
+        assertEquals(TOKEN, receivedAuthorization.get());
+        verify(clientService, times(1)).getClientForOverview(CLIENT_ID, agent);
+    }
+
+    @Test
+    void testSlowTransactionServiceYieldsPartialResult() {
+        stubClientAndAccounts();
+        stubDelayMs.set(2000);
+
+        long start = System.currentTimeMillis();
+        ClientOverviewDTO overview = overviewService.getOverview(CLIENT_ID, agent, true, Map.of("Authorization", TOKEN));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(overview.isPartial());
+        assertEquals(OverviewSectionDTO.OK, overview.getAccounts().getStatus());
+        assertEquals(OverviewSectionDTO.TIMEOUT, overview.getTransactions().getStatus());
+        assertNull(overview.getTransactions().getData());
+        assertTrue(elapsed < 1500, "Overview should return at the section deadline, took " + elapsed + " ms");
+    }
+
+    @Test
+    void testFailingTransactionServiceIsReportedUnavailable() {
+        stubClientAndAccounts();
+        stubStatus.set(503);
+
+        ClientOverviewDTO overview = overviewService.getOverview(CLIENT_ID, agent, true, Map.of("Authorization", TOKEN));
+
+        assertTrue(overview.isPartial());
+        assertEquals(OverviewSectionDTO.UNAVAILABLE, overview.getTransactions().getStatus());
+        assertEquals(OverviewSectionDTO.OK, overview.getAccounts().getStatus());
+    }
+
+    @Test
+    void testSlowAccountsDoNotDelayTransactions() {
+        when(clientService.getClientForOverview(CLIENT_ID, agent)).thenReturn(client());
+        when(accountService.getAccountsForOverview(client(), agent)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of();
+        });
+
+        ClientOverviewDTO overview = overviewService.getOverview(CLIENT_ID, agent, true, Map.of("Authorization", TOKEN));
+
+        assertEquals(OverviewSectionDTO.TIMEOUT, overview.getAccounts().getStatus());
+        assertEquals(OverviewSectionDTO.OK, overview.getTransactions().getStatus());
+    }
+
+    @Test
+    void testAdminOverviewReportsAccountsForbidden() {
+        UserContext admin = UserContext.builder().userId("admin-1").role(UserRole.ADMIN).build();
+        when(clientService.getClientForOverview(CLIENT_ID, admin)).thenReturn(client());
+        when(accountService.getAccountsForOverview(client(), admin))
+                .thenThrow(new ForbiddenException("Only Agents can get accounts by client ID"));
+
+        ClientOverviewDTO overview = overviewService.getOverview(CLIENT_ID, admin, true, Map.of("Authorization", TOKEN));
+
+        assertEquals(CLIENT_ID, overview.getClient().getClientId());
+        assertEquals(OverviewSectionDTO.FORBIDDEN, overview.getAccounts().getStatus());
+        assertNull(overview.getAccounts().getData());
+        assertEquals(OverviewSectionDTO.OK, overview.getTransactions().getStatus());
+        assertFalse(overview.isPartial());
+    }
+
+    @Test
+    void testTransactionsAreOnlyFetchedWhenRequested() {
+        stubClientAndAccounts();
+        stubDelayMs.set(2000);
+
+        long start = System.currentTimeMillis();
+        ClientOverviewDTO overview = overviewService.getOverview(CLIENT_ID, agent, false, Map.of("Authorization", TOKEN));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertNull(overview.getTransactions());
+        assertEquals(OverviewSectionDTO.OK, overview.getAccounts().getStatus());
+        assertFalse(overview.isPartial());
+        assertEquals(0, stubCalls.get());
+        assertTrue(elapsed < 500, "Overview waited on transaction-service, took " + elapsed + " ms");
+    }
+
+    @Test
+    void testUnauthorizedCallerTriggersNoFanOut() {
+        when(clientService.getClientForOverview(CLIENT_ID, agent))
+                .thenThrow(new ForbiddenException("You are not authorized to read this client profile"));
+
+        assertThrows(ForbiddenException.class,
+                () -> overviewService.getOverview(CLIENT_ID, agent, true, Map.of("Authorization", TOKEN)));
+
+        verifyNoInteractions(accountService);
+        assertEquals(0, stubCalls.get());
+    }
+
+    private void stubClientAndAccounts() {
+        when(clientService.getClientForOverview(CLIENT_ID, agent)).thenReturn(client());
+        when(accountService.getAccountsForOverview(client(), agent)).thenReturn(List.of(
+                AccountDTO.builder().accountId("ACC-1").clientId(CLIENT_ID).deleted(false).build()));
+    }
+
+    private ClientDTO client() {
+        return ClientDTO.builder().clientId(CLIENT_ID).agentId("agent-1").build();
+    }
+}
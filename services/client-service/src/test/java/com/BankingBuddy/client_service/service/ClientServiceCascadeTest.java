@@ -0,0 +1,233 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.exception.InvalidOperationException;
+import com.BankingBuddy.client_service.security.UserContext;
+import com.BankingBuddy.client_service.security.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Set-based soft delete / restore cascade of ClientService on a real MySQL (Flyway schema)
+ *
+ * Runs the service's own guarded UPDATEs, rollups and audit inserts; collaborators that
+ * need Redis or SES are mocks. Each call commits or rolls back for real.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.schemas=test",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "audit.source-service=client-service"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClientService.class, AccountRollupService.class, AuditOutboxService.class,
+        ClientServiceCascadeTest.Collaborators.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ClientServiceCascadeTest {
+
+    private static final String CLIENT_ID = "CLT-CASCADE";
+    private static final String AGENT_ID = "agent-1";
+    private static final LocalDateTime CLOSED_EARLIER = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @TestConfiguration
+    static class Collaborators {
+        // Redis, SES and the cross-node cache bus are out of scope for the cascade
+        @Bean
+        EmailService emailService() {
+            return Mockito.mock(EmailService.class);
+        }
+
+        @Bean
+        ClientUniquenessFilter clientUniquenessFilter() {
+            return Mockito.mock(ClientUniquenessFilter.class);
+        }
+
+        @Bean
+        AccountsByClientCache accountsByClientCache() {
+            return Mockito.mock(AccountsByClientCache.class);
+        }
+
+        @Bean
+        EntityCacheInvalidator entityCacheInvalidator() {
+            return Mockito.mock(EntityCacheInvalidator.class);
+        }
+
+        @Bean
+        IdGenerator idGenerator() {
+            return UUID::randomUUID;
+        }
+
+        // AccountRollupService's rebuild lane; rebuilds are not exercised here
+        @Bean
+        Executor rollupExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientUniquenessFilter clientUniquenessFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UserContext agent = UserContext.builder().userId(AGENT_ID).role(UserRole.AGENT).build();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(clientUniquenessFilter);
+        jdbcTemplate.update("DELETE FROM audit_outbox");
+        jdbcTemplate.update("DELETE FROM account_balance_rollups");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM clients");
+
+        jdbcTemplate.update("INSERT INTO clients (client_id, agent_id, first_name, last_name, date_of_birth, gender, " +
+                "email, phone_number, address, city, state, country, postal_code) " +
+                "VALUES (?, ?, 'Cas', 'Cade', '1990-01-01', 'Female', 'cascade@example.com', '+6591234567', " +
+                "'1 Cascade Road', 'Singapore', 'Singapore', 'Singapore', '123456')", CLIENT_ID, AGENT_ID);
+        account("ACC-1", "0.00");
+        account("ACC-2", "0.00");
+        account("ACC-3", "0.00");
+    }
+
+    @Test
+    void testSoftDeleteCascadesToAllAccountsWithTheClientsStamp() {
+        clientService.softDeleteClientById(CLIENT_ID, agent);
+
+        Timestamp clientStamp = jdbcTemplate.queryForObject(
+                "SELECT deleted_at FROM clients WHERE client_id = ? AND deleted = true", Timestamp.class, CLIENT_ID);
+        assertNotNull(clientStamp);
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts WHERE client_id = ? AND deleted = true AND deleted_at = ?",
+                Integer.class, CLIENT_ID, clientStamp));
+        assertEquals(0L, rollupCount());
+        assertEquals(4, auditRows("DELETE")); // One per account plus the client
+    }
+
+    @Test
+    void testNonZeroBalanceRejectsDeleteAndChangesNothing() {
+        jdbcTemplate.update("UPDATE accounts SET balance = 25.00 WHERE account_id = 'ACC-2'");
+
+        InvalidOperationException error = assertThrows(InvalidOperationException.class,
+                () -> clientService.softDeleteClientById(CLIENT_ID, agent));
+
+        assertTrue(error.getMessage().contains("ACC-2"));
+        assertUntouched();
+    }
+
+    @Test
+    void testAccountFundedDuringCascadeRollsTheDeleteBack() {
+        // Another transaction funds ACC-3 after the balances were validated, before the guarded UPDATE
+        doAnswer(invocation -> {
+            try (Connection other = DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+                 PreparedStatement fund = other.prepareStatement(
+                         "UPDATE accounts SET balance = 10.00 WHERE account_id = 'ACC-3'")) {
+                fund.executeUpdate();
+            }
+            return null;
+        }).when(clientUniquenessFilter).recordRetired(anyInt());
+
+        assertThrows(InvalidOperationException.class, () -> clientService.softDeleteClientById(CLIENT_ID, agent));
+
+        // The client update and the two accounts the UPDATE did match are rolled back with it
+        assertUntouched();
+    }
+
+    @Test
+    void testRestoreRevivesOnlyAccountsDeletedWithTheClient() {
+        jdbcTemplate.update("UPDATE accounts SET deleted = true, deleted_at = ? WHERE account_id = 'ACC-3'",
+                Timestamp.valueOf(CLOSED_EARLIER));
+        jdbcTemplate.update("UPDATE account_balance_rollups SET account_count = 2");
+
+        clientService.softDeleteClientById(CLIENT_ID, agent);
+        assertEquals(0L, rollupCount());
+
+        clientService.restoreClientById(CLIENT_ID, agent);
+
+        assertEquals(List.of("ACC-1", "ACC-2"), jdbcTemplate.queryForList(
+                "SELECT account_id FROM accounts WHERE client_id = ? AND deleted = false AND deleted_at IS NULL " +
+                "ORDER BY account_id", String.class, CLIENT_ID));
+        // Closed on its own before the client was deleted, so it stays closed with its own stamp
+        assertEquals(Timestamp.valueOf(CLOSED_EARLIER), jdbcTemplate.queryForObject(
+                "SELECT deleted_at FROM accounts WHERE account_id = 'ACC-3' AND deleted = true", Timestamp.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM clients WHERE client_id = ? AND (deleted = true OR deleted_at IS NOT NULL)",
+                Integer.class, CLIENT_ID));
+        assertEquals(2L, rollupCount());
+        assertEquals(3, auditRows("UPDATE")); // Client status plus the two restored accounts
+    }
+
+    private void account(String accountId, String balance) {
+        jdbcTemplate.update("INSERT INTO accounts (account_id, client_id, account_type, account_status, " +
+                "initial_deposit, balance, currency, branch_id) VALUES (?, ?, 'Savings', 'Active', 100.00, ?, 'SGD', 'BR-001')",
+                accountId, CLIENT_ID, new BigDecimal(balance));
+        jdbcTemplate.update("INSERT INTO account_balance_rollups " +
+                "(agent_id, branch_id, account_type, currency, account_count, total_balance) " +
+                "VALUES (?, 'BR-001', 'Savings', 'SGD', 1, ?) " +
+                "ON DUPLICATE KEY UPDATE account_count = account_count + 1, total_balance = total_balance + ?",
+                AGENT_ID, new BigDecimal(balance), new BigDecimal(balance));
+    }
+
+    private void assertUntouched() {
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM clients WHERE client_id = ? AND (deleted = true OR deleted_at IS NOT NULL)",
+                Integer.class, CLIENT_ID));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts WHERE client_id = ? AND deleted = true", Integer.class, CLIENT_ID));
+        assertEquals(3L, rollupCount());
+        assertEquals(0, auditRows("DELETE"));
+    }
+
+    private long rollupCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT account_count FROM account_balance_rollups WHERE agent_id = ?", Long.class, AGENT_ID);
+    }
+
+    private int auditRows(String operation) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_outbox WHERE client_id = ? AND crud_operation = ?",
+                Integer.class, CLIENT_ID, operation);
+    }
+}
@@ -0,0 +1,70 @@
+package com.BankingBuddy.client_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bloom filter behaviour: no false negatives, collation-aware matching, Redis bitmap layout
+ */
+class ContactBloomFilterTest {
+
+    @Test
+    void testAddedValuesAreAlwaysFound() {
+        ContactBloomFilter filter = ContactBloomFilter.forCapacity(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("client" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("client" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        ContactBloomFilter filter = ContactBloomFilter.forCapacity(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("65" + (90_000_000 + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("44" + (70_000_000 + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False positive rate too high: " + falsePositives / 100_000.0);
+    }
+
+    @Test
+    void testMatchesCaseAndAccentInsensitiveCollation() {
+        ContactBloomFilter filter = ContactBloomFilter.forCapacity(100, 0.01);
+        filter.put("Jose.Garcia@Example.com");
+
+        assertTrue(filter.mightContain("jose.garcia@example.com"));
+        assertTrue(filter.mightContain("José.García@example.com "));
+    }
+
+    @Test
+    void testBitmapUsesRedisBitOrder() {
+        ContactBloomFilter filter = new ContactBloomFilter(64, 1);
+        filter.put("john.doe@example.com");
+        long position = filter.positions("john.doe@example.com")[0];
+
+        byte[] bitmap = filter.toBitmap();
+        // Redis GETBIT offset n reads bit (7 - n % 8) of byte n / 8
+        assertNotEquals(0, bitmap[(int) (position / 8)] & (0x80 >>> (position % 8)));
+    }
+
+    @Test
+    void testMergeRestoresFilterFromBitmap() {
+        ContactBloomFilter source = ContactBloomFilter.forCapacity(1_000, 0.01);
+        source.put("jane.doe@example.com");
+        ContactBloomFilter copy = new ContactBloomFilter(source.bitCount(), source.hashCount());
+
+        assertFalse(copy.mightContain("jane.doe@example.com"));
+        copy.merge(source.toBitmap());
+        assertTrue(copy.mightContain("jane.doe@example.com"));
+    }
+}
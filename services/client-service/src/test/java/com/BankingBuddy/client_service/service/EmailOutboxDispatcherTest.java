@@ -0,0 +1,244 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.EmailOutboxProperties;
+import com.BankingBuddy.client_service.model.entity.EmailOutboxMessage;
+import com.BankingBuddy.client_service.model.enums.EmailOutboxStatus;
+import com.BankingBuddy.client_service.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.MessageRejectedException;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Dispatcher tests against a stubbed SesClient (no AWS or database required)
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    private static final String SOURCE_EMAIL = "noreply@bankingbuddy.test";
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private SesClient sesClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailOutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EmailOutboxProperties();
+        properties.setBatchSize(2);
+        properties.setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        // Run sends on the calling thread so outcomes are visible when dispatch() returns
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, sesClient, Runnable::run,
+                transactionManager, meterRegistry, properties, SOURCE_EMAIL);
+    }
+
+    @Test
+    void testDispatchSendsClaimedRowsAndMarksThemSent() {
+        EmailOutboxMessage message = pendingMessage(1L, 0);
+        when(emailOutboxRepository.claimDue(any(), eq(2))).thenReturn(List.of(message));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenReturn(SendEmailResponse.builder().messageId("ses-1").build());
+        when(emailOutboxRepository.markSent(eq(1L), eq(1), eq("ses-1"), any())).thenReturn(1);
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<SendEmailRequest> request = ArgumentCaptor.forClass(SendEmailRequest.class);
+        verify(sesClient).sendEmail(request.capture());
+        assertEquals(SOURCE_EMAIL, request.getValue().source());
+        assertEquals(List.of("john.doe@example.com"), request.getValue().destination().toAddresses());
+        assertEquals("Banking Buddy Profile Updated", request.getValue().message().subject().data());
+
+        assertEquals(EmailOutboxStatus.SENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        verify(emailOutboxRepository).markSent(eq(1L), eq(1), eq("ses-1"), any());
+        assertEquals(1.0, meterRegistry.counter("email.outbox.sent").count());
+    }
+
+    @Test
+    void testStaleWorkerDoesNotOverwriteNewerClaim() {
+        EmailOutboxMessage message = pendingMessage(8L, 0);
+        when(emailOutboxRepository.claimDue(any(), anyInt())).thenReturn(List.of(message));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenReturn(SendEmailResponse.builder().messageId("ses-8").build());
+        // Lease expired mid-send and another node re-claimed the row as attempt 2
+        when(emailOutboxRepository.markSent(eq(8L), eq(1), eq("ses-8"), any())).thenReturn(0);
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).markSent(eq(8L), eq(1), eq("ses-8"), any());
+        assertEquals(0.0, meterRegistry.counter("email.outbox.sent").count());
+    }
+
+    @Test
+    void testTransientFailureIsRescheduledWithoutBlocking() {
+        EmailOutboxMessage message = pendingMessage(2L, 0);
+        when(emailOutboxRepository.claimDue(any(), anyInt())).thenReturn(List.of(message));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenThrow(SesException.builder().message("Throttling").build());
+        when(emailOutboxRepository.reschedule(eq(2L), eq(1), any(), anyString())).thenReturn(1);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).reschedule(eq(2L), eq(1), nextAttempt.capture(), contains("Throttling"));
+        assertTrue(nextAttempt.getValue().isAfter(before.plusSeconds(1)));
+        verify(emailOutboxRepository, never()).markSent(any(), anyInt(), any(), any());
+        verify(emailOutboxRepository, never()).markFailed(any(), anyInt(), any());
+        assertEquals(1.0, meterRegistry.counter("email.outbox.retried").count());
+    }
+
+    @Test
+    void testLastAttemptFailureMarksRowFailed() {
+        EmailOutboxMessage message = pendingMessage(3L, 2);
+        when(emailOutboxRepository.claimDue(any(), anyInt())).thenReturn(List.of(message));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenThrow(SesException.builder().message("Service unavailable").build());
+        when(emailOutboxRepository.markFailed(eq(3L), eq(3), anyString())).thenReturn(1);
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).markFailed(eq(3L), eq(3), contains("Service unavailable"));
+        verify(emailOutboxRepository, never()).reschedule(any(), anyInt(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("email.outbox.failed").count());
+    }
+
+    @Test
+    void testRejectedMessageIsNotRetried() {
+        EmailOutboxMessage message = pendingMessage(4L, 0);
+        when(emailOutboxRepository.claimDue(any(), anyInt())).thenReturn(List.of(message));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenThrow(MessageRejectedException.builder().message("Email address is not verified").build());
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).markFailed(eq(4L), eq(1), anyString());
+        verify(emailOutboxRepository, never()).reschedule(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void testDispatchKeepsClaimingWhileBatchesAreFull() {
+        when(emailOutboxRepository.claimDue(any(), eq(2)))
+                .thenReturn(List.of(pendingMessage(5L, 0), pendingMessage(6L, 0)))
+                .thenReturn(List.of(pendingMessage(7L, 0)));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenReturn(SendEmailResponse.builder().messageId("ses").build());
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository, times(2)).claimDue(any(), eq(2));
+        verify(sesClient, times(3)).sendEmail(any(SendEmailRequest.class));
+    }
+
+    @Test
+    void testDisabledDispatcherDoesNothing() {
+        properties.setDispatcherEnabled(false);
+
+        dispatcher.dispatch();
+
+        verifyNoInteractions(emailOutboxRepository, sesClient);
+    }
+
+    @Test
+    void testDispatchHandsDrainToEmailLaneAndSkipsWhileItRuns() {
+        Queue<Runnable> lane = new ArrayDeque<>();
+        EmailOutboxDispatcher queued = new EmailOutboxDispatcher(emailOutboxRepository, sesClient, lane::add,
+                transactionManager, meterRegistry, properties, SOURCE_EMAIL);
+        when(emailOutboxRepository.claimDue(any(), eq(2))).thenReturn(List.of(pendingMessage(9L, 0)));
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenReturn(SendEmailResponse.builder().messageId("ses-9").build());
+
+        queued.dispatch();
+        queued.dispatch();
+
+        // The scheduler thread only handed off one drain; nothing was claimed on it
+        assertEquals(1, lane.size());
+        verifyNoInteractions(emailOutboxRepository, sesClient);
+
+        while (!lane.isEmpty()) {
+            lane.poll().run();
+        }
+        verify(sesClient).sendEmail(any(SendEmailRequest.class));
+
+        // The finished drain released the guard for the next poll
+        queued.dispatch();
+        assertEquals(1, lane.size());
+    }
+
+    @Test
+    void testSaturatedEmailLaneDefersDrainToNextPoll() {
+        AtomicInteger handOffs = new AtomicInteger();
+        EmailOutboxDispatcher saturated = new EmailOutboxDispatcher(emailOutboxRepository, sesClient, task -> {
+            handOffs.incrementAndGet();
+            throw new RejectedExecutionException("Lane email is saturated");
+        }, transactionManager, meterRegistry, properties, SOURCE_EMAIL);
+
+        saturated.dispatch();
+        saturated.dispatch();
+
+        assertEquals(2, handOffs.get());
+        verifyNoInteractions(emailOutboxRepository, sesClient);
+    }
+
+    @Test
+    void testBackoffGrowsExponentiallyAndIsCapped() {
+        assertTrue(dispatcher.backoffFor(1).compareTo(Duration.ofSeconds(2)) >= 0);
+        assertTrue(dispatcher.backoffFor(1).compareTo(Duration.ofMillis(2400)) <= 0);
+        assertTrue(dispatcher.backoffFor(3).compareTo(Duration.ofSeconds(8)) >= 0);
+        assertTrue(dispatcher.backoffFor(30).compareTo(Duration.ofSeconds(360)) <= 0);
+    }
+
+    @Test
+    void testQueueMetricsReflectUndeliveredRows() {
+        when(emailOutboxRepository.countByStatusIn(any())).thenReturn(12L);
+        when(emailOutboxRepository.findOldestCreatedAt(any())).thenReturn(LocalDateTime.now().minusMinutes(5));
+
+        dispatcher.refreshQueueMetrics();
+
+        assertEquals(12.0, meterRegistry.get("email.outbox.depth").gauge().value());
+        assertTrue(meterRegistry.get("email.outbox.oldest.age").gauge().value() >= 299);
+    }
+
+    private EmailOutboxMessage pendingMessage(Long id, int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .emailType("CLIENT_UPDATED")
+                .clientId("CLT-" + id)
+                .recipient("john.doe@example.com")
+                .subject("Banking Buddy Profile Updated")
+                .body("Dear John Doe, ...")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
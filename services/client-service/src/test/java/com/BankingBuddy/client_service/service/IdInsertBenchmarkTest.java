@@ -0,0 +1,133 @@
+package com.BankingBuddy.client_service.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: insert throughput and clustered index size, random (v4) vs time-ordered (v7) IDs
+ *
+ * Loads the same client rows into two copies of the clients table (same generated columns
+ * and unique keys, via CREATE TABLE ... LIKE), one keyed with "CLT-" + UUIDv4 and one with
+ * "CLT-" + UUIDv7, in batched transactions. Time-ordered keys must insert faster and leave a
+ * smaller clustered index (and table overall); random keys leave clustered index pages half
+ * full after splits.
+ *
+ * The buffer pool is shrunk so the working set does not fit in memory, which is where
+ * random keys hurt the most. Not part of the regular build. Run with Docker available:
+ *   mvn test -Dtest=IdInsertBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=500000]
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withCommand("--innodb-buffer-pool-size=32M");
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void benchmarkRandomVersusTimeOrderedIds() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                MYSQL.getJdbcUrl() + "?rewriteBatchedStatements=true", MYSQL.getUsername(), MYSQL.getPassword())) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE clients_random LIKE clients");
+                statement.execute("CREATE TABLE clients_time_ordered LIKE clients");
+            }
+            connection.commit();
+
+            IdGenerator random = UUID::randomUUID;
+            IdGenerator timeOrdered = new TimeOrderedIdGenerator();
+
+            double randomRate = load(connection, "clients_random", random);
+            double timeOrderedRate = load(connection, "clients_time_ordered", timeOrdered);
+            long[] randomSize = tableSize(connection, "clients_random");
+            long[] timeOrderedSize = tableSize(connection, "clients_time_ordered");
+
+            assertTrue(timeOrderedRate > randomRate, String.format(
+                    "Time-ordered keys should insert faster: %.0f rows/s (v7) vs %.0f rows/s (v4)",
+                    timeOrderedRate, randomRate));
+            assertTrue(timeOrderedSize[0] < randomSize[0], String.format(
+                    "Time-ordered keys should produce a denser clustered index: %.1f MB (v7) vs %.1f MB (v4)",
+                    megabytes(timeOrderedSize[0]), megabytes(randomSize[0])));
+            assertTrue(timeOrderedSize[0] + timeOrderedSize[1] < randomSize[0] + randomSize[1], String.format(
+                    "Time-ordered keys should need less space overall: %.1f MB (v7) vs %.1f MB (v4)",
+                    megabytes(timeOrderedSize[0] + timeOrderedSize[1]), megabytes(randomSize[0] + randomSize[1])));
+        }
+    }
+
+    /**
+     * Insert ROWS clients in BATCH_SIZE transactions
+     * @return rows per second
+     */
+    private double load(Connection connection, String table, IdGenerator ids) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (client_id, agent_id, first_name, last_name, date_of_birth, gender, " +
+                "email, phone_number, address, city, state, country, postal_code) " +
+                "VALUES (?, 'agent-benchmark', 'Bench', 'Mark', '1990-01-01', 'Male', ?, ?, " +
+                "'1 Benchmark Road', 'Singapore', 'Singapore', 'Singapore', '123456')")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, ids.nextId(IdGenerator.CLIENT_PREFIX));
+                insert.setString(2, "bench" + i + "@example.com");
+                insert.setString(3, String.format("65%010d", i));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return ROWS / seconds;
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / 1048576.0;
+    }
+
+    /**
+     * InnoDB data (clustered index) and secondary index size after ANALYZE
+     */
+    private long[] tableSize(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE " + table);
+            try (ResultSet result = statement.executeQuery(
+                    "SELECT data_length, index_length FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+                assertTrue(result.next());
+                return new long[]{result.getLong(1), result.getLong(2)};
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.config.NotificationDigestProperties;
+import com.BankingBuddy.client_service.model.entity.Client;
+import com.BankingBuddy.client_service.model.entity.NotificationDigest;
+import com.BankingBuddy.client_service.repository.NotificationDigestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent merges into one client's digest on a real MySQL (Flyway schema, InnoDB locking)
+ *
+ * Every round starts several transactions at the same moment, each merging one event for the
+ * same client, both into a digest that is already open and into one that does not exist yet.
+ * No transaction may fail (a deadlock would roll back the caller's client update or account
+ * creation) and every event must end up in the single digest.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.schemas=test",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NotificationDigestService.class, NotificationDigestProperties.class,
+        NotificationDigestConcurrencyTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationDigestConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+    private static final int WRITERS = 4;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private NotificationDigestService notificationDigestService;
+
+    @Autowired
+    private NotificationDigestRepository notificationDigestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentEventsIntoOpenDigestDoNotDeadlock() throws Exception {
+        Client client = client();
+        merge(client, "opened");
+
+        for (int round = 0; round < ROUNDS; round++) {
+            mergeConcurrently(client, "round" + round);
+        }
+
+        assertDigestHolds(client, 1 + ROUNDS * WRITERS);
+    }
+
+    @Test
+    void concurrentFirstEventsOpenOneDigest() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Client client = client();
+
+            mergeConcurrently(client, "first");
+
+            assertDigestHolds(client, WRITERS);
+        }
+    }
+
+    /**
+     * Merge one event per writer for the same client, all transactions released together
+     */
+    private void mergeConcurrently(Client client, String prefix) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                String field = prefix + "-" + writer;
+                writers.add(pool.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    merge(client, field);
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS); // Rethrows a deadlock / lock wait failure
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void merge(Client client, String field) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                notificationDigestService.recordClientChanges(client,
+                        Map.of(field, Map.of("old", "before", "new", "after"))));
+    }
+
+    private void assertDigestHolds(Client client, int events) {
+        NotificationDigest digest = notificationDigestRepository.findById(client.getClientId()).orElseThrow();
+        assertEquals(events, digest.getEventCount());
+        assertEquals(events, notificationDigestService.read(digest).getChanges().size());
+    }
+
+    private static Client client() {
+        return Client.builder().clientId(UUID.randomUUID().toString()).build();
+    }
+}
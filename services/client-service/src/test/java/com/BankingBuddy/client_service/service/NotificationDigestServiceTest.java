@@ -0,0 +1,45 @@
+package com.BankingBuddy.client_service.service;
+
+import com.BankingBuddy.client_service.model.dto.NotificationDigestPayload;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Merge rules for coalesced field changes (no database required)
+ */
+class NotificationDigestServiceTest {
+
+    @Test
+    void mergeChanges_keepsFirstOldAndLatestNewValue() {
+        NotificationDigestPayload payload = new NotificationDigestPayload();
+
+        NotificationDigestService.mergeChanges(payload, Map.of("city", Map.of("old", "Singapore", "new", "Johor")));
+        NotificationDigestService.mergeChanges(payload, Map.of("city", Map.of("old", "Johor", "new", "Penang")));
+
+        assertEquals(Map.of("old", "Singapore", "new", "Penang"), payload.getChanges().get("city"));
+    }
+
+    @Test
+    void mergeChanges_dropsFieldsEditedBackToOriginal() {
+        NotificationDigestPayload payload = new NotificationDigestPayload();
+
+        NotificationDigestService.mergeChanges(payload, Map.of("lastName", Map.of("old", "Doe", "new", "Do")));
+        NotificationDigestService.mergeChanges(payload, Map.of("address", Map.of("old", "1 Road", "new", "2 Road")));
+        NotificationDigestService.mergeChanges(payload, Map.of("lastName", Map.of("old", "Do", "new", "Doe")));
+
+        assertEquals(List.of("address"), List.copyOf(payload.getChanges().keySet()));
+    }
+
+    @Test
+    void isEmpty_onlyWhenNothingIsLeftToReport() {
+        NotificationDigestPayload payload = new NotificationDigestPayload();
+        assertTrue(payload.isEmpty());
+
+        payload.getClosedAccounts().add(new NotificationDigestPayload.AccountNotice());
+        assertFalse(payload.isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.BankingBuddy.client_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UUIDv7 layout and per-node monotonicity (string order must follow generation order)
+ */
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void testIdsAreVersion7WithTimestampPrefix() {
+        long now = 1_735_689_600_000L;
+        UUID id = new TimeOrderedIdGenerator(() -> now).nextUuid();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now, id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testPrefixedIdsSortInGenerationOrder() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        String previous = generator.nextId(IdGenerator.CLIENT_PREFIX);
+        for (int i = 0; i < 100_000; i++) {
+            String next = generator.nextId(IdGenerator.CLIENT_PREFIX);
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            assertEquals(40, next.length());
+            previous = next;
+        }
+    }
+
+    @Test
+    void testCounterOverflowBorrowsNextMillisecond() {
+        long frozen = 1_735_689_600_000L;
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> frozen);
+
+        UUID previous = generator.nextUuid();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.nextUuid();
+            assertTrue(next.toString().compareTo(previous.toString()) > 0);
+            previous = next;
+        }
+        assertTrue((previous.getMostSignificantBits() >>> 16) > frozen);
+    }
+
+    @Test
+    void testClockStepBackDoesNotBreakOrdering() {
+        AtomicLong clock = new AtomicLong(1_735_689_600_000L);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+        String before = generator.nextUuid().toString();
+        clock.addAndGet(-5_000);
+        String after = generator.nextUuid().toString();
+
+        assertTrue(after.compareTo(before) > 0);
+    }
+
+    @Test
+    void testConcurrentGenerationHasNoDuplicates() throws InterruptedException {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.nextUuid());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<UUID> unique = new HashSet<>(ids);
+        assertEquals(160_000, unique.size());
+    }
+}
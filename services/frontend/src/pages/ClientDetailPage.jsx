@@ -35,20 +35,30 @@ export default function ClientDetailPage() {
                 const cognitoUser = await getUserFromToken();
                 setCurrentUser(cognitoUser);
 
-                // Fetch client details by ID
-                const response = await clientApi.getClientById(clientId);
-                if (response.data && response.data.success && response.data.data) {
-                    setClient(response.data.data);
+                // Fetch client details and accounts in one call (authorized once, loaded concurrently).
+                // This page shows no transactions, so it does not include them and never waits on
+                // transaction-service.
+                const response = await clientApi.getClientOverview(clientId);
+                const overview = response.data?.data;
+                if (response.data && response.data.success && overview?.client) {
+                    setClient(overview.client);
                 } else {
                     throw new Error(response.data?.message || 'Client not found');
                 }
 
-                // Fetch accounts for this client using clientId API
-                const accountsRes = await clientApi.getAccountsByClientId(clientId);
-                if (accountsRes.data && accountsRes.data.success && Array.isArray(accountsRes.data.data)) {
-                    setAccounts(accountsRes.data.data);
-                } else {
+                if (overview.accounts?.status === 'OK' && Array.isArray(overview.accounts.data)) {
+                    setAccounts(overview.accounts.data);
+                } else if (overview.accounts?.status === 'FORBIDDEN') {
+                    // Only the owning agent can see a client's accounts
                     setAccounts([]);
+                } else {
+                    // Accounts section timed out or failed - fall back to the dedicated endpoint
+                    const accountsRes = await clientApi.getAccountsByClientId(clientId);
+                    if (accountsRes.data && accountsRes.data.success && Array.isArray(accountsRes.data.data)) {
+                        setAccounts(accountsRes.data.data);
+                    } else {
+                        setAccounts([]);
+                    }
                 }
             } catch (err) {
                 setError(err.response?.data?.message || err.message || 'Error fetching client details');
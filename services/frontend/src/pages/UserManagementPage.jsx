@@ -6,6 +6,8 @@ import Header from '../components/Header';
 import Navigation from '../components/Navigation';
 import { formatRole } from '../utils/roleLabels';
 
+const PENDING_LABELS = { CREATE: 'Creating', UPDATE: 'Updating', DISABLE: 'Disabling', ENABLE: 'Enabling' };
+
 export default function UserManagementPage() {
     const [currentUser, setCurrentUser] = useState(null);
     const [users, setUsers] = useState([]);
@@ -13,6 +15,8 @@ export default function UserManagementPage() {
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
     const [showCreateForm, setShowCreateForm] = useState(false);
+    const [notice, setNotice] = useState(null);
+    const [pendingOperations, setPendingOperations] = useState({}); // userId -> unfinished identity operation
     // Pagination state
     const [page, setPage] = useState(0);
     const LIMIT = 10;
@@ -96,79 +100,88 @@ export default function UserManagementPage() {
         }
     }, [location, navigate]);
 
-    const handleCreateUser = async (userData) => {
+    // Refresh users list with current pagination
+    const refreshUsers = async () => {
+        const response = await userApi.getAllUsers(page, LIMIT);
+        const pageData = response.data.data;
+        if (Array.isArray(pageData)) {
+            setAllUsers(pageData);
+            const startIndex = page * LIMIT;
+            const endIndex = startIndex + LIMIT;
+            setUsers(pageData.slice(startIndex, endIndex));
+            setTotalPages(Math.ceil(pageData.length / LIMIT));
+            setTotalElements(pageData.length);
+        } else {
+            setAllUsers([]);
+            setUsers(pageData?.content || []);
+            setTotalPages(pageData?.totalPages || 0);
+            setTotalElements(pageData?.totalElements || 0);
+        }
+    };
+
+    // Create / disable / enable are applied to Cognito asynchronously (202 + operation):
+    // show the user as pending until the operation finishes, then reload the list
+    const trackOperation = async (accepted, failureMessage) => {
+        setPendingOperations((prev) => ({ ...prev, [accepted.userId]: accepted }));
         try {
-            await userApi.createUser(userData);
-            // Refresh users list with current pagination
-            const response = await userApi.getAllUsers(page, LIMIT);
-            const pageData = response.data.data;
-            if (Array.isArray(pageData)) {
-                setAllUsers(pageData);
-                const startIndex = page * LIMIT;
-                const endIndex = startIndex + LIMIT;
-                setUsers(pageData.slice(startIndex, endIndex));
-                setTotalPages(Math.ceil(pageData.length / LIMIT));
-                setTotalElements(pageData.length);
-            } else {
-                setAllUsers([]);
-                setUsers(pageData?.content || []);
-                setTotalPages(pageData?.totalPages || 0);
-                setTotalElements(pageData?.totalElements || 0);
+            const operation = await userApi.waitForOperation(accepted, {
+                onUpdate: (update) => setPendingOperations((prev) => ({ ...prev, [accepted.userId]: update })),
+            });
+            if (operation.status === 'FAILED') {
+                setError(`${failureMessage}: ${operation.lastError || 'the change was rolled back'}`);
+            } else if (operation.status !== 'SUCCEEDED') {
+                setNotice('A user change is still being applied. Refresh the page later to see the result.');
             }
+            await refreshUsers();
+        } catch (err) {
+            setError(err.response?.data?.message || failureMessage);
+        } finally {
+            setPendingOperations((prev) => {
+                const next = { ...prev };
+                delete next[accepted.userId];
+                return next;
+            });
+        }
+    };
+
+    const handleCreateUser = async (userData) => {
+        let accepted;
+        try {
+            const response = await userApi.createUser(userData);
+            accepted = response.data.data;
             setShowCreateForm(false);
+            await refreshUsers();
         } catch (err) {
             setError(err.response?.data?.message || 'Failed to create user');
+            return;
         }
+        await trackOperation(accepted, 'Failed to create user');
     };
 
     const handleDisableUser = async (userId) => {
         if (window.confirm('Are you sure you want to disable this user?')) {
+            let accepted;
             try {
-                await userApi.disableUser(userId);
-                // Refresh users list with current pagination
-                const response = await userApi.getAllUsers(page, LIMIT);
-                const pageData = response.data.data;
-                if (Array.isArray(pageData)) {
-                    setAllUsers(pageData);
-                    const startIndex = page * LIMIT;
-                    const endIndex = startIndex + LIMIT;
-                    setUsers(pageData.slice(startIndex, endIndex));
-                    setTotalPages(Math.ceil(pageData.length / LIMIT));
-                    setTotalElements(pageData.length);
-                } else {
-                    setAllUsers([]);
-                    setUsers(pageData?.content || []);
-                    setTotalPages(pageData?.totalPages || 0);
-                    setTotalElements(pageData?.totalElements || 0);
-                }
+                const response = await userApi.disableUser(userId);
+                accepted = response.data.data;
             } catch (err) {
                 setError(err.response?.data?.message || 'Failed to disable user');
+                return;
             }
+            await trackOperation(accepted, 'Failed to disable user');
         }
     };
 
     const handleEnableUser = async (userId) => {
+        let accepted;
         try {
-            await userApi.enableUser(userId);
-            // Refresh users list with current pagination
-            const response = await userApi.getAllUsers(page, LIMIT);
-            const pageData = response.data.data;
-            if (Array.isArray(pageData)) {
-                setAllUsers(pageData);
-                const startIndex = page * LIMIT;
-                const endIndex = startIndex + LIMIT;
-                setUsers(pageData.slice(startIndex, endIndex));
-                setTotalPages(Math.ceil(pageData.length / LIMIT));
-                setTotalElements(pageData.length);
-            } else {
-                setAllUsers([]);
-                setUsers(pageData?.content || []);
-                setTotalPages(pageData?.totalPages || 0);
-                setTotalElements(pageData?.totalElements || 0);
-            }
+            const response = await userApi.enableUser(userId);
+            accepted = response.data.data;
         } catch (err) {
             setError(err.response?.data?.message || 'Failed to enable user');
+            return;
         }
+        await trackOperation(accepted, 'Failed to enable user');
     };
 
     // Reset Password and MFA setup actions removed from UI per new requirements
@@ -282,6 +295,24 @@ export default function UserManagementPage() {
                     </div>
                 )}
 
+                {Object.keys(pendingOperations).length > 0 && (
+                    <div className="mb-6 bg-blue-900 border border-blue-700 text-blue-100 px-4 py-3 rounded-md">
+                        Applying {Object.keys(pendingOperations).length} user change(s)...
+                    </div>
+                )}
+
+                {notice && (
+                    <div className="mb-6 bg-yellow-900 border border-yellow-700 text-yellow-100 px-4 py-3 rounded-md">
+                        {notice}
+                        <button
+                            onClick={() => setNotice(null)}
+                            className="float-right text-yellow-300 hover:text-yellow-100"
+                        >
+                            ×
+                        </button>
+                    </div>
+                )}
+
                 {showCreateForm && (currentUser?.role === 'rootAdministrator' || currentUser?.role === 'admin') && (
                     <CreateUserForm
                         onSubmit={handleCreateUser}
@@ -328,13 +359,21 @@ export default function UserManagementPage() {
                                                         </span>
                                                     </td>
                                                     <td className="p-4">
-                                                        <span className={`px-2 py-1 text-xs rounded-full ${
-                                                            user.status === 'ACTIVE'
-                                                                ? 'bg-green-900 text-green-300'
-                                                                : 'bg-red-900 text-red-300'
-                                                        }`}>
-                                                            {user.status === 'ACTIVE' ? 'Active' : 'Disabled'}
-                                                        </span>
+                                                        {pendingOperations[user.id] ? (
+                                                            <span className="px-2 py-1 text-xs rounded-full bg-blue-900 text-blue-300">
+                                                                {PENDING_LABELS[pendingOperations[user.id].type] || 'Updating'}...
+                                                            </span>
+                                                        ) : (
+                                                            <span className={`px-2 py-1 text-xs rounded-full ${
+                                                                user.status === 'ACTIVE'
+                                                                    ? 'bg-green-900 text-green-300'
+                                                                    : user.status === 'PENDING'
+                                                                    ? 'bg-yellow-900 text-yellow-300'
+                                                                    : 'bg-red-900 text-red-300'
+                                                            }`}>
+                                                                {user.status === 'ACTIVE' ? 'Active' : user.status === 'PENDING' ? 'Pending' : 'Disabled'}
+                                                            </span>
+                                                        )}
                                                     </td>
                                                     <td className="p-4 text-slate-300">
                                                         {user.createdAt ? new Date(user.createdAt).toLocaleDateString() : 'N/A'}
@@ -346,7 +385,8 @@ export default function UserManagementPage() {
                                                                 (currentUser?.role === 'admin' && user.role === 'agent') ||
                                                                 (currentUser?.role === 'agent' && user.id === currentUser?.sub);
 
-                                                            if (!canToggle) return null;
+                                                            // No second change while one is still being applied
+                                                            if (!canToggle || pendingOperations[user.id] || user.status === 'PENDING') return null;
 
                                                             const preventSelfForNonAgents =
                                                                 currentUser?.role !== 'agent' && user.id === currentUser?.sub;
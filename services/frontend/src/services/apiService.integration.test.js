@@ -47,10 +47,12 @@ describe('API Service Integration Tests', () => {
 
       const response = await userApi.createUser(newUser);
 
-      expect(response.data).toHaveProperty('data');
-      expect(response.data.data).toMatchObject(newUser);
+      expect(response.status).toBe(202);
+      expect(response.data.data).toMatchObject({ type: 'CREATE', status: 'PENDING' });
       expect(response.data.data).toHaveProperty('userId');
-      expect(response.data.data.status).toBe('ACTIVE');
+
+      const operation = await userApi.waitForOperation(response.data.data, { intervalMs: 0 });
+      expect(operation.status).toBe('SUCCEEDED');
     });
 
     it('updates user successfully', async () => {
@@ -65,15 +67,30 @@ describe('API Service Integration Tests', () => {
     it('disables user successfully', async () => {
       const response = await userApi.disableUser('user-1');
 
-      expect(response.data).toHaveProperty('data');
-      expect(response.data.data.status).toBe('DISABLED');
+      expect(response.status).toBe(202);
+      expect(response.data.data).toMatchObject({ type: 'DISABLE', userId: 'user-1', status: 'PENDING' });
+
+      const operation = await userApi.waitForOperation(response.data.data, { intervalMs: 0 });
+      expect(operation.status).toBe('SUCCEEDED');
     });
 
     it('enables user successfully', async () => {
       const response = await userApi.enableUser('user-1');
 
-      expect(response.data).toHaveProperty('data');
-      expect(response.data.data.status).toBe('ACTIVE');
+      expect(response.status).toBe(202);
+      expect(response.data.data).toMatchObject({ type: 'ENABLE', userId: 'user-1', status: 'PENDING' });
+
+      const operation = await userApi.waitForOperation(response.data.data, { intervalMs: 0 });
+      expect(operation.status).toBe('SUCCEEDED');
+    });
+
+    it('reports an unknown operation as not found', async () => {
+      try {
+        await userApi.getOperation('op-missing');
+        expect.fail('Should have thrown an error');
+      } catch (error) {
+        expect(error.response.status).toBe(404);
+      }
     });
   });
 
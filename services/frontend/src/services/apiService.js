@@ -30,6 +30,28 @@ export const userApi = {
     // TOTP setup endpoints
     associateTOTP: (accessToken) => apiClient.post('/users/totp/associate', { accessToken }),
     verifyTOTP: (accessToken, totpCode) => apiClient.post('/users/totp/verify', { accessToken, totpCode }),
+    // Identity operations: create / disable / enable return 202 with an operation to poll
+    getOperation: (operationId) => apiClient.get(`/users/operations/${operationId}`),
+    waitForOperation: (operation, options) => waitForUserOperation(operation, options),
+};
+
+const TERMINAL_OPERATION_STATUSES = ['SUCCEEDED', 'FAILED'];
+
+// Poll an accepted identity operation until it SUCCEEDED or FAILED. Resolves with the last state
+// seen, which is still PENDING / IN_PROGRESS when timeoutMs elapses first.
+const waitForUserOperation = async (operation, { intervalMs = 1000, timeoutMs = 60000, onUpdate } = {}) => {
+    const deadline = Date.now() + timeoutMs;
+    let current = operation;
+    while (!TERMINAL_OPERATION_STATUSES.includes(current.status)) {
+        if (Date.now() + intervalMs > deadline) {
+            return current;
+        }
+        await new Promise((resolve) => setTimeout(resolve, intervalMs));
+        const response = await userApi.getOperation(operation.operationId);
+        current = response.data.data;
+        onUpdate?.(current);
+    }
+    return current;
 };
 
 // Client Service API endpoints (port 8081)
@@ -59,6 +81,11 @@ export const clientApi = {
         return clientApiClient.get('/clients', { params });
     },
     getClientById: (clientId) => clientApiClient.get(`/clients/${clientId}`),
+    // GET /api/clients/{clientId}/overview - client, accounts and first transaction page in one call
+    // Optional sections (e.g. ['transactions']) are only fetched when asked for
+    getClientOverview: (clientId, include = []) => include.length
+        ? clientApiClient.get(`/clients/${clientId}/overview`, { params: { include: include.join(',') } })
+        : clientApiClient.get(`/clients/${clientId}/overview`),
     createClient: (clientData) => clientApiClient.post('/clients', clientData),
     updateClient: (clientId, clientData) => clientApiClient.put(`/clients/${clientId}`, clientData),
     deleteClient: (clientId) => clientApiClient.delete(`/clients/${clientId}`),
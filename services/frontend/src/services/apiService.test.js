@@ -96,6 +96,67 @@ describe('apiService', () => {
 
       expect(mockAxiosInstance.patch).toHaveBeenCalledWith(`/users/${userId}/enable`);
     });
+
+    it('getOperation makes GET request to the operations endpoint', async () => {
+      mockAxiosInstance.get.mockResolvedValue({ data: {} });
+
+      await userApi.getOperation('op-123');
+
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith('/users/operations/op-123');
+    });
+
+    it('waitForOperation polls until the operation is terminal', async () => {
+      const accepted = { operationId: 'op-123', userId: 'user-123', type: 'DISABLE', status: 'PENDING' };
+      mockAxiosInstance.get
+        .mockResolvedValueOnce({ data: { data: { ...accepted, status: 'IN_PROGRESS' } } })
+        .mockResolvedValueOnce({ data: { data: { ...accepted, status: 'SUCCEEDED' } } });
+      const onUpdate = vi.fn();
+
+      const operation = await userApi.waitForOperation(accepted, { intervalMs: 0, onUpdate });
+
+      expect(operation.status).toBe('SUCCEEDED');
+      expect(mockAxiosInstance.get).toHaveBeenCalledTimes(2);
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith('/users/operations/op-123');
+      expect(onUpdate.mock.calls.map(([update]) => update.status)).toEqual(['IN_PROGRESS', 'SUCCEEDED']);
+    });
+
+    it('waitForOperation resolves with a failed operation', async () => {
+      const accepted = { operationId: 'op-123', userId: 'pending-1', type: 'CREATE', status: 'PENDING' };
+      mockAxiosInstance.get.mockResolvedValue({
+        data: { data: { ...accepted, status: 'FAILED', lastError: 'User already exists' } },
+      });
+
+      const operation = await userApi.waitForOperation(accepted, { intervalMs: 0 });
+
+      expect(operation.status).toBe('FAILED');
+      expect(operation.lastError).toBe('User already exists');
+    });
+
+    it('waitForOperation does not poll an operation that already finished', async () => {
+      const accepted = { operationId: 'op-123', userId: 'user-123', type: 'ENABLE', status: 'SUCCEEDED' };
+
+      const operation = await userApi.waitForOperation(accepted, { intervalMs: 0 });
+
+      expect(operation).toBe(accepted);
+      expect(mockAxiosInstance.get).not.toHaveBeenCalled();
+    });
+
+    it('waitForOperation returns the pending state once the timeout elapses', async () => {
+      const accepted = { operationId: 'op-123', userId: 'user-123', type: 'DISABLE', status: 'PENDING' };
+      mockAxiosInstance.get.mockResolvedValue({ data: { data: { ...accepted, status: 'IN_PROGRESS' } } });
+      vi.useFakeTimers();
+
+      try {
+        const waiting = userApi.waitForOperation(accepted, { intervalMs: 1000, timeoutMs: 2500 });
+        await vi.advanceTimersByTimeAsync(3000);
+        const operation = await waiting;
+
+        expect(operation.status).toBe('IN_PROGRESS');
+        expect(mockAxiosInstance.get).toHaveBeenCalledTimes(2);
+      } finally {
+        vi.useRealTimers();
+      }
+    });
   });
 
   describe('clientApi', () => {
@@ -116,6 +177,26 @@ describe('apiService', () => {
       expect(mockAxiosInstance.get).toHaveBeenCalledWith(`/clients/${clientId}`);
     });
 
+    it('getClientOverview makes GET request to the overview endpoint', async () => {
+      const clientId = 'client-123';
+      mockAxiosInstance.get.mockResolvedValue({ data: {} });
+
+      await clientApi.getClientOverview(clientId);
+
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith(`/clients/${clientId}/overview`);
+    });
+
+    it('getClientOverview requests optional sections through include', async () => {
+      const clientId = 'client-123';
+      mockAxiosInstance.get.mockResolvedValue({ data: {} });
+
+      await clientApi.getClientOverview(clientId, ['transactions']);
+
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith(`/clients/${clientId}/overview`, {
+        params: { include: 'transactions' },
+      });
+    });
+
     it('createClient makes POST request with clientData', async () => {
       const clientData = { name: 'Test Client' };
       mockAxiosInstance.post.mockResolvedValue({ data: {} });
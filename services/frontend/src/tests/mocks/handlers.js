@@ -26,6 +26,25 @@ export const mockUsers = [
   }
 ];
 
+// Identity operations returned by create / disable / enable (202), finished on the first poll
+export const mockOperations = {};
+
+const acceptOperation = (type, userId) => {
+  const operation = {
+    operationId: `op-${Object.keys(mockOperations).length + 1}`,
+    type,
+    status: 'PENDING',
+    userId,
+    attempts: 0,
+    createdAt: new Date().toISOString()
+  };
+  mockOperations[operation.operationId] = { ...operation, status: 'SUCCEEDED' };
+  return HttpResponse.json(
+    { data: operation, message: `User ${type.toLowerCase()} accepted` },
+    { status: 202, headers: { Location: `/api/v1/users/operations/${operation.operationId}` } }
+  );
+};
+
 export const mockClients = [
   {
     clientId: 'client-1',
@@ -157,6 +176,14 @@ export const handlers = [
     return HttpResponse.json({ data: mockUsers, message: 'Users retrieved successfully' });
   }),
 
+  http.get('http://localhost:8080/api/users/operations/:operationId', ({ params }) => {
+    const operation = mockOperations[params.operationId];
+    if (!operation) {
+      return HttpResponse.json({ message: 'Operation not found' }, { status: 404 });
+    }
+    return HttpResponse.json({ data: operation, message: 'Operation retrieved successfully' });
+  }),
+
   http.get('http://localhost:8080/api/users/:userId', ({ params }) => {
     const user = mockUsers.find(u => u.userId === params.userId);
     if (!user) {
@@ -168,13 +195,13 @@ export const handlers = [
   http.post('http://localhost:8080/api/users', async ({ request }) => {
     const newUser = await request.json();
     const user = {
-      userId: `user-${Date.now()}`,
+      userId: `pending-${Date.now()}`,
       ...newUser,
-      status: 'ACTIVE',
+      status: 'PENDING',
       createdAt: new Date().toISOString()
     };
     mockUsers.push(user);
-    return HttpResponse.json({ data: user, message: 'User created successfully' }, { status: 201 });
+    return acceptOperation('CREATE', user.userId);
   }),
 
   http.patch('http://localhost:8080/api/users/:userId', async ({ params, request }) => {
@@ -193,7 +220,7 @@ export const handlers = [
       return HttpResponse.json({ message: 'User not found' }, { status: 404 });
     }
     mockUsers[userIndex] = { ...mockUsers[userIndex], status: 'DISABLED' };
-    return HttpResponse.json({ data: mockUsers[userIndex], message: 'User disabled successfully' });
+    return acceptOperation('DISABLE', params.userId);
   }),
 
   http.patch('http://localhost:8080/api/users/:userId/enable', async ({ params }) => {
@@ -202,7 +229,7 @@ export const handlers = [
       return HttpResponse.json({ message: 'User not found' }, { status: 404 });
     }
     mockUsers[userIndex] = { ...mockUsers[userIndex], status: 'ACTIVE' };
-    return HttpResponse.json({ data: mockUsers[userIndex], message: 'User enabled successfully' });
+    return acceptOperation('ENABLE', params.userId);
   }),
 
   http.delete('http://localhost:8080/api/users/:userId', ({ params }) => {
@@ -0,0 +1,102 @@
+package com.bankingbuddy.resilience;
+
+/**
+ * Limit on in-flight calls that adapts to the downstream service.
+ *
+ * Vegas-style growth: the queue building up downstream is estimated from how far call latency
+ * sits above the lowest latency seen; the limit grows while that queue is small and shrinks as
+ * it builds. A throttling response cuts the limit multiplicatively (AIMD). Callers that find the
+ * limit reached are rejected immediately instead of piling onto a struggling service.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final int probeInterval;
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples;
+
+    /**
+     * @param backoffRatio  factor applied to the limit on throttling (0 < ratio < 1)
+     * @param probeInterval samples after which the minimum latency is re-measured, so a
+     *                      permanently slower service does not keep the limit pinned down
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, int probeInterval) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.probeInterval = Math.max(1, probeInterval);
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserve a slot; false when the current limit is reached
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release a slot after a successful call and adjust the limit from its latency
+     */
+    public synchronized void onSuccess(long rttNanos) {
+        int inFlightBefore = inFlight;
+        inFlight = Math.max(0, inFlight - 1);
+        long rtt = Math.max(1, rttNanos);
+
+        if (++samples >= probeInterval) {
+            samples = 0;
+            minRttNanos = rtt;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rtt);
+        }
+
+        double queue = limit * (1 - (double) minRttNanos / rtt);
+        double step = Math.max(1, Math.log10(limit));
+        if (queue <= 3 * step) {
+            // Only grow a limit that is actually being used
+            if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + step);
+            }
+        } else if (queue >= 6 * step) {
+            limit = Math.max(minLimit, limit - step);
+        }
+    }
+
+    /**
+     * Release a slot after the service throttled the call
+     */
+    public synchronized void onThrottled() {
+        inFlight = Math.max(0, inFlight - 1);
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    /**
+     * Release a slot after a failure that says nothing about load (validation, not found, ...)
+     */
+    public synchronized void onIgnored() {
+        inFlight = Math.max(0, inFlight - 1);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,327 @@
+package com.bankingbuddy.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Client-side load control for one AWS SDK client (Cognito, SES, SQS, Secrets Manager, ...).
+ *
+ * Every call takes a slot from an adaptive concurrency limit and, for operations with a
+ * configured quota, a permit from that operation's token bucket. When either is exhausted the
+ * call fails fast with {@link CallRejectedException} instead of adding to a throttling storm;
+ * throttling responses shrink the concurrency limit, healthy latencies grow it again.
+ *
+ * Attach it to a client with {@link #interceptor()}:
+ * <pre>
+ * SqsClient.builder()
+ *     .overrideConfiguration(c -> c.addExecutionInterceptor(limiter.interceptor()))
+ *     .build();
+ * </pre>
+ * or wrap individual calls with {@link #call(String, Supplier)}.
+ */
+public class AwsCallLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AwsCallLimiter.class);
+
+    // One attribute shared by all limiters; each interceptor only sees its own client's calls
+    private static final ExecutionAttribute<Permit> PERMIT = new ExecutionAttribute<>("BankingBuddyAwsCallPermit");
+
+    private final String client;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Map<String, TokenBucket> operationRates;
+    private final Duration maxRateWait;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedByConcurrency;
+    private final Counter rejectedByRate;
+    private final Counter throttled;
+
+    private AwsCallLimiter(Builder builder) {
+        this.client = builder.client;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(builder.initialLimit, builder.minLimit,
+                builder.maxLimit, builder.backoffRatio, builder.probeInterval);
+        this.operationRates = Map.copyOf(builder.operationRates);
+        this.maxRateWait = builder.maxRateWait;
+        this.meterRegistry = builder.meterRegistry;
+
+        if (meterRegistry != null) {
+            Gauge.builder("aws.client.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Adaptive in-flight call limit")
+                    .tag("client", client)
+                    .register(meterRegistry);
+            Gauge.builder("aws.client.concurrency.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Calls currently in flight")
+                    .tag("client", client)
+                    .register(meterRegistry);
+            this.rejectedByConcurrency = rejectedCounter("concurrency");
+            this.rejectedByRate = rejectedCounter("rate");
+            this.throttled = Counter.builder("aws.client.throttled")
+                    .description("Calls the service answered with a throttling error")
+                    .tag("client", client)
+                    .register(meterRegistry);
+        } else {
+            this.rejectedByConcurrency = null;
+            this.rejectedByRate = null;
+            this.throttled = null;
+        }
+    }
+
+    public static Builder builder(String client) {
+        return new Builder(client);
+    }
+
+    /**
+     * Run one call under the limits.
+     *
+     * @throws CallRejectedException when a limit is reached; the call is not made
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        Permit permit = acquire(operation);
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            permit.failed(e);
+            throw e;
+        }
+        permit.succeeded();
+        return result;
+    }
+
+    /**
+     * SDK interceptor applying the limits to every call of the client it is registered on
+     */
+    public ExecutionInterceptor interceptor() {
+        return new ExecutionInterceptor() {
+            @Override
+            public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+                executionAttributes.putAttribute(PERMIT,
+                        acquire(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)));
+            }
+
+            @Override
+            public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+                Permit permit = executionAttributes.getAttribute(PERMIT);
+                if (permit != null) {
+                    permit.succeeded();
+                }
+            }
+
+            @Override
+            public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+                // Absent when beforeExecution itself rejected the call
+                Permit permit = executionAttributes.getAttribute(PERMIT);
+                if (permit != null) {
+                    permit.failed(context.exception());
+                }
+            }
+        };
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit.getLimit();
+    }
+
+    public int getInFlight() {
+        return concurrencyLimit.getInFlight();
+    }
+
+    Permit acquire(String operation) {
+        String name = operation != null ? operation : "unknown";
+
+        // Rate first: waiting for a token must not hold a concurrency slot
+        TokenBucket bucket = operationRates.get(name);
+        if (bucket != null && !bucket.tryAcquire(maxRateWait)) {
+            increment(rejectedByRate);
+            throw new CallRejectedException(client, name, CallRejectedException.Reason.RATE_LIMIT);
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            increment(rejectedByConcurrency);
+            throw new CallRejectedException(client, name, CallRejectedException.Reason.CONCURRENCY_LIMIT);
+        }
+        return new Permit(name, System.nanoTime());
+    }
+
+    /**
+     * Throttling as reported by the SDK (429, Throttling / TooManyRequests / RequestLimitExceeded ...)
+     */
+    static boolean isThrottling(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SdkServiceException serviceException && serviceException.isThrottlingException()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("aws.client.rejected")
+                .description("Calls failed fast by a client-side limit")
+                .tag("client", client)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * A granted call; released exactly once with its outcome
+     */
+    final class Permit {
+
+        private final String operation;
+        private final long startNanos;
+        private boolean released;
+
+        private Permit(String operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        synchronized void succeeded() {
+            if (released) {
+                return;
+            }
+            released = true;
+            long rtt = System.nanoTime() - startNanos;
+            concurrencyLimit.onSuccess(rtt);
+            record("success", rtt);
+        }
+
+        synchronized void failed(Throwable error) {
+            if (released) {
+                return;
+            }
+            released = true;
+            long rtt = System.nanoTime() - startNanos;
+            if (isThrottling(error)) {
+                concurrencyLimit.onThrottled();
+                increment(throttled);
+                logger.warn("{} {} throttled, concurrency limit now {}", client, operation, concurrencyLimit.getLimit());
+                record("throttled", rtt);
+            } else {
+                concurrencyLimit.onIgnored();
+                record("error", rtt);
+            }
+        }
+
+        private void record(String outcome, long rttNanos) {
+            if (meterRegistry != null) {
+                Timer.builder("aws.client.calls")
+                        .tag("client", client)
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(rttNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final String client;
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.7;
+        private int probeInterval = 1000;
+        private final Map<String, TokenBucket> operationRates = new HashMap<>();
+        private Duration maxRateWait = Duration.ofMillis(100);
+        private MeterRegistry meterRegistry;
+
+        private Builder(String client) {
+            if (client == null || client.trim().isEmpty()) {
+                throw new IllegalArgumentException("Client name cannot be null or empty");
+            }
+            this.client = client;
+        }
+
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Factor applied to the concurrency limit when the service throttles (default 0.7)
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        public Builder probeInterval(int probeInterval) {
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        /**
+         * Quota for one SDK operation (e.g. "SendMessage", "AdminCreateUser"), burst of one second
+         */
+        public Builder operationRate(String operation, double permitsPerSecond) {
+            this.operationRates.put(operation, new TokenBucket(permitsPerSecond, Math.max(1, permitsPerSecond)));
+            return this;
+        }
+
+        /**
+         * One quota shared by several operations (e.g. Cognito's UserUpdate category covering
+         * AdminUpdateUserAttributes, AdminEnableUser and AdminDisableUser), burst of one second
+         */
+        public Builder sharedRate(double permitsPerSecond, String... operations) {
+            TokenBucket bucket = new TokenBucket(permitsPerSecond, Math.max(1, permitsPerSecond));
+            for (String operation : operations) {
+                this.operationRates.put(operation, bucket);
+            }
+            return this;
+        }
+
+        /**
+         * Longest a call may wait for an operation permit before failing fast (default 100 ms)
+         */
+        public Builder maxRateWait(Duration maxRateWait) {
+            this.maxRateWait = maxRateWait;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public AwsCallLimiter build() {
+            return new AwsCallLimiter(this);
+        }
+    }
+}
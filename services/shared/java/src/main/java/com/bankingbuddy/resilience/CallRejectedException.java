@@ -0,0 +1,36 @@
+package com.bankingbuddy.resilience;
+
+/**
+ * Thrown instead of calling the service when a client-side limit is reached (fast fail).
+ * Callers treat it like any other transient failure of the call.
+ */
+public class CallRejectedException extends RuntimeException {
+
+    public enum Reason {
+        CONCURRENCY_LIMIT,
+        RATE_LIMIT
+    }
+
+    private final String client;
+    private final String operation;
+    private final Reason reason;
+
+    public CallRejectedException(String client, String operation, Reason reason) {
+        super(client + " " + operation + " rejected: " + reason);
+        this.client = client;
+        this.operation = operation;
+        this.reason = reason;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankingbuddy.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit for one API operation, sized to the provider's per-operation quota.
+ * Bursts up to the bucket size; beyond that callers wait for a permit up to a bound
+ * and are rejected when the wait would be longer.
+ */
+public class TokenBucket {
+
+    private final double ratePerSecond;
+    private final double capacity;
+
+    private double tokens;          // Negative while permits are reserved ahead
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take a permit, waiting at most maxWait for it.
+     *
+     * @return false (without waiting) when no permit can be had within maxWait
+     */
+    public boolean tryAcquire(Duration maxWait) {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            waitNanos = (long) ((1 - tokens) / ratePerSecond * TimeUnit.SECONDS.toNanos(1));
+            if (waitNanos > maxWait.toNanos()) {
+                return false;
+            }
+            tokens -= 1;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            // The permit is already reserved; let the call proceed and keep the interrupt
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+}
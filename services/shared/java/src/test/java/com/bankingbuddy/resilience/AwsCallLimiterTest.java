@@ -0,0 +1,172 @@
+package com.bankingbuddy.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limits exercised with stub calls and by driving the SDK interceptor hooks directly
+ */
+class AwsCallLimiterTest {
+
+    private static AwsServiceException throttling() {
+        return AwsServiceException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .message("Rate exceeded")
+                .build();
+    }
+
+    @Test
+    void testCallFailsFastWhenConcurrencyLimitIsReached() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AwsCallLimiter limiter = AwsCallLimiter.builder("sqs")
+                .initialLimit(1).minLimit(1).maxLimit(1)
+                .meterRegistry(meterRegistry)
+                .build();
+
+        AwsCallLimiter.Permit held = limiter.acquire("SendMessage");
+        CallRejectedException rejected = assertThrows(CallRejectedException.class,
+                () -> limiter.call("SendMessage", () -> "sent"));
+
+        assertEquals(CallRejectedException.Reason.CONCURRENCY_LIMIT, rejected.getReason());
+        assertEquals(1.0, meterRegistry.get("aws.client.rejected").tag("reason", "concurrency").counter().count());
+
+        held.succeeded();
+        assertEquals("sent", limiter.call("SendMessage", () -> "sent"));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testThrottlingShrinksTheLimitAndOtherErrorsDoNot() {
+        AwsCallLimiter limiter = AwsCallLimiter.builder("cognito")
+                .initialLimit(20).minLimit(2).maxLimit(50)
+                .build();
+
+        assertThrows(SdkClientException.class, () -> limiter.call("AdminGetUser", () -> {
+            throw SdkClientException.create("connection reset");
+        }));
+        assertEquals(20, limiter.getConcurrencyLimit());
+
+        assertThrows(AwsServiceException.class, () -> limiter.call("AdminCreateUser", () -> {
+            throw throttling();
+        }));
+        assertEquals(14, limiter.getConcurrencyLimit());
+
+        for (int i = 0; i < 20; i++) {
+            assertThrows(AwsServiceException.class, () -> limiter.call("AdminCreateUser", () -> {
+                throw throttling();
+            }));
+        }
+        assertEquals(2, limiter.getConcurrencyLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyStaysLow() {
+        AwsCallLimiter limiter = AwsCallLimiter.builder("ses")
+                .initialLimit(4).minLimit(1).maxLimit(10)
+                .build();
+
+        // Keep the limit in use so growth is not suppressed as application-limited
+        for (int round = 0; round < 20; round++) {
+            AwsCallLimiter.Permit[] permits = new AwsCallLimiter.Permit[limiter.getConcurrencyLimit()];
+            for (int i = 0; i < permits.length; i++) {
+                permits[i] = limiter.acquire("SendEmail");
+            }
+            for (AwsCallLimiter.Permit permit : permits) {
+                permit.succeeded();
+            }
+        }
+
+        assertEquals(10, limiter.getConcurrencyLimit());
+    }
+
+    @Test
+    void testOperationRateRejectsBeyondTheBurst() {
+        AwsCallLimiter limiter = AwsCallLimiter.builder("secretsmanager")
+                .operationRate("GetSecretValue", 2)
+                .maxRateWait(Duration.ZERO)
+                .build();
+
+        limiter.call("GetSecretValue", () -> "secret");
+        limiter.call("GetSecretValue", () -> "secret");
+        CallRejectedException rejected = assertThrows(CallRejectedException.class,
+                () -> limiter.call("GetSecretValue", () -> "secret"));
+
+        assertEquals(CallRejectedException.Reason.RATE_LIMIT, rejected.getReason());
+        // Operations without a configured quota are only subject to the concurrency limit
+        assertEquals("ok", limiter.call("DescribeSecret", () -> "ok"));
+    }
+
+    @Test
+    void testSharedRateIsSpentByAllItsOperations() {
+        AwsCallLimiter limiter = AwsCallLimiter.builder("cognito")
+                .sharedRate(2, "AdminEnableUser", "AdminDisableUser")
+                .maxRateWait(Duration.ZERO)
+                .build();
+
+        limiter.call("AdminEnableUser", () -> "enabled");
+        limiter.call("AdminDisableUser", () -> "disabled");
+        CallRejectedException rejected = assertThrows(CallRejectedException.class,
+                () -> limiter.call("AdminEnableUser", () -> "enabled"));
+
+        assertEquals(CallRejectedException.Reason.RATE_LIMIT, rejected.getReason());
+        assertEquals("ok", limiter.call("AdminGetUser", () -> "ok"));
+    }
+
+    @Test
+    void testInterceptorReleasesPermitsWithTheCallOutcome() {
+        AwsCallLimiter limiter = AwsCallLimiter.builder("sqs")
+                .initialLimit(10).minLimit(1).maxLimit(10)
+                .build();
+        ExecutionInterceptor interceptor = limiter.interceptor();
+
+        ExecutionAttributes success = new ExecutionAttributes();
+        success.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "SendMessage");
+        interceptor.beforeExecution(null, success);
+        assertEquals(1, limiter.getInFlight());
+        interceptor.afterExecution(null, success);
+        assertEquals(0, limiter.getInFlight());
+
+        ExecutionAttributes failure = new ExecutionAttributes();
+        failure.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "SendMessage");
+        interceptor.beforeExecution(null, failure);
+        interceptor.onExecutionFailure(new FailedExecutionStub(throttling()), failure);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(7, limiter.getConcurrencyLimit());
+    }
+
+    private record FailedExecutionStub(Throwable exception)
+            implements software.amazon.awssdk.core.interceptor.Context.FailedExecution {
+
+        @Override
+        public software.amazon.awssdk.core.SdkRequest request() {
+            return null;
+        }
+
+        @Override
+        public java.util.Optional<software.amazon.awssdk.http.SdkHttpRequest> httpRequest() {
+            return java.util.Optional.empty();
+        }
+
+        @Override
+        public java.util.Optional<software.amazon.awssdk.http.SdkHttpResponse> httpResponse() {
+            return java.util.Optional.empty();
+        }
+
+        @Override
+        public java.util.Optional<software.amazon.awssdk.core.SdkResponse> response() {
+            return java.util.Optional.empty();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.BankingBuddy.user_service.config;
 
+import com.bankingbuddy.resilience.AwsCallLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +12,7 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClientBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 @Slf4j
@@ -55,12 +58,30 @@ public class AwsConfig {
         return builder.build();
     }
     
+    /**
+     * Client-side load control for every Cognito call: per-quota token buckets sized by
+     * provisioning.rate-limit and an adaptive concurrency limit that shrinks when Cognito throttles
+     */
     @Bean
-    public CognitoIdentityProviderClient cognitoClient() {
+    public AwsCallLimiter cognitoCallLimiter(IdentityProvisioningProperties provisioningProperties,
+                                             MeterRegistry meterRegistry) {
+        IdentityProvisioningProperties.RateLimit rateLimit = provisioningProperties.getRateLimit();
+        return AwsCallLimiter.builder("cognito")
+            .operationRate("AdminCreateUser", rateLimit.getCreatePerSecond())
+            .sharedRate(rateLimit.getUpdatePerSecond(),
+                "AdminUpdateUserAttributes", "AdminEnableUser", "AdminDisableUser")
+            .maxRateWait(Duration.ofMillis(rateLimit.getMaxWaitMs()))
+            .meterRegistry(meterRegistry)
+            .build();
+    }
+    
+    @Bean
+    public CognitoIdentityProviderClient cognitoClient(AwsCallLimiter cognitoCallLimiter) {
         log.info("Configuring Cognito client for region: {}", awsProperties.getRegion());
         
         CognitoIdentityProviderClientBuilder builder = CognitoIdentityProviderClient.builder()
-            .region(Region.of(awsProperties.getRegion()));
+            .region(Region.of(awsProperties.getRegion()))
+            .overrideConfiguration(c -> c.addExecutionInterceptor(cognitoCallLimiter.interceptor()));
         
         // ADD THIS: Only use explicit credentials for local development
         if (awsProperties.getAccessKeyId() != null && 
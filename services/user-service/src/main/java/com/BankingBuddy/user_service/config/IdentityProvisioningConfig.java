@@ -0,0 +1,48 @@
+package com.BankingBuddy.user_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated executor for Cognito calls, so identity provider latency never holds
+ * a request thread or a pooled DB connection
+ */
+@Configuration
+@EnableScheduling
+public class IdentityProvisioningConfig {
+
+    @Bean(name = "provisioningExecutor")
+    public ThreadPoolTaskExecutor provisioningExecutor(IdentityProvisioningProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getExecutor().getCoreSize());
+        executor.setMaxPoolSize(properties.getExecutor().getMaxSize());
+        executor.setQueueCapacity(properties.getExecutor().getQueueCapacity());
+        executor.setThreadNamePrefix("provisioning-");
+        // Rejected operations remain PENDING and are picked up by the sweeper
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single feeder thread that hands bulk batches to the provisioning executor at its pace.
+     * A full queue only delays batches; their operations stay PENDING for the sweeper.
+     */
+    @Bean(name = "bulkProvisioningExecutor")
+    public ThreadPoolTaskExecutor bulkProvisioningExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("provisioning-bulk-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,47 @@
+package com.BankingBuddy.user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the identity provisioning saga (Cognito calls run outside DB transactions)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "provisioning")
+public class IdentityProvisioningProperties {
+
+    private int maxAttempts = 5;                // Attempts before the operation is compensated and FAILED
+    private long initialBackoffMs = 1000;       // Delay before the second attempt, doubled per attempt
+    private long maxBackoffMs = 60000;
+    private int abandonedAfterSeconds = 120;    // IN_PROGRESS longer than this is treated as a dead worker
+    private int batchSize = 50;                 // Due operations dispatched per sweep
+    private Executor executor = new Executor();
+    private RateLimit rateLimit = new RateLimit();
+    private Bulk bulk = new Bulk();
+
+    @Data
+    public static class Executor {
+        private int coreSize = 2;
+        private int maxSize = 8;
+        private int queueCapacity = 100;        // Overflow stays PENDING for the sweeper
+    }
+
+    /**
+     * Per-instance Cognito call rates, kept below the account quotas (UserCreation 50/s,
+     * UserUpdate 25/s by default); divide by the instance count when scaling out
+     */
+    @Data
+    public static class RateLimit {
+        private double createPerSecond = 40;    // AdminCreateUser
+        private double updatePerSecond = 20;    // Attribute updates, enable / disable
+        private long maxWaitMs = 2000;          // Longest a call waits for a permit before it is rejected
+    }
+
+    @Data
+    public static class Bulk {
+        private int maxBatchSize = 5000;        // Users per bulk request
+        private int insertBatchSize = 100;      // Rows per flush, match hibernate.jdbc.batch_size
+    }
+}
@@ -37,6 +37,9 @@ import java.util.Map;
  * Cache Strategy: Cache-aside pattern with differentiated TTLs
  * - users-single: 15 minutes (user data changes rarely)
  * - users-list: 5 minutes (new users should appear quickly)
+ * - cognito-identity: 5 minutes (Cognito MFA / enabled state, evicted on our own changes)
+ * 
+ * Hit/miss statistics are recorded and exported as cache.gets{name,result}
  * 
  * Error Handling: Graceful degradation - cache failures don't break the application
  */
@@ -90,6 +93,7 @@ public class RedisConfig implements CachingConfigurer {
      * Cache Regions:
      * - users-single: 15 min (user data changes rarely)
      * - users-list: 5 min (new users should appear quickly)
+     * - cognito-identity: 5 min (bounds staleness of changes made directly in Cognito)
      */
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
@@ -108,11 +112,13 @@ public class RedisConfig implements CachingConfigurer {
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
         cacheConfigurations.put("users-single", defaultConfig.entryTtl(Duration.ofMinutes(15)));
         cacheConfigurations.put("users-list", defaultConfig.entryTtl(Duration.ofMinutes(5)));
+        cacheConfigurations.put("cognito-identity", defaultConfig.entryTtl(Duration.ofMinutes(5)));
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .transactionAware()
+                .enableStatistics()
                 .build();
     }
 
@@ -2,6 +2,7 @@ package com.BankingBuddy.user_service.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
@@ -61,12 +62,16 @@ public class SecretsManagerConfig {
             System.out.println("Connecting to database with user: " + username);
 
             // Build DataSource with credentials from Secrets Manager
-            return DataSourceBuilder.create()
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
                     .url(dbUrl)
                     .username(username)
                     .password(password)
                     .driverClassName("com.mysql.cj.jdbc.Driver")  // ADDED: Explicit driver
                     .build();
+            // spring.datasource.hikari.* is not bound to this DataSource; multi-row INSERTs for JDBC batches
+            dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+            return dataSource;
 
         } catch (Exception e) {
             System.err.println("Failed to retrieve database credentials: " + e.getMessage());
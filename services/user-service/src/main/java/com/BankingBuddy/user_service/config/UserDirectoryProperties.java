@@ -0,0 +1,17 @@
+package com.BankingBuddy.user_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the in-memory user directory snapshot (GET /api/v1/users/directory)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "directory")
+public class UserDirectoryProperties {
+
+    private long refreshIntervalMs = 5000;      // Delay between updated_at delta refreshes
+    private int watermarkOverlapSeconds = 30;   // Re-read window behind the watermark for late commits
+}
@@ -2,10 +2,13 @@ package com.BankingBuddy.user_service.controller;
 
 import com.BankingBuddy.user_service.model.dto.*;
 import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.service.BulkProvisioningService;
+import com.BankingBuddy.user_service.service.UserDirectoryService;
 import com.BankingBuddy.user_service.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,27 +22,84 @@ import software.amazon.awssdk.services.cognitoidentityprovider.model.AssociateSo
 public class UserController {
 
     private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final BulkProvisioningService bulkProvisioningService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserDirectoryService userDirectoryService,
+                          BulkProvisioningService bulkProvisioningService) {
         this.userService = userService;
+        this.userDirectoryService = userDirectoryService;
+        this.bulkProvisioningService = bulkProvisioningService;
     }
 
+    /**
+     * Create a user. Returns 202 with the provisioning operation; the Cognito identity is
+     * created asynchronously, poll the Location header for the outcome and final user ID.
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<UserDTO>> createUser(
+    public ResponseEntity<ApiResponse<IdentityOperationDTO>> createUser(
             @Valid @RequestBody CreateUserRequest request,
             HttpServletRequest httpRequest) {
 
         UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
-        UserDTO user = userService.createUser(request, currentUser);
+        IdentityOperationDTO operation = userService.createUser(request, currentUser);
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success(user, "User created successfully"));
+        return accepted(operation, "User creation accepted");
     }
 
+    /**
+     * Create many users at once. Returns 202 with a per-row report (rejected rows carry the
+     * reason); the Cognito identities are created in parallel under the provisioning rate
+     * limits, poll the Location header for the batch's progress.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkProvisioningReportDTO>> bulkCreateUsers(
+            @Valid @RequestBody BulkCreateUsersRequest request,
+            HttpServletRequest httpRequest) {
+
+        UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
+        BulkProvisioningReportDTO report = bulkProvisioningService.createUsers(request, currentUser);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/v1/users/bulk/" + report.getBatchId())
+                .body(ApiResponse.success(report, "Bulk user creation accepted"));
+    }
+
+    @GetMapping("/bulk/{batchId}")
+    public ResponseEntity<ApiResponse<BulkProvisioningReportDTO>> getBulkBatch(
+            @PathVariable String batchId,
+            HttpServletRequest httpRequest) {
+
+        UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
+        BulkProvisioningReportDTO report = bulkProvisioningService.getBatch(batchId, currentUser);
+
+        return ResponseEntity.ok(ApiResponse.success(report, "Bulk batch retrieved successfully"));
+    }
+
+    @GetMapping("/operations/{operationId}")
+    public ResponseEntity<ApiResponse<IdentityOperationDTO>> getOperation(
+            @PathVariable String operationId,
+            HttpServletRequest httpRequest) {
+
+        UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
+        IdentityOperationDTO operation = userService.getOperation(operationId, currentUser);
+
+        return ResponseEntity.ok(ApiResponse.success(operation, "Operation retrieved successfully"));
+    }
+
+    /**
+     * List the user directory (admins: agents they created; root admin: admins and agents)
+     *
+     * Two modes:
+     * - page / limit: offset page with total counts (PageDTO)
+     * - cursor present (empty for the first page): keyset page without a COUNT query,
+     *   follow nextCursor for subsequent pages (CursorPageDTO)
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<PageDTO<UserDTO>>> getAllUsers(
+    public ResponseEntity<? extends ApiResponse<?>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest httpRequest) {
 
         UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
@@ -50,11 +110,49 @@ public class UserController {
             limit = 10;
         }
 
+        if (cursor != null) {
+            // limit=0 would never advance the cursor
+            int pageLimit = limit == 0 ? 10 : limit;
+            CursorPageDTO<UserDTO> users = userService.getUsersPage(currentUser, cursor, pageLimit);
+            return ResponseEntity.ok(ApiResponse.success(users, "Users retrieved successfully"));
+        }
+
         PageDTO<UserDTO> users = userService.getAllUsers(currentUser, page, limit);
 
         return ResponseEntity.ok(ApiResponse.success(users, "Users retrieved successfully"));
     }
 
+    /**
+     * Search the directory by role set, status, creator and name/email prefix,
+     * e.g. ?roles=agent&status=active&q=jo. Keyset paged: follow nextCursor (CursorPageDTO).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CursorPageDTO<UserDTO>>> searchUsers(
+            @Valid @ModelAttribute UserSearchRequest searchRequest,
+            HttpServletRequest httpRequest) {
+
+        UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
+        CursorPageDTO<UserDTO> users = userService.searchUsers(searchRequest, currentUser);
+
+        return ResponseEntity.ok(ApiResponse.success(users, "Users retrieved successfully"));
+    }
+
+    /**
+     * Directory replica sync: a full copy, or only the users changed since the caller's
+     * snapshotId / sinceVersion. Served from the in-memory snapshot.
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<ApiResponse<UserDirectoryDTO>> getDirectory(
+            @RequestParam(required = false) String snapshotId,
+            @RequestParam(required = false) Long sinceVersion,
+            HttpServletRequest httpRequest) {
+
+        UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
+        UserDirectoryDTO directory = userDirectoryService.getDirectory(currentUser, snapshotId, sinceVersion);
+
+        return ResponseEntity.ok(ApiResponse.success(directory, "User directory retrieved successfully"));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<ApiResponse<UserDTO>> getUserById(
             @PathVariable String userId,
@@ -67,37 +165,48 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<ApiResponse<UserDTO>> updateUser(
+    public ResponseEntity<ApiResponse<IdentityOperationDTO>> updateUser(
             @PathVariable String userId,
             @Valid @RequestBody UpdateUserRequest request,
             HttpServletRequest httpRequest) {
 
         UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
-        UserDTO user = userService.updateUser(userId, request, currentUser);
+        IdentityOperationDTO operation = userService.updateUser(userId, request, currentUser);
 
-        return ResponseEntity.ok(ApiResponse.success(user, "User updated successfully"));
+        return accepted(operation, "User update accepted");
     }
 
     @PatchMapping("/{userId}/disable")
-    public ResponseEntity<ApiResponse<Void>> disableUser(
+    public ResponseEntity<ApiResponse<IdentityOperationDTO>> disableUser(
             @PathVariable String userId,
             HttpServletRequest httpRequest) {
 
         UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
-        userService.disableUser(userId, currentUser);
+        IdentityOperationDTO operation = userService.disableUser(userId, currentUser);
 
-        return ResponseEntity.ok(ApiResponse.success(null, "User disabled successfully"));
+        return accepted(operation, "User disable accepted");
     }
 
     @PatchMapping("/{userId}/enable")
-    public ResponseEntity<ApiResponse<Void>> enableUser(
+    public ResponseEntity<ApiResponse<IdentityOperationDTO>> enableUser(
+            @PathVariable String userId,
+            HttpServletRequest httpRequest) {
+
+        UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
+        IdentityOperationDTO operation = userService.enableUser(userId, currentUser);
+
+        return accepted(operation, "User enable accepted");
+    }
+
+    @GetMapping("/{userId}/mfa-status")
+    public ResponseEntity<ApiResponse<CognitoUserStateDTO>> getMFAStatus(
             @PathVariable String userId,
             HttpServletRequest httpRequest) {
 
         UserContext currentUser = (UserContext) httpRequest.getAttribute("userContext");
-        userService.enableUser(userId, currentUser);
+        CognitoUserStateDTO state = userService.getIdentityState(userId, currentUser);
 
-        return ResponseEntity.ok(ApiResponse.success(null, "User enabled successfully"));
+        return ResponseEntity.ok(ApiResponse.success(state, "MFA status retrieved successfully"));
     }
 
     @PostMapping("/{userId}/reset-password")
@@ -173,4 +282,10 @@ public class UserController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    private ResponseEntity<ApiResponse<IdentityOperationDTO>> accepted(IdentityOperationDTO operation, String message) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/v1/users/operations/" + operation.getOperationId())
+                .body(ApiResponse.success(operation, message));
+    }
 }
@@ -30,6 +30,20 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(e.getMessage()));
     }
 
+    @ExceptionHandler(IdentityOperationNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOperationNotFound(IdentityOperationNotFoundException e) {
+        log.error("Operation not found: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(OperationInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOperationInProgress(OperationInProgressException e) {
+        log.error("Operation in progress: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
     @ExceptionHandler(ForbiddenException.class)
     public ResponseEntity<ApiResponse<Void>> handleForbidden(ForbiddenException e) {
         log.error("Forbidden: {}", e.getMessage());
@@ -44,6 +58,13 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(e.getMessage()));
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequest(InvalidRequestException e) {
+        log.error("Invalid request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
     @ExceptionHandler(CognitoException.class)
     public ResponseEntity<ApiResponse<Void>> handleCognitoException(CognitoException e) {
         log.error("Cognito error: {}", e.getMessage(), e);
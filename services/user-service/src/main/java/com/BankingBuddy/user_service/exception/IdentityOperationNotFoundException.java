@@ -0,0 +1,7 @@
+package com.BankingBuddy.user_service.exception;
+
+public class IdentityOperationNotFoundException extends RuntimeException {
+    public IdentityOperationNotFoundException(String message) {
+        super(message);
+    }
+}
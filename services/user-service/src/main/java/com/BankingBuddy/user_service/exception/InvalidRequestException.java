@@ -0,0 +1,7 @@
+package com.BankingBuddy.user_service.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.BankingBuddy.user_service.exception;
+
+public class OperationInProgressException extends RuntimeException {
+    public OperationInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rows are validated individually: an invalid row is reported as rejected
+ * instead of failing the whole batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateUsersRequest {
+    @NotEmpty(message = "At least one user is required")
+    private List<CreateUserRequest> users;
+}
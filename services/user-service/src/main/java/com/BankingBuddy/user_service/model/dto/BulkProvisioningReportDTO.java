@@ -0,0 +1,28 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-row report of a bulk provisioning batch.
+ *
+ * On submission it lists every row (accepted or rejected); polling the batch
+ * (GET /api/v1/users/bulk/{batchId}) reports the accepted rows' Cognito progress.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProvisioningReportDTO {
+    private String batchId;
+    private int accepted;
+    private int rejected;
+    private Map<IdentityOperationStatus, Long> statusCounts;
+    private List<BulkUserResultDTO> results;
+}
@@ -0,0 +1,24 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one row of a bulk provisioning request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResultDTO {
+    private Integer row;                        // Position in the request; absent in batch status reports
+    private String email;
+    private boolean accepted;
+    private String operationId;                 // Accepted rows only
+    private IdentityOperationStatus status;     // Accepted rows only
+    private String userId;                      // Provisional until SUCCEEDED, then the Cognito sub
+    private String error;                       // Rejection reason, or the last Cognito error
+}
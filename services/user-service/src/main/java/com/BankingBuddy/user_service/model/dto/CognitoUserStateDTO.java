@@ -0,0 +1,31 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cognito-derived state of a user (cached in cognito-identity)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CognitoUserStateDTO {
+    private String userId;
+    private boolean enabled;
+    private String userStatus;                  // Cognito status, e.g. CONFIRMED, FORCE_CHANGE_PASSWORD
+    private String preferredMfaSetting;         // SOFTWARE_TOKEN_MFA, SMS_MFA or null
+    private List<String> mfaSettings;           // MFA methods enabled for the user
+    private Map<String, String> attributes;
+    private LocalDateTime fetchedAt;
+
+    public boolean hasMfaSetting(String setting) {
+        return mfaSettings != null && mfaSettings.contains(setting);
+    }
+}
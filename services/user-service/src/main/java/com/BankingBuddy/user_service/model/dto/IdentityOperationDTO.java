@@ -0,0 +1,29 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Polling view of an identity operation (GET /api/v1/users/operations/{operationId})
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdentityOperationDTO {
+    private String operationId;
+    private IdentityOperationType type;
+    private IdentityOperationStatus status;
+    private String userId;          // For CREATE: provisional until SUCCEEDED, then the Cognito sub
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
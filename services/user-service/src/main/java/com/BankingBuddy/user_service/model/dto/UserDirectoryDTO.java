@@ -0,0 +1,30 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Full copy or delta of the user directory for callers that keep a local replica.
+ *
+ * A replica stores snapshotId and version, then passes them back as
+ * ?snapshotId=&sinceVersion= to receive only users changed since. When full is true
+ * (first sync, or the snapshot was rebuilt, e.g. another instance or a restart)
+ * the replica replaces its contents instead of merging.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDirectoryDTO {
+    private String snapshotId;
+    private long version;
+    private boolean full;
+    private List<UserDTO> users;        // Added or changed users visible to the caller
+    private List<String> removedIds;    // Changed users that are no longer visible to the caller
+    private LocalDateTime refreshedAt;
+}
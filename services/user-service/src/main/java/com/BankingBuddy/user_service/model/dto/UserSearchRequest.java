@@ -0,0 +1,42 @@
+package com.BankingBuddy.user_service.model.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filters for GET /api/v1/users/search. Absent filters are not applied; roles default to
+ * every role the caller may list.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchRequest {
+
+    // "agent" / "admin", case-insensitive
+    private List<String> roles;
+
+    // "pending" / "active" / "disabled", case-insensitive
+    private String status;
+
+    private String createdBy;
+
+    // Prefix of first name, last name or email; "first last" matches both names
+    @Size(max = 100, message = "Search query cannot exceed 100 characters")
+    private String q;
+
+    // Opaque nextCursor of the previous page; absent for the first page
+    private String cursor;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 50, message = "Limit cannot exceed 50")
+    @Builder.Default
+    private int limit = 10;
+}
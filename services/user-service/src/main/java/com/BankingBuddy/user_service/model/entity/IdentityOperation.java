@@ -0,0 +1,90 @@
+package com.BankingBuddy.user_service.model.entity;
+
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationType;
+import com.BankingBuddy.user_service.security.UserRole;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One Cognito change for a user, executed outside the request transaction.
+ * Carries the requested attribute values so it can be retried after a restart.
+ */
+@Entity
+@Table(name = "identity_operations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class IdentityOperation {
+
+    @Id
+    @Column(name = "id", nullable = false, length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private IdentityOperationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private IdentityOperationStatus status = IdentityOperationStatus.PENDING;
+
+    // Requested values (CREATE: all; UPDATE: changed fields only)
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "first_name", length = 100)
+    private String firstName;
+
+    @Column(name = "last_name", length = 100)
+    private String lastName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role")
+    private UserRole role;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "requested_by", nullable = false)
+    private String requestedBy;
+
+    // Set for operations submitted together through the bulk endpoint
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    @Column(name = "created_at", updatable = false)
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
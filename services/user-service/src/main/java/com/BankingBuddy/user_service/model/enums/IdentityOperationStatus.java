@@ -0,0 +1,17 @@
+package com.BankingBuddy.user_service.model.enums;
+
+/**
+ * Lifecycle of an identity operation
+ * PENDING -> IN_PROGRESS -> SUCCEEDED, or back to PENDING for a retry, or FAILED
+ * FAILED means the local change was compensated and the user is as it was before the request
+ */
+public enum IdentityOperationStatus {
+    PENDING,
+    IN_PROGRESS,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
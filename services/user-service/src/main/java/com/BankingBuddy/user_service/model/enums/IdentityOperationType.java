@@ -0,0 +1,11 @@
+package com.BankingBuddy.user_service.model.enums;
+
+/**
+ * Identity provider change carried out by the provisioning saga
+ */
+public enum IdentityOperationType {
+    CREATE,
+    UPDATE,
+    DISABLE,
+    ENABLE
+}
@@ -0,0 +1,61 @@
+package com.BankingBuddy.user_service.repository;
+
+import com.BankingBuddy.user_service.model.entity.IdentityOperation;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IdentityOperationRepository extends JpaRepository<IdentityOperation, String> {
+
+    boolean existsByUserIdAndStatusIn(String userId, Collection<IdentityOperationStatus> statuses);
+
+    List<IdentityOperation> findByBatchIdOrderByEmail(String batchId);
+
+    /**
+     * Claim a due operation for one worker. Returns 1 for the caller that won the claim;
+     * the direct dispatch and the sweeper may both try, only one runs the attempt.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdentityOperation o " +
+           "SET o.status = com.BankingBuddy.user_service.model.enums.IdentityOperationStatus.IN_PROGRESS, " +
+           "o.claimedAt = :now, o.attempts = o.attempts + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.nextAttemptAt <= :now " +
+           "AND o.status = com.BankingBuddy.user_service.model.enums.IdentityOperationStatus.PENDING")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    /**
+     * IDs of operations waiting for their (next) attempt, oldest first
+     */
+    @Query("SELECT o.id FROM IdentityOperation o " +
+           "WHERE o.status = com.BankingBuddy.user_service.model.enums.IdentityOperationStatus.PENDING " +
+           "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<String> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Return operations whose worker died mid-attempt to the queue.
+     * Every Cognito step is safe to repeat, so re-running an abandoned attempt is harmless.
+     */
+    @Modifying
+    @Query("UPDATE IdentityOperation o " +
+           "SET o.status = com.BankingBuddy.user_service.model.enums.IdentityOperationStatus.PENDING, " +
+           "o.nextAttemptAt = :now, o.updatedAt = :now " +
+           "WHERE o.status = com.BankingBuddy.user_service.model.enums.IdentityOperationStatus.IN_PROGRESS " +
+           "AND o.claimedAt < :claimedBefore")
+    int releaseAbandoned(@Param("claimedBefore") LocalDateTime claimedBefore, @Param("now") LocalDateTime now);
+
+    /**
+     * Move the operations of a provisional user onto its Cognito sub
+     */
+    @Modifying
+    @Query("UPDATE IdentityOperation o SET o.userId = :userId WHERE o.userId = :provisionalId")
+    int reassignUser(@Param("provisionalId") String provisionalId, @Param("userId") String userId);
+}
@@ -2,18 +2,24 @@ package com.BankingBuddy.user_service.repository;
 
 import com.BankingBuddy.user_service.model.entity.User;
 import com.BankingBuddy.user_service.security.UserRole;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByEmail(String email);
 
@@ -23,6 +29,32 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Which of the given emails are taken, in one IN query (bulk provisioning)
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Load a user with a row lock so concurrent writes to the same user are serialized
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") String id);
+
+    /**
+     * Replace a provisional user ID with the Cognito sub once the identity exists.
+     * Native because JPQL cannot update an entity identifier.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE users SET id = :userId WHERE id = :provisionalId", nativeQuery = true)
+    int rekey(@Param("provisionalId") String provisionalId, @Param("userId") String userId);
+
+    /**
+     * Users written at or after a watermark (directory snapshot delta refresh, idx_users_updated_at)
+     */
+    List<User> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.status = 'active'")
     long countActiveUsersByRole(@Param("role") UserRole role);
 
@@ -30,4 +62,44 @@ public interface UserRepository extends JpaRepository<User, String> {
     Page<User> findByRoleAndCreatedByOrderByCreatedAtDesc(UserRole role, String createdBy, Pageable pageable);
     
     Page<User> findByRoleInOrderByCreatedAtDesc(List<UserRole> roles, Pageable pageable);
+
+    /**
+     * First keyset page of users with a role created by an admin, newest first.
+     * Pageable is only used as a LIMIT (no count query is issued for List results).
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role AND u.createdBy = :createdBy " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findDirectoryFirstPageByCreator(@Param("role") UserRole role,
+                                               @Param("createdBy") String createdBy,
+                                               Pageable pageable);
+
+    /**
+     * Subsequent keyset page: rows strictly after the (createdAt, id) cursor
+     * in (createdAt DESC, id DESC) order
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role AND u.createdBy = :createdBy " +
+           "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findDirectoryPageByCreatorAfter(@Param("role") UserRole role,
+                                               @Param("createdBy") String createdBy,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") String id,
+                                               Pageable pageable);
+
+    /**
+     * First keyset page of users with a role, newest first (one index range per role)
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findDirectoryFirstPage(@Param("role") UserRole role, Pageable pageable);
+
+    /**
+     * Subsequent keyset page of users with a role after the (createdAt, id) cursor
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role " +
+           "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findDirectoryPageAfter(@Param("role") UserRole role,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") String id,
+                                      Pageable pageable);
 }
@@ -0,0 +1,69 @@
+package com.BankingBuddy.user_service.repository;
+
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.security.UserRole;
+import com.BankingBuddy.user_service.security.UserStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public class UserSpecification {
+
+    public static Specification<User> hasRoleIn(Collection<UserRole> roles) {
+        return (root, query, criteriaBuilder) ->
+            roles == null || roles.isEmpty() ? null : root.get("role").in(roles);
+    }
+
+    public static Specification<User> hasStatus(UserStatus status) {
+        return (root, query, criteriaBuilder) ->
+            status == null ? null : criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<User> createdBy(String createdBy) {
+        return (root, query, criteriaBuilder) ->
+            createdBy == null || createdBy.isBlank() ? null : criteriaBuilder.equal(root.get("createdBy"), createdBy);
+    }
+
+    /**
+     * Name/email prefix match. One term matches the start of first name, last name or email;
+     * two or more terms match the first name by the first term and the last name by the last.
+     * Plain LIKE 'term%' so the name and email indexes are range-scanned; the column collation
+     * is case-insensitive, so no LOWER() is needed.
+     */
+    public static Specification<User> matchesPrefix(String text) {
+        return (root, query, criteriaBuilder) -> {
+            if (text == null || text.isBlank()) return null;
+            String[] terms = text.trim().split("\\s+");
+            if (terms.length == 1) {
+                String pattern = prefixPattern(terms[0]);
+                return criteriaBuilder.or(
+                        criteriaBuilder.like(root.get("firstName"), pattern, '\\'),
+                        criteriaBuilder.like(root.get("lastName"), pattern, '\\'),
+                        criteriaBuilder.like(root.get("email"), pattern, '\\'));
+            }
+            return criteriaBuilder.and(
+                    criteriaBuilder.like(root.get("firstName"), prefixPattern(terms[0]), '\\'),
+                    criteriaBuilder.like(root.get("lastName"), prefixPattern(terms[terms.length - 1]), '\\'));
+        };
+    }
+
+    /**
+     * Keyset predicate: rows strictly after the (createdAt, id) cursor in (createdAt DESC, id DESC) order
+     */
+    public static Specification<User> after(LocalDateTime createdAt, String id) {
+        return (root, query, criteriaBuilder) -> {
+            if (createdAt == null || id == null) return null;
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("createdAt"), createdAt),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("createdAt"), createdAt),
+                            criteriaBuilder.lessThan(root.get("id"), id)));
+        };
+    }
+
+    // Escape LIKE wildcards so user input is matched literally
+    private static String prefixPattern(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
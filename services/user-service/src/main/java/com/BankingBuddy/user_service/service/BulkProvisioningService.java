@@ -0,0 +1,270 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.config.IdentityProvisioningProperties;
+import com.BankingBuddy.user_service.exception.ForbiddenException;
+import com.BankingBuddy.user_service.exception.IdentityOperationNotFoundException;
+import com.BankingBuddy.user_service.exception.InvalidRequestException;
+import com.BankingBuddy.user_service.exception.UserAlreadyExistsException;
+import com.BankingBuddy.user_service.model.dto.BulkCreateUsersRequest;
+import com.BankingBuddy.user_service.model.dto.BulkProvisioningReportDTO;
+import com.BankingBuddy.user_service.model.dto.BulkUserResultDTO;
+import com.BankingBuddy.user_service.model.dto.CreateUserRequest;
+import com.BankingBuddy.user_service.model.entity.IdentityOperation;
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationType;
+import com.BankingBuddy.user_service.repository.IdentityOperationRepository;
+import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.security.UserRole;
+import com.BankingBuddy.user_service.security.UserStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user creation on top of the provisioning saga.
+ *
+ * The whole batch is checked up front (row validation, duplicates within the batch, one
+ * IN query per chunk for emails already taken), then the accepted users and their CREATE
+ * operations are inserted in JDBC batches in one transaction. After commit the operations
+ * are fed to the provisioning executor, which creates the Cognito identities in parallel
+ * under the saga's rate limits. Progress is polled per batch.
+ *
+ * The taken-email check is not a lock: a single create that commits the same email between
+ * the check and a flush fails that flush on the unique key. The whole batch is then rolled
+ * back and the request fails with 409; resubmitting it reports that row as rejected.
+ */
+@Service
+@Slf4j
+public class BulkProvisioningService {
+
+    // Keeps the email IN list well below packet and optimizer limits
+    private static final int EMAIL_LOOKUP_CHUNK = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserRepository userRepository;
+    private final IdentityOperationRepository operationRepository;
+    private final IdentityProvisioningService provisioningService;
+    private final IdentityProvisioningProperties properties;
+    private final Validator validator;
+
+    public BulkProvisioningService(UserRepository userRepository,
+                                   IdentityOperationRepository operationRepository,
+                                   IdentityProvisioningService provisioningService,
+                                   IdentityProvisioningProperties properties,
+                                   Validator validator) {
+        this.userRepository = userRepository;
+        this.operationRepository = operationRepository;
+        this.provisioningService = provisioningService;
+        this.properties = properties;
+        this.validator = validator;
+    }
+
+    /**
+     * Validate and enqueue a batch of new users. Invalid rows are rejected individually;
+     * the accepted rows are created asynchronously like single creations.
+     */
+    @Transactional
+    @CacheEvict(value = "users-list", allEntries = true)
+    public BulkProvisioningReportDTO createUsers(BulkCreateUsersRequest request, UserContext currentUser) {
+        if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.ROOT_ADMIN) {
+            throw new ForbiddenException("Only admins can create new users");
+        }
+
+        List<CreateUserRequest> rows = request.getUsers();
+        if (rows.size() > properties.getBulk().getMaxBatchSize()) {
+            throw new InvalidRequestException("A bulk request cannot exceed "
+                    + properties.getBulk().getMaxBatchSize() + " users");
+        }
+
+        String[] rejections = validateRows(rows, currentUser);
+        String batchId = UUID.randomUUID().toString();
+
+        List<BulkUserResultDTO> results = new ArrayList<>(rows.size());
+        List<String> operationIds = new ArrayList<>();
+        int pending = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            CreateUserRequest row = rows.get(i);
+            if (rejections[i] != null) {
+                results.add(BulkUserResultDTO.builder()
+                        .row(i)
+                        .email(row != null ? row.getEmail() : null)
+                        .accepted(false)
+                        .error(rejections[i])
+                        .build());
+                continue;
+            }
+
+            User user = User.builder()
+                    .id(IdentityProvisioningService.newProvisionalId())
+                    .email(row.getEmail())
+                    .firstName(row.getFirstName())
+                    .lastName(row.getLastName())
+                    .role(row.getRole())
+                    .status(UserStatus.PENDING)
+                    .createdBy(currentUser.getUserId())
+                    .updatedBy(currentUser.getUserId())
+                    .build();
+            IdentityOperation operation = IdentityProvisioningService.newOperation(IdentityOperationType.CREATE,
+                    user, row.getFirstName(), row.getLastName(), row.getRole(), currentUser.getUserId());
+            operation.setBatchId(batchId);
+
+            // persist rather than save: assigned IDs would make save() merge with a SELECT per row
+            entityManager.persist(user);
+            entityManager.persist(operation);
+            if (++pending % properties.getBulk().getInsertBatchSize() == 0) {
+                flush(batchId);
+                entityManager.clear();
+            }
+
+            operationIds.add(operation.getId());
+            results.add(BulkUserResultDTO.builder()
+                    .row(i)
+                    .email(row.getEmail())
+                    .accepted(true)
+                    .operationId(operation.getId())
+                    .status(IdentityOperationStatus.PENDING)
+                    .userId(user.getId())
+                    .build());
+        }
+        flush(batchId);
+
+        if (!operationIds.isEmpty()) {
+            provisioningService.dispatchAfterCommit(operationIds);
+        }
+        log.info("Bulk batch {} by {}: {} users accepted, {} rejected",
+                batchId, currentUser.getEmail(), operationIds.size(), rows.size() - operationIds.size());
+
+        return BulkProvisioningReportDTO.builder()
+                .batchId(batchId)
+                .accepted(operationIds.size())
+                .rejected(rows.size() - operationIds.size())
+                .statusCounts(operationIds.isEmpty() ? Map.of() : Map.of(IdentityOperationStatus.PENDING, (long) operationIds.size()))
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Current state of every accepted row in a batch (requester or root admin)
+     */
+    @Transactional(readOnly = true)
+    public BulkProvisioningReportDTO getBatch(String batchId, UserContext currentUser) {
+        List<IdentityOperation> operations = operationRepository.findByBatchIdOrderByEmail(batchId);
+        if (operations.isEmpty()) {
+            throw new IdentityOperationNotFoundException("Bulk batch not found: " + batchId);
+        }
+        if (currentUser.getRole() != UserRole.ROOT_ADMIN
+                && !currentUser.getUserId().equals(operations.get(0).getRequestedBy())) {
+            throw new ForbiddenException("Only the requester can view this batch");
+        }
+
+        Map<IdentityOperationStatus, Long> statusCounts = operations.stream()
+                .collect(Collectors.groupingBy(IdentityOperation::getStatus,
+                        () -> new EnumMap<>(IdentityOperationStatus.class), Collectors.counting()));
+
+        return BulkProvisioningReportDTO.builder()
+                .batchId(batchId)
+                .accepted(operations.size())
+                .statusCounts(statusCounts)
+                .results(operations.stream()
+                        .map(operation -> BulkUserResultDTO.builder()
+                                .email(operation.getEmail())
+                                .accepted(true)
+                                .operationId(operation.getId())
+                                .status(operation.getStatus())
+                                .userId(operation.getUserId())
+                                .error(operation.getLastError())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Write the pending inserts. IDs are generated and emails were checked, so a unique key
+     * violation here is an email registered by a concurrent request since the check.
+     */
+    private void flush(String batchId) {
+        try {
+            entityManager.flush();
+        } catch (ConstraintViolationException e) {
+            log.warn("Bulk batch {} collided with a concurrently registered email: {}", batchId, e.getMessage());
+            throw new UserAlreadyExistsException("An email in this batch was registered by another request "
+                    + "while the batch was being saved; no users were created. Resubmit the batch to see which row is affected");
+        }
+    }
+
+    /**
+     * @return rejection reason per row, null for rows that can be created
+     */
+    private String[] validateRows(List<CreateUserRequest> rows, UserContext currentUser) {
+        String[] rejections = new String[rows.size()];
+        Map<String, Integer> firstRowByEmail = new HashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            CreateUserRequest row = rows.get(i);
+            if (row == null) {
+                rejections[i] = "Row is empty";
+                continue;
+            }
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                rejections[i] = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                continue;
+            }
+            if (currentUser.getRole() == UserRole.ADMIN && row.getRole() != UserRole.AGENT) {
+                rejections[i] = "Admins can only create agents";
+                continue;
+            }
+            // Emails are unique case-insensitively (column collation)
+            Integer firstRow = firstRowByEmail.putIfAbsent(normalize(row.getEmail()), i);
+            if (firstRow != null) {
+                rejections[i] = "Duplicate email in batch (row " + firstRow + ")";
+            }
+        }
+
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rejections[i] == null) {
+                candidates.add(rows.get(i).getEmail());
+            }
+        }
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += EMAIL_LOOKUP_CHUNK) {
+            List<String> chunk = candidates.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK, candidates.size()));
+            userRepository.findExistingEmails(chunk).forEach(email -> taken.add(normalize(email)));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (rejections[i] == null && taken.contains(normalize(rows.get(i).getEmail()))) {
+                rejections[i] = "User with email " + rows.get(i).getEmail() + " already exists";
+            }
+        }
+        return rejections;
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
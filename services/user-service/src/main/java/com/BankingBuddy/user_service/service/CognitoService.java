@@ -4,13 +4,19 @@ import com.BankingBuddy.user_service.security.UserRole;
 import com.BankingBuddy.user_service.exception.CognitoException;
 import com.BankingBuddy.user_service.exception.UserAlreadyExistsException;
 import com.BankingBuddy.user_service.config.AwsProperties;
+import com.BankingBuddy.user_service.model.dto.CognitoUserStateDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -59,6 +65,47 @@ public class CognitoService {
         }
     }
     
+    /**
+     * Look up the Cognito sub of an existing user.
+     * Lets a retried creation adopt the identity an earlier, timed-out attempt already created.
+     */
+    public Optional<String> findUserSub(String username) {
+        try {
+            AdminGetUserRequest request = AdminGetUserRequest.builder()
+                .userPoolId(awsProperties.getCognito().getUserPoolId())
+                .username(username)
+                .build();
+
+            return cognitoClient.adminGetUser(request).userAttributes().stream()
+                .filter(attr -> "sub".equals(attr.name()))
+                .map(AttributeType::value)
+                .findFirst();
+
+        } catch (software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("Failed to look up user in Cognito: {}", username, e);
+            throw new CognitoException("Failed to look up user in Cognito", e);
+        }
+    }
+
+    // Delete a user in AWS Cognito (compensation for an abandoned creation)
+    public void deleteUser(String userId) {
+        try {
+            AdminDeleteUserRequest request = AdminDeleteUserRequest.builder()
+                .userPoolId(awsProperties.getCognito().getUserPoolId())
+                .username(userId)
+                .build();
+
+            cognitoClient.adminDeleteUser(request);
+            log.info("Deleted Cognito user: {}", userId);
+
+        } catch (Exception e) {
+            log.error("Failed to delete user in Cognito: {}", userId, e);
+            throw new CognitoException("Failed to delete user in Cognito", e);
+        }
+    }
+
     // Disable a user in AWS Cognito
     public void disableUser(String userId) {
         try {
@@ -197,6 +244,40 @@ public class CognitoService {
         }
     }
     
+    /**
+     * Cognito-derived state of a user: enabled flag, MFA preferences and attributes.
+     * Cached per user; evicted whenever this service changes that state (enable/disable and
+     * attribute updates through the provisioning saga, MFA setup, TOTP verification), so the
+     * TTL only bounds changes made directly in Cognito.
+     */
+    @Cacheable(value = "cognito-identity", key = "'identity:' + #userId", sync = true)
+    public CognitoUserStateDTO getUserState(String userId) {
+        log.debug("Cache miss - fetching user state from Cognito: userId={}", userId);
+        return fetchUserState(userId);
+    }
+
+    /**
+     * Cognito-derived state of a user read straight from Cognito, bypassing the cache.
+     * For decisions that must see changes made outside this service (e.g. MFA preferences
+     * set by the frontend through Amplify moments before).
+     */
+    public CognitoUserStateDTO fetchUserState(String userId) {
+        AdminGetUserResponse response = getUserMFAStatus(userId);
+
+        // Copy SDK collections into plain ones so the cached value deserializes cleanly
+        return CognitoUserStateDTO.builder()
+            .userId(userId)
+            .enabled(Boolean.TRUE.equals(response.enabled()))
+            .userStatus(response.userStatusAsString())
+            .preferredMfaSetting(response.preferredMfaSetting())
+            .mfaSettings(new ArrayList<>(response.userMFASettingList()))
+            .attributes(response.userAttributes().stream()
+                .collect(Collectors.toMap(AttributeType::name, AttributeType::value,
+                    (first, second) -> second, HashMap::new)))
+            .fetchedAt(LocalDateTime.now())
+            .build();
+    }
+
     /**
      * Remove SMS MFA preference if user has software token MFA enabled.
      * Use this during migration from SMS to TOTP.
@@ -0,0 +1,454 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.config.IdentityProvisioningProperties;
+import com.BankingBuddy.user_service.exception.CognitoException;
+import com.BankingBuddy.user_service.exception.ForbiddenException;
+import com.BankingBuddy.user_service.exception.IdentityOperationNotFoundException;
+import com.BankingBuddy.user_service.exception.OperationInProgressException;
+import com.BankingBuddy.user_service.exception.UserAlreadyExistsException;
+import com.BankingBuddy.user_service.model.dto.IdentityOperationDTO;
+import com.BankingBuddy.user_service.model.entity.IdentityOperation;
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationType;
+import com.BankingBuddy.user_service.repository.IdentityOperationRepository;
+import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.security.UserRole;
+import com.BankingBuddy.user_service.security.UserStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Provisioning saga for Cognito changes.
+ *
+ * Phase 1 (request transaction): the local row and an identity operation are committed;
+ *   a new user is stored PENDING under a provisional ID.
+ * Phase 2 (provisioningExecutor, no transaction): the Cognito call, retried with
+ *   exponential backoff while the failure is transient.
+ * Phase 3 (short transaction): the local row is finalized (a new user is re-keyed to its
+ *   Cognito sub), or the change is compensated and the operation marked FAILED.
+ *
+ * Operations survive restarts: the sweeper re-dispatches due retries and operations whose
+ * worker died mid-attempt. Every Cognito step is safe to repeat.
+ *
+ * Cognito calls are paced by the client's AwsCallLimiter (AwsConfig): per-quota token buckets
+ * let bulk batches drain as fast as the quotas allow, and throttling shrinks its concurrency
+ * limit. A call it rejects is retried with the usual backoff like any transient failure.
+ */
+@Service
+@Slf4j
+public class IdentityProvisioningService {
+
+    private static final String PROVISIONAL_ID_PREFIX = "pending-";
+    private static final List<IdentityOperationStatus> UNFINISHED =
+            List.of(IdentityOperationStatus.PENDING, IdentityOperationStatus.IN_PROGRESS);
+
+    private final IdentityOperationRepository operationRepository;
+    private final UserRepository userRepository;
+    private final CognitoService cognitoService;
+    private final IdentityProvisioningProperties properties;
+    private final TaskExecutor executor;
+    private final TaskExecutor bulkExecutor;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdentityProvisioningService(IdentityOperationRepository operationRepository,
+                                       UserRepository userRepository,
+                                       CognitoService cognitoService,
+                                       IdentityProvisioningProperties properties,
+                                       @Qualifier("provisioningExecutor") TaskExecutor executor,
+                                       @Qualifier("bulkProvisioningExecutor") TaskExecutor bulkExecutor,
+                                       CacheManager cacheManager,
+                                       PlatformTransactionManager transactionManager) {
+        this.operationRepository = operationRepository;
+        this.userRepository = userRepository;
+        this.cognitoService = cognitoService;
+        this.properties = properties;
+        this.executor = executor;
+        this.bulkExecutor = bulkExecutor;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Attempts can start from afterCommit of the request transaction;
+        // never join a transaction that has already completed
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Local ID for a user whose Cognito identity does not exist yet
+     */
+    public static String newProvisionalId() {
+        return PROVISIONAL_ID_PREFIX + UUID.randomUUID();
+    }
+
+    /**
+     * Whether a user ID is still provisional (its Cognito identity has not been created yet)
+     */
+    public static boolean isProvisionalId(String userId) {
+        return userId != null && userId.startsWith(PROVISIONAL_ID_PREFIX);
+    }
+
+    /**
+     * Phase 1: record an operation in the caller's transaction; it is dispatched once that commits.
+     * Only one unfinished operation per user is allowed, callers hold the user row lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public IdentityOperation open(IdentityOperationType type, User user, String firstName, String lastName,
+                                  UserRole role, String requestedBy) {
+        if (operationRepository.existsByUserIdAndStatusIn(user.getId(), UNFINISHED)) {
+            throw new OperationInProgressException("Another change to user " + user.getId() + " is still in progress");
+        }
+
+        IdentityOperation operation = operationRepository.save(
+                newOperation(type, user, firstName, lastName, role, requestedBy));
+
+        String operationId = operation.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(operationId);
+            }
+        });
+
+        log.info("Opened {} operation {} for user {}", type, operationId, user.getEmail());
+        return operation;
+    }
+
+    /**
+     * A new, not yet persisted operation; due immediately
+     */
+    public static IdentityOperation newOperation(IdentityOperationType type, User user, String firstName,
+                                                 String lastName, UserRole role, String requestedBy) {
+        return IdentityOperation.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(user.getId())
+                .type(type)
+                .email(user.getEmail())
+                .firstName(firstName)
+                .lastName(lastName)
+                .role(role)
+                .nextAttemptAt(LocalDateTime.now())
+                .requestedBy(requestedBy)
+                .build();
+    }
+
+    /**
+     * Phase 1 for a bulk batch: the caller has persisted the operations in its transaction;
+     * once that commits they are fed to the executor by the bulk feeder.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void dispatchAfterCommit(List<String> operationIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                feed(operationIds);
+            }
+        });
+    }
+
+    /**
+     * Status polling for the requester (root admins can see every operation)
+     */
+    @Transactional(readOnly = true)
+    public IdentityOperationDTO getOperation(String operationId, UserContext currentUser) {
+        IdentityOperation operation = operationRepository.findById(operationId)
+                .orElseThrow(() -> new IdentityOperationNotFoundException("Operation not found: " + operationId));
+
+        if (currentUser.getRole() != UserRole.ROOT_ADMIN && !currentUser.getUserId().equals(operation.getRequestedBy())) {
+            throw new ForbiddenException("Only the requester can view this operation");
+        }
+
+        return mapToDTO(operation);
+    }
+
+    public static IdentityOperationDTO mapToDTO(IdentityOperation operation) {
+        return IdentityOperationDTO.builder()
+                .operationId(operation.getId())
+                .type(operation.getType())
+                .status(operation.getStatus())
+                .userId(operation.getUserId())
+                .attempts(operation.getAttempts())
+                .lastError(operation.getLastError())
+                .createdAt(operation.getCreatedAt())
+                .updatedAt(operation.getUpdatedAt())
+                .completedAt(operation.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * Re-dispatch due retries and operations abandoned by a dead worker.
+     * Safe on several instances: each attempt starts with a conditional claim.
+     */
+    @Scheduled(fixedDelayString = "${provisioning.poll-interval-ms:5000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status -> operationRepository.releaseAbandoned(
+                now.minusSeconds(properties.getAbandonedAfterSeconds()), now));
+        if (released != null && released > 0) {
+            log.warn("Released {} abandoned identity operations for retry", released);
+        }
+
+        List<String> due = operationRepository.findDueIds(now, PageRequest.of(0, properties.getBatchSize()));
+        due.forEach(this::dispatch);
+    }
+
+    private void dispatch(String operationId) {
+        try {
+            executor.execute(() -> process(operationId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Provisioning executor saturated, operation {} left for the sweeper", operationId);
+        }
+    }
+
+    /**
+     * Hand a batch to the executor from the feeder thread. While the executor is saturated the
+     * feeder runs the attempt itself, which paces the feed to the workers (and the rate limit)
+     * instead of dropping work; whatever is not fed stays PENDING for the sweeper.
+     */
+    private void feed(List<String> operationIds) {
+        try {
+            bulkExecutor.execute(() -> {
+                for (String operationId : operationIds) {
+                    try {
+                        executor.execute(() -> process(operationId));
+                    } catch (RejectedExecutionException e) {
+                        process(operationId);
+                    }
+                }
+                log.info("Fed {} bulk identity operations to the provisioning executor", operationIds.size());
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Bulk feeder busy, {} operations left for the sweeper", operationIds.size());
+        }
+    }
+
+    /**
+     * Run one attempt of an operation, if this worker wins the claim
+     */
+    void process(String operationId) {
+        IdentityOperation operation = transactionTemplate.execute(status ->
+                operationRepository.claim(operationId, LocalDateTime.now()) == 1
+                        ? operationRepository.findById(operationId).orElse(null)
+                        : null);
+        if (operation == null) {
+            return; // Claimed elsewhere, already finished, or backing off
+        }
+
+        // Phase 2: identity provider call, outside any transaction
+        String userId;
+        try {
+            userId = applyToCognito(operation);
+        } catch (RuntimeException e) {
+            boolean retry = isRetryable(e) && operation.getAttempts() < properties.getMaxAttempts();
+            if (!retry && operation.getType() == IdentityOperationType.CREATE && isRetryable(e)) {
+                releaseOrphanIdentity(operation);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> recordFailure(operationId, e, retry));
+                evictUserCaches(operation.getUserId());
+            } catch (RuntimeException dbError) {
+                log.error("Failed to record failure of operation {}, it will be retried once abandoned",
+                        operationId, dbError);
+            }
+            return;
+        }
+
+        // Phase 3: finalize the local row
+        try {
+            transactionTemplate.executeWithoutResult(status -> complete(operationId, userId));
+            evictUserCaches(operation.getUserId(), userId);
+        } catch (RuntimeException e) {
+            // Cognito already has the change; the repeated attempt is idempotent
+            log.error("Failed to finalize operation {}, it will be retried once abandoned", operationId, e);
+        }
+    }
+
+    /**
+     * @return the user's Cognito sub (for CREATE, the newly created identity)
+     */
+    private String applyToCognito(IdentityOperation operation) {
+        switch (operation.getType()) {
+            case CREATE -> {
+                return createIdentity(operation);
+            }
+            case UPDATE -> cognitoService.updateUserAttributes(operation.getUserId(),
+                    operation.getFirstName(), operation.getLastName(), operation.getRole());
+            case DISABLE -> cognitoService.disableUser(operation.getUserId());
+            case ENABLE -> cognitoService.enableUser(operation.getUserId());
+        }
+        return operation.getUserId();
+    }
+
+    private String createIdentity(IdentityOperation operation) {
+        try {
+            return cognitoService.createUser(operation.getEmail(), operation.getFirstName(),
+                    operation.getLastName(), operation.getRole());
+        } catch (UserAlreadyExistsException e) {
+            // A previous attempt may have created the identity and then lost the response
+            if (operation.getAttempts() > 1) {
+                String sub = cognitoService.findUserSub(operation.getEmail()).orElseThrow(() -> e);
+                log.info("Adopting Cognito identity created by an earlier attempt for {}", operation.getEmail());
+                return sub;
+            }
+            throw e;
+        }
+    }
+
+    private void complete(String operationId, String userId) {
+        IdentityOperation operation = operationRepository.findById(operationId).orElseThrow();
+
+        if (operation.getType() == IdentityOperationType.CREATE) {
+            String provisionalId = operation.getUserId();
+            if (userRepository.rekey(provisionalId, userId) == 0) {
+                log.warn("Provisional user {} no longer exists for operation {}", provisionalId, operationId);
+            }
+            operationRepository.reassignUser(provisionalId, userId);
+            // The rekey cleared the persistence context
+            operation = operationRepository.findById(operationId).orElseThrow();
+        } else {
+            User user = userRepository.findById(userId).orElseThrow();
+            switch (operation.getType()) {
+                case UPDATE -> {
+                    if (operation.getFirstName() != null) {
+                        user.setFirstName(operation.getFirstName());
+                    }
+                    if (operation.getLastName() != null) {
+                        user.setLastName(operation.getLastName());
+                    }
+                    if (operation.getRole() != null) {
+                        user.setRole(operation.getRole());
+                    }
+                }
+                case DISABLE -> user.setStatus(UserStatus.DISABLED);
+                case ENABLE -> user.setStatus(UserStatus.ACTIVE);
+                default -> { }
+            }
+            user.setUpdatedBy(operation.getRequestedBy());
+            userRepository.save(user);
+        }
+
+        operation.setUserId(userId);
+        operation.setStatus(IdentityOperationStatus.SUCCEEDED);
+        operation.setLastError(null);
+        operation.setCompletedAt(LocalDateTime.now());
+        operationRepository.save(operation);
+
+        log.info("{} operation {} succeeded for user {} after {} attempt(s)",
+                operation.getType(), operationId, operation.getEmail(), operation.getAttempts());
+    }
+
+    private void recordFailure(String operationId, RuntimeException error, boolean retry) {
+        IdentityOperation operation = operationRepository.findById(operationId).orElseThrow();
+        operation.setLastError(describe(error));
+
+        if (retry) {
+            operation.setStatus(IdentityOperationStatus.PENDING);
+            operation.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMs(operation.getAttempts()))));
+            log.warn("{} operation {} attempt {} failed, retrying: {}",
+                    operation.getType(), operationId, operation.getAttempts(), operation.getLastError());
+        } else {
+            compensate(operation);
+            operation.setStatus(IdentityOperationStatus.FAILED);
+            operation.setCompletedAt(LocalDateTime.now());
+            log.error("{} operation {} failed after {} attempt(s): {}",
+                    operation.getType(), operationId, operation.getAttempts(), operation.getLastError());
+        }
+        operationRepository.save(operation);
+    }
+
+    /**
+     * Undo the local side of a failed operation.
+     * Only CREATE changes the local row before Cognito confirms; updates and status changes
+     * are applied in phase 3, so a failure leaves the user exactly as it was.
+     */
+    private void compensate(IdentityOperation operation) {
+        if (operation.getType() == IdentityOperationType.CREATE && isProvisionalId(operation.getUserId())) {
+            userRepository.deleteById(operation.getUserId());
+            log.info("Removed provisional user {} for failed creation of {}",
+                    operation.getUserId(), operation.getEmail());
+        }
+    }
+
+    /**
+     * The last creation attempt failed with an unknown outcome; remove the identity it may have
+     * left in Cognito so the email can be provisioned again. Best effort, outside any transaction.
+     */
+    private void releaseOrphanIdentity(IdentityOperation operation) {
+        try {
+            cognitoService.findUserSub(operation.getEmail())
+                    .filter(sub -> !userRepository.existsById(sub))
+                    .ifPresent(cognitoService::deleteUser);
+        } catch (RuntimeException e) {
+            log.error("Could not remove orphaned Cognito identity for {}, manual cleanup required",
+                    operation.getEmail(), e);
+        }
+    }
+
+    /**
+     * Transient failures are retried: throttling, Cognito 5xx, transport errors (timeouts) and
+     * calls the client-side limiter rejected.
+     * Other Cognito 4xx responses and an existing username are final.
+     */
+    static boolean isRetryable(RuntimeException e) {
+        if (e instanceof UserAlreadyExistsException) {
+            return false;
+        }
+        Throwable cause = e instanceof CognitoException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof AwsServiceException serviceException) {
+            return serviceException.isThrottlingException() || serviceException.statusCode() >= 500;
+        }
+        return true;
+    }
+
+    long backoffMs(int attempts) {
+        long backoff = properties.getInitialBackoffMs() << Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(backoff, properties.getMaxBackoffMs());
+    }
+
+    private static String describe(RuntimeException e) {
+        Throwable cause = e instanceof CognitoException && e.getCause() != null ? e.getCause() : e;
+        String message = e.getMessage() + (cause != e ? ": " + cause.getMessage() : "");
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private void evictUserCaches(String... userIds) {
+        try {
+            Cache single = cacheManager.getCache("users-single");
+            Cache identity = cacheManager.getCache("cognito-identity");
+            for (String userId : userIds) {
+                if (single != null) {
+                    single.evict("user:" + userId);
+                }
+                if (identity != null) {
+                    identity.evict("identity:" + userId);
+                }
+            }
+            Cache list = cacheManager.getCache("users-list");
+            if (list != null) {
+                list.clear();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict user caches after identity operation: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.config.UserDirectoryProperties;
+import com.BankingBuddy.user_service.exception.ForbiddenException;
+import com.BankingBuddy.user_service.model.dto.UserDTO;
+import com.BankingBuddy.user_service.model.dto.UserDirectoryDTO;
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.security.UserRole;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+/**
+ * In-process, immutable snapshot of the user directory.
+ *
+ * The users table is small and read-mostly, so the whole directory is held in memory and
+ * replaced atomically. Each refresh reads only rows whose updated_at is at or after the
+ * watermark (minus an overlap window for transactions that committed late), bumps the
+ * version if anything changed, and tags changed entries with that version; a replica at
+ * version N is brought up to date with the entries tagged after N.
+ *
+ * Provisional users (Cognito identity not created yet) are left out. They are the only
+ * rows ever deleted, so the directory never has to track deletions. A user leaves a caller's
+ * view only through a role or creator change; every entry keeps the history of those, so a
+ * delta reports the removal only to callers that could see the user at their version.
+ */
+@Service
+@Slf4j
+public class UserDirectoryService {
+
+    private final UserRepository userRepository;
+    private final UserDirectoryProperties properties;
+
+    // Identifies this in-memory copy; versions from another instance or a restart are not comparable
+    private final String snapshotId = UUID.randomUUID().toString();
+    private volatile Snapshot snapshot;     // null until the first load
+
+    public UserDirectoryService(UserRepository userRepository, UserDirectoryProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+
+        Gauge.builder("user.directory.size", this, service -> service.snapshot == null ? 0 : service.snapshot.entries().size())
+                .description("Users held in the in-memory directory snapshot")
+                .register(meterRegistry);
+        Gauge.builder("user.directory.version", this, service -> service.snapshot == null ? 0 : service.snapshot.version())
+                .description("Current version of the in-memory directory snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A directory user and the snapshot version in which it last changed.
+     * scopes holds every role / creator the user has had in this snapshot, oldest first.
+     */
+    record Entry(UserDTO user, String createdBy, long version, List<Scope> scopes) {
+
+        /**
+         * Role and creator as of a snapshot version; null if the user was not in the directory yet
+         */
+        Scope scopeAt(long atVersion) {
+            Scope found = null;
+            for (Scope scope : scopes) {
+                if (scope.since() > atVersion) {
+                    break;
+                }
+                found = scope;
+            }
+            return found;
+        }
+    }
+
+    /**
+     * The fields that decide who can see a user, from the version they took effect
+     */
+    record Scope(UserRole role, String createdBy, long since) {
+    }
+
+    record Snapshot(long version, LocalDateTime watermark, Map<String, Entry> entries, LocalDateTime refreshedAt) {
+    }
+
+    @Scheduled(fixedDelayString = "${directory.refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next run retries from the same watermark
+            log.error("User directory refresh failed", e);
+        }
+    }
+
+    /**
+     * Load the directory on first use, afterwards apply the updated_at delta since the watermark.
+     * Serialized so concurrent callers never build competing snapshots.
+     */
+    synchronized Snapshot refresh() {
+        Snapshot current = snapshot;
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current == null) {
+            List<User> users = userRepository.findAll();
+            Map<String, Entry> entries = new HashMap<>();
+            for (User user : users) {
+                if (!IdentityProvisioningService.isProvisionalId(user.getId())) {
+                    entries.put(user.getId(), new Entry(UserService.mapToDTO(user), user.getCreatedBy(), 1,
+                            scopes(null, user, 1)));
+                }
+            }
+            snapshot = new Snapshot(1, latestUpdate(users, null), Map.copyOf(entries), now);
+            log.info("Loaded user directory snapshot: {} users", entries.size());
+            return snapshot;
+        }
+
+        List<User> changed = current.watermark() == null ? userRepository.findAll()
+                : userRepository.findByUpdatedAtGreaterThanEqual(
+                        current.watermark().minusSeconds(properties.getWatermarkOverlapSeconds()));
+
+        long nextVersion = current.version() + 1;
+        Map<String, Entry> entries = null;     // copied on the first real change
+        for (User user : changed) {
+            if (IdentityProvisioningService.isProvisionalId(user.getId())) {
+                continue;
+            }
+            UserDTO dto = UserService.mapToDTO(user);
+            Entry existing = current.entries().get(user.getId());
+            // The overlap window re-reads rows already applied; only real changes get a new version
+            if (existing != null && existing.user().equals(dto)
+                    && Objects.equals(existing.createdBy(), user.getCreatedBy())) {
+                continue;
+            }
+            if (entries == null) {
+                entries = new HashMap<>(current.entries());
+            }
+            entries.put(user.getId(), new Entry(dto, user.getCreatedBy(), nextVersion,
+                    scopes(existing, user, nextVersion)));
+        }
+
+        LocalDateTime watermark = latestUpdate(changed, current.watermark());
+        if (entries == null) {
+            snapshot = new Snapshot(current.version(), watermark, current.entries(), now);
+        } else {
+            snapshot = new Snapshot(nextVersion, watermark, Map.copyOf(entries), now);
+            log.debug("User directory advanced to version {}", nextVersion);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Users visible to the caller, in full or changed after sinceVersion.
+     * Visibility matches the directory listing: admins see the agents they created,
+     * root admins see admins and agents. removedIds lists only users the caller could see
+     * at sinceVersion and can no longer see.
+     *
+     * @param snapshotId   snapshotId from the caller's previous sync; a mismatch forces a full copy
+     * @param sinceVersion version from the caller's previous sync; absent for a full copy
+     */
+    public UserDirectoryDTO getDirectory(UserContext currentUser, String snapshotId, Long sinceVersion) {
+        BiPredicate<UserRole, String> visible = switch (currentUser.getRole()) {
+            case ADMIN -> (role, createdBy) -> role == UserRole.AGENT
+                    && currentUser.getUserId().equals(createdBy);
+            case ROOT_ADMIN -> (role, createdBy) -> role == UserRole.ADMIN || role == UserRole.AGENT;
+            default -> throw new ForbiddenException("Only admins can read the user directory");
+        };
+
+        Snapshot current = snapshot != null ? snapshot : refresh();
+        boolean full = sinceVersion == null || !this.snapshotId.equals(snapshotId)
+                || sinceVersion > current.version();
+
+        List<UserDTO> users = new ArrayList<>();
+        List<String> removedIds = new ArrayList<>();
+        for (Entry entry : current.entries().values()) {
+            if (!full && entry.version() <= sinceVersion) {
+                continue;
+            }
+            if (visible.test(entry.user().getRole(), entry.createdBy())) {
+                users.add(entry.user());
+            } else if (!full) {
+                // Changed out of the caller's view (e.g. role change): drop it from the replica,
+                // but only if the replica can hold it - never reveal IDs the caller was not shown
+                Scope before = entry.scopeAt(sinceVersion);
+                if (before != null && visible.test(before.role(), before.createdBy())) {
+                    removedIds.add(entry.user().getId());
+                }
+            }
+        }
+
+        return UserDirectoryDTO.builder()
+                .snapshotId(this.snapshotId)
+                .version(current.version())
+                .full(full)
+                .users(users)
+                .removedIds(removedIds)
+                .refreshedAt(current.refreshedAt())
+                .build();
+    }
+
+    /**
+     * The entry's scope history, extended if this change moves the user to another role or creator
+     */
+    private static List<Scope> scopes(Entry existing, User user, long version) {
+        if (existing == null) {
+            return List.of(new Scope(user.getRole(), user.getCreatedBy(), version));
+        }
+        Scope last = existing.scopes().get(existing.scopes().size() - 1);
+        if (last.role() == user.getRole() && Objects.equals(last.createdBy(), user.getCreatedBy())) {
+            return existing.scopes();
+        }
+        List<Scope> scopes = new ArrayList<>(existing.scopes());
+        scopes.add(new Scope(user.getRole(), user.getCreatedBy(), version));
+        return List.copyOf(scopes);
+    }
+
+    private static LocalDateTime latestUpdate(List<User> users, LocalDateTime watermark) {
+        LocalDateTime latest = watermark;
+        for (User user : users) {
+            if (user.getUpdatedAt() != null && (latest == null || user.getUpdatedAt().isAfter(latest))) {
+                latest = user.getUpdatedAt();
+            }
+        }
+        return latest;
+    }
+}
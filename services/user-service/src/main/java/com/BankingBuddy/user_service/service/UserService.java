@@ -1,11 +1,18 @@
 package com.BankingBuddy.user_service.service;
 
+import com.BankingBuddy.user_service.model.dto.CognitoUserStateDTO;
 import com.BankingBuddy.user_service.model.dto.CreateUserRequest;
+import com.BankingBuddy.user_service.model.dto.CursorPageDTO;
+import com.BankingBuddy.user_service.model.dto.IdentityOperationDTO;
 import com.BankingBuddy.user_service.model.dto.UpdateUserRequest;
 import com.BankingBuddy.user_service.model.dto.UserDTO;
+import com.BankingBuddy.user_service.model.dto.UserSearchRequest;
 import com.BankingBuddy.user_service.model.dto.PageDTO;
+import com.BankingBuddy.user_service.model.entity.IdentityOperation;
 import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationType;
 import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.repository.UserSpecification;
 import com.BankingBuddy.user_service.security.UserContext;
 import com.BankingBuddy.user_service.security.UserRole;
 import com.BankingBuddy.user_service.security.UserStatus;
@@ -20,8 +27,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AssociateSoftwareTokenResponse;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.VerifySoftwareTokenResponse;
 
@@ -30,15 +48,26 @@ import software.amazon.awssdk.services.cognitoidentityprovider.model.VerifySoftw
 @Transactional
 public class UserService {
 
+    /**
+     * Directory order: newest first, ID as tie-breaker (created_at has second precision)
+     */
+    private static final Comparator<User> DIRECTORY_ORDER = Comparator
+            .comparing(User::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(User::getId)
+            .reversed();
+
     private final UserRepository userRepository;
     private final CognitoService cognitoService;
+    private final IdentityProvisioningService provisioningService;
 
-    public UserService(UserRepository userRepository, CognitoService cognitoService) {
+    public UserService(UserRepository userRepository, CognitoService cognitoService,
+                       IdentityProvisioningService provisioningService) {
         this.userRepository = userRepository;
         this.cognitoService = cognitoService;
+        this.provisioningService = provisioningService;
     }
 
-    private UserDTO mapToDTO(User user) {
+    static UserDTO mapToDTO(User user) {
         return UserDTO.builder()
                 .id(user.getId())
                 .email(user.getEmail())
@@ -53,9 +82,11 @@ public class UserService {
 
     /**
      * Create a new user. Evicts all list caches since new users appear in lists.
+     * The user is stored PENDING under a provisional ID and the Cognito identity is
+     * created asynchronously; poll the returned operation for the final user ID.
      */
     @CacheEvict(value = "users-list", allEntries = true)
-    public UserDTO createUser(CreateUserRequest request, UserContext currentUser) {
+    public IdentityOperationDTO createUser(CreateUserRequest request, UserContext currentUser) {
         // Authorization check
         if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.ROOT_ADMIN) {
             throw new ForbiddenException("Only admins can create new users");
@@ -71,16 +102,9 @@ public class UserService {
             throw new UserAlreadyExistsException("User with email " + request.getEmail() + " already exists");
         }
 
-        // Create user in Cognito first
-        String cognitoUserId = cognitoService.createUser(
-                request.getEmail(),
-                request.getFirstName(),
-                request.getLastName(),
-                request.getRole());
-
-        // Create user in local database
+        // Commit the local row first; it is re-keyed to the Cognito sub once the identity exists
         User user = User.builder()
-                .id(cognitoUserId)
+                .id(IdentityProvisioningService.newProvisionalId())
                 .email(request.getEmail())
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
@@ -91,20 +115,19 @@ public class UserService {
                 .build();
 
         user = userRepository.save(user);
+        IdentityOperation operation = provisioningService.open(IdentityOperationType.CREATE, user,
+                request.getFirstName(), request.getLastName(), request.getRole(), currentUser.getUserId());
         log.info("Created user in database: {} by {}", user.getEmail(), currentUser.getEmail());
 
-        return mapToDTO(user);
+        return IdentityProvisioningService.mapToDTO(operation);
     }
 
     /**
-     * Update user. Evicts the user's single cache and all list caches.
+     * Update user. Cognito is updated asynchronously and the local row only changes once it
+     * succeeds; caches are evicted at that point.
      */
-    @Caching(evict = {
-        @CacheEvict(value = "users-single", key = "'user:' + #userId"),
-        @CacheEvict(value = "users-list", allEntries = true)
-    })
-    public UserDTO updateUser(String userId, UpdateUserRequest request, UserContext currentUser) {
-        User user = userRepository.findById(userId)
+    public IdentityOperationDTO updateUser(String userId, UpdateUserRequest request, UserContext currentUser) {
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
 
         // Authorization logic
@@ -141,44 +164,23 @@ public class UserService {
             }
         }
 
-        // Update Cognito first
-        cognitoService.updateUserAttributes(userId,
-                request.getFirstName(),
-                request.getLastName(),
-                request.getRole());
+        IdentityOperation operation = provisioningService.open(IdentityOperationType.UPDATE, user,
+                request.getFirstName(), request.getLastName(), request.getRole(), currentUser.getUserId());
+        log.info("Accepted update of user: {} by {}", user.getEmail(), currentUser.getEmail());
 
-        // Update local database
-        if (request.getFirstName() != null) {
-            user.setFirstName(request.getFirstName());
-        }
-        if (request.getLastName() != null) {
-            user.setLastName(request.getLastName());
-        }
-        if (request.getRole() != null) {
-            user.setRole(request.getRole());
-        }
-        user.setUpdatedBy(currentUser.getUserId());
-
-        user = userRepository.save(user);
-        log.info("Updated user: {} by {}", user.getEmail(), currentUser.getEmail());
-
-        return mapToDTO(user);
+        return IdentityProvisioningService.mapToDTO(operation);
     }
 
     /**
-     * Disable user. Evicts the user's single cache and all list caches.
+     * Disable user. The user is marked DISABLED (and caches evicted) once Cognito confirms.
      */
-    @Caching(evict = {
-        @CacheEvict(value = "users-single", key = "'user:' + #userId"),
-        @CacheEvict(value = "users-list", allEntries = true)
-    })
-    public void disableUser(String userId, UserContext currentUser) {
+    public IdentityOperationDTO disableUser(String userId, UserContext currentUser) {
         // Authorization check
         if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.ROOT_ADMIN) {
             throw new ForbiddenException("Only admins can disable users");
         }
 
-        User user = userRepository.findById(userId)
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
 
         // Prevent disabling root admin
@@ -196,30 +198,22 @@ public class UserService {
             throw new ForbiddenException("Admins cannot disable other admins");
         }
 
-        // Disable in Cognito
-        cognitoService.disableUser(userId);
-
-        // Update local database
-        user.setStatus(UserStatus.DISABLED);
-        user.setUpdatedBy(currentUser.getUserId());
-        userRepository.save(user);
+        IdentityOperation operation = provisioningService.open(IdentityOperationType.DISABLE, user,
+                null, null, null, currentUser.getUserId());
+        log.info("Accepted disabling of user: {} by {}", user.getEmail(), currentUser.getEmail());
 
-        log.info("Disabled user: {} by {}", user.getEmail(), currentUser.getEmail());
+        return IdentityProvisioningService.mapToDTO(operation);
     }
 
     /**
-     * Enable user. Evicts the user's single cache and all list caches.
+     * Enable user. The user is marked ACTIVE (and caches evicted) once Cognito confirms.
      */
-    @Caching(evict = {
-        @CacheEvict(value = "users-single", key = "'user:' + #userId"),
-        @CacheEvict(value = "users-list", allEntries = true)
-    })
-    public void enableUser(String userId, UserContext currentUser) {
+    public IdentityOperationDTO enableUser(String userId, UserContext currentUser) {
         if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.ROOT_ADMIN) {
             throw new ForbiddenException("Only admins can enable users");
         }
 
-        User user = userRepository.findById(userId)
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
 
         // Cannot enable self
@@ -232,13 +226,19 @@ public class UserService {
             throw new ForbiddenException("Admins cannot enable other admins");
         }
 
-        cognitoService.enableUser(userId);
+        IdentityOperation operation = provisioningService.open(IdentityOperationType.ENABLE, user,
+                null, null, null, currentUser.getUserId());
+        log.info("Accepted enabling of user: {} by {}", user.getEmail(), currentUser.getEmail());
 
-        user.setStatus(UserStatus.ACTIVE);
-        user.setUpdatedBy(currentUser.getUserId());
-        userRepository.save(user);
+        return IdentityProvisioningService.mapToDTO(operation);
+    }
 
-        log.info("Enabled user: {} by {}", user.getEmail(), currentUser.getEmail());
+    /**
+     * Outcome of an asynchronous create, update, disable or enable
+     */
+    @Transactional(readOnly = true)
+    public IdentityOperationDTO getOperation(String operationId, UserContext currentUser) {
+        return provisioningService.getOperation(operationId, currentUser);
     }
 
     public void resetPassword(String userId, UserContext currentUser) {
@@ -314,15 +314,201 @@ public class UserService {
             );
         }
 
-        return PageDTO.from(userPage.map(this::mapToDTO));
+        return PageDTO.from(userPage.map(UserService::mapToDTO));
     }
 
     /**
-     * Set up MFA for user. Evicts the user's single cache and all list caches.
+     * Get one keyset page of the user directory. Cached for 5 minutes like offset pages.
+     * Ordered by (createdAt DESC, id DESC); no COUNT query is issued, and one extra row
+     * is fetched to determine whether another page exists.
+     * Root admins see admins and agents: each role is read from its own
+     * (role, created_at, id) index range and the two runs are merged here, so neither
+     * view needs a filesort however deep the page is.
+     *
+     * @param cursor opaque cursor from a previous page's nextCursor; blank for the first page
+     */
+    @Cacheable(
+        value = "users-list",
+        key = "'users:role:' + #currentUser.role.name() + ':adminId:' + #currentUser.userId + ':cursor:' + #cursor + ':limit:' + #limit",
+        unless = "#result.content.isEmpty()"
+    )
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> getUsersPage(UserContext currentUser, String cursor, int limit) {
+        log.debug("Cache miss - fetching users page from database: role={}, adminId={}, cursor={}, limit={}",
+                 currentUser.getRole(), currentUser.getUserId(), cursor != null && !cursor.isBlank(), limit);
+
+        if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.ROOT_ADMIN) {
+            throw new ForbiddenException("Only admins can view all users");
+        }
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        boolean firstPage = cursor == null || cursor.isBlank();
+        LocalDateTime createdAt = null;
+        String id = null;
+        if (!firstPage) {
+            String[] position = decodeCursor(cursor);
+            createdAt = LocalDateTime.parse(position[0]);
+            id = position[1];
+        }
+
+        List<User> rows;
+        if (currentUser.getRole() == UserRole.ADMIN) {
+            // Agents created by this admin
+            rows = firstPage
+                    ? userRepository.findDirectoryFirstPageByCreator(UserRole.AGENT, currentUser.getUserId(), pageable)
+                    : userRepository.findDirectoryPageByCreatorAfter(
+                            UserRole.AGENT, currentUser.getUserId(), createdAt, id, pageable);
+        } else {
+            // Root admin: merge the newest admins and agents
+            LocalDateTime afterCreatedAt = createdAt;
+            String afterId = id;
+            rows = Stream.of(UserRole.ADMIN, UserRole.AGENT)
+                    .flatMap(role -> (firstPage
+                            ? userRepository.findDirectoryFirstPage(role, pageable)
+                            : userRepository.findDirectoryPageAfter(role, afterCreatedAt, afterId, pageable)).stream())
+                    .sorted(DIRECTORY_ORDER)
+                    .limit(limit + 1)
+                    .toList();
+        }
+
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * Filtered search of the user directory by role set, status, creator and name/email prefix.
+     * Scoped like the directory listing: admins search the agents they created, root admins
+     * search admins and agents. Same (createdAt DESC, id DESC) keyset paging as getUsersPage;
+     * the filters run in the database so callers no longer download and filter whole pages.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> searchUsers(UserSearchRequest request, UserContext currentUser) {
+        log.debug("Searching users: role={}, adminId={}, filters={}",
+                 currentUser.getRole(), currentUser.getUserId(), request);
+
+        Set<UserRole> visibleRoles = switch (currentUser.getRole()) {
+            case ADMIN -> EnumSet.of(UserRole.AGENT);
+            case ROOT_ADMIN -> EnumSet.of(UserRole.ADMIN, UserRole.AGENT);
+            default -> throw new ForbiddenException("Only admins can search users");
+        };
+
+        Set<UserRole> roles = visibleRoles;
+        if (request.getRoles() != null && !request.getRoles().isEmpty()) {
+            roles = EnumSet.noneOf(UserRole.class);
+            for (String role : request.getRoles()) {
+                roles.add(parseFilter(() -> UserRole.fromValue(role.trim()), "Invalid role filter: " + role));
+            }
+            if (!visibleRoles.containsAll(roles)) {
+                throw new ForbiddenException("You can only search users with roles " + visibleRoles);
+            }
+        }
+
+        String createdBy = request.getCreatedBy();
+        if (currentUser.getRole() == UserRole.ADMIN) {
+            if (createdBy != null && !createdBy.isBlank() && !createdBy.equals(currentUser.getUserId())) {
+                throw new ForbiddenException("Admins can only search users they created");
+            }
+            createdBy = currentUser.getUserId();
+        }
+
+        String status = request.getStatus();
+        UserStatus userStatus = status == null || status.isBlank() ? null
+                : parseFilter(() -> UserStatus.fromValue(status.trim()), "Invalid status filter: " + status);
+
+        List<Specification<User>> filters = new ArrayList<>(List.of(
+                UserSpecification.hasRoleIn(roles),
+                UserSpecification.hasStatus(userStatus),
+                UserSpecification.createdBy(createdBy),
+                UserSpecification.matchesPrefix(request.getQ())));
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            String[] position = decodeCursor(request.getCursor());
+            filters.add(UserSpecification.after(LocalDateTime.parse(position[0]), position[1]));
+        }
+
+        int limit = request.getLimit();
+        List<User> rows = userRepository.findBy(Specification.allOf(filters), query -> query
+                .sortBy(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(limit + 1)
+                .all());
+
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * Trim a limit + 1 row fetch to one page; the extra row only signals that another page exists
+     */
+    private CursorPageDTO<UserDTO> toCursorPage(List<User> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<User> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        return CursorPageDTO.<UserDTO>builder()
+                .content(page.stream().map(UserService::mapToDTO).toList())
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private static <T> T parseFilter(Supplier<T> parser, String message) {
+        try {
+            return parser.get();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(message);
+        }
+    }
+
+    /**
+     * Encode the keyset position of the last user on a page as an opaque cursor
+     * Format (before Base64): "{createdAt}|{id}"
+     */
+    private String encodeCursor(User last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor into [createdAt, id]
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|", 2);
+            if (position.length != 2 || position[1].isBlank()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.error("Invalid users cursor supplied: {}", cursor);
+            throw new InvalidRequestException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * Cognito-derived MFA and account state of a user, served from the cognito-identity cache
+     */
+    @Transactional(readOnly = true)
+    public CognitoUserStateDTO getIdentityState(String userId, UserContext currentUser) {
+        // Agents can only view their own state
+        if (currentUser.getRole() == UserRole.AGENT && !currentUser.getUserId().equals(userId)) {
+            throw new ForbiddenException("Agents can only view their own MFA status");
+        }
+
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+
+        return cognitoService.getUserState(userId);
+    }
+
+    /**
+     * Set up MFA for user. Evicts the user's single cache, all list caches and the
+     * user's Cognito state.
      */
     @Caching(evict = {
         @CacheEvict(value = "users-single", key = "'user:' + #userId"),
-        @CacheEvict(value = "users-list", allEntries = true)
+        @CacheEvict(value = "users-list", allEntries = true),
+        @CacheEvict(value = "cognito-identity", key = "'identity:' + #userId")
     })
     public void setUpMFAForUser(String userId, UserContext currentUser) {
         // Only allow users themselves to finish onboarding
@@ -341,10 +527,15 @@ public class UserService {
         // via frontend Amplify SDK (updateMFAPreference). The frontend handles all MFA setup.
         // This backend method only marks the user as ACTIVE (onboarding complete).
         
-        // Optionally cleanup SMS MFA if user previously had it (for migration scenarios)
+        // Optionally cleanup SMS MFA if user previously had it (for migration scenarios).
+        // Skipped when Cognito already shows TOTP as the only preference. Read uncached: the
+        // frontend has just changed the preference directly in Cognito.
         try {
-            cognitoService.removeSMSMFAPreference(userId);
-            log.debug("Cleaned up SMS MFA preference for user: {}", user.getEmail());
+            CognitoUserStateDTO state = cognitoService.fetchUserState(userId);
+            if (state.hasMfaSetting("SMS_MFA") || !"SOFTWARE_TOKEN_MFA".equals(state.getPreferredMfaSetting())) {
+                cognitoService.removeSMSMFAPreference(userId);
+                log.debug("Cleaned up SMS MFA preference for user: {}", user.getEmail());
+            }
         } catch (Exception e) {
             log.debug("No SMS MFA to clean up for user {}: {}", userId, e.getMessage());
             // Not an error - user may not have had SMS MFA
@@ -371,7 +562,9 @@ public class UserService {
     
     /**
      * Verify software token (TOTP) code for the current user.
+     * Evicts the user's Cognito state, which now includes the software token.
      */
+    @CacheEvict(value = "cognito-identity", key = "'identity:' + #currentUser.userId")
     public VerifySoftwareTokenResponse verifyTOTP(String accessToken, String totpCode, UserContext currentUser) {
         // Only allow users to verify TOTP for themselves
         // Note: We can't validate userId from access token directly,
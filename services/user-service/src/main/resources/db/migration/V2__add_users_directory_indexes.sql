@@ -0,0 +1,7 @@
+-- V2: Composite indexes backing the user directory listing (GET /api/v1/users)
+-- Admin view:      WHERE role = 'AGENT' AND created_by = ? ORDER BY created_at DESC, id DESC
+-- Root admin view: WHERE role = ? ORDER BY created_at DESC, id DESC (one range per role)
+-- Both serve offset pages and (created_at, id) keyset pages without a filesort
+
+CREATE INDEX idx_users_role_creator_created ON users (role, created_by, created_at, id);
+CREATE INDEX idx_users_role_created ON users (role, created_at, id);
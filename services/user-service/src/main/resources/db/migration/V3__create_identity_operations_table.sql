@@ -0,0 +1,27 @@
+-- V3: Identity provider operations (provisioning saga)
+-- User writes commit locally first; the Cognito call runs asynchronously from this table
+-- with retries, and the operation row is what clients poll for the final outcome.
+-- Requested attribute values are stored on the row so a retry never depends on request state.
+
+CREATE TABLE IF NOT EXISTS identity_operations (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL COMMENT 'Local user ID; provisional for CREATE until the Cognito sub is known',
+    type ENUM('CREATE', 'UPDATE', 'DISABLE', 'ENABLE') NOT NULL,
+    status ENUM('PENDING', 'IN_PROGRESS', 'SUCCEEDED', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    email VARCHAR(255),
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    role ENUM('ADMIN', 'AGENT', 'ROOT_ADMIN'),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    next_attempt_at TIMESTAMP(3) NOT NULL,
+    claimed_at TIMESTAMP(3) NULL,
+    completed_at TIMESTAMP(3) NULL,
+    requested_by VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    INDEX idx_identity_operations_due (status, next_attempt_at),
+    INDEX idx_identity_operations_claimed (status, claimed_at),
+    INDEX idx_identity_operations_user (user_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,10 @@
+-- V4: Indexes backing the filtered user search (GET /api/v1/users/search)
+-- Name prefixes: first_name LIKE 'x%' [AND last_name LIKE 'y%'] and last_name LIKE 'x%'
+-- are index range scans (utf8mb4_unicode_ci is case-insensitive, no LOWER() needed);
+-- email prefixes use idx_email from V1.
+-- Status filter: WHERE status = ? AND role IN (...) ORDER BY created_at DESC, id DESC
+-- Role / creator filters without a prefix reuse the V2 directory indexes.
+
+CREATE INDEX idx_users_first_last_name ON users (first_name, last_name);
+CREATE INDEX idx_users_last_name ON users (last_name);
+CREATE INDEX idx_users_status_role_created ON users (status, role, created_at, id);
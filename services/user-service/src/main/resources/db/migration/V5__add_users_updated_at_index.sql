@@ -0,0 +1,4 @@
+-- V5: Index backing the user directory snapshot delta refresh
+-- WHERE updated_at >= ? (watermark minus overlap window), a short range at the index tail
+
+CREATE INDEX idx_users_updated_at ON users (updated_at);
@@ -0,0 +1,6 @@
+-- V6: Bulk provisioning batches (POST /api/v1/users/bulk)
+-- Operations created by one bulk request share a batch_id; the batch report reads them back by it
+
+ALTER TABLE identity_operations
+    ADD COLUMN batch_id VARCHAR(36) NULL COMMENT 'Bulk request that created the operation',
+    ADD INDEX idx_identity_operations_batch (batch_id, email);
@@ -0,0 +1,225 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.config.IdentityProvisioningProperties;
+import com.BankingBuddy.user_service.exception.ForbiddenException;
+import com.BankingBuddy.user_service.exception.IdentityOperationNotFoundException;
+import com.BankingBuddy.user_service.exception.UserAlreadyExistsException;
+import com.BankingBuddy.user_service.model.dto.BulkCreateUsersRequest;
+import com.BankingBuddy.user_service.model.dto.BulkProvisioningReportDTO;
+import com.BankingBuddy.user_service.model.dto.BulkUserResultDTO;
+import com.BankingBuddy.user_service.model.dto.CreateUserRequest;
+import com.BankingBuddy.user_service.model.entity.IdentityOperation;
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import com.BankingBuddy.user_service.repository.IdentityOperationRepository;
+import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.security.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Up-front row checks, batched inserts, the after-commit hand-off and batch visibility
+ * of bulk user creation. The EntityManager is a mock, so flushes are counted, not executed.
+ */
+class BulkProvisioningServiceTest {
+
+    private UserRepository userRepository;
+    private IdentityOperationRepository operationRepository;
+    private IdentityProvisioningService provisioningService;
+    private IdentityProvisioningProperties properties;
+    private EntityManager entityManager;
+    private BulkProvisioningService bulkService;
+
+    private final UserContext rootAdmin = UserContext.builder().userId("root").role(UserRole.ROOT_ADMIN).build();
+    private final UserContext admin = UserContext.builder().userId("admin-1").role(UserRole.ADMIN).build();
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        operationRepository = mock(IdentityOperationRepository.class);
+        provisioningService = mock(IdentityProvisioningService.class);
+        properties = new IdentityProvisioningProperties();
+        entityManager = mock(EntityManager.class);
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        bulkService = new BulkProvisioningService(userRepository, operationRepository, provisioningService,
+                properties, Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(bulkService, "entityManager", entityManager);
+    }
+
+    @Test
+    void createUsers_rejectsDuplicatesWithinBatchIgnoringCase() {
+        BulkProvisioningReportDTO report = bulkService.createUsers(request(
+                agent("ann@bank.test"), agent("ben@bank.test"), agent("ANN@Bank.Test")), rootAdmin);
+
+        assertEquals(2, report.getAccepted());
+        assertEquals(1, report.getRejected());
+        BulkUserResultDTO duplicate = report.getResults().get(2);
+        assertFalse(duplicate.isAccepted());
+        assertEquals("Duplicate email in batch (row 0)", duplicate.getError());
+        // The duplicate is not looked up: it is already rejected
+        verify(userRepository).findExistingEmails(List.of("ann@bank.test", "ben@bank.test"));
+    }
+
+    @Test
+    void createUsers_looksUpTakenEmailsInChunksOf1000() {
+        List<CreateUserRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            rows.add(agent("user" + i + "@bank.test"));
+        }
+        // One taken email per chunk; the database returns them in its own case
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return emails.stream()
+                    .filter(email -> email.equals("user10@bank.test") || email.equals("user1200@bank.test"))
+                    .map(String::toUpperCase)
+                    .toList();
+        });
+
+        BulkProvisioningReportDTO report = bulkService.createUsers(new BulkCreateUsersRequest(rows), rootAdmin);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(2)).findExistingEmails(chunks.capture());
+        assertEquals(List.of(1000, 500), chunks.getAllValues().stream().map(Collection::size).toList());
+
+        assertEquals(1498, report.getAccepted());
+        assertEquals(List.of(10, 1200), report.getResults().stream()
+                .filter(result -> !result.isAccepted())
+                .map(BulkUserResultDTO::getRow)
+                .toList());
+        assertEquals("User with email user1200@bank.test already exists", report.getResults().get(1200).getError());
+    }
+
+    @Test
+    void createUsers_adminCanOnlyCreateAgents() {
+        BulkProvisioningReportDTO report = bulkService.createUsers(request(
+                agent("ann@bank.test"), row("ben@bank.test", UserRole.ADMIN), row("cat@bank.test", UserRole.ROOT_ADMIN)), admin);
+
+        assertEquals(List.of(true, false, false), report.getResults().stream().map(BulkUserResultDTO::isAccepted).toList());
+        assertEquals("Admins can only create agents", report.getResults().get(1).getError());
+        assertEquals("Admins can only create agents", report.getResults().get(2).getError());
+    }
+
+    @Test
+    void createUsers_rejectsCallersWhoAreNotAdmins() {
+        UserContext agent = UserContext.builder().userId("agent-1").role(UserRole.AGENT).build();
+
+        assertThrows(ForbiddenException.class, () -> bulkService.createUsers(request(agent("ann@bank.test")), agent));
+        verifyNoInteractions(entityManager, provisioningService);
+    }
+
+    @Test
+    void createUsers_persistsInFlushedBatchesAndFeedsAcceptedOperationsAfterCommit() {
+        properties.getBulk().setInsertBatchSize(2);
+
+        BulkProvisioningReportDTO report = bulkService.createUsers(request(
+                agent("a@bank.test"), agent("b@bank.test"), agent("invalid"),
+                agent("c@bank.test"), agent("d@bank.test"), agent("e@bank.test")), rootAdmin);
+
+        // Five accepted rows: a user and an operation each, flushed and cleared every two rows
+        verify(entityManager, times(5)).persist(any(User.class));
+        verify(entityManager, times(5)).persist(any(IdentityOperation.class));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(2)).clear();
+
+        List<String> acceptedOperations = report.getResults().stream()
+                .filter(BulkUserResultDTO::isAccepted)
+                .map(BulkUserResultDTO::getOperationId)
+                .toList();
+        assertEquals(5, acceptedOperations.size());
+        verify(provisioningService).dispatchAfterCommit(acceptedOperations);
+        assertEquals(Map.of(IdentityOperationStatus.PENDING, 5L), report.getStatusCounts());
+        assertTrue(report.getResults().stream()
+                .filter(BulkUserResultDTO::isAccepted)
+                .allMatch(result -> IdentityProvisioningService.isProvisionalId(result.getUserId())));
+    }
+
+    @Test
+    void createUsers_withNothingAcceptedDispatchesNothing() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("ann@bank.test"));
+
+        BulkProvisioningReportDTO report = bulkService.createUsers(request(agent("ann@bank.test")), rootAdmin);
+
+        assertEquals(0, report.getAccepted());
+        verify(entityManager, never()).persist(any());
+        verify(provisioningService, never()).dispatchAfterCommit(any());
+    }
+
+    @Test
+    void createUsers_emailRegisteredConcurrentlyFailsTheBatchWithConflict() {
+        // A single create committed ben@ after the IN check; the flush hits the unique key
+        doThrow(new ConstraintViolationException("Duplicate entry 'ben@bank.test' for key 'users.email'",
+                new SQLException("Duplicate entry", "23000", 1062), "users.email"))
+                .when(entityManager).flush();
+
+        assertThrows(UserAlreadyExistsException.class, () -> bulkService.createUsers(request(
+                agent("ann@bank.test"), agent("ben@bank.test")), rootAdmin));
+        verify(provisioningService, never()).dispatchAfterCommit(any());
+    }
+
+    @Test
+    void getBatch_isVisibleToRequesterAndRootAdminOnly() {
+        when(operationRepository.findByBatchIdOrderByEmail("batch-1")).thenReturn(List.of(
+                operation("ann@bank.test", IdentityOperationStatus.SUCCEEDED),
+                operation("ben@bank.test", IdentityOperationStatus.PENDING),
+                operation("cat@bank.test", IdentityOperationStatus.PENDING)));
+
+        BulkProvisioningReportDTO report = bulkService.getBatch("batch-1", admin);
+        assertEquals(3, report.getAccepted());
+        assertEquals(Map.of(IdentityOperationStatus.SUCCEEDED, 1L, IdentityOperationStatus.PENDING, 2L),
+                report.getStatusCounts());
+
+        assertEquals(3, bulkService.getBatch("batch-1", rootAdmin).getAccepted());
+
+        UserContext otherAdmin = UserContext.builder().userId("admin-2").role(UserRole.ADMIN).build();
+        assertThrows(ForbiddenException.class, () -> bulkService.getBatch("batch-1", otherAdmin));
+    }
+
+    @Test
+    void getBatch_unknownBatchIsNotFound() {
+        when(operationRepository.findByBatchIdOrderByEmail("missing")).thenReturn(List.of());
+
+        assertThrows(IdentityOperationNotFoundException.class, () -> bulkService.getBatch("missing", rootAdmin));
+    }
+
+    private static BulkCreateUsersRequest request(CreateUserRequest... rows) {
+        return new BulkCreateUsersRequest(List.of(rows));
+    }
+
+    private static CreateUserRequest agent(String email) {
+        return row(email, UserRole.AGENT);
+    }
+
+    private static CreateUserRequest row(String email, UserRole role) {
+        return new CreateUserRequest(email, "First", "Last", role);
+    }
+
+    private static IdentityOperation operation(String email, IdentityOperationStatus status) {
+        return IdentityOperation.builder()
+                .id("op-" + email)
+                .userId("pending-" + email)
+                .email(email)
+                .status(status)
+                .requestedBy("admin-1")
+                .batchId("batch-1")
+                .build();
+    }
+}
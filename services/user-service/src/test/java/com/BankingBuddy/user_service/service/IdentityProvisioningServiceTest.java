@@ -0,0 +1,396 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.config.AwsProperties;
+import com.BankingBuddy.user_service.config.IdentityProvisioningProperties;
+import com.BankingBuddy.user_service.config.JpaAuditingConfig;
+import com.BankingBuddy.user_service.exception.OperationInProgressException;
+import com.BankingBuddy.user_service.model.entity.IdentityOperation;
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationStatus;
+import com.BankingBuddy.user_service.model.enums.IdentityOperationType;
+import com.BankingBuddy.user_service.repository.IdentityOperationRepository;
+import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.security.UserRole;
+import com.BankingBuddy.user_service.security.UserStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Provisioning saga against MySQL and an in-memory stand-in for the Cognito user pool.
+ * Attempts run inline (synchronous executor) and retries have no backoff, so each
+ * sweep() performs the next attempt of every pending operation.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({JpaAuditingConfig.class, AwsProperties.class, IdentityProvisioningProperties.class,
+        CognitoService.class, IdentityProvisioningService.class,
+        IdentityProvisioningServiceTest.LocalCognitoConfig.class})
+class IdentityProvisioningServiceTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withDatabaseName("crm_users");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("aws.cognito.user-pool-id", () -> "local-pool");
+        registry.add("provisioning.max-attempts", () -> "3");
+        registry.add("provisioning.initial-backoff-ms", () -> "0");
+        registry.add("provisioning.max-backoff-ms", () -> "0");
+    }
+
+    @Autowired
+    private IdentityProvisioningService provisioningService;
+
+    @Autowired
+    private IdentityOperationRepository operationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocalCognito cognito;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        operationRepository.deleteAll();
+        userRepository.deleteAll();
+        cognito.reset();
+    }
+
+    @Test
+    void create_retriesTransientFailuresThenRekeysToCognitoSub() {
+        cognito.failNext("adminCreateUser", unavailable());
+        cognito.failNext("adminCreateUser", unavailable());
+
+        IdentityOperation opened = openCreate("retry@bank.test");
+        assertTrue(opened.getUserId().startsWith("pending-"));
+        drain();
+
+        IdentityOperation operation = operationRepository.findById(opened.getId()).orElseThrow();
+        String sub = cognito.subsByEmail.get("retry@bank.test");
+        assertEquals(IdentityOperationStatus.SUCCEEDED, operation.getStatus());
+        assertEquals(3, operation.getAttempts());
+        assertNull(operation.getLastError());
+        assertEquals(sub, operation.getUserId());
+        assertFalse(userRepository.existsById(opened.getUserId()));
+        // Still PENDING locally: the user has not completed MFA onboarding yet
+        assertEquals(UserStatus.PENDING, userRepository.findById(sub).orElseThrow().getStatus());
+    }
+
+    @Test
+    void create_rejectedByCognitoRemovesProvisionalUser() {
+        cognito.subsByEmail.put("taken@bank.test", "existing-sub");
+
+        IdentityOperation opened = openCreate("taken@bank.test");
+
+        IdentityOperation operation = operationRepository.findById(opened.getId()).orElseThrow();
+        assertEquals(IdentityOperationStatus.FAILED, operation.getStatus());
+        assertEquals(1, operation.getAttempts());
+        assertTrue(operation.getLastError().contains("already exists"));
+        assertFalse(userRepository.existsById(opened.getUserId()));
+        assertEquals("existing-sub", cognito.subsByEmail.get("taken@bank.test"));
+    }
+
+    @Test
+    void create_adoptsIdentityCreatedByTimedOutAttempt() {
+        cognito.failNextAfterApplying("adminCreateUser", SdkClientException.create("Read timed out"));
+
+        IdentityOperation opened = openCreate("timeout@bank.test");
+        drain();
+
+        IdentityOperation operation = operationRepository.findById(opened.getId()).orElseThrow();
+        assertEquals(IdentityOperationStatus.SUCCEEDED, operation.getStatus());
+        assertEquals(2, operation.getAttempts());
+        assertEquals(cognito.subsByEmail.get("timeout@bank.test"), operation.getUserId());
+        assertEquals(1, cognito.subsByEmail.size());
+    }
+
+    @Test
+    void disable_appliedLocallyOnlyAfterCognitoConfirms() {
+        User user = saveActiveUser("sub-disable", "disable@bank.test");
+        cognito.failNext("adminDisableUser", unavailable());
+
+        IdentityOperation opened = open(IdentityOperationType.DISABLE, user);
+        assertEquals(IdentityOperationStatus.PENDING,
+                operationRepository.findById(opened.getId()).orElseThrow().getStatus());
+        assertEquals(UserStatus.ACTIVE, userRepository.findById(user.getId()).orElseThrow().getStatus());
+        assertThrows(OperationInProgressException.class, () -> open(IdentityOperationType.ENABLE, user));
+
+        drain();
+
+        assertEquals(IdentityOperationStatus.SUCCEEDED,
+                operationRepository.findById(opened.getId()).orElseThrow().getStatus());
+        assertEquals(UserStatus.DISABLED, userRepository.findById(user.getId()).orElseThrow().getStatus());
+        assertTrue(cognito.disabled.contains(user.getId()));
+    }
+
+    @Test
+    void disable_exhaustingRetriesLeavesUserUnchanged() {
+        User user = saveActiveUser("sub-outage", "outage@bank.test");
+        for (int i = 0; i < 3; i++) {
+            cognito.failNext("adminDisableUser", unavailable());
+        }
+
+        IdentityOperation opened = open(IdentityOperationType.DISABLE, user);
+        drain();
+
+        IdentityOperation operation = operationRepository.findById(opened.getId()).orElseThrow();
+        assertEquals(IdentityOperationStatus.FAILED, operation.getStatus());
+        assertEquals(3, operation.getAttempts());
+        assertNotNull(operation.getCompletedAt());
+        assertEquals(UserStatus.ACTIVE, userRepository.findById(user.getId()).orElseThrow().getStatus());
+        assertFalse(cognito.disabled.contains(user.getId()));
+    }
+
+    private IdentityOperation openCreate(String email) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User user = userRepository.save(User.builder()
+                    .id(IdentityProvisioningService.newProvisionalId())
+                    .email(email)
+                    .firstName("Test")
+                    .lastName("Agent")
+                    .role(UserRole.AGENT)
+                    .status(UserStatus.PENDING)
+                    .createdBy("admin-1")
+                    .updatedBy("admin-1")
+                    .build());
+            return provisioningService.open(IdentityOperationType.CREATE, user,
+                    "Test", "Agent", UserRole.AGENT, "admin-1");
+        });
+    }
+
+    private IdentityOperation open(IdentityOperationType type, User user) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                provisioningService.open(type, user, null, null, null, "admin-1"));
+    }
+
+    private User saveActiveUser(String id, String email) {
+        cognito.subsByEmail.put(email, id);
+        return userRepository.save(User.builder()
+                .id(id)
+                .email(email)
+                .firstName("Test")
+                .lastName("Agent")
+                .role(UserRole.AGENT)
+                .status(UserStatus.ACTIVE)
+                .createdBy("admin-1")
+                .updatedBy("admin-1")
+                .build());
+    }
+
+    /**
+     * Run sweeps until every retry has been attempted (maxAttempts is 3)
+     */
+    private void drain() {
+        for (int i = 0; i < 5; i++) {
+            provisioningService.sweep();
+        }
+    }
+
+    private static RuntimeException unavailable() {
+        return CognitoIdentityProviderException.builder()
+                .message("Service unavailable")
+                .statusCode(503)
+                .build();
+    }
+
+    @TestConfiguration
+    static class LocalCognitoConfig {
+
+        @Bean
+        LocalCognito localCognito() {
+            return new LocalCognito();
+        }
+
+        @Bean
+        CognitoIdentityProviderClient cognitoClient(LocalCognito localCognito) {
+            return localCognito.client();
+        }
+
+        @Bean(name = "provisioningExecutor")
+        TaskExecutor provisioningExecutor() {
+            return new SyncTaskExecutor();
+        }
+
+        @Bean(name = "bulkProvisioningExecutor")
+        TaskExecutor bulkProvisioningExecutor() {
+            return new SyncTaskExecutor();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("users-single", "users-list");
+        }
+    }
+
+    /**
+     * In-memory user pool behind a CognitoIdentityProviderClient proxy.
+     * Queued failures are thrown by the next call to the named operation, either before it
+     * takes effect or after (a lost response).
+     */
+    static class LocalCognito {
+
+        private record Failure(RuntimeException error, boolean afterEffect) {
+        }
+
+        final Map<String, String> subsByEmail = new ConcurrentHashMap<>();
+        final Set<String> disabled = ConcurrentHashMap.newKeySet();
+        private final Map<String, Deque<Failure>> failures = new ConcurrentHashMap<>();
+
+        void failNext(String operation, RuntimeException error) {
+            failures.computeIfAbsent(operation, key -> new ConcurrentLinkedDeque<>()).add(new Failure(error, false));
+        }
+
+        void failNextAfterApplying(String operation, RuntimeException error) {
+            failures.computeIfAbsent(operation, key -> new ConcurrentLinkedDeque<>()).add(new Failure(error, true));
+        }
+
+        void reset() {
+            subsByEmail.clear();
+            disabled.clear();
+            failures.clear();
+        }
+
+        CognitoIdentityProviderClient client() {
+            return (CognitoIdentityProviderClient) Proxy.newProxyInstance(
+                    CognitoIdentityProviderClient.class.getClassLoader(),
+                    new Class<?>[]{CognitoIdentityProviderClient.class},
+                    (proxy, method, args) -> handle(proxy, method, args));
+        }
+
+        private Object handle(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "LocalCognito";
+                }
+                case "serviceName" -> {
+                    return "cognito-idp";
+                }
+                case "close" -> {
+                    return null;
+                }
+                default -> {
+                }
+            }
+
+            Deque<Failure> queued = failures.get(method.getName());
+            Failure failure = queued != null ? queued.poll() : null;
+            if (failure != null && !failure.afterEffect()) {
+                throw failure.error();
+            }
+            Object response = apply(method.getName(), args[0]);
+            if (failure != null) {
+                throw failure.error();
+            }
+            return response;
+        }
+
+        private Object apply(String operation, Object request) {
+            switch (operation) {
+                case "adminCreateUser" -> {
+                    String email = ((AdminCreateUserRequest) request).username();
+                    if (subsByEmail.containsKey(email)) {
+                        throw UsernameExistsException.builder()
+                                .message("An account with the given email already exists.")
+                                .statusCode(400)
+                                .build();
+                    }
+                    String sub = UUID.randomUUID().toString();
+                    subsByEmail.put(email, sub);
+                    return AdminCreateUserResponse.builder()
+                            .user(UserType.builder().username(email).attributes(subAttribute(sub)).build())
+                            .build();
+                }
+                case "adminGetUser" -> {
+                    String sub = resolve(((AdminGetUserRequest) request).username());
+                    return AdminGetUserResponse.builder()
+                            .username(sub)
+                            .userAttributes(subAttribute(sub))
+                            .build();
+                }
+                case "adminDisableUser" -> {
+                    disabled.add(resolve(((AdminDisableUserRequest) request).username()));
+                    return AdminDisableUserResponse.builder().build();
+                }
+                case "adminEnableUser" -> {
+                    disabled.remove(resolve(((AdminEnableUserRequest) request).username()));
+                    return AdminEnableUserResponse.builder().build();
+                }
+                case "adminUpdateUserAttributes" -> {
+                    resolve(((AdminUpdateUserAttributesRequest) request).username());
+                    return AdminUpdateUserAttributesResponse.builder().build();
+                }
+                case "adminDeleteUser" -> {
+                    String sub = resolve(((AdminDeleteUserRequest) request).username());
+                    subsByEmail.values().remove(sub);
+                    return AdminDeleteUserResponse.builder().build();
+                }
+                default -> throw new UnsupportedOperationException(operation);
+            }
+        }
+
+        /**
+         * Usernames may be given as the email or the sub
+         */
+        private String resolve(String username) {
+            if (subsByEmail.containsKey(username)) {
+                return subsByEmail.get(username);
+            }
+            if (subsByEmail.containsValue(username)) {
+                return username;
+            }
+            throw UserNotFoundException.builder().message("User does not exist.").statusCode(400).build();
+        }
+
+        private static AttributeType subAttribute(String sub) {
+            return AttributeType.builder().name("sub").value(sub).build();
+        }
+    }
+}
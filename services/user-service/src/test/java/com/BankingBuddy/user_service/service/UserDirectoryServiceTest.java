@@ -0,0 +1,170 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.config.UserDirectoryProperties;
+import com.BankingBuddy.user_service.exception.ForbiddenException;
+import com.BankingBuddy.user_service.model.dto.UserDTO;
+import com.BankingBuddy.user_service.model.dto.UserDirectoryDTO;
+import com.BankingBuddy.user_service.model.entity.User;
+import com.BankingBuddy.user_service.repository.UserRepository;
+import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.security.UserRole;
+import com.BankingBuddy.user_service.security.UserStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Full copies, version deltas and visibility of the in-memory user directory
+ */
+class UserDirectoryServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private UserRepository userRepository;
+    private UserDirectoryService directory;
+
+    private final UserContext rootAdmin = UserContext.builder().userId("root").role(UserRole.ROOT_ADMIN).build();
+    private final UserContext admin = UserContext.builder().userId("admin-1").role(UserRole.ADMIN).build();
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        directory = new UserDirectoryService(userRepository, new UserDirectoryProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void firstSync_isFullAndSkipsProvisionalUsers() {
+        when(userRepository.findAll()).thenReturn(List.of(
+                user("agent-1", UserRole.AGENT, "admin-1", T0),
+                user("admin-1", UserRole.ADMIN, "root", T0),
+                user("pending-123", UserRole.AGENT, "admin-1", T0)));
+
+        UserDirectoryDTO result = directory.getDirectory(rootAdmin, null, null);
+
+        assertTrue(result.isFull());
+        assertEquals(1, result.getVersion());
+        assertEquals(List.of("admin-1", "agent-1"), ids(result));
+    }
+
+    @Test
+    void delta_returnsOnlyUsersChangedSinceVersion() {
+        User agent = user("agent-1", UserRole.AGENT, "admin-1", T0);
+        when(userRepository.findAll()).thenReturn(List.of(agent, user("agent-2", UserRole.AGENT, "admin-1", T0)));
+        UserDirectoryDTO initial = directory.getDirectory(admin, null, null);
+
+        // The overlap window re-reads unchanged agent-2; only the renamed agent is a change
+        User renamed = user("agent-1", UserRole.AGENT, "admin-1", T0.plusSeconds(5));
+        renamed.setFirstName("Renamed");
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(renamed, user("agent-2", UserRole.AGENT, "admin-1", T0)));
+        directory.refresh();
+
+        UserDirectoryDTO delta = directory.getDirectory(admin, initial.getSnapshotId(), initial.getVersion());
+        assertFalse(delta.isFull());
+        assertEquals(2, delta.getVersion());
+        assertEquals(List.of("agent-1"), ids(delta));
+        assertEquals("Renamed", delta.getUsers().get(0).getFirstName());
+
+        // Nothing new after catching up
+        UserDirectoryDTO upToDate = directory.getDirectory(admin, delta.getSnapshotId(), delta.getVersion());
+        assertTrue(upToDate.getUsers().isEmpty());
+    }
+
+    @Test
+    void delta_reportsUsersThatLeftTheCallersView() {
+        when(userRepository.findAll()).thenReturn(List.of(user("agent-1", UserRole.AGENT, "admin-1", T0)));
+        UserDirectoryDTO initial = directory.getDirectory(admin, null, null);
+
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(user("agent-1", UserRole.ADMIN, "admin-1", T0.plusSeconds(5))));
+        directory.refresh();
+
+        UserDirectoryDTO delta = directory.getDirectory(admin, initial.getSnapshotId(), initial.getVersion());
+        assertTrue(delta.getUsers().isEmpty());
+        assertEquals(List.of("agent-1"), delta.getRemovedIds());
+    }
+
+    @Test
+    void delta_doesNotRevealAnotherAdminsAgentThatChanged() {
+        when(userRepository.findAll()).thenReturn(List.of(
+                user("agent-1", UserRole.AGENT, "admin-1", T0),
+                user("agent-9", UserRole.AGENT, "admin-2", T0)));
+        UserDirectoryDTO initial = directory.getDirectory(admin, null, null);
+        assertEquals(List.of("agent-1"), ids(initial));
+
+        // admin-2's agent is promoted; admin-1 never saw it, before or after
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(user("agent-9", UserRole.ADMIN, "admin-2", T0.plusSeconds(5))));
+        directory.refresh();
+
+        UserDirectoryDTO delta = directory.getDirectory(admin, initial.getSnapshotId(), initial.getVersion());
+        assertEquals(2, delta.getVersion());
+        assertTrue(delta.getUsers().isEmpty());
+        assertTrue(delta.getRemovedIds().isEmpty());
+    }
+
+    @Test
+    void delta_reportsRemovalAfterLaterChangesToTheUser() {
+        when(userRepository.findAll()).thenReturn(List.of(user("agent-1", UserRole.AGENT, "admin-1", T0)));
+        UserDirectoryDTO initial = directory.getDirectory(admin, null, null);
+
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(user("agent-1", UserRole.ADMIN, "admin-1", T0.plusSeconds(5))));
+        directory.refresh();
+        User renamed = user("agent-1", UserRole.ADMIN, "admin-1", T0.plusSeconds(10));
+        renamed.setFirstName("Renamed");
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(renamed));
+        directory.refresh();
+
+        // The caller still holds agent-1 from version 1 even though its last change was a rename
+        UserDirectoryDTO delta = directory.getDirectory(admin, initial.getSnapshotId(), initial.getVersion());
+        assertEquals(3, delta.getVersion());
+        assertEquals(List.of("agent-1"), delta.getRemovedIds());
+
+        // A caller that synced after the promotion no longer holds it
+        UserDirectoryDTO later = directory.getDirectory(admin, initial.getSnapshotId(), 2L);
+        assertTrue(later.getRemovedIds().isEmpty());
+    }
+
+    @Test
+    void unknownSnapshot_fallsBackToFullCopy() {
+        when(userRepository.findAll()).thenReturn(List.of(user("agent-1", UserRole.AGENT, "admin-1", T0)));
+
+        UserDirectoryDTO result = directory.getDirectory(admin, "another-instance", 1L);
+
+        assertTrue(result.isFull());
+        assertEquals(List.of("agent-1"), ids(result));
+    }
+
+    @Test
+    void agents_cannotReadDirectory() {
+        UserContext agent = UserContext.builder().userId("agent-1").role(UserRole.AGENT).build();
+        assertThrows(ForbiddenException.class, () -> directory.getDirectory(agent, null, null));
+    }
+
+    private static User user(String id, UserRole role, String createdBy, LocalDateTime updatedAt) {
+        return User.builder()
+                .id(id)
+                .email(id + "@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .role(role)
+                .status(UserStatus.ACTIVE)
+                .createdAt(T0)
+                .updatedAt(updatedAt)
+                .createdBy(createdBy)
+                .build();
+    }
+
+    private static List<String> ids(UserDirectoryDTO result) {
+        return result.getUsers().stream().map(UserDTO::getId).sorted().toList();
+    }
+}
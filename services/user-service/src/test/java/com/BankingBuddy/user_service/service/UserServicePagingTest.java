@@ -0,0 +1,274 @@
+package com.BankingBuddy.user_service.service;
+
+import com.BankingBuddy.user_service.exception.ForbiddenException;
+import com.BankingBuddy.user_service.exception.InvalidRequestException;
+import com.BankingBuddy.user_service.model.dto.CursorPageDTO;
+import com.BankingBuddy.user_service.model.dto.UserDTO;
+import com.BankingBuddy.user_service.model.dto.UserSearchRequest;
+import com.BankingBuddy.user_service.security.UserContext;
+import com.BankingBuddy.user_service.security.UserRole;
+import com.BankingBuddy.user_service.security.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset paging of the user directory against MySQL: the root admin's merge of the
+ * per-role index runs, ties on created_at (second precision) and cursor validation,
+ * and the scoping, prefix matching and paging of the filtered search.
+ * Rows are inserted with SQL so created_at can be set exactly.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({UserService.class, UserServicePagingTest.Collaborators.class})
+class UserServicePagingTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withDatabaseName("crm_users");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @TestConfiguration
+    static class Collaborators {
+        // Paging never reaches Cognito or the provisioning saga
+        @Bean
+        CognitoService cognitoService() {
+            return Mockito.mock(CognitoService.class);
+        }
+
+        @Bean
+        IdentityProvisioningService identityProvisioningService() {
+            return Mockito.mock(IdentityProvisioningService.class);
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UserContext rootAdmin = UserContext.builder().userId("root").role(UserRole.ROOT_ADMIN).build();
+    private final UserContext admin = UserContext.builder().userId("admin-1").role(UserRole.ADMIN).build();
+
+    @BeforeEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void usersPage_rootAdminMergesAdminAndAgentRunsInDirectoryOrder() {
+        insert("root", UserRole.ROOT_ADMIN, null, T0.plusSeconds(6));
+        insert("admin-a", UserRole.ADMIN, "root", T0.plusSeconds(5));
+        insert("agent-b", UserRole.AGENT, "admin-a", T0.plusSeconds(4));
+        insert("agent-c", UserRole.AGENT, "admin-a", T0.plusSeconds(4));
+        insert("admin-d", UserRole.ADMIN, "root", T0.plusSeconds(4));
+        insert("agent-e", UserRole.AGENT, "admin-d", T0.plusSeconds(3));
+        insert("admin-f", UserRole.ADMIN, "root", T0.plusSeconds(1));
+
+        // Newest first, ID descending within a second, across both roles; root admins are never listed
+        List<String> expected = List.of("admin-a", "agent-c", "agent-b", "admin-d", "agent-e", "admin-f");
+        for (int limit : new int[]{1, 2, 4, 6, 10}) {
+            assertEquals(expected, walk(cursor -> userService.getUsersPage(rootAdmin, cursor, limit), limit),
+                    "limit " + limit);
+        }
+
+        // Each role run fetches limit + 1; the merge must still return exactly one page
+        CursorPageDTO<UserDTO> first = userService.getUsersPage(rootAdmin, null, 3);
+        assertEquals(List.of("admin-a", "agent-c", "agent-b"), ids(first));
+        assertTrue(first.isHasNext());
+    }
+
+    @Test
+    void usersPage_pagesThroughEqualCreatedAtWithoutSkipsOrRepeats() {
+        for (int i = 1; i <= 5; i++) {
+            insert("agent-" + i, UserRole.AGENT, "admin-1", T0);
+        }
+        insert("agent-9", UserRole.AGENT, "admin-2", T0);
+        insert("admin-1", UserRole.ADMIN, "root", T0);
+
+        assertEquals(List.of("agent-5", "agent-4", "agent-3", "agent-2", "agent-1"),
+                walk(cursor -> userService.getUsersPage(admin, cursor, 2), 2));
+        assertEquals(List.of("agent-9", "agent-5", "agent-4", "agent-3", "agent-2", "agent-1", "admin-1"),
+                walk(cursor -> userService.getUsersPage(rootAdmin, cursor, 3), 3));
+    }
+
+    @Test
+    void usersPage_lastFullPageHasNoNextCursor() {
+        insert("agent-1", UserRole.AGENT, "admin-1", T0);
+        insert("agent-2", UserRole.AGENT, "admin-1", T0.plusSeconds(1));
+
+        CursorPageDTO<UserDTO> page = userService.getUsersPage(admin, null, 2);
+        assertEquals(List.of("agent-2", "agent-1"), ids(page));
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void usersPage_malformedCursorIsRejected() {
+        insert("agent-1", UserRole.AGENT, "admin-1", T0);
+
+        for (String cursor : List.of("not base64!", cursor("no-separator"), cursor("yesterday|agent-1"),
+                cursor(T0 + "|"), cursor(T0 + "| "))) {
+            assertThrows(InvalidRequestException.class, () -> userService.getUsersPage(admin, cursor, 10));
+            assertThrows(InvalidRequestException.class, () -> userService.getUsersPage(rootAdmin, cursor, 10));
+        }
+    }
+
+    @Test
+    void search_adminIsScopedToAgentsTheyCreated() {
+        insert("agent-1", UserRole.AGENT, "admin-1", T0);
+        insert("agent-2", UserRole.AGENT, "admin-2", T0.plusSeconds(1));
+        insert("admin-2", UserRole.ADMIN, "root", T0.plusSeconds(2));
+
+        // No creator filter is forced to the admin; their own ID is accepted as-is
+        assertEquals(List.of("agent-1"), ids(userService.searchUsers(UserSearchRequest.builder().build(), admin)));
+        assertEquals(List.of("agent-1"), ids(userService.searchUsers(
+                UserSearchRequest.builder().createdBy("admin-1").build(), admin)));
+        assertThrows(ForbiddenException.class, () -> userService.searchUsers(
+                UserSearchRequest.builder().createdBy("admin-2").build(), admin));
+
+        // Root admins may filter by any creator
+        assertEquals(List.of("agent-2"), ids(userService.searchUsers(
+                UserSearchRequest.builder().createdBy("admin-2").build(), rootAdmin)));
+    }
+
+    @Test
+    void search_rolesOutsideCallersScopeAreForbidden() {
+        assertThrows(ForbiddenException.class, () -> userService.searchUsers(
+                UserSearchRequest.builder().roles(List.of("admin")).build(), admin));
+        assertThrows(ForbiddenException.class, () -> userService.searchUsers(
+                UserSearchRequest.builder().roles(List.of("agent", "rootAdministrator")).build(), rootAdmin));
+
+        UserContext agent = UserContext.builder().userId("agent-1").role(UserRole.AGENT).build();
+        assertThrows(ForbiddenException.class, () -> userService.searchUsers(UserSearchRequest.builder().build(), agent));
+
+        assertThrows(InvalidRequestException.class, () -> userService.searchUsers(
+                UserSearchRequest.builder().roles(List.of("manager")).build(), rootAdmin));
+        assertThrows(InvalidRequestException.class, () -> userService.searchUsers(
+                UserSearchRequest.builder().status("archived").build(), rootAdmin));
+    }
+
+    @Test
+    void search_prefixMatchesLikeWildcardsLiterally() {
+        insert("agent-1", UserRole.AGENT, "admin-1", T0, "Ann_Marie", "Tan", UserStatus.ACTIVE);
+        insert("agent-2", UserRole.AGENT, "admin-1", T0, "Annxmarie", "Tan", UserStatus.ACTIVE);
+        insert("agent-3", UserRole.AGENT, "admin-1", T0, "Ben", "50%off", UserStatus.ACTIVE);
+        insert("agent-4", UserRole.AGENT, "admin-1", T0, "Ben", "500", UserStatus.ACTIVE);
+
+        assertEquals(List.of("agent-1"), search("Ann_"));
+        assertEquals(List.of("agent-2", "agent-1"), search("ann"));
+        assertEquals(List.of("agent-3"), search("50%"));
+        assertEquals(List.of("agent-4", "agent-3"), search("50"));
+        // Two terms: first name by the first, last name by the last
+        assertEquals(List.of("agent-3"), search("ben 50%"));
+        assertEquals(List.of(), search("%"));
+        assertEquals(List.of(), search("_"));
+    }
+
+    @Test
+    void search_cursorPagingKeepsTheFilters() {
+        insert("agent-1", UserRole.AGENT, "admin-1", T0, "Ann", "Lee", UserStatus.ACTIVE);
+        insert("agent-2", UserRole.AGENT, "admin-1", T0, "Anna", "Tan", UserStatus.ACTIVE);
+        insert("agent-3", UserRole.AGENT, "admin-2", T0, "Annie", "Ng", UserStatus.DISABLED);
+        insert("agent-4", UserRole.AGENT, "admin-2", T0.plusSeconds(1), "Anne", "Lim", UserStatus.ACTIVE);
+        insert("agent-5", UserRole.AGENT, "admin-1", T0.plusSeconds(1), "Ben", "Ong", UserStatus.ACTIVE);
+        insert("admin-3", UserRole.ADMIN, "root", T0.plusSeconds(1), "Annabel", "Koh", UserStatus.ACTIVE);
+        insert("agent-6", UserRole.AGENT, "admin-1", T0.minusSeconds(1), "Annika", "Goh", UserStatus.ACTIVE);
+
+        // Active agents named Ann*: every page keeps the filters, only the position moves
+        List<String> expected = List.of("agent-4", "agent-2", "agent-1", "agent-6");
+        for (int limit : new int[]{1, 2, 3, 10}) {
+            assertEquals(expected, walk(cursor -> userService.searchUsers(UserSearchRequest.builder()
+                    .roles(List.of("agent"))
+                    .status("active")
+                    .q("ann")
+                    .cursor(cursor)
+                    .limit(limit)
+                    .build(), rootAdmin), limit), "limit " + limit);
+        }
+
+        // The admin's forced creator filter also holds across pages
+        assertEquals(List.of("agent-2", "agent-1", "agent-6"), walk(cursor -> userService.searchUsers(
+                UserSearchRequest.builder().q("ann").cursor(cursor).limit(1).build(), admin), 1));
+
+        assertThrows(InvalidRequestException.class, () -> userService.searchUsers(
+                UserSearchRequest.builder().cursor(cursor("yesterday|agent-1")).build(), rootAdmin));
+    }
+
+    private List<String> search(String q) {
+        return ids(userService.searchUsers(UserSearchRequest.builder().q(q).build(), rootAdmin));
+    }
+
+    /**
+     * Follow nextCursor from the first page to the last, collecting user IDs in order
+     */
+    private static List<String> walk(Function<String, CursorPageDTO<UserDTO>> fetch, int limit) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages < 100; pages++) {
+            CursorPageDTO<UserDTO> page = fetch.apply(cursor);
+            assertTrue(page.getSize() <= limit);
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            ids.addAll(ids(page));
+            if (!page.isHasNext()) {
+                return ids;
+            }
+            cursor = page.getNextCursor();
+        }
+        return fail("Paging did not terminate");
+    }
+
+    private static List<String> ids(CursorPageDTO<UserDTO> page) {
+        return page.getContent().stream().map(UserDTO::getId).toList();
+    }
+
+    private static String cursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void insert(String id, UserRole role, String createdBy, LocalDateTime createdAt) {
+        insert(id, role, createdBy, createdAt, "Test", "User", UserStatus.ACTIVE);
+    }
+
+    private void insert(String id, UserRole role, String createdBy, LocalDateTime createdAt,
+                        String firstName, String lastName, UserStatus status) {
+        jdbcTemplate.update("INSERT INTO users (id, email, first_name, last_name, role, status, created_at, created_by) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, id + "@bank.test", firstName, lastName, role.name(), status.name(),
+                Timestamp.valueOf(createdAt), createdBy);
+    }
+}